@@ -399,6 +399,34 @@ public final class Long extends Number implements Comparable<Long> {
         return new String(buf, true);
     }
 
+    /**
+     * Writes the characters of the {@code String} that
+     * {@link #toString(long)} returns for the argument into a char
+     * array, starting at the given index, without creating the
+     * string.
+     *
+     * @param   i     a {@code long} to be converted.
+     * @param   dst   the destination array.
+     * @param   off   the index in {@code dst} of the first character.
+     * @return  the index in {@code dst} following the last character.
+     * @exception IndexOutOfBoundsException if {@code off} is negative,
+     *            or the characters do not fit between {@code off} and
+     *            the end of {@code dst}.
+     * @since 1.8
+     */
+    public static int toChars(long i, char[] dst, int off) {
+        int size = (i == Long.MIN_VALUE) ? 20
+            : (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        if (off < 0 || off > dst.length - size)
+            throw new IndexOutOfBoundsException(
+                "off " + off + ", size " + size + ", length " + dst.length);
+        if (i == Long.MIN_VALUE)
+            "-9223372036854775808".getChars(0, size, dst, off);
+        else
+            getChars(i, off + size, dst);
+        return off + size;
+    }
+
     /**
      * Returns a string representation of the argument as an unsigned
      * decimal value.
@@ -603,6 +631,93 @@ public final class Long extends Number implements Comparable<Long> {
         return negative ? result : -result;
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code long}
+     * in the specified {@code radix}, beginning at the specified
+     * {@code beginIndex} and extending to {@code endIndex - 1}.  The
+     * characters are interpreted exactly as {@link #parseLong(String, int)}
+     * interprets the characters of a string, but no substring is
+     * created.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the {@code long} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code long} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  1.8
+     */
+    public static long parseLong(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException
+    {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException(
+                "beginIndex " + beginIndex + ", endIndex " + endIndex +
+                ", length " + s.length());
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        long result = 0;
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+        long multmin;
+        int digit;
+
+        if (i < endIndex) {
+            char firstChar = s.charAt(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+')
+                    throw NumberFormatException.forInputString(
+                        s.subSequence(beginIndex, endIndex).toString());
+
+                if (endIndex - i == 1) // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forInputString(
+                        s.subSequence(beginIndex, endIndex).toString());
+                i++;
+            }
+            multmin = limit / radix;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                digit = Character.digit(s.charAt(i++), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forInputString(
+                        s.subSequence(beginIndex, endIndex).toString());
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forInputString(
+                        s.subSequence(beginIndex, endIndex).toString());
+                }
+                result -= digit;
+            }
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+        return negative ? result : -result;
+    }
+
     /**
      * Parses the string argument as a signed decimal {@code long}.
      * The characters in the string must all be decimal digits, except
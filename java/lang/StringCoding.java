@@ -296,14 +296,18 @@ class StringCoding {
         }
 
         byte[] encode(char[] ca, int off, int len) {
-            int en = scale(len, ce.maxBytesPerChar());
-            byte[] ba = new byte[en];
             if (len == 0)
-                return ba;
+                return new byte[0];
             if (ce instanceof ArrayEncoder) {
-                int blen = ((ArrayEncoder)ce).encode(ca, off, len, ba);
+                ArrayEncoder ae = (ArrayEncoder)ce;
+                int en = ae.encodedLength(ca, off, len);
+                if (en < 0)
+                    en = scale(len, ce.maxBytesPerChar());
+                byte[] ba = new byte[en];
+                int blen = ae.encode(ca, off, len, ba);
                 return safeTrim(ba, blen, cs, isTrusted);
             } else {
+                byte[] ba = new byte[scale(len, ce.maxBytesPerChar())];
                 ce.reset();
                 ByteBuffer bb = ByteBuffer.wrap(ba);
                 CharBuffer cb = CharBuffer.wrap(ca, off, len);
@@ -346,10 +350,8 @@ class StringCoding {
 
     static byte[] encode(Charset cs, char[] ca, int off, int len) {
         CharsetEncoder ce = cs.newEncoder();
-        int en = scale(len, ce.maxBytesPerChar());
-        byte[] ba = new byte[en];
         if (len == 0)
-            return ba;
+            return new byte[0];
         boolean isTrusted = false;
         if (System.getSecurityManager() != null) {
             if (!(isTrusted = (cs.getClass().getClassLoader0() == null))) {
@@ -361,9 +363,15 @@ class StringCoding {
           .onUnmappableCharacter(CodingErrorAction.REPLACE)
           .reset();
         if (ce instanceof ArrayEncoder) {
-            int blen = ((ArrayEncoder)ce).encode(ca, off, len, ba);
+            ArrayEncoder ae = (ArrayEncoder)ce;
+            int en = ae.encodedLength(ca, off, len);
+            if (en < 0)
+                en = scale(len, ce.maxBytesPerChar());
+            byte[] ba = new byte[en];
+            int blen = ae.encode(ca, off, len, ba);
             return safeTrim(ba, blen, cs, isTrusted);
         } else {
+            byte[] ba = new byte[scale(len, ce.maxBytesPerChar())];
             ByteBuffer bb = ByteBuffer.wrap(ba);
             CharBuffer cb = CharBuffer.wrap(ca, off, len);
             try {
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.lang.invoke;
+
+import java.util.Arrays;
+import java.util.Objects;
+import sun.misc.JavaLangAccess;
+import sun.misc.SharedSecrets;
+import static java.lang.invoke.MethodHandleStatics.*;
+import static java.lang.invoke.MethodHandles.Lookup.IMPL_LOOKUP;
+
+/**
+ * <p>Methods to facilitate the creation of String concatenation methods,
+ * that can be used to efficiently concatenate a known number of arguments
+ * of known types, possibly after type adaptation and partial evaluation
+ * of arguments.  These methods are typically used as <em>bootstrap
+ * methods</em> for {@code invokedynamic} call sites, so that a compiler
+ * or bytecode generator can emit a single call site in place of a chain
+ * of {@link StringBuilder#append} calls.
+ *
+ * <p>The linked method handle converts each argument to a string as
+ * {@link String#valueOf(Object)} and the primitive overloads of
+ * {@code String.valueOf} do, adds up the lengths of those strings and of
+ * the constants, and copies everything into a single character array of
+ * exactly that length, which then becomes the value of the result.
+ * Unlike a {@code StringBuilder} chain, there is no buffer growth and no
+ * final copy.
+ *
+ * <p>The argument conversions happen left to right, and a
+ * {@code toString()} that returns {@code null} contributes
+ * {@code "null"}, both as with {@code StringBuilder}.
+ *
+ * @since 1.8
+ */
+public final class StringConcatFactory {
+
+    /**
+     * Tag used to demarcate an ordinary argument.
+     */
+    private static final char TAG_ARG = '\u0001';
+
+    /**
+     * Tag used to demarcate a constant.
+     */
+    private static final char TAG_CONST = '\u0002';
+
+    /**
+     * Maximum number of argument slots in a concatenation.  This leaves
+     * room for the bound and collected arguments of the generated method
+     * handle within the JVM's limit of 255 slots.
+     */
+    private static final int MAX_INDY_CONCAT_ARG_SLOTS = 200;
+
+    private static final JavaLangAccess JLA = SharedSecrets.getJavaLangAccess();
+
+    private StringConcatFactory() {
+        // no instantiation
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of
+     * arguments of known types.  Typically used as a <em>bootstrap
+     * method</em> for {@code invokedynamic} call sites.
+     *
+     * <p>The result is the concatenation of the string forms of all the
+     * arguments, in order.  This is the same as
+     * {@link #makeConcatWithConstants} with a recipe consisting of one
+     * {@code "\1"} for each parameter of {@code concatType}.
+     *
+     * @param lookup   Represents a lookup context with the accessibility
+     *                 privileges of the caller.  When used with {@code
+     *                 invokedynamic}, this is stacked automatically by the VM.
+     * @param name     The name of the method to implement.  This name is
+     *                 arbitrary, and has no meaning for this linkage method.
+     *                 When used with {@code invokedynamic}, this is provided
+     *                 by the {@code NameAndType} of the {@code InvokeDynamic}
+     *                 structure and is stacked automatically by the VM.
+     * @param concatType The expected signature of the {@code CallSite}.  The
+     *                   parameter types represent the types of concatenation
+     *                   arguments; the return type is always assignable from
+     *                   {@link java.lang.String}.  When used with {@code
+     *                   invokedynamic}, this is provided by the {@code
+     *                   NameAndType} of the {@code InvokeDynamic} structure
+     *                   and is stacked automatically by the VM.
+     * @return a CallSite whose target can be used to perform String
+     *         concatenation, with dynamic concatenation arguments described
+     *         by the given {@code concatType}.
+     * @throws StringConcatException If any of the linkage invariants
+     *                               described above are violated
+     * @throws NullPointerException If any of the incoming arguments is null
+     */
+    public static CallSite makeConcat(MethodHandles.Lookup lookup,
+                                      String name,
+                                      MethodType concatType)
+            throws StringConcatException {
+        Objects.requireNonNull(concatType, "Concat type is null");
+        char[] recipe = new char[concatType.parameterCount()];
+        Arrays.fill(recipe, TAG_ARG);
+        return makeConcatWithConstants(lookup, name, concatType,
+                                       new String(recipe));
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of
+     * arguments of known types, possibly after type adaptation and partial
+     * evaluation of arguments.  Typically used as a <em>bootstrap
+     * method</em> for {@code invokedynamic} call sites.
+     *
+     * <p>The {@code recipe} describes the result, one character at a
+     * time:
+     * <ul>
+     *     <li>{@code "\1"} (U+0001) stands for the string form of the next
+     *     dynamic argument;</li>
+     *     <li>{@code "\2"} (U+0002) stands for the string form of the next
+     *     element of {@code constants};</li>
+     *     <li>any other character stands for itself.</li>
+     * </ul>
+     * The recipe must use each parameter of {@code concatType}, and each
+     * constant, exactly once.
+     *
+     * @param lookup   Represents a lookup context with the accessibility
+     *                 privileges of the caller.  When used with {@code
+     *                 invokedynamic}, this is stacked automatically by the VM.
+     * @param name     The name of the method to implement.  This name is
+     *                 arbitrary, and has no meaning for this linkage method.
+     *                 When used with {@code invokedynamic}, this is provided
+     *                 by the {@code NameAndType} of the {@code InvokeDynamic}
+     *                 structure and is stacked automatically by the VM.
+     * @param concatType The expected signature of the {@code CallSite}.  The
+     *                   parameter types represent the types of dynamic
+     *                   concatenation arguments; the return type is always
+     *                   assignable from {@link java.lang.String}.  When used
+     *                   with {@code invokedynamic}, this is provided by the
+     *                   {@code NameAndType} of the {@code InvokeDynamic}
+     *                   structure and is stacked automatically by the VM.
+     * @param recipe   Concatenation recipe, described above.
+     * @param constants A vararg parameter representing the constants passed
+     *                  to the linkage method.
+     * @return a CallSite whose target can be used to perform String
+     *         concatenation, with dynamic concatenation arguments described
+     *         by the given {@code concatType}.
+     * @throws StringConcatException If any of the linkage invariants
+     *                               described above are violated
+     * @throws NullPointerException If any of the incoming arguments is null,
+     *                              or any constant in {@code constants} is
+     *                              null
+     */
+    public static CallSite makeConcatWithConstants(MethodHandles.Lookup lookup,
+                                                   String name,
+                                                   MethodType concatType,
+                                                   String recipe,
+                                                   Object... constants)
+            throws StringConcatException {
+        Objects.requireNonNull(lookup, "Lookup is null");
+        Objects.requireNonNull(name, "Name is null");
+        Objects.requireNonNull(concatType, "Concat type is null");
+        Objects.requireNonNull(recipe, "Recipe is null");
+        Objects.requireNonNull(constants, "Constants are null");
+        for (Object o : constants)
+            Objects.requireNonNull(o, "Cannot accept null constants");
+
+        if (!concatType.returnType().isAssignableFrom(String.class))
+            throw new StringConcatException(
+                    "The return type should be compatible with String, but it is " +
+                    concatType.returnType());
+        if (concatType.parameterSlotCount() > MAX_INDY_CONCAT_ARG_SLOTS)
+            throw new StringConcatException(
+                    "Too many concat argument slots: " +
+                    concatType.parameterSlotCount() + ", can only accept " +
+                    MAX_INDY_CONCAT_ARG_SLOTS);
+
+        String[] fragments = parseRecipe(concatType, recipe, constants);
+        MethodHandle mh = generate(concatType, fragments);
+        return new ConstantCallSite(mh.asType(concatType));
+    }
+
+    /**
+     * Splits the recipe around its argument tags, with the constants
+     * folded in.  Fragment i precedes argument i, and the last fragment
+     * follows the last argument.
+     */
+    private static String[] parseRecipe(MethodType concatType, String recipe,
+                                        Object[] constants)
+            throws StringConcatException {
+        int argCount = concatType.parameterCount();
+        String[] fragments = new String[argCount + 1];
+        StringBuilder acc = new StringBuilder();
+        int arg = 0, cst = 0;
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == TAG_ARG) {
+                if (arg == argCount)
+                    throw new StringConcatException(
+                            "Mismatched number of concat arguments: recipe wants at least " +
+                            (arg + 1) + " arguments, but only " + argCount + " are passed");
+                fragments[arg++] = acc.toString();
+                acc.setLength(0);
+            } else if (c == TAG_CONST) {
+                if (cst == constants.length)
+                    throw new StringConcatException(
+                            "Mismatched number of concat constants: recipe wants at least " +
+                            (cst + 1) + " constants, but only " + constants.length + " are passed");
+                acc.append(constants[cst++]);
+            } else {
+                acc.append(c);
+            }
+        }
+        if (arg != argCount)
+            throw new StringConcatException(
+                    "Mismatched number of concat arguments: recipe wants " +
+                    arg + " arguments, but signature provides " + argCount);
+        if (cst != constants.length)
+            throw new StringConcatException(
+                    "Mismatched number of concat constants: recipe wants " +
+                    cst + " constants, but only " + constants.length + " are passed");
+        fragments[arg] = acc.toString();
+        return fragments;
+    }
+
+    /**
+     * Builds (T0, T1, ...)String from the concat method, bound to the
+     * fragments and collecting the stringified arguments.
+     */
+    private static MethodHandle generate(MethodType concatType, String[] fragments) {
+        int argCount = concatType.parameterCount();
+        if (argCount == 0)
+            return MethodHandles.constant(String.class, fragments[0]);
+        MethodHandle mh = Lazy.CONCAT.bindTo(fragments)
+                .asCollector(String[].class, argCount);
+        // Filters are added one at a time, last argument first, so that the
+        // outermost one converts the first argument, and each converts its
+        // argument before calling the next: filterArguments with several
+        // filters does not promise any order.
+        for (int i = argCount - 1; i >= 0; i--) {
+            Class<?> t = concatType.parameterType(i);
+            mh = MethodHandles.filterArguments(mh, i,
+                    stringifier(t).asType(MethodType.methodType(String.class, t)));
+        }
+        return mh;
+    }
+
+    /**
+     * Returns the (T)String conversion for an argument of the given type,
+     * before adaptation to T.
+     */
+    private static MethodHandle stringifier(Class<?> t) {
+        if (!t.isPrimitive())
+            return Lazy.STRING_OF;
+        if (t == long.class)
+            return Lazy.LONG_TO_STRING;
+        if (t == char.class)
+            return Lazy.CHAR_TO_STRING;
+        if (t == boolean.class)
+            return Lazy.BOOLEAN_TO_STRING;
+        if (t == float.class)
+            return Lazy.FLOAT_TO_STRING;
+        if (t == double.class)
+            return Lazy.DOUBLE_TO_STRING;
+        return Lazy.INT_TO_STRING;      // byte, short, int
+    }
+
+    private static String stringOf(Object o) {
+        String s;
+        return (o == null || (s = o.toString()) == null) ? "null" : s;
+    }
+
+    /**
+     * Copies the fragments and values, interleaved, into an array of
+     * exactly their total length and returns it as a string without
+     * copying it again.
+     */
+    private static String concat(String[] fragments, String[] values) {
+        int n = values.length;
+        long len = fragments[n].length();
+        for (int i = 0; i < n; i++)
+            len += fragments[i].length() + values[i].length();
+        if (len > Integer.MAX_VALUE)
+            throw new OutOfMemoryError("Overflow: String length out of range");
+        char[] buf = new char[(int)len];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            String f = fragments[i];
+            f.getChars(0, f.length(), buf, p);
+            p += f.length();
+            String v = values[i];
+            v.getChars(0, v.length(), buf, p);
+            p += v.length();
+        }
+        String f = fragments[n];
+        f.getChars(0, f.length(), buf, p);
+        return JLA.newStringUnsafe(buf);
+    }
+
+    /**
+     * The method handles used by every concatenation, looked up on first
+     * use.
+     */
+    private static final class Lazy {
+        static final MethodHandle CONCAT;
+        static final MethodHandle STRING_OF;
+        static final MethodHandle INT_TO_STRING;
+        static final MethodHandle LONG_TO_STRING;
+        static final MethodHandle CHAR_TO_STRING;
+        static final MethodHandle BOOLEAN_TO_STRING;
+        static final MethodHandle FLOAT_TO_STRING;
+        static final MethodHandle DOUBLE_TO_STRING;
+
+        static {
+            try {
+                CONCAT = IMPL_LOOKUP.findStatic(StringConcatFactory.class, "concat",
+                        MethodType.methodType(String.class, String[].class, String[].class));
+                STRING_OF = IMPL_LOOKUP.findStatic(StringConcatFactory.class, "stringOf",
+                        MethodType.methodType(String.class, Object.class));
+                INT_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, int.class));
+                LONG_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, long.class));
+                CHAR_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, char.class));
+                BOOLEAN_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, boolean.class));
+                FLOAT_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, float.class));
+                DOUBLE_TO_STRING = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, double.class));
+            } catch (ReflectiveOperationException ex) {
+                throw newInternalError(ex);
+            }
+        }
+    }
+}
@@ -28,7 +28,9 @@ package java.nio.channels;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.channels.spi.SelectorProvider;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -205,6 +207,10 @@ import java.util.Set;
 
 public abstract class Selector implements Closeable {
 
+    // True while the default select(Consumer) methods are in progress,
+    // protected by this
+    private boolean inSelect;
+
     /**
      * Initializes a new instance of this class.
      */
@@ -349,6 +355,172 @@ public abstract class Selector implements Closeable {
      */
     public abstract int select() throws IOException;
 
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>, in the same way as {@link #select(long)}, except that
+     * the selected-key set is neither used nor changed: the ready-operation
+     * set of each key whose channel is ready for at least one of the
+     * operations in its interest set is set to the operations that the
+     * channel is ready for, and the key is passed to the given action, while
+     * this selector is synchronized.  The action may cancel keys, register
+     * channels with this selector, and close this selector, but it must not
+     * perform a selection operation on this selector.  If the action
+     * closes this selector then a {@link ClosedSelectorException} is thrown
+     * when it returns.  If the action throws an exception then the exception
+     * is relayed to the caller, and the action is not performed on the
+     * remaining keys.
+     *
+     * @implSpec The default implementation performs a selection operation
+     * with {@link #select(long)}, and passes each key in the selected-key set
+     * to the action, after removing it from the set.  A selector whose
+     * selected-key set is not empty is first cleared.  It throws
+     * {@code IllegalStateException} if invoked from the action of another
+     * invocation of this method, {@link #select(Consumer)} or
+     * {@link #selectNow(Consumer)} on this selector.  Selector
+     * implementations are encouraged to override this method and pass the
+     * ready keys directly, without changing the selected-key set.
+     *
+     * @param  action   The action to perform
+     *
+     * @param  timeout  If positive, block for up to <tt>timeout</tt>
+     *                  milliseconds, more or less, while waiting for a
+     *                  channel to become ready; if zero, block indefinitely;
+     *                  must not be negative
+     *
+     * @return  The number of keys on which the action was performed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @throws  IllegalStateException
+     *          If invoked while a selection operation is in progress on
+     *          this selector, from the action of that operation
+     *
+     * @throws  IllegalArgumentException
+     *          If the value of the timeout argument is negative
+     *
+     * @since 1.8
+     */
+    public int select(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        if (timeout < 0)
+            throw new IllegalArgumentException("Negative timeout");
+        return doSelect(Objects.requireNonNull(action), timeout);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>, and passes the ready keys to the action without using
+     * the selected-key set, as {@link #select(Consumer, long)} does.  It
+     * returns only after at least one key is passed to the action, this
+     * selector's {@link #wakeup wakeup} method is invoked, or the current
+     * thread is interrupted, whichever comes first.
+     *
+     * @implSpec The default implementation invokes
+     * {@link #select(Consumer, long) select(action, 0)}.
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of keys on which the action was performed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @throws  IllegalStateException
+     *          If invoked while a selection operation is in progress on
+     *          this selector, from the action of that operation
+     *
+     * @since 1.8
+     */
+    public int select(Consumer<SelectionKey> action) throws IOException {
+        return select(action, 0);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a non-blocking <a href="#selop">selection
+     * operation</a>, and passes the ready keys to the action without using
+     * the selected-key set, as {@link #select(Consumer, long)} does.
+     *
+     * <p> Invoking this method clears the effect of any previous invocations
+     * of the {@link #wakeup wakeup} method.  </p>
+     *
+     * @implSpec The default implementation performs a selection operation
+     * with {@link #selectNow()}, and passes the selected keys to the action
+     * as {@link #select(Consumer, long)} does.
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of keys on which the action was performed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @throws  IllegalStateException
+     *          If invoked while a selection operation is in progress on
+     *          this selector, from the action of that operation
+     *
+     * @since 1.8
+     */
+    public int selectNow(Consumer<SelectionKey> action) throws IOException {
+        return doSelect(Objects.requireNonNull(action), -1);
+    }
+
+    /**
+     * Default implementation of select(Consumer) and selectNow(Consumer),
+     * with a negative timeout for selectNow.
+     */
+    private int doSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        synchronized (this) {
+            if (inSelect)
+                throw new IllegalStateException("select in progress");
+            Set<SelectionKey> selectedKeys = selectedKeys();
+            inSelect = true;
+            try {
+                synchronized (selectedKeys) {
+                    selectedKeys.clear();
+                    if (timeout < 0)
+                        selectNow();
+                    else
+                        select(timeout);
+
+                    // copy the selected keys, as the action may change the set
+                    SelectionKey[] ready =
+                        selectedKeys.toArray(new SelectionKey[0]);
+                    selectedKeys.clear();
+                    for (SelectionKey k : ready) {
+                        action.accept(k);
+                        if (!isOpen())
+                            throw new ClosedSelectorException();
+                    }
+                    return ready.length;
+                }
+            } finally {
+                inSelect = false;
+            }
+        }
+    }
+
     /**
      * Causes the first selection operation that has not yet returned to return
      * immediately.
@@ -35,6 +35,9 @@ import java.util.function.IntToDoubleFunction;
 import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
 import java.util.function.LongBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -76,6 +79,15 @@ public class Arrays {
      */
     private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
 
+    /**
+     * The minimum array length at or above which the parallel sorts of
+     * int, long, float and double arrays use a parallel radix sort
+     * instead of sort-merge.  Each radix pass reads and writes the
+     * whole array, so it only pays off when the array is well beyond
+     * the size of the caches the merge leaves work in.
+     */
+    private static final int MIN_ARRAY_RADIX_SORT = 1 << 20;
+
     // Suppresses default constructor, ensuring non-instantiability.
     private Arrays() {}
 
@@ -672,6 +684,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJInt.radixSort
+                (a, 0, n, new int[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJInt.Sorter
                 (null, a, new int[n], 0, n, 0,
@@ -695,6 +710,8 @@ public class Arrays {
      * space no greater than the size of the specified range of the original
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
@@ -712,6 +729,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJInt.radixSort
+                (a, fromIndex, n, new int[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJInt.Sorter
                 (null, a, new int[n], fromIndex, n, 0,
@@ -732,6 +752,8 @@ public class Arrays {
      * working space no greater than the size of the original array. The
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      *
@@ -742,6 +764,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJLong.radixSort
+                (a, 0, n, new long[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJLong.Sorter
                 (null, a, new long[n], 0, n, 0,
@@ -765,6 +790,8 @@ public class Arrays {
      * space no greater than the size of the specified range of the original
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
@@ -782,6 +809,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJLong.radixSort
+                (a, fromIndex, n, new long[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJLong.Sorter
                 (null, a, new long[n], fromIndex, n, 0,
@@ -810,6 +840,8 @@ public class Arrays {
      * working space no greater than the size of the original array. The
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      *
@@ -820,6 +852,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJFloat.radixSort
+                (a, 0, n, new float[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJFloat.Sorter
                 (null, a, new float[n], 0, n, 0,
@@ -851,6 +886,8 @@ public class Arrays {
      * space no greater than the size of the specified range of the original
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
@@ -868,6 +905,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJFloat.radixSort
+                (a, fromIndex, n, new float[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJFloat.Sorter
                 (null, a, new float[n], fromIndex, n, 0,
@@ -896,6 +936,8 @@ public class Arrays {
      * working space no greater than the size of the original array. The
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      *
@@ -906,6 +948,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJDouble.radixSort
+                (a, 0, n, new double[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJDouble.Sorter
                 (null, a, new double[n], 0, n, 0,
@@ -937,6 +982,8 @@ public class Arrays {
      * space no greater than the size of the specified range of the original
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
+     * Arrays of 2<sup>20</sup> or more elements are instead sorted with a
+     * parallel radix sort, which needs the same working space.
      *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
@@ -954,6 +1001,9 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_ARRAY_RADIX_SORT)
+            ArraysParallelSortHelpers.FJDouble.radixSort
+                (a, fromIndex, n, new double[n], p << 2);
         else
             new ArraysParallelSortHelpers.FJDouble.Sorter
                 (null, a, new double[n], fromIndex, n, 0,
@@ -1178,6 +1228,164 @@ public class Arrays {
                  MIN_ARRAY_SORT_GRAN : g, cmp).invoke();
     }
 
+    // Sorting by primitive keys
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code int} keys that the specified function extracts from them, as
+     * compared by {@link Integer#compare(int, int)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote The keys are sorted together with the index of their
+     * element, and the elements are then copied into place.  The algorithm
+     * requires working space of a copy of the array and of a primitive
+     * array or two of the same length.  If the key extractor throws an
+     * exception, the array is left unchanged.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void sortByInt(T[] a, ToIntFunction<? super T> keyExtractor) {
+        KeySort.sortByInt(a, keyExtractor, false);
+    }
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code int} keys that the specified function extracts from them, as
+     * compared by {@link Integer#compare(int, int)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote As {@link #sortByInt(Object[], ToIntFunction) sortByInt}, with
+     * the keys extracted, sorted and the elements copied into place by
+     * tasks in the {@link ForkJoinPool#commonPool() ForkJoin common pool}
+     * when the array is longer than the minimum granularity.  The key
+     * extractor may therefore be called from several threads at once.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void parallelSortByInt(T[] a, ToIntFunction<? super T> keyExtractor) {
+        KeySort.sortByInt(a, keyExtractor, true);
+    }
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code long} keys that the specified function extracts from them, as
+     * compared by {@link Long#compare(long, long)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote The keys are sorted together with the index of their
+     * element, and the elements are then copied into place.  The algorithm
+     * requires working space of a copy of the array and of a primitive
+     * array or two of the same length.  If the key extractor throws an
+     * exception, the array is left unchanged.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void sortByLong(T[] a, ToLongFunction<? super T> keyExtractor) {
+        KeySort.sortByLong(a, keyExtractor, false);
+    }
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code long} keys that the specified function extracts from them, as
+     * compared by {@link Long#compare(long, long)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote As {@link #sortByLong(Object[], ToLongFunction) sortByLong}, with
+     * the keys extracted, sorted and the elements copied into place by
+     * tasks in the {@link ForkJoinPool#commonPool() ForkJoin common pool}
+     * when the array is longer than the minimum granularity.  The key
+     * extractor may therefore be called from several threads at once.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void parallelSortByLong(T[] a, ToLongFunction<? super T> keyExtractor) {
+        KeySort.sortByLong(a, keyExtractor, true);
+    }
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code double} keys that the specified function extracts from them, as
+     * compared by {@link Double#compare(double, double)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote The keys are sorted together with the index of their
+     * element, and the elements are then copied into place.  The algorithm
+     * requires working space of a copy of the array and of a primitive
+     * array or two of the same length.  If the key extractor throws an
+     * exception, the array is left unchanged.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void sortByDouble(T[] a, ToDoubleFunction<? super T> keyExtractor) {
+        KeySort.sortByDouble(a, keyExtractor, false);
+    }
+
+    /**
+     * Sorts the specified array of objects into ascending order of the
+     * {@code double} keys that the specified function extracts from them, as
+     * compared by {@link Double#compare(double, double)}.  The key of each element is extracted exactly
+     * once, and elements are never passed to a {@link Comparator}.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  equal elements will
+     * not be reordered as a result of the sort.
+     *
+     * @implNote As {@link #sortByDouble(Object[], ToDoubleFunction) sortByDouble}, with
+     * the keys extracted, sorted and the elements copied into place by
+     * tasks in the {@link ForkJoinPool#commonPool() ForkJoin common pool}
+     * when the array is longer than the minimum granularity.  The key
+     * extractor may therefore be called from several threads at once.
+     *
+     * @param <T> the class of the objects to be sorted
+     * @param a the array to be sorted
+     * @param keyExtractor the function that extracts the sort key
+     * @throws NullPointerException if {@code keyExtractor} is null
+     *
+     * @since 1.8
+     */
+    public static <T> void parallelSortByDouble(T[] a, ToDoubleFunction<? super T> keyExtractor) {
+        KeySort.sortByDouble(a, keyExtractor, true);
+    }
+
     /*
      * Sorting of complex type arrays.
      */
@@ -2600,11 +2808,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2629,11 +2833,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2658,11 +2858,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2687,11 +2883,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2716,11 +2908,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2786,11 +2974,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (Float.floatToIntBits(a[i])!=Float.floatToIntBits(a2[i]))
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, a2, length) < 0;
     }
 
     /**
@@ -2827,6 +3011,672 @@ public class Arrays {
         return true;
     }
 
+    // Mismatch and Comparison
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>boolean</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(boolean[] a, boolean[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>boolean</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Boolean#compare(boolean, boolean)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(boolean[], boolean[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(boolean[] a, boolean[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Boolean.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>byte</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>byte</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Byte#compare(byte, byte)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(byte[], byte[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(byte[] a, byte[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Byte.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>char</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(char[] a, char[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>char</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Character#compare(char, char)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(char[], char[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(char[] a, char[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Character.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>short</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(short[] a, short[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>short</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Short#compare(short, short)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(short[], short[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(short[] a, short[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Short.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>int</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(int[] a, int[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>int</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Integer#compare(int, int)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(int[], int[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(int[] a, int[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Integer.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>long</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>long</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Long#compare(long, long)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(long[], long[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(long[] a, long[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Long.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>float</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * <p>Elements are compared as by {@link Float#equals(Object)}: all
+     * <tt>NaN</tt> values are equal to each other, and 0.0 is unequal to
+     * -0.0.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(float[] a, float[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>float</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Float#compare(float, float)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(float[], float[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(float[] a, float[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Float.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>double</tt> arrays, otherwise return -1 if no mismatch is found.  The
+     * index will be in the range of 0 (inclusive) up to the length
+     * (inclusive) of the smaller array.
+     *
+     * <p>If the two arrays share a common prefix then the returned index
+     * is the length of the common prefix, and there is a mismatch between
+     * the two elements at that index within the respective arrays.  If one
+     * array is a proper prefix of the other then the returned index is the
+     * length of the smaller array, and that index is only valid for the
+     * larger array.  Otherwise, there is no mismatch.
+     *
+     * <p>Elements are compared as by {@link Double#equals(Object)}: all
+     * <tt>NaN</tt> values are equal to each other, and 0.0 is unequal to
+     * -0.0.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(double[] a, double[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, b, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>double</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Double#compare(double, double)}, at an index within the respective
+     * arrays that is the prefix length.  Otherwise, one array is a proper
+     * prefix of the other and the lexicographic comparison is the result of
+     * comparing the two array lengths.  A <tt>null</tt> array reference is
+     * considered lexicographically less than a non-<tt>null</tt> array
+     * reference, and two <tt>null</tt> array references are considered
+     * equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(double[], double[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(double[] a, double[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Double.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>byte</tt> arrays lexicographically, numerically
+     * treating elements as unsigned.
+     *
+     * <p>This is the same as {@link #compare(byte[], byte[])}, except that
+     * elements are compared as if by <tt>Byte.compareUnsigned</tt>.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compareUnsigned(byte[] a, byte[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Byte.toUnsignedInt(a[i]) - Byte.toUnsignedInt(b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>short</tt> arrays lexicographically, numerically
+     * treating elements as unsigned.
+     *
+     * <p>This is the same as {@link #compare(short[], short[])}, except that
+     * elements are compared as if by <tt>Short.compareUnsigned</tt>.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compareUnsigned(short[] a, short[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Short.toUnsignedInt(a[i]) - Short.toUnsignedInt(b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>int</tt> arrays lexicographically, numerically
+     * treating elements as unsigned.
+     *
+     * <p>This is the same as {@link #compare(int[], int[])}, except that
+     * elements are compared as if by <tt>Integer.compareUnsigned</tt>.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compareUnsigned(int[] a, int[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Integer.compareUnsigned(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>long</tt> arrays lexicographically, numerically
+     * treating elements as unsigned.
+     *
+     * <p>This is the same as {@link #compare(long[], long[])}, except that
+     * elements are compared as if by <tt>Long.compareUnsigned</tt>.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compareUnsigned(long[] a, long[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, b, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Long.compareUnsigned(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
     // Filling
 
     /**
@@ -3916,9 +4766,15 @@ public class Arrays {
         if (a == null)
             return 0;
 
+        // Four elements per step, with 31^4, 31^3 and 31^2 folded in,
+        // so that the multiplications do not wait on each other.
         int result = 1;
-        for (int element : a)
-            result = 31 * result + element;
+        int i = 0;
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -3944,8 +4800,12 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (short element : a)
-            result = 31 * result + element;
+        int i = 0;
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -3971,8 +4831,12 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (char element : a)
-            result = 31 * result + element;
+        int i = 0;
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -3998,8 +4862,12 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (byte element : a)
-            result = 31 * result + element;
+        int i = 0;
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
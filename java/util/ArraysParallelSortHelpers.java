@@ -26,6 +26,7 @@ package java.util;
 
 import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.CountedCompleter;
+import java.util.function.IntConsumer;
 
 /**
  * Helper utilities for the parallel sort methods in Arrays.parallelSort.
@@ -71,6 +72,17 @@ import java.util.concurrent.CountedCompleter;
  * temp workspace array slices that we will have already allocated, so
  * avoids redundant allocation. (Except for DualPivotQuicksort byte[]
  * sort, that does not ever use a workspace array.)
+ *
+ * Large int, long, float and double arrays are instead sorted by a
+ * parallel least significant digit radix sort (radixSort in FJInt...
+ * FJDouble), a byte at a time.  The range is cut into a fixed number
+ * of chunks, and each pass runs two parallel phases over them, as
+ * Chunks tasks: each chunk counts the bytes of its elements, and then,
+ * once the counts are turned into offsets (see offsets), moves its
+ * elements to the workspace, after those of the same byte in earlier
+ * chunks, which keeps each pass stable.  A pass is skipped if every
+ * element has the same byte, and a range that is already sorted is
+ * detected in a first parallel scan and left alone.
  */
 /*package*/ class ArraysParallelSortHelpers {
 
@@ -108,6 +120,61 @@ import java.util.concurrent.CountedCompleter;
         }
     }
 
+    /**
+     * Runs an action on each of a range of chunk indices, forking tasks
+     * for the upper halves of the range down to single chunks.
+     */
+    static final class Chunks extends CountedCompleter<Void> {
+        static final long serialVersionUID = 2446542900576103244L;
+        final IntConsumer action;
+        final int lo, hi;
+        Chunks(CountedCompleter<?> par, IntConsumer action, int lo, int hi) {
+            super(par);
+            this.action = action; this.lo = lo; this.hi = hi;
+        }
+        public final void compute() {
+            int l = lo, h = hi;
+            while (h - l > 1) {
+                int m = (l + h) >>> 1;
+                addToPendingCount(1);
+                new Chunks(this, action, m, h).fork();
+                h = m;
+            }
+            action.accept(l);
+            tryComplete();
+        }
+    }
+
+    /**
+     * Returns the offset of the start of chunk c within a range of the
+     * given size cut into the given number of chunks.
+     */
+    static int chunkStart(int c, int chunks, int size) {
+        return (int)((long)size * c / chunks);
+    }
+
+    /**
+     * Replaces the per-chunk byte counts of a radix sort pass by the
+     * index at which each chunk's first element with each byte goes:
+     * all elements with a smaller byte go first, then those with the
+     * same byte in earlier chunks.  Returns false, leaving the counts
+     * partly replaced, if all the elements have the same byte.
+     */
+    static boolean offsets(int[][] count, int size) {
+        int chunks = count.length;
+        for (int b = 0, sum = 0; b < 256; b++) {
+            int first = sum;
+            for (int c = 0; c < chunks; c++) {
+                int k = count[c][b];
+                count[c][b] = sum;
+                sum += k;
+            }
+            if (sum - first == size)
+                return false;
+        }
+        return true;
+    }
+
     /** Object + Comparator support class */
     static final class FJObject {
         static final class Sorter<T> extends CountedCompleter<Void> {
@@ -672,6 +739,71 @@ import java.util.concurrent.CountedCompleter;
                 tryComplete();
             }
         }
+
+        /** Returns the byte of v's sort key at the given shift. */
+        static int digit(int v, int shift) {
+            return ((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+        }
+
+        /**
+         * Sorts a[base, base+size) by parallel radix sort, using
+         * w[0, size) as workspace and the given number of chunks.
+         */
+        static void radixSort(int[] a, int base, int size, int[] w,
+                              int chunks) {
+            boolean[] unsorted = new boolean[chunks];
+            new Chunks(null, c -> {
+                int lo = base + chunkStart(c, chunks, size);
+                int hi = base + chunkStart(c + 1, chunks, size);
+                for (int i = Math.max(lo, base + 1); i < hi; ++i) {
+                    if (a[i - 1] > a[i]) {
+                        unsorted[c] = true;
+                        break;
+                    }
+                }
+            }, 0, chunks).invoke();
+            boolean sorted = true;
+            for (boolean u : unsorted)
+                sorted &= !u;
+            if (sorted)
+                return;
+
+            int[][] count = new int[chunks][256];
+            int[] src = a, dst = w;
+            int sb = base, db = 0;
+            for (int shift = 0; shift < 32; shift += 8) {
+                int[] s = src, d = dst;
+                int so = sb, wo = db, sh = shift;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    Arrays.fill(k, 0);
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i)
+                        k[digit(s[i], sh)]++;
+                }, 0, chunks).invoke();
+                if (!offsets(count, size))
+                    continue;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i) {
+                        int v = s[i];
+                        d[wo + k[digit(v, sh)]++] = v;
+                    }
+                }, 0, chunks).invoke();
+                src = d; dst = s; sb = wo; db = so;
+            }
+            if (src != a) {
+                int[] s = src;
+                new Chunks(null, c -> {
+                    int lo = chunkStart(c, chunks, size);
+                    System.arraycopy(s, lo, a, base + lo,
+                                     chunkStart(c + 1, chunks, size) - lo);
+                }, 0, chunks).invoke();
+            }
+        }
     } // FJInt
 
     /** long support class */
@@ -783,6 +915,71 @@ import java.util.concurrent.CountedCompleter;
                 tryComplete();
             }
         }
+
+        /** Returns the byte of v's sort key at the given shift. */
+        static int digit(long v, int shift) {
+            return ((int)((v ^ Long.MIN_VALUE) >>> shift)) & 0xFF;
+        }
+
+        /**
+         * Sorts a[base, base+size) by parallel radix sort, using
+         * w[0, size) as workspace and the given number of chunks.
+         */
+        static void radixSort(long[] a, int base, int size, long[] w,
+                              int chunks) {
+            boolean[] unsorted = new boolean[chunks];
+            new Chunks(null, c -> {
+                int lo = base + chunkStart(c, chunks, size);
+                int hi = base + chunkStart(c + 1, chunks, size);
+                for (int i = Math.max(lo, base + 1); i < hi; ++i) {
+                    if (a[i - 1] > a[i]) {
+                        unsorted[c] = true;
+                        break;
+                    }
+                }
+            }, 0, chunks).invoke();
+            boolean sorted = true;
+            for (boolean u : unsorted)
+                sorted &= !u;
+            if (sorted)
+                return;
+
+            int[][] count = new int[chunks][256];
+            long[] src = a, dst = w;
+            int sb = base, db = 0;
+            for (int shift = 0; shift < 64; shift += 8) {
+                long[] s = src, d = dst;
+                int so = sb, wo = db, sh = shift;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    Arrays.fill(k, 0);
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i)
+                        k[digit(s[i], sh)]++;
+                }, 0, chunks).invoke();
+                if (!offsets(count, size))
+                    continue;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i) {
+                        long v = s[i];
+                        d[wo + k[digit(v, sh)]++] = v;
+                    }
+                }, 0, chunks).invoke();
+                src = d; dst = s; sb = wo; db = so;
+            }
+            if (src != a) {
+                long[] s = src;
+                new Chunks(null, c -> {
+                    int lo = chunkStart(c, chunks, size);
+                    System.arraycopy(s, lo, a, base + lo,
+                                     chunkStart(c + 1, chunks, size) - lo);
+                }, 0, chunks).invoke();
+            }
+        }
     } // FJLong
 
     /** float support class */
@@ -894,6 +1091,71 @@ import java.util.concurrent.CountedCompleter;
                 tryComplete();
             }
         }
+
+        /** Returns the byte of v's sort key at the given shift. */
+        static int digit(float v, int shift) {
+            return (DualPivotQuicksort.floatKey(v) >>> shift) & 0xFF;
+        }
+
+        /**
+         * Sorts a[base, base+size) by parallel radix sort, using
+         * w[0, size) as workspace and the given number of chunks.
+         */
+        static void radixSort(float[] a, int base, int size, float[] w,
+                              int chunks) {
+            boolean[] unsorted = new boolean[chunks];
+            new Chunks(null, c -> {
+                int lo = base + chunkStart(c, chunks, size);
+                int hi = base + chunkStart(c + 1, chunks, size);
+                for (int i = Math.max(lo, base + 1); i < hi; ++i) {
+                    if (Float.compare(a[i - 1], a[i]) > 0) {
+                        unsorted[c] = true;
+                        break;
+                    }
+                }
+            }, 0, chunks).invoke();
+            boolean sorted = true;
+            for (boolean u : unsorted)
+                sorted &= !u;
+            if (sorted)
+                return;
+
+            int[][] count = new int[chunks][256];
+            float[] src = a, dst = w;
+            int sb = base, db = 0;
+            for (int shift = 0; shift < 32; shift += 8) {
+                float[] s = src, d = dst;
+                int so = sb, wo = db, sh = shift;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    Arrays.fill(k, 0);
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i)
+                        k[digit(s[i], sh)]++;
+                }, 0, chunks).invoke();
+                if (!offsets(count, size))
+                    continue;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i) {
+                        float v = s[i];
+                        d[wo + k[digit(v, sh)]++] = v;
+                    }
+                }, 0, chunks).invoke();
+                src = d; dst = s; sb = wo; db = so;
+            }
+            if (src != a) {
+                float[] s = src;
+                new Chunks(null, c -> {
+                    int lo = chunkStart(c, chunks, size);
+                    System.arraycopy(s, lo, a, base + lo,
+                                     chunkStart(c + 1, chunks, size) - lo);
+                }, 0, chunks).invoke();
+            }
+        }
     } // FJFloat
 
     /** double support class */
@@ -1005,6 +1267,71 @@ import java.util.concurrent.CountedCompleter;
                 tryComplete();
             }
         }
+
+        /** Returns the byte of v's sort key at the given shift. */
+        static int digit(double v, int shift) {
+            return ((int)(DualPivotQuicksort.doubleKey(v) >>> shift)) & 0xFF;
+        }
+
+        /**
+         * Sorts a[base, base+size) by parallel radix sort, using
+         * w[0, size) as workspace and the given number of chunks.
+         */
+        static void radixSort(double[] a, int base, int size, double[] w,
+                              int chunks) {
+            boolean[] unsorted = new boolean[chunks];
+            new Chunks(null, c -> {
+                int lo = base + chunkStart(c, chunks, size);
+                int hi = base + chunkStart(c + 1, chunks, size);
+                for (int i = Math.max(lo, base + 1); i < hi; ++i) {
+                    if (Double.compare(a[i - 1], a[i]) > 0) {
+                        unsorted[c] = true;
+                        break;
+                    }
+                }
+            }, 0, chunks).invoke();
+            boolean sorted = true;
+            for (boolean u : unsorted)
+                sorted &= !u;
+            if (sorted)
+                return;
+
+            int[][] count = new int[chunks][256];
+            double[] src = a, dst = w;
+            int sb = base, db = 0;
+            for (int shift = 0; shift < 64; shift += 8) {
+                double[] s = src, d = dst;
+                int so = sb, wo = db, sh = shift;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    Arrays.fill(k, 0);
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i)
+                        k[digit(s[i], sh)]++;
+                }, 0, chunks).invoke();
+                if (!offsets(count, size))
+                    continue;
+                new Chunks(null, c -> {
+                    int[] k = count[c];
+                    int lo = so + chunkStart(c, chunks, size);
+                    int hi = so + chunkStart(c + 1, chunks, size);
+                    for (int i = lo; i < hi; ++i) {
+                        double v = s[i];
+                        d[wo + k[digit(v, sh)]++] = v;
+                    }
+                }, 0, chunks).invoke();
+                src = d; dst = s; sb = wo; db = so;
+            }
+            if (src != a) {
+                double[] s = src;
+                new Chunks(null, c -> {
+                    int lo = chunkStart(c, chunks, size);
+                    System.arraycopy(s, lo, a, base + lo,
+                                     chunkStart(c + 1, chunks, size) - lo);
+                }, 0, chunks).invoke();
+            }
+        }
     } // FJDouble
 
 }
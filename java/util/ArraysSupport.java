@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util;
+
+import java.nio.ByteOrder;
+import sun.misc.Unsafe;
+
+/**
+ * Mismatch searches over primitive arrays, used by the equality,
+ * comparison and mismatch methods of {@link Arrays}.
+ *
+ * <p>Arrays of elements narrower than a {@code long} are compared eight
+ * bytes at a time with {@link Unsafe#getLong(Object, long)}, and the
+ * first differing element of a differing word is found from the number
+ * of equal low-order (or, on big-endian platforms, high-order) bits.
+ * Since whole arrays are compared from their first element, every read
+ * is aligned as long as the array base offsets are multiples of eight,
+ * which is the case on 64-bit VMs.  Otherwise the arrays are compared
+ * one element at a time.
+ */
+final class ArraysSupport {
+
+    private ArraysSupport() {}
+
+    private static final Unsafe U = Unsafe.getUnsafe();
+
+    private static final boolean ALIGNED =
+        ((Unsafe.ARRAY_BOOLEAN_BASE_OFFSET | Unsafe.ARRAY_BYTE_BASE_OFFSET
+          | Unsafe.ARRAY_CHAR_BASE_OFFSET | Unsafe.ARRAY_SHORT_BASE_OFFSET
+          | Unsafe.ARRAY_INT_BASE_OFFSET | Unsafe.ARRAY_FLOAT_BASE_OFFSET) & 7) == 0;
+
+    private static final boolean BIG_ENDIAN =
+        ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Compares the first length elements of two arrays of the same
+     * primitive type a word at a time.  Returns the index of the first
+     * element whose bits differ, or the bitwise complement of the number
+     * of elements compared if they are all equal, which leaves fewer than
+     * a word's worth at the end for the caller to compare.
+     *
+     * @param base the array base offset
+     * @param log2Scale log2 of the element size in bytes, 0 to 2
+     */
+    private static int vectorizedMismatch(Object a, Object b, long base,
+                                          int length, int log2Scale) {
+        int log2PerWord = 3 - log2Scale;
+        int words = length >> log2PerWord;
+        for (int wi = 0; wi < words; wi++) {
+            long offset = base + ((long)wi << 3);
+            long av = U.getLong(a, offset);
+            long bv = U.getLong(b, offset);
+            if (av != bv) {
+                long x = av ^ bv;
+                int bit = BIG_ENDIAN ? Long.numberOfLeadingZeros(x)
+                                     : Long.numberOfTrailingZeros(x);
+                return (wi << log2PerWord) + (bit >> (3 + log2Scale));
+            }
+        }
+        return ~(words << log2PerWord);
+    }
+
+    /*
+     * Each method below returns the index of the first mismatch between
+     * the first length elements of a and b, or -1 if there is none.  The
+     * arrays must both have at least length elements.
+     */
+
+    static int mismatch(boolean[] a, boolean[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET, length, 0);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    static int mismatch(byte[] a, byte[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_BYTE_BASE_OFFSET, length, 0);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    static int mismatch(char[] a, char[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_CHAR_BASE_OFFSET, length, 1);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    static int mismatch(short[] a, short[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_SHORT_BASE_OFFSET, length, 1);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    static int mismatch(int[] a, int[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_INT_BASE_OFFSET, length, 2);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    static int mismatch(long[] a, long[] b, int length) {
+        for (int i = 0; i < length; i++)
+            if (a[i] != b[i])
+                return i;
+        return -1;
+    }
+
+    /*
+     * Floats and doubles mismatch as in Float.equals and Double.equals:
+     * all NaNs are the same and 0.0 differs from -0.0.  A word mismatch
+     * may be two NaNs with different bits, so the element loop resumes
+     * at the first differing element rather than returning it.
+     */
+
+    static int mismatch(float[] a, float[] b, int length) {
+        int i = 0;
+        if (ALIGNED) {
+            i = vectorizedMismatch(a, b, Unsafe.ARRAY_FLOAT_BASE_OFFSET, length, 2);
+            if (i < 0)
+                i = ~i;
+        }
+        for (; i < length; i++)
+            if (Float.floatToIntBits(a[i]) != Float.floatToIntBits(b[i]))
+                return i;
+        return -1;
+    }
+
+    static int mismatch(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++)
+            if (Double.doubleToLongBits(a[i]) != Double.doubleToLongBits(b[i]))
+                return i;
+        return -1;
+    }
+}
@@ -0,0 +1,1927 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util;
+
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A B+-tree based {@link NavigableMap} implementation.  The map is sorted
+ * according to the {@linkplain Comparable natural ordering} of its keys,
+ * or by a {@link Comparator} provided at map creation time, depending on
+ * which constructor is used.
+ *
+ * <p>Unlike {@link TreeMap}, which allocates one node per mapping, this
+ * map holds its keys and values in the arrays of a small number of
+ * <i>leaves</i>, each holding up to <i>order</i> mappings, and reaches
+ * them through <i>inner nodes</i> of up to <i>order</i> children.  A
+ * lookup therefore touches about log<sub>order</sub>(n) nodes, and
+ * searches within each node by binary search over a contiguous array,
+ * which is considerably friendlier to processor caches than following
+ * log<sub>2</sub>(n) pointers.  The leaves are linked to each other in
+ * key order, so that iteration over the map, and over its sub-maps,
+ * proceeds sequentially through the leaf arrays without revisiting the
+ * inner nodes.  The order may be chosen at construction; larger orders
+ * make lookups and iteration faster, and insertions and removals, which
+ * shift the contents of a leaf, slower.  The default order of 64 suits
+ * most key types.
+ *
+ * <p>This implementation provides guaranteed log(n) time cost for the
+ * {@code containsKey}, {@code get}, {@code put} and {@code remove}
+ * operations, and for the navigation methods.
+ *
+ * <p>Note that the ordering maintained by a B-tree map, like any sorted
+ * map, and whether or not an explicit comparator is provided, must be
+ * <em>consistent with {@code equals}</em> if this sorted map is to
+ * correctly implement the {@code Map} interface, in the same sense as
+ * for {@link TreeMap}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <em>must</em> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated
+ * with an existing key is not a structural modification.)
+ *
+ * <p>The iterators returned by the {@code iterator} method of the
+ * collections returned by all of this class's "collection view methods"
+ * are <em>fail-fast</em>, in the same sense as those of {@link TreeMap}.
+ *
+ * <p>All {@code Map.Entry} pairs returned by methods in this class and
+ * its views represent snapshots of mappings at the time they were
+ * produced.  They do <strong>not</strong> support the {@code
+ * Entry.setValue} method, with the exception of the entries returned
+ * by the iterators of the entry set views, whose {@code setValue}
+ * writes through to the map.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see Map
+ * @see TreeMap
+ * @see java.util.concurrent.ConcurrentSkipListMap
+ * @since 1.8
+ */
+public class BTreeMap<K,V>
+    extends AbstractMap<K,V>
+    implements NavigableMap<K,V>, Cloneable, Serializable
+{
+    private static final long serialVersionUID = -2937461080126730862L;
+
+    /**
+     * The default order, used when none is specified in a constructor.
+     */
+    static final int DEFAULT_ORDER = 64;
+
+    /**
+     * The smallest permitted order.  Below it, a node split in half
+     * could leave a node with a single child.
+     */
+    static final int MIN_ORDER = 3;
+
+    /*
+     * Implementation notes.
+     *
+     * Every node records in "size" the number of mappings (for a leaf)
+     * or children (for an inner node) that it holds.  An inner node
+     * with n children holds n - 1 separator keys, such that every key
+     * in children[i] is less than keys[i], and every key in
+     * children[i + 1] is greater than or equal to keys[i].  Separators
+     * are copied from the first key of a leaf when it is split off, and
+     * are not updated when that key is later removed, so they need not
+     * be keys of the map.
+     *
+     * Every node other than the root holds at least minSize =
+     * ceil(order / 2) mappings or children.  Node arrays have one slot
+     * more than the order, so that insertion may first overflow a node
+     * and then split it in two halves of at least minSize each.
+     * Removal that leaves a node with fewer than minSize entries
+     * borrows one from an adjacent sibling if that has more than
+     * minSize, and otherwise merges the node with the sibling, which
+     * then holds at most 2 * minSize - 1 <= order entries.  Merges
+     * always discard the right one of the two nodes, so the leftmost
+     * leaf, and, unless it is merged away, the rightmost leaf, retain
+     * their identity; only the root leaf may be empty.
+     *
+     * Positions in the map are denoted by a leaf and an index within
+     * it.  As positions are invalidated by any structural
+     * modification, iterators that remove mappings re-locate their
+     * next position by key.
+     */
+
+    /**
+     * The comparator used to maintain order in this map, or null if it
+     * uses the natural ordering of its keys.
+     *
+     * @serial
+     */
+    private final Comparator<? super K> comparator;
+
+    /**
+     * The maximum number of mappings per leaf and children per inner
+     * node.
+     *
+     * @serial
+     */
+    private final int order;
+
+    private transient Node root;
+
+    /** The leftmost leaf; never changes once the map is created */
+    private transient Leaf<K,V> first;
+
+    /** The rightmost leaf */
+    private transient Leaf<K,V> last;
+
+    /**
+     * The number of entries in the tree
+     */
+    private transient int size = 0;
+
+    /**
+     * The number of structural modifications to the tree.
+     */
+    private transient int modCount = 0;
+
+    /**
+     * The right half of the node most recently split by insert, and the
+     * key separating it from its left half; passed up to the parent.
+     */
+    private transient Node splitNode;
+    private transient Object splitKey;
+
+    /**
+     * Constructs a new, empty B-tree map of the default order, using the
+     * natural ordering of its keys.  All keys inserted into the map must
+     * implement the {@link Comparable} interface and be <em>mutually
+     * comparable</em>.
+     */
+    public BTreeMap() {
+        this(DEFAULT_ORDER, null);
+    }
+
+    /**
+     * Constructs a new, empty B-tree map of the given order, using the
+     * natural ordering of its keys.
+     *
+     * @param order the maximum number of mappings per leaf, and of
+     *        children per inner node
+     * @throws IllegalArgumentException if order is less than 3
+     */
+    public BTreeMap(int order) {
+        this(order, null);
+    }
+
+    /**
+     * Constructs a new, empty B-tree map of the default order, ordered
+     * according to the given comparator.
+     *
+     * @param comparator the comparator that will be used to order this
+     *        map.  If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public BTreeMap(Comparator<? super K> comparator) {
+        this(DEFAULT_ORDER, comparator);
+    }
+
+    /**
+     * Constructs a new, empty B-tree map of the given order, ordered
+     * according to the given comparator.
+     *
+     * @param order the maximum number of mappings per leaf, and of
+     *        children per inner node
+     * @param comparator the comparator that will be used to order this
+     *        map.  If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     * @throws IllegalArgumentException if order is less than 3
+     */
+    public BTreeMap(int order, Comparator<? super K> comparator) {
+        if (order < MIN_ORDER)
+            throw new IllegalArgumentException("Illegal order: " + order);
+        this.order = order;
+        this.comparator = comparator;
+        initTree();
+    }
+
+    /**
+     * Constructs a new B-tree map of the default order containing the
+     * same mappings as the given map, ordered according to the
+     * <em>natural ordering</em> of its keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in m are not {@link
+     *         Comparable}, or are not mutually comparable
+     * @throws NullPointerException if the specified map is null
+     */
+    public BTreeMap(Map<? extends K, ? extends V> m) {
+        this(DEFAULT_ORDER, null);
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new B-tree map of the default order containing the
+     * same mappings and using the same ordering as the specified sorted
+     * map.
+     *
+     * @param  m the sorted map whose mappings are to be placed in this
+     *         map, and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public BTreeMap(SortedMap<K, ? extends V> m) {
+        this(DEFAULT_ORDER, m.comparator());
+        putAll(m);
+    }
+
+    private void initTree() {
+        Leaf<K,V> l = new Leaf<K,V>(order);
+        root = first = last = l;
+        size = 0;
+    }
+
+    /**
+     * Returns the maximum number of mappings per leaf and of children
+     * per inner node of this map.
+     *
+     * @return the order of this map
+     */
+    public int order() {
+        return order;
+    }
+
+    // Nodes
+
+    abstract static class Node {
+        int size;
+    }
+
+    static final class Leaf<K,V> extends Node {
+        final Object[] keys;
+        final Object[] vals;
+        Leaf<K,V> prev, next;
+
+        Leaf(int order) {
+            keys = new Object[order + 1];
+            vals = new Object[order + 1];
+        }
+    }
+
+    static final class Inner extends Node {
+        final Object[] keys;
+        final Node[] children;
+
+        Inner(int order) {
+            keys = new Object[order];
+            children = new Node[order + 1];
+        }
+    }
+
+    /**
+     * A position in the map: a leaf and the index of a mapping in it.
+     */
+    static final class Pos<K,V> {
+        final Leaf<K,V> leaf;
+        final int index;
+        Pos(Leaf<K,V> leaf, int index) {
+            this.leaf = leaf;
+            this.index = index;
+        }
+        @SuppressWarnings("unchecked") K key() { return (K)leaf.keys[index]; }
+        @SuppressWarnings("unchecked") V value() { return (V)leaf.vals[index]; }
+    }
+
+    private int minSize() {
+        return (order + 1) >>> 1;
+    }
+
+    /**
+     * Compares two keys using the correct comparison method for this
+     * map.
+     */
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>)k1).compareTo((K)k2)
+            : comparator.compare((K)k1, (K)k2);
+    }
+
+    /**
+     * Returns the index of the child of x that may hold key.
+     */
+    private int childIndex(Inner x, Object key) {
+        Object[] keys = x.keys;
+        int lo = 0, hi = x.size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(key, keys[mid]) < 0)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of key in leaf l if present, else
+     * (-(insertion point) - 1).
+     */
+    private int search(Leaf<K,V> l, Object key) {
+        Object[] keys = l.keys;
+        int lo = 0, hi = l.size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(keys[mid], key);
+            if (c < 0)
+                lo = mid + 1;
+            else if (c > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Returns the leaf that holds key, if present.
+     */
+    @SuppressWarnings("unchecked")
+    final Leaf<K,V> leafFor(Object key) {
+        if (key == null && comparator == null)
+            throw new NullPointerException();
+        Node n = root;
+        while (n instanceof Inner) {
+            Inner x = (Inner)n;
+            n = x.children[childIndex(x, key)];
+        }
+        return (Leaf<K,V>)n;
+    }
+
+    // Query Operations
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the
+     *         specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public boolean containsKey(Object key) {
+        return search(leafFor(key), key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the map
+     * size, but scans the leaf arrays sequentially.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     */
+    public boolean containsValue(Object value) {
+        for (Leaf<K,V> l = first; l != null; l = l.next) {
+            Object[] vals = l.vals;
+            for (int i = 0, n = l.size; i < n; ++i) {
+                if (Objects.equals(value, vals[i]))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Leaf<K,V> l = leafFor(key);
+        int i = search(l, key);
+        return (i >= 0) ? (V)l.vals[i] : null;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        return key(firstPos());
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        return key(lastPos());
+    }
+
+    // Modification Operations
+
+    /** Marks a new mapping in the result of insert and delete */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (size == 0)
+            compare(key, key); // type (and possibly null) check
+        else if (key == null && comparator == null)
+            throw new NullPointerException();
+        Object r = insert(root, key, value, onlyIfAbsent);
+        Node right = splitNode;
+        if (right != null) {
+            Inner x = new Inner(order);
+            x.children[0] = root;
+            x.children[1] = right;
+            x.keys[0] = splitKey;
+            x.size = 2;
+            root = x;
+            splitNode = null;
+            splitKey = null;
+        }
+        return (r == NO_VALUE) ? null : (V)r;
+    }
+
+    /**
+     * Inserts a mapping in the subtree rooted at n, returning the
+     * previous value or NO_VALUE.  If n overflows, it is split and its
+     * right half left in splitNode.
+     */
+    @SuppressWarnings("unchecked")
+    private Object insert(Node n, K key, V value, boolean onlyIfAbsent) {
+        if (n instanceof Inner) {
+            Inner x = (Inner)n;
+            int ci = childIndex(x, key);
+            Object r = insert(x.children[ci], key, value, onlyIfAbsent);
+            Node right = splitNode;
+            if (right != null) {
+                int s = x.size;
+                System.arraycopy(x.children, ci + 1, x.children, ci + 2, s - ci - 1);
+                System.arraycopy(x.keys, ci, x.keys, ci + 1, s - 1 - ci);
+                x.children[ci + 1] = right;
+                x.keys[ci] = splitKey;
+                x.size = ++s;
+                if (s > order)
+                    splitInner(x);
+                else {
+                    splitNode = null;
+                    splitKey = null;
+                }
+            }
+            return r;
+        }
+        Leaf<K,V> l = (Leaf<K,V>)n;
+        int i = search(l, key);
+        if (i >= 0) {
+            Object old = l.vals[i];
+            if (!onlyIfAbsent || old == null)
+                l.vals[i] = value;
+            return old;
+        }
+        i = -i - 1;
+        int s = l.size;
+        System.arraycopy(l.keys, i, l.keys, i + 1, s - i);
+        System.arraycopy(l.vals, i, l.vals, i + 1, s - i);
+        l.keys[i] = key;
+        l.vals[i] = value;
+        l.size = ++s;
+        ++size;
+        ++modCount;
+        if (s > order)
+            splitLeaf(l);
+        return NO_VALUE;
+    }
+
+    private void splitLeaf(Leaf<K,V> l) {
+        int s = l.size, h = s >>> 1;
+        Leaf<K,V> r = new Leaf<K,V>(order);
+        System.arraycopy(l.keys, h, r.keys, 0, s - h);
+        System.arraycopy(l.vals, h, r.vals, 0, s - h);
+        Arrays.fill(l.keys, h, s, null);
+        Arrays.fill(l.vals, h, s, null);
+        r.size = s - h;
+        l.size = h;
+        Leaf<K,V> nx = l.next;
+        r.next = nx;
+        r.prev = l;
+        l.next = r;
+        if (nx != null)
+            nx.prev = r;
+        else
+            last = r;
+        splitNode = r;
+        splitKey = r.keys[0];
+    }
+
+    private void splitInner(Inner x) {
+        int s = x.size, h = s >>> 1;
+        Inner r = new Inner(order);
+        System.arraycopy(x.children, h, r.children, 0, s - h);
+        System.arraycopy(x.keys, h, r.keys, 0, s - h - 1);
+        Object sep = x.keys[h - 1];
+        Arrays.fill(x.children, h, s, null);
+        Arrays.fill(x.keys, h - 1, s - 1, null);
+        r.size = s - h;
+        x.size = h;
+        splitNode = r;
+        splitKey = sep;
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        Object r = removeKey(key);
+        return (r == NO_VALUE) ? null : (V)r;
+    }
+
+    /**
+     * Removes the mapping for key, returning its value, or NO_VALUE if
+     * there was none.
+     */
+    final Object removeKey(Object key) {
+        if (key == null && comparator == null)
+            throw new NullPointerException();
+        Object r = delete(root, key);
+        Node n = root;
+        if (n instanceof Inner && n.size == 1)
+            root = ((Inner)n).children[0];
+        return r;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object delete(Node n, Object key) {
+        if (n instanceof Inner) {
+            Inner x = (Inner)n;
+            int ci = childIndex(x, key);
+            Node c = x.children[ci];
+            Object r = delete(c, key);
+            if (r != NO_VALUE && c.size < minSize())
+                rebalance(x, ci);
+            return r;
+        }
+        Leaf<K,V> l = (Leaf<K,V>)n;
+        int i = search(l, key);
+        if (i < 0)
+            return NO_VALUE;
+        Object old = l.vals[i];
+        int s = l.size - 1;
+        System.arraycopy(l.keys, i + 1, l.keys, i, s - i);
+        System.arraycopy(l.vals, i + 1, l.vals, i, s - i);
+        l.keys[s] = null;
+        l.vals[s] = null;
+        l.size = s;
+        --size;
+        ++modCount;
+        return old;
+    }
+
+    /**
+     * Restores the minimum size of the child at index i of p, by
+     * borrowing from or merging with a sibling.
+     */
+    private void rebalance(Inner p, int i) {
+        int min = minSize();
+        Node c = p.children[i];
+        if (i > 0) {
+            Node l = p.children[i - 1];
+            if (l.size > min) {
+                if (c instanceof Inner)
+                    borrowLeft(p, i, (Inner)l, (Inner)c);
+                else
+                    borrowLeft(p, i, leaf(l), leaf(c));
+                return;
+            }
+        }
+        if (i < p.size - 1) {
+            Node r = p.children[i + 1];
+            if (r.size > min) {
+                if (c instanceof Inner)
+                    borrowRight(p, i, (Inner)c, (Inner)r);
+                else
+                    borrowRight(p, i, leaf(c), leaf(r));
+                return;
+            }
+        }
+        merge(p, (i > 0) ? i - 1 : i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K,V> Leaf<K,V> leaf(Node n) {
+        return (Leaf<K,V>)n;
+    }
+
+    private void borrowLeft(Inner p, int i, Leaf<K,V> l, Leaf<K,V> c) {
+        int ls = l.size - 1, cs = c.size;
+        System.arraycopy(c.keys, 0, c.keys, 1, cs);
+        System.arraycopy(c.vals, 0, c.vals, 1, cs);
+        c.keys[0] = l.keys[ls];
+        c.vals[0] = l.vals[ls];
+        l.keys[ls] = null;
+        l.vals[ls] = null;
+        l.size = ls;
+        c.size = cs + 1;
+        p.keys[i - 1] = c.keys[0];
+    }
+
+    private void borrowLeft(Inner p, int i, Inner l, Inner c) {
+        int ls = l.size - 1, cs = c.size;
+        System.arraycopy(c.children, 0, c.children, 1, cs);
+        System.arraycopy(c.keys, 0, c.keys, 1, cs - 1);
+        c.children[0] = l.children[ls];
+        c.keys[0] = p.keys[i - 1];
+        p.keys[i - 1] = l.keys[ls - 1];
+        l.children[ls] = null;
+        l.keys[ls - 1] = null;
+        l.size = ls;
+        c.size = cs + 1;
+    }
+
+    private void borrowRight(Inner p, int i, Leaf<K,V> c, Leaf<K,V> r) {
+        int cs = c.size, rs = r.size - 1;
+        c.keys[cs] = r.keys[0];
+        c.vals[cs] = r.vals[0];
+        System.arraycopy(r.keys, 1, r.keys, 0, rs);
+        System.arraycopy(r.vals, 1, r.vals, 0, rs);
+        r.keys[rs] = null;
+        r.vals[rs] = null;
+        r.size = rs;
+        c.size = cs + 1;
+        p.keys[i] = r.keys[0];
+    }
+
+    private void borrowRight(Inner p, int i, Inner c, Inner r) {
+        int cs = c.size, rs = r.size - 1;
+        c.children[cs] = r.children[0];
+        c.keys[cs - 1] = p.keys[i];
+        p.keys[i] = r.keys[0];
+        System.arraycopy(r.children, 1, r.children, 0, rs);
+        System.arraycopy(r.keys, 1, r.keys, 0, rs - 1);
+        r.children[rs] = null;
+        r.keys[rs - 1] = null;
+        r.size = rs;
+        c.size = cs + 1;
+    }
+
+    /**
+     * Merges the child at index j + 1 of p into the child at index j,
+     * and removes it from p.
+     */
+    private void merge(Inner p, int j) {
+        Node a = p.children[j], b = p.children[j + 1];
+        int as = a.size, bs = b.size;
+        if (a instanceof Inner) {
+            Inner x = (Inner)a, y = (Inner)b;
+            x.keys[as - 1] = p.keys[j];
+            System.arraycopy(y.keys, 0, x.keys, as, bs - 1);
+            System.arraycopy(y.children, 0, x.children, as, bs);
+        } else {
+            Leaf<K,V> x = leaf(a), y = leaf(b);
+            System.arraycopy(y.keys, 0, x.keys, as, bs);
+            System.arraycopy(y.vals, 0, x.vals, as, bs);
+            Leaf<K,V> nx = y.next;
+            x.next = nx;
+            if (nx != null)
+                nx.prev = x;
+            else
+                last = x;
+        }
+        a.size = as + bs;
+        int ps = p.size - 1;
+        System.arraycopy(p.keys, j + 1, p.keys, j, ps - 1 - j);
+        System.arraycopy(p.children, j + 2, p.children, j + 1, ps - 1 - j);
+        p.keys[ps - 1] = null;
+        p.children[ps] = null;
+        p.size = ps;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        initTree();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code BTreeMap} instance. (The keys
+     * and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public Object clone() {
+        BTreeMap<?,?> clone;
+        try {
+            clone = (BTreeMap<?,?>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+
+        // Put clone into "virgin" state (except for comparator and order)
+        clone.entrySet = null;
+        clone.navigableKeySet = null;
+        clone.descendingMap = null;
+        clone.modCount = 0;
+        clone.splitNode = null;
+        clone.splitKey = null;
+        clone.initTree();
+        clone.copyFrom(this);
+        return clone;
+    }
+
+    /**
+     * Appends the mappings of m, which must have the same ordering as
+     * this empty map, in order.
+     */
+    @SuppressWarnings("unchecked")
+    private void copyFrom(BTreeMap<?,?> m) {
+        for (Leaf<?,?> l = m.first; l != null; l = l.next) {
+            for (int i = 0, n = l.size; i < n; ++i)
+                putVal((K)l.keys[i], (V)l.vals[i], false);
+        }
+    }
+
+    // NavigableMap API methods
+
+    /**
+     * @since 1.8
+     */
+    public Map.Entry<K,V> firstEntry() {
+        return exportEntry(firstPos());
+    }
+
+    /**
+     * @since 1.8
+     */
+    public Map.Entry<K,V> lastEntry() {
+        return exportEntry(lastPos());
+    }
+
+    /**
+     * @since 1.8
+     */
+    public Map.Entry<K,V> pollFirstEntry() {
+        Pos<K,V> p = firstPos();
+        Map.Entry<K,V> result = exportEntry(p);
+        if (p != null)
+            removeKey(p.key());
+        return result;
+    }
+
+    /**
+     * @since 1.8
+     */
+    public Map.Entry<K,V> pollLastEntry() {
+        Pos<K,V> p = lastPos();
+        Map.Entry<K,V> result = exportEntry(p);
+        if (p != null)
+            removeKey(p.key());
+        return result;
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return exportEntry(floorPos(key, false));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public K lowerKey(K key) {
+        return keyOrNull(floorPos(key, false));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return exportEntry(floorPos(key, true));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public K floorKey(K key) {
+        return keyOrNull(floorPos(key, true));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return exportEntry(ceilingPos(key, true));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public K ceilingKey(K key) {
+        return keyOrNull(ceilingPos(key, true));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return exportEntry(ceilingPos(key, false));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @since 1.8
+     */
+    public K higherKey(K key) {
+        return keyOrNull(ceilingPos(key, false));
+    }
+
+    // Positions
+
+    final Pos<K,V> firstPos() {
+        Leaf<K,V> l = first;
+        return (l.size == 0) ? null : new Pos<K,V>(l, 0);
+    }
+
+    final Pos<K,V> lastPos() {
+        Leaf<K,V> l = last;
+        return (l.size == 0) ? null : new Pos<K,V>(l, l.size - 1);
+    }
+
+    /**
+     * Returns the position of the least key greater than (or, if
+     * inclusive, equal to) key, or null if there is none.
+     */
+    final Pos<K,V> ceilingPos(Object key, boolean inclusive) {
+        Leaf<K,V> l = leafFor(key);
+        int i = search(l, key);
+        if (i < 0)
+            i = -i - 1;
+        else if (!inclusive)
+            ++i;
+        if (i >= l.size) {
+            // all keys of l are less; the next leaf starts above key
+            if ((l = l.next) == null)
+                return null;
+            i = 0;
+        }
+        return new Pos<K,V>(l, i);
+    }
+
+    /**
+     * Returns the position of the greatest key less than (or, if
+     * inclusive, equal to) key, or null if there is none.
+     */
+    final Pos<K,V> floorPos(Object key, boolean inclusive) {
+        Leaf<K,V> l = leafFor(key);
+        int i = search(l, key);
+        if (i < 0)
+            i = -i - 2;
+        else if (!inclusive)
+            --i;
+        if (i < 0) {
+            if ((l = l.prev) == null)
+                return null;
+            i = l.size - 1;
+        }
+        return new Pos<K,V>(l, i);
+    }
+
+    /**
+     * Returns an immutable snapshot of the mapping at p, or null.
+     */
+    static <K,V> Map.Entry<K,V> exportEntry(Pos<K,V> p) {
+        return (p == null) ? null :
+            new AbstractMap.SimpleImmutableEntry<>(p.key(), p.value());
+    }
+
+    static <K,V> K keyOrNull(Pos<K,V> p) {
+        return (p == null) ? null : p.key();
+    }
+
+    static <K> K key(Pos<K,?> p) {
+        if (p == null)
+            throw new NoSuchElementException();
+        return p.key();
+    }
+
+    // Bulk operations
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf<K,V> l = first; l != null; l = l.next) {
+            Object[] keys = l.keys, vals = l.vals;
+            for (int i = 0, n = l.size; i < n; ++i) {
+                action.accept((K)keys[i], (V)vals[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Leaf<K,V> l = first; l != null; l = l.next) {
+            Object[] keys = l.keys, vals = l.vals;
+            for (int i = 0, n = l.size; i < n; ++i) {
+                vals[i] = function.apply((K)keys[i], (V)vals[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    // Views
+
+    /**
+     * Fields initialized to contain an instance of the entry set view
+     * the first time this view is requested.  Views are stateless, so
+     * there's no reason to create more than one.
+     */
+    private transient EntrySet entrySet;
+    private transient KeySet<K> navigableKeySet;
+    private transient NavigableMap<K,V> descendingMap;
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map.
+     * The set's iterator returns the keys in ascending order.  The set
+     * is backed by the map, so changes to the map are reflected in the
+     * set, and vice-versa.  The set supports element removal, but not
+     * addition.
+     */
+    public Set<K> keySet() {
+        return navigableKeySet();
+    }
+
+    /**
+     * @since 1.8
+     */
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> nks = navigableKeySet;
+        return (nks != null) ? nks : (navigableKeySet = new KeySet<>(this));
+    }
+
+    /**
+     * @since 1.8
+     */
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this
+     * map, in ascending order of the corresponding keys.  The collection
+     * is backed by the map, and supports element removal, but not
+     * addition.
+     */
+    public Collection<V> values() {
+        Collection<V> vs = values;
+        if (vs == null) {
+            vs = new Values();
+            values = vs;
+        }
+        return vs;
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map,
+     * in ascending key order.  The set is backed by the map, and
+     * supports element removal, but not addition.
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * @since 1.8
+     */
+    public NavigableMap<K, V> descendingMap() {
+        NavigableMap<K, V> km = descendingMap;
+        return (km != null) ? km :
+            (descendingMap = new SubMap<>(this,
+                                          true, null, true,
+                                          true, null, true, true));
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                    K toKey,   boolean toInclusive) {
+        return new SubMap<>(this,
+                            false, fromKey, fromInclusive,
+                            false, toKey,   toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+        return new SubMap<>(this,
+                            true,  null,  true,
+                            false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+        return new SubMap<>(this,
+                            false, fromKey, inclusive,
+                            true,  null,    true, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    class Values extends AbstractCollection<V> {
+        public Iterator<V> iterator() {
+            return new ValueIterator(firstPos(), null, false);
+        }
+
+        public int size() {
+            return BTreeMap.this.size();
+        }
+
+        public boolean contains(Object o) {
+            return BTreeMap.this.containsValue(o);
+        }
+
+        public void clear() {
+            BTreeMap.this.clear();
+        }
+    }
+
+    class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator(firstPos(), null, false);
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            Object key = entry.getKey();
+            Leaf<K,V> l = leafFor(key);
+            int i = search(l, key);
+            return i >= 0 && Objects.equals(l.vals[i], entry.getValue());
+        }
+
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            Object key = entry.getKey();
+            Leaf<K,V> l = leafFor(key);
+            int i = search(l, key);
+            if (i >= 0 && Objects.equals(l.vals[i], entry.getValue())) {
+                removeKey(key);
+                return true;
+            }
+            return false;
+        }
+
+        public int size() {
+            return BTreeMap.this.size();
+        }
+
+        public void clear() {
+            BTreeMap.this.clear();
+        }
+    }
+
+    static final class KeySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+        private final NavigableMap<E, ?> m;
+        KeySet(NavigableMap<E,?> map) { m = map; }
+
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).keyIterator();
+            else
+                return ((BTreeMap.SubMap<E,?>)m).keyIterator();
+        }
+
+        public Iterator<E> descendingIterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).descendingKeyIterator();
+            else
+                return ((BTreeMap.SubMap<E,?>)m).descendingKeyIterator();
+        }
+
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public boolean remove(Object o) {
+            int oldSize = size();
+            m.remove(o);
+            return size() != oldSize;
+        }
+        public NavigableSet<E> subSet(E fromElement, boolean fromInclusive,
+                                      E toElement,   boolean toInclusive) {
+            return new KeySet<>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<>(m.tailMap(fromElement, inclusive));
+        }
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public SortedSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public SortedSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<>(m.descendingMap());
+        }
+    }
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(firstPos(), null, false);
+    }
+
+    Iterator<K> descendingKeyIterator() {
+        return new KeyIterator(lastPos(), null, true);
+    }
+
+    /**
+     * Base class for BTreeMap Iterators.  An iterator walks the leaf
+     * chain from a first position, in either direction, up to but
+     * excluding a fence position (or the end of the chain if the fence
+     * is null).
+     */
+    abstract class PrivateIterator<T> implements Iterator<T> {
+        /** The next position; leaf is null if there is none */
+        Leaf<K,V> leaf;
+        int index;
+        /** The fence position; fenceLeaf is null if there is none */
+        Leaf<K,V> fenceLeaf;
+        int fenceIndex;
+        final Object fenceKey;
+        final boolean descending;
+        /** The leaf and key of the last returned mapping */
+        Leaf<K,V> lastLeaf;
+        Object lastKey;
+        boolean canRemove;
+        int expectedModCount;
+
+        PrivateIterator(Pos<K,V> first, Pos<K,V> fence, boolean descending) {
+            expectedModCount = modCount;
+            this.descending = descending;
+            if (first != null) {
+                leaf = first.leaf;
+                index = first.index;
+            }
+            if (fence != null) {
+                fenceLeaf = fence.leaf;
+                fenceIndex = fence.index;
+                fenceKey = fence.key();
+            } else
+                fenceKey = null;
+        }
+
+        public final boolean hasNext() {
+            return leaf != null && (leaf != fenceLeaf || index != fenceIndex);
+        }
+
+        /**
+         * Advances past the next position, leaving its leaf in
+         * lastLeaf, and returns its index.
+         */
+        final int nextIndex() {
+            Leaf<K,V> l = leaf;
+            int i = index;
+            if (l == null || (l == fenceLeaf && i == fenceIndex))
+                throw new NoSuchElementException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            lastLeaf = l;
+            lastKey = l.keys[i];
+            canRemove = true;
+            if (descending) {
+                if (i > 0)
+                    index = i - 1;
+                else if ((leaf = l.prev) != null)
+                    index = leaf.size - 1;
+            } else {
+                if (i + 1 < l.size)
+                    index = i + 1;
+                else {
+                    leaf = l.next;
+                    index = 0;
+                }
+            }
+            return i;
+        }
+
+        public void remove() {
+            if (!canRemove)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            boolean more = hasNext();
+            Object nextKey = more ? leaf.keys[index] : null;
+            removeKey(lastKey);
+            canRemove = false;
+            lastKey = null;
+            lastLeaf = null;
+            expectedModCount = modCount;
+            // positions may have moved; re-locate them by key
+            if (more) {
+                Pos<K,V> p = descending ? floorPos(nextKey, true)
+                    : ceilingPos(nextKey, true);
+                leaf = p.leaf;
+                index = p.index;
+                if (fenceLeaf != null) {
+                    Pos<K,V> f = descending ? floorPos(fenceKey, true)
+                        : ceilingPos(fenceKey, true);
+                    fenceLeaf = f.leaf;
+                    fenceIndex = f.index;
+                }
+            } else
+                leaf = null;
+        }
+    }
+
+    final class EntryIterator extends PrivateIterator<Map.Entry<K,V>> {
+        EntryIterator(Pos<K,V> first, Pos<K,V> fence, boolean descending) {
+            super(first, fence, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            int i = nextIndex();
+            Leaf<K,V> l = lastLeaf;
+            return new IterEntry((K)l.keys[i], (V)l.vals[i], l, i);
+        }
+    }
+
+    final class ValueIterator extends PrivateIterator<V> {
+        ValueIterator(Pos<K,V> first, Pos<K,V> fence, boolean descending) {
+            super(first, fence, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public V next() {
+            int i = nextIndex();
+            return (V)lastLeaf.vals[i];
+        }
+    }
+
+    final class KeyIterator extends PrivateIterator<K> {
+        KeyIterator(Pos<K,V> first, Pos<K,V> fence, boolean descending) {
+            super(first, fence, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public K next() {
+            nextIndex();
+            return (K)lastKey;
+        }
+    }
+
+    /**
+     * An entry returned by an entry set iterator, which writes through
+     * to the map.  It remembers where its mapping was, and looks it up
+     * again by key if the map was since structurally modified.
+     */
+    final class IterEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = 3305612549082467693L;
+        private final transient Leaf<K,V> leaf;
+        private final transient int index;
+        private final transient int expectedModCount;
+
+        IterEntry(K key, V value, Leaf<K,V> leaf, int index) {
+            super(key, value);
+            this.leaf = leaf;
+            this.index = index;
+            this.expectedModCount = modCount;
+        }
+
+        public V setValue(V value) {
+            K key = getKey();
+            Leaf<K,V> l = leaf;
+            int i = index;
+            if (modCount != expectedModCount) {
+                l = leafFor(key);
+                if ((i = search(l, key)) < 0)
+                    throw new IllegalStateException();
+            }
+            l.vals[i] = value;
+            return super.setValue(value);
+        }
+    }
+
+    // SubMaps
+
+    /**
+     * A range of a BTreeMap, in ascending or descending order.  The
+     * range bounds (lo, hi) are absolute, that is, in the ordering of
+     * the backing map regardless of direction.  The methods named
+     * "abs" navigate in absolute terms; the public methods map onto
+     * them according to the direction of the view.
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements NavigableMap<K,V>, Serializable {
+        private static final long serialVersionUID = 6432710391718405528L;
+
+        final BTreeMap<K,V> m;
+
+        /**
+         * Endpoints are represented as triples (fromStart, lo,
+         * loInclusive) and (toEnd, hi, hiInclusive). If fromStart is
+         * true, then the low (absolute) bound is the start of the
+         * backing map, and the other values are ignored. Otherwise,
+         * if loInclusive is true, lo is an inclusive bound, else lo
+         * is exclusive. Similarly for the upper bound.
+         */
+        final K lo, hi;
+        final boolean fromStart, toEnd;
+        final boolean loInclusive, hiInclusive;
+        final boolean descending;
+
+        SubMap(BTreeMap<K,V> m,
+               boolean fromStart, K lo, boolean loInclusive,
+               boolean toEnd,     K hi, boolean hiInclusive,
+               boolean descending) {
+            if (!fromStart && !toEnd) {
+                if (m.compare(lo, hi) > 0)
+                    throw new IllegalArgumentException("fromKey > toKey");
+            } else {
+                if (!fromStart) // type check
+                    m.compare(lo, lo);
+                if (!toEnd)
+                    m.compare(hi, hi);
+            }
+
+            this.m = m;
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        // internal utilities
+
+        final boolean tooLow(Object key) {
+            if (!fromStart) {
+                int c = m.compare(key, lo);
+                if (c < 0 || (c == 0 && !loInclusive))
+                    return true;
+            }
+            return false;
+        }
+
+        final boolean tooHigh(Object key) {
+            if (!toEnd) {
+                int c = m.compare(key, hi);
+                if (c > 0 || (c == 0 && !hiInclusive))
+                    return true;
+            }
+            return false;
+        }
+
+        final boolean inRange(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        final boolean inClosedRange(Object key) {
+            return (fromStart || m.compare(key, lo) >= 0)
+                && (toEnd || m.compare(hi, key) >= 0);
+        }
+
+        final boolean inRange(Object key, boolean inclusive) {
+            return inclusive ? inRange(key) : inClosedRange(key);
+        }
+
+        /*
+         * Absolute versions of relation operations.
+         */
+
+        final Pos<K,V> absLowest() {
+            Pos<K,V> p = (fromStart ? m.firstPos() :
+                          m.ceilingPos(lo, loInclusive));
+            return (p == null || tooHigh(p.key())) ? null : p;
+        }
+
+        final Pos<K,V> absHighest() {
+            Pos<K,V> p = (toEnd ? m.lastPos() :
+                          m.floorPos(hi, hiInclusive));
+            return (p == null || tooLow(p.key())) ? null : p;
+        }
+
+        final Pos<K,V> absCeiling(K key, boolean inclusive) {
+            if (tooLow(key))
+                return absLowest();
+            Pos<K,V> p = m.ceilingPos(key, inclusive);
+            return (p == null || tooHigh(p.key())) ? null : p;
+        }
+
+        final Pos<K,V> absFloor(K key, boolean inclusive) {
+            if (tooHigh(key))
+                return absHighest();
+            Pos<K,V> p = m.floorPos(key, inclusive);
+            return (p == null || tooLow(p.key())) ? null : p;
+        }
+
+        /** Returns the position just above the range, or null for the end */
+        final Pos<K,V> absHighFence() {
+            return (toEnd ? null : m.ceilingPos(hi, !hiInclusive));
+        }
+
+        /** Returns the position just below the range, or null for the start */
+        final Pos<K,V> absLowFence() {
+            return (fromStart ? null : m.floorPos(lo, !loInclusive));
+        }
+
+        final Pos<K,V> subLowest() {
+            return descending ? absHighest() : absLowest();
+        }
+
+        final Pos<K,V> subHighest() {
+            return descending ? absLowest() : absHighest();
+        }
+
+        final Pos<K,V> subCeiling(K key, boolean inclusive) {
+            return descending ? absFloor(key, inclusive) : absCeiling(key, inclusive);
+        }
+
+        final Pos<K,V> subFloor(K key, boolean inclusive) {
+            return descending ? absCeiling(key, inclusive) : absFloor(key, inclusive);
+        }
+
+        // public methods
+
+        public boolean isEmpty() {
+            return (fromStart && toEnd) ? m.isEmpty() : absLowest() == null;
+        }
+
+        public int size() {
+            if (fromStart && toEnd)
+                return m.size();
+            int n = 0;
+            for (Iterator<K> it = keyIterator(); it.hasNext(); it.next())
+                ++n;
+            return n;
+        }
+
+        public final boolean containsKey(Object key) {
+            return inRange(key) && m.containsKey(key);
+        }
+
+        public final V put(K key, V value) {
+            if (!inRange(key))
+                throw new IllegalArgumentException("key out of range");
+            return m.put(key, value);
+        }
+
+        public final V get(Object key) {
+            return !inRange(key) ? null :  m.get(key);
+        }
+
+        public final V remove(Object key) {
+            return !inRange(key) ? null : m.remove(key);
+        }
+
+        public final Comparator<? super K> comparator() {
+            return descending ? Collections.reverseOrder(m.comparator())
+                : m.comparator();
+        }
+
+        public final Map.Entry<K,V> ceilingEntry(K key) {
+            return exportEntry(subCeiling(key, true));
+        }
+
+        public final K ceilingKey(K key) {
+            return keyOrNull(subCeiling(key, true));
+        }
+
+        public final Map.Entry<K,V> higherEntry(K key) {
+            return exportEntry(subCeiling(key, false));
+        }
+
+        public final K higherKey(K key) {
+            return keyOrNull(subCeiling(key, false));
+        }
+
+        public final Map.Entry<K,V> floorEntry(K key) {
+            return exportEntry(subFloor(key, true));
+        }
+
+        public final K floorKey(K key) {
+            return keyOrNull(subFloor(key, true));
+        }
+
+        public final Map.Entry<K,V> lowerEntry(K key) {
+            return exportEntry(subFloor(key, false));
+        }
+
+        public final K lowerKey(K key) {
+            return keyOrNull(subFloor(key, false));
+        }
+
+        public final K firstKey() {
+            return key(subLowest());
+        }
+
+        public final K lastKey() {
+            return key(subHighest());
+        }
+
+        public final Map.Entry<K,V> firstEntry() {
+            return exportEntry(subLowest());
+        }
+
+        public final Map.Entry<K,V> lastEntry() {
+            return exportEntry(subHighest());
+        }
+
+        public final Map.Entry<K,V> pollFirstEntry() {
+            Pos<K,V> p = subLowest();
+            Map.Entry<K,V> result = exportEntry(p);
+            if (p != null)
+                m.removeKey(p.key());
+            return result;
+        }
+
+        public final Map.Entry<K,V> pollLastEntry() {
+            Pos<K,V> p = subHighest();
+            Map.Entry<K,V> result = exportEntry(p);
+            if (p != null)
+                m.removeKey(p.key());
+            return result;
+        }
+
+        // Views
+        transient NavigableMap<K,V> descendingMapView;
+        transient EntrySetView entrySetView;
+        transient KeySet<K> navigableKeySetView;
+
+        public final NavigableSet<K> navigableKeySet() {
+            KeySet<K> nksv = navigableKeySetView;
+            return (nksv != null) ? nksv :
+                (navigableKeySetView = new BTreeMap.KeySet<>(this));
+        }
+
+        public final Set<K> keySet() {
+            return navigableKeySet();
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        public final SortedMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public final SortedMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public final SortedMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                        K toKey,   boolean toInclusive) {
+            if (!inRange(fromKey, fromInclusive))
+                throw new IllegalArgumentException("fromKey out of range");
+            if (!inRange(toKey, toInclusive))
+                throw new IllegalArgumentException("toKey out of range");
+            if (descending)
+                return new SubMap<>(m,
+                                    false, toKey,   toInclusive,
+                                    false, fromKey, fromInclusive, true);
+            return new SubMap<>(m,
+                                false, fromKey, fromInclusive,
+                                false, toKey,   toInclusive, false);
+        }
+
+        public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (!inRange(toKey, inclusive))
+                throw new IllegalArgumentException("toKey out of range");
+            if (descending)
+                return new SubMap<>(m,
+                                    false, toKey, inclusive,
+                                    toEnd, hi,    hiInclusive, true);
+            return new SubMap<>(m,
+                                fromStart, lo,    loInclusive,
+                                false,     toKey, inclusive, false);
+        }
+
+        public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (!inRange(fromKey, inclusive))
+                throw new IllegalArgumentException("fromKey out of range");
+            if (descending)
+                return new SubMap<>(m,
+                                    fromStart, lo, loInclusive,
+                                    false, fromKey, inclusive, true);
+            return new SubMap<>(m,
+                                false, fromKey, inclusive,
+                                toEnd, hi,      hiInclusive, false);
+        }
+
+        public NavigableMap<K,V> descendingMap() {
+            NavigableMap<K,V> mv = descendingMapView;
+            return (mv != null) ? mv :
+                (descendingMapView =
+                 new SubMap<>(m,
+                              fromStart, lo, loInclusive,
+                              toEnd,     hi, hiInclusive, !descending));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            EntrySetView es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySetView());
+        }
+
+        Iterator<K> keyIterator() {
+            return descending ?
+                m.new KeyIterator(absHighest(), absLowFence(), true) :
+                m.new KeyIterator(absLowest(), absHighFence(), false);
+        }
+
+        Iterator<K> descendingKeyIterator() {
+            return descending ?
+                m.new KeyIterator(absLowest(), absHighFence(), false) :
+                m.new KeyIterator(absHighest(), absLowFence(), true);
+        }
+
+        final class EntrySetView extends AbstractSet<Map.Entry<K,V>> {
+            public Iterator<Map.Entry<K,V>> iterator() {
+                return descending ?
+                    m.new EntryIterator(absHighest(), absLowFence(), true) :
+                    m.new EntryIterator(absLowest(), absHighFence(), false);
+            }
+
+            public int size() {
+                return SubMap.this.size();
+            }
+
+            public boolean isEmpty() {
+                return SubMap.this.isEmpty();
+            }
+
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+                Object key = entry.getKey();
+                if (!inRange(key))
+                    return false;
+                Leaf<K,V> l = m.leafFor(key);
+                int i = m.search(l, key);
+                return i >= 0 && Objects.equals(l.vals[i], entry.getValue());
+            }
+
+            public boolean remove(Object o) {
+                if (!contains(o))
+                    return false;
+                m.removeKey(((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Save the state of the {@code BTreeMap} instance to a stream (i.e.,
+     * serialize it).
+     *
+     * @serialData The <em>size</em> of the BTreeMap (the number of key-value
+     *             mappings) is emitted (int), followed by the key (Object)
+     *             and value (Object) for each key-value mapping represented
+     *             by the BTreeMap. The key-value mappings are emitted in
+     *             key-order (as determined by the BTreeMap's Comparator,
+     *             or by the keys' natural ordering if the BTreeMap has no
+     *             Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator, order and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out size (number of Mappings)
+        s.writeInt(size);
+
+        // Write out keys and values (alternating)
+        for (Leaf<K,V> l = first; l != null; l = l.next) {
+            for (int i = 0, n = l.size; i < n; ++i) {
+                s.writeObject(l.keys[i]);
+                s.writeObject(l.vals[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code BTreeMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator, order and any hidden stuff
+        s.defaultReadObject();
+        if (order < MIN_ORDER)
+            throw new java.io.InvalidObjectException("Illegal order: " +
+                                                     order);
+
+        // Read in size
+        int n = s.readInt();
+        if (n < 0)
+            throw new java.io.InvalidObjectException("Illegal mappings count: " +
+                                                     n);
+        initTree();
+        for (int i = 0; i < n; ++i)
+            putVal((K)s.readObject(), (V)s.readObject(), false);
+    }
+}
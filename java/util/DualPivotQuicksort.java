@@ -89,6 +89,13 @@ final class DualPivotQuicksort {
      */
     private static final int COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR = 3200;
 
+    /**
+     * If the length of an int, long, float or double array to be sorted
+     * is greater than this constant, and the array is not nearly sorted,
+     * radix sort is used in preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD = 1 << 12;
+
     /*
      * Sorting methods for seven primitive types.
      */
@@ -142,7 +149,11 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -541,6 +552,61 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by least significant digit
+     * radix sort, a byte at a time, using the given workspace array slice
+     * if it is large enough.  The keys are the values with their sign bit
+     * flipped, whose unsigned order is the signed order of the values.
+     * The byte counts for all passes are taken in one pass over the
+     * array, and a pass is skipped if every element has the same byte in
+     * that position.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(int[] a, int left, int right,
+                                  int[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new int[n];
+            workBase = 0;
+        }
+        int[][] count = new int[4][256];
+        for (int i = left; i <= right; i++) {
+            int k = a[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < 4; d++) {
+                count[d][(k >>> (d << 3)) & 0xFF]++;
+            }
+        }
+        int[] src = a, dst = work;
+        int so = left, wo = workBase;
+        for (int d = 0; d < 4; d++) {
+            int[] c = count[d];
+            int shift = d << 3;
+            if (c[((src[so] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            for (int b = 0, sum = 0; b < 256; b++) {
+                int t = c[b];
+                c[b] = sum;
+                sum += t;
+            }
+            for (int i = so, end = so + n; i < end; i++) {
+                int ai = src[i];
+                dst[wo + c[((ai ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = ai;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = so; so = wo; wo = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array using the given
      * workspace array slice if possible for merging
@@ -590,7 +656,11 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -989,6 +1059,61 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by least significant digit
+     * radix sort, a byte at a time, using the given workspace array slice
+     * if it is large enough.  The keys are the values with their sign bit
+     * flipped, whose unsigned order is the signed order of the values.
+     * The byte counts for all passes are taken in one pass over the
+     * array, and a pass is skipped if every element has the same byte in
+     * that position.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(long[] a, int left, int right,
+                                  long[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new long[n];
+            workBase = 0;
+        }
+        int[][] count = new int[8][256];
+        for (int i = left; i <= right; i++) {
+            long k = a[i] ^ Long.MIN_VALUE;
+            for (int d = 0; d < 8; d++) {
+                count[d][(int) (k >>> (d << 3)) & 0xFF]++;
+            }
+        }
+        long[] src = a, dst = work;
+        int so = left, wo = workBase;
+        for (int d = 0; d < 8; d++) {
+            int[] c = count[d];
+            int shift = d << 3;
+            if (c[(int) ((src[so] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            for (int b = 0, sum = 0; b < 256; b++) {
+                int t = c[b];
+                c[b] = sum;
+                sum += t;
+            }
+            for (int i = so, end = so + n; i < end; i++) {
+                long ai = src[i];
+                dst[wo + c[(int) ((ai ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = ai;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = so; so = wo; wo = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array using the given
      * workspace array slice if possible for merging
@@ -2138,7 +2263,11 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -2537,6 +2666,70 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by least significant digit
+     * radix sort, a byte at a time, using the given workspace array slice
+     * if it is large enough.  The keys are those of {@link #floatKey}.
+     * The byte counts for all passes are taken in one pass over the
+     * array, and a pass is skipped if every element has the same byte in
+     * that position.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(float[] a, int left, int right,
+                                  float[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new float[n];
+            workBase = 0;
+        }
+        int[][] count = new int[4][256];
+        for (int i = left; i <= right; i++) {
+            int k = floatKey(a[i]);
+            for (int d = 0; d < 4; d++) {
+                count[d][(k >>> (d << 3)) & 0xFF]++;
+            }
+        }
+        float[] src = a, dst = work;
+        int so = left, wo = workBase;
+        for (int d = 0; d < 4; d++) {
+            int[] c = count[d];
+            int shift = d << 3;
+            if (c[(floatKey(src[so]) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            for (int b = 0, sum = 0; b < 256; b++) {
+                int t = c[b];
+                c[b] = sum;
+                sum += t;
+            }
+            for (int i = so, end = so + n; i < end; i++) {
+                float ai = src[i];
+                dst[wo + c[(floatKey(ai) >>> shift) & 0xFF]++] = ai;
+            }
+            float[] t = src; src = dst; dst = t;
+            int o = so; so = wo; wo = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, n);
+        }
+    }
+
+    /**
+     * Returns a key whose unsigned order is the order of
+     * {@link Float#compare}: positive values have their sign bit flipped,
+     * and negative values all their bits.  All NaNs have the greatest key.
+     */
+    static int floatKey(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+
     /**
      * Sorts the specified range of the array using the given
      * workspace array slice if possible for merging
@@ -2677,7 +2870,11 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -3075,4 +3272,68 @@ final class DualPivotQuicksort {
             sort(a, great + 1, right, false);
         }
     }
+
+    /**
+     * Sorts the specified range of the array by least significant digit
+     * radix sort, a byte at a time, using the given workspace array slice
+     * if it is large enough.  The keys are those of {@link #doubleKey}.
+     * The byte counts for all passes are taken in one pass over the
+     * array, and a pass is skipped if every element has the same byte in
+     * that position.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(double[] a, int left, int right,
+                                  double[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new double[n];
+            workBase = 0;
+        }
+        int[][] count = new int[8][256];
+        for (int i = left; i <= right; i++) {
+            long k = doubleKey(a[i]);
+            for (int d = 0; d < 8; d++) {
+                count[d][(int) (k >>> (d << 3)) & 0xFF]++;
+            }
+        }
+        double[] src = a, dst = work;
+        int so = left, wo = workBase;
+        for (int d = 0; d < 8; d++) {
+            int[] c = count[d];
+            int shift = d << 3;
+            if (c[(int) (doubleKey(src[so]) >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            for (int b = 0, sum = 0; b < 256; b++) {
+                int t = c[b];
+                c[b] = sum;
+                sum += t;
+            }
+            for (int i = so, end = so + n; i < end; i++) {
+                double ai = src[i];
+                dst[wo + c[(int) (doubleKey(ai) >>> shift) & 0xFF]++] = ai;
+            }
+            double[] t = src; src = dst; dst = t;
+            int o = so; so = wo; wo = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, n);
+        }
+    }
+
+    /**
+     * Returns a key whose unsigned order is the order of
+     * {@link Double#compare}: positive values have their sign bit flipped,
+     * and negative values all their bits.  All NaNs have the greatest key.
+     */
+    static long doubleKey(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
 }
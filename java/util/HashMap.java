@@ -30,6 +30,8 @@ import java.io.InvalidObjectException;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -1301,6 +1303,121 @@ public class HashMap<K,V> extends AbstractMap<K,V>
         }
     }
 
+    /* ------------------------------------------------------------ */
+    // Parallel bulk operations
+
+    /*
+     * These methods split the table into ranges of bins using
+     * EntrySpliterator.trySplit, and process the ranges as a tree of
+     * CountedCompleters in ForkJoinPool.commonPool, as the bulk
+     * operations of ConcurrentHashMap do.  Each task traverses
+     * consecutive bins, so tasks touch disjoint parts of the table.
+     * As for the sequential versions, the map must not be structurally
+     * modified while an operation is in progress; each range is checked
+     * for comodification when it has been traversed.
+     */
+
+    /**
+     * Computes the initial batch value for bulk tasks: the number of
+     * times the traversal should be split, in powers of two.  Returns
+     * 0 (sequential) if the threshold is not exceeded.  Mirrors
+     * ConcurrentHashMap.batchFor.
+     */
+    final int batchFor(long b) {
+        long n;
+        if (b == Long.MAX_VALUE || (n = size) <= 1L || n < b)
+            return 0;
+        int sp = ForkJoinPool.getCommonPoolParallelism() << 2; // slack of 4
+        return (b <= 0L || (n /= b) >= sp) ? sp : (int)n;
+    }
+
+    /**
+     * Performs the given action for each (key, value), in parallel if
+     * this map has at least {@code parallelismThreshold} mappings.
+     * The action may be invoked concurrently by several threads, in no
+     * particular order, and must not modify this map.
+     *
+     * @param parallelismThreshold the (estimated) number of mappings
+     *        needed for this operation to be executed in parallel, or
+     *        {@code Long.MAX_VALUE} to execute sequentially
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     * @throws ConcurrentModificationException if this map is
+     *         structurally modified during the operation
+     * @since 1.8
+     */
+    public void parallelForEach(long parallelismThreshold,
+                                BiConsumer<? super K, ? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        new ForEachTask<K,V>(null, new EntrySpliterator<>(this, 0, -1, 0, 0),
+                             batchFor(parallelismThreshold), action).invoke();
+    }
+
+    /**
+     * Returns the result of accumulating the given transformation of
+     * all (key, value) pairs using the given reducer to combine
+     * values, or null if none, in parallel if this map has at least
+     * {@code parallelismThreshold} mappings.  The functions may be
+     * invoked concurrently by several threads, in no particular order,
+     * so the reducer should be associative, and neither may modify
+     * this map.
+     *
+     * @param parallelismThreshold the (estimated) number of mappings
+     *        needed for this operation to be executed in parallel, or
+     *        {@code Long.MAX_VALUE} to execute sequentially
+     * @param transformer a function returning the transformation
+     *        for an element, or null if there is no transformation (in
+     *        which case it is not combined)
+     * @param reducer a commutative associative combining function
+     * @param <U> the return type of the transformer
+     * @return the result of accumulating the given transformation
+     *         of all (key, value) pairs
+     * @throws NullPointerException if the transformer or reducer is null
+     * @throws ConcurrentModificationException if this map is
+     *         structurally modified during the operation
+     * @since 1.8
+     */
+    public <U> U parallelReduce(long parallelismThreshold,
+                                BiFunction<? super K, ? super V, ? extends U> transformer,
+                                BiFunction<? super U, ? super U, ? extends U> reducer) {
+        if (transformer == null || reducer == null)
+            throw new NullPointerException();
+        return new MapReduceTask<K,V,U>
+            (null, new EntrySpliterator<>(this, 0, -1, 0, 0),
+             batchFor(parallelismThreshold), null,
+             transformer, reducer).invoke();
+    }
+
+    /**
+     * Replaces each entry's value with the result of invoking the
+     * given function on that entry, as {@link #replaceAll} does, in
+     * parallel if this map has at least {@code parallelismThreshold}
+     * mappings.  The function may be invoked concurrently by several
+     * threads, in no particular order, and must not modify this map.
+     * As the entries are not removed if the function returns null,
+     * this does not change the keys of this map.
+     *
+     * <p>If the function throws an exception, some values may have
+     * been replaced and others not.
+     *
+     * @param parallelismThreshold the (estimated) number of mappings
+     *        needed for this operation to be executed in parallel, or
+     *        {@code Long.MAX_VALUE} to execute sequentially
+     * @param function the function to apply to each entry
+     * @throws NullPointerException if the function is null
+     * @throws ConcurrentModificationException if this map is
+     *         structurally modified during the operation
+     * @since 1.8
+     */
+    public void parallelComputeAll(long parallelismThreshold,
+                                   BiFunction<? super K, ? super V, ? extends V> function) {
+        if (function == null)
+            throw new NullPointerException();
+        new ComputeAllTask<K,V>(null, new EntrySpliterator<>(this, 0, -1, 0, 0),
+                                batchFor(parallelismThreshold), function).invoke();
+    }
+
     /* ------------------------------------------------------------ */
     // Cloning and serialization
 
@@ -1717,6 +1834,118 @@ public class HashMap<K,V> extends AbstractMap<K,V>
         }
     }
 
+    /* ------------------------------------------------------------ */
+    // Parallel bulk tasks
+
+    /*
+     * Each task splits its spliterator while batch allows, forking a
+     * task for each split-off part, and then traverses the rest
+     * itself.  Tasks act as their own traversal Consumers, to avoid
+     * allocating a lambda per task.
+     */
+
+    @SuppressWarnings("serial")
+    static final class ForEachTask<K,V> extends CountedCompleter<Void>
+        implements Consumer<Map.Entry<K,V>> {
+        final EntrySpliterator<K,V> spliterator;
+        final int batch;
+        final BiConsumer<? super K, ? super V> action;
+        ForEachTask(CountedCompleter<?> p, EntrySpliterator<K,V> s,
+                    int b, BiConsumer<? super K, ? super V> action) {
+            super(p);
+            this.spliterator = s; this.batch = b; this.action = action;
+        }
+        public void accept(Map.Entry<K,V> e) {
+            action.accept(e.getKey(), e.getValue());
+        }
+        public final void compute() {
+            final EntrySpliterator<K,V> s = spliterator;
+            EntrySpliterator<K,V> r;
+            for (int b = batch; (b >>>= 1) > 0 && (r = s.trySplit()) != null;) {
+                addToPendingCount(1);
+                new ForEachTask<K,V>(this, r, b, action).fork();
+            }
+            s.forEachRemaining(this);
+            propagateCompletion();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class ComputeAllTask<K,V> extends CountedCompleter<Void>
+        implements Consumer<Map.Entry<K,V>> {
+        final EntrySpliterator<K,V> spliterator;
+        final int batch;
+        final BiFunction<? super K, ? super V, ? extends V> function;
+        ComputeAllTask(CountedCompleter<?> p, EntrySpliterator<K,V> s,
+                       int b, BiFunction<? super K, ? super V, ? extends V> function) {
+            super(p);
+            this.spliterator = s; this.batch = b; this.function = function;
+        }
+        public void accept(Map.Entry<K,V> e) {
+            Node<K,V> p = (Node<K,V>)e;
+            p.value = function.apply(p.key, p.value);
+        }
+        public final void compute() {
+            final EntrySpliterator<K,V> s = spliterator;
+            EntrySpliterator<K,V> r;
+            for (int b = batch; (b >>>= 1) > 0 && (r = s.trySplit()) != null;) {
+                addToPendingCount(1);
+                new ComputeAllTask<K,V>(this, r, b, function).fork();
+            }
+            s.forEachRemaining(this);
+            propagateCompletion();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class MapReduceTask<K,V,U> extends CountedCompleter<U>
+        implements Consumer<Map.Entry<K,V>> {
+        final EntrySpliterator<K,V> spliterator;
+        final int batch;
+        final BiFunction<? super K, ? super V, ? extends U> transformer;
+        final BiFunction<? super U, ? super U, ? extends U> reducer;
+        U result;
+        MapReduceTask<K,V,U> rights, nextRight;
+        MapReduceTask(CountedCompleter<?> p, EntrySpliterator<K,V> s, int b,
+                      MapReduceTask<K,V,U> nextRight,
+                      BiFunction<? super K, ? super V, ? extends U> transformer,
+                      BiFunction<? super U, ? super U, ? extends U> reducer) {
+            super(p);
+            this.spliterator = s; this.batch = b; this.nextRight = nextRight;
+            this.transformer = transformer; this.reducer = reducer;
+        }
+        public final U getRawResult() { return result; }
+        public void accept(Map.Entry<K,V> e) {
+            U u, r;
+            if ((u = transformer.apply(e.getKey(), e.getValue())) != null)
+                result = ((r = result) == null) ? u : reducer.apply(r, u);
+        }
+        public final void compute() {
+            final EntrySpliterator<K,V> s = spliterator;
+            EntrySpliterator<K,V> sr;
+            for (int b = batch; (b >>>= 1) > 0 && (sr = s.trySplit()) != null;) {
+                addToPendingCount(1);
+                (rights = new MapReduceTask<K,V,U>
+                 (this, sr, b, rights, transformer, reducer)).fork();
+            }
+            s.forEachRemaining(this);
+            CountedCompleter<?> c;
+            for (c = firstComplete(); c != null; c = c.nextComplete()) {
+                @SuppressWarnings("unchecked")
+                MapReduceTask<K,V,U>
+                    t = (MapReduceTask<K,V,U>)c,
+                    r = t.rights;
+                while (r != null) {
+                    U tr, rr;
+                    if ((rr = r.result) != null)
+                        t.result = (((tr = t.result) == null) ? rr :
+                                    reducer.apply(tr, rr));
+                    r = t.rights = r.nextRight;
+                }
+            }
+        }
+    }
+
     /* ------------------------------------------------------------ */
     // LinkedHashMap support
 
@@ -0,0 +1,1099 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Hash table based implementation of the <tt>Map</tt> interface whose keys
+ * are primitive {@code int} values.  Keys and values are held in two
+ * parallel arrays and collisions are resolved by linear probing, so no
+ * per-mapping node object is allocated and keys are never boxed by the
+ * primitive-keyed operations ({@link #get(int)},
+ * {@link #putInt(int, Object)}, {@link #computeIfAbsent(int, IntFunction)}
+ * and so on).  This class permits <tt>null</tt> values.  Like
+ * {@link HashMap}, it makes no guarantees as to the order of the map.
+ *
+ * <p>The methods inherited from {@link Map} accept and return boxed
+ * {@link Integer} keys and behave exactly as they do for a
+ * <tt>HashMap&lt;Integer,V&gt;</tt> holding the same mappings; a
+ * <tt>null</tt> key is never contained in this map.  The primitive-keyed
+ * forms of {@code put}, {@code putIfAbsent}, {@code getOrDefault} and
+ * {@code merge} are named {@code putInt} and so on, as a call such as
+ * {@code put(1, 2)} would be ambiguous between the two forms for a map
+ * whose values are {@code Integer} or {@code Object}.
+ *
+ * <p>An instance of <tt>IntObjectMap</tt> has two parameters that affect
+ * its performance: <i>initial capacity</i> and <i>load factor</i>.  Since
+ * every probe sequence must terminate at a free slot, the load factor must
+ * be less than one; the default (.75) trades a small amount of space for
+ * short probe sequences.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * the threads modifies the map structurally, it <i>must</i> be
+ * synchronized externally.
+ *
+ * <p>The iterators returned by all of this class's "collection view methods"
+ * are <i>fail-fast</i>, in the same sense as those of {@link HashMap}.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see     HashMap
+ * @see     LongObjectMap
+ * @see     LongLongMap
+ * @since   1.8
+ */
+public class IntObjectMap<V> extends AbstractMap<Integer,V>
+    implements Map<Integer,V>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 5024744406713321676L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     * MUST be a power of two <= 1<<30.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Value stored in place of a user supplied <tt>null</tt>, so that a
+     * <tt>null</tt> slot in {@link #vals} always denotes a free slot.
+     */
+    static final Object NULL_VALUE = new Object();
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The keys, initialized on first use, and resized as necessary.
+     * When allocated, length is always a power of two.
+     */
+    transient int[] keys;
+
+    /**
+     * The values, parallel to {@link #keys}.  A <tt>null</tt> element
+     * marks a free slot; <tt>null</tt> values are stored as
+     * {@link #NULL_VALUE}.
+     */
+    transient Object[] vals;
+
+    /**
+     * Holds cached entrySet(). Note that AbstractMap fields are used
+     * for keySet() and values().
+     */
+    transient Set<Map.Entry<Integer,V>> entrySet;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * If the arrays have not been allocated, this field holds the initial
+     * capacity, or zero signifying DEFAULT_INITIAL_CAPACITY.
+     *
+     * @serial
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /* ---------------- Static utilities -------------- */
+
+    /**
+     * Spreads the key over the table with a multiplicative (Fibonacci)
+     * hash.  Sequential keys, which are common for int ids, would
+     * otherwise fill contiguous runs of slots and degrade linear probing.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static Object maskNull(Object value) {
+        return (value == null) ? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> V unmaskNull(Object value) {
+        return (value == NULL_VALUE) ? null : (V)value;
+    }
+
+    /**
+     * Returns a power of two size for the given target capacity.
+     */
+    static final int tableSizeFor(int cap) {
+        int n = cap - 1;
+        n |= n >>> 1;
+        n |= n >>> 2;
+        n |= n >>> 4;
+        n |= n >>> 8;
+        n |= n >>> 16;
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty <tt>IntObjectMap</tt> with the specified initial
+     * capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is nonpositive or not less than one
+     */
+    public IntObjectMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (initialCapacity > MAXIMUM_CAPACITY)
+            initialCapacity = MAXIMUM_CAPACITY;
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold = tableSizeFor((int)Math.min(MAXIMUM_CAPACITY,
+            (long)Math.ceil(initialCapacity / (double)loadFactor)));
+    }
+
+    /**
+     * Constructs an empty <tt>IntObjectMap</tt> with the specified initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public IntObjectMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty <tt>IntObjectMap</tt> with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public IntObjectMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+    }
+
+    /**
+     * Constructs a new <tt>IntObjectMap</tt> with the same mappings as the
+     * specified <tt>Map</tt>.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null, or if it
+     *          contains a null key
+     */
+    public IntObjectMap(Map<? extends Integer, ? extends V> m) {
+        this(Math.max(m.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot holding the given key, or -1 if absent.
+     */
+    final int indexOf(int key) {
+        Object[] vs; int[] ks;
+        if ((vs = vals) != null && size > 0) {
+            ks = keys;
+            int m = ks.length - 1;
+            for (int i = hash(key) & m; vs[i] != null; i = (i + 1) & m) {
+                if (ks[i] == key)
+                    return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    public V get(int key) {
+        int i = indexOf(key);
+        return (i < 0) ? null : IntObjectMap.<V>unmaskNull(vals[i]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public V get(Object key) {
+        return (key instanceof Integer) ? get(((Integer)key).intValue()) : null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public V getOrDefaultInt(int key, V defaultValue) {
+        int i = indexOf(key);
+        return (i < 0) ? defaultValue : IntObjectMap.<V>unmaskNull(vals[i]);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return (key instanceof Integer) ?
+            getOrDefaultInt(((Integer)key).intValue(), defaultValue) :
+            defaultValue;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Integer) && indexOf(((Integer)key).intValue()) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     *         (A <tt>null</tt> return can also indicate that the map
+     *         previously associated <tt>null</tt> with <tt>key</tt>.)
+     */
+    public V putInt(int key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V put(Integer key, V value) {
+        return putVal(key.intValue(), value, false);
+    }
+
+    /**
+     * Implements put and related methods.
+     *
+     * @param key the key
+     * @param value the value to put
+     * @param onlyIfAbsent if true, don't change existing value
+     * @return previous value, or null if none
+     */
+    final V putVal(int key, V value, boolean onlyIfAbsent) {
+        if (vals == null)
+            resize();
+        int[] ks = keys; Object[] vs = vals;
+        int m = ks.length - 1, i = hash(key) & m;
+        Object v;
+        for (; (v = vs[i]) != null; i = (i + 1) & m) {
+            if (ks[i] == key) {
+                if (!onlyIfAbsent || v == NULL_VALUE)
+                    vs[i] = maskNull(value);
+                return IntObjectMap.<V>unmaskNull(v);
+            }
+        }
+        ks[i] = key;
+        vs[i] = maskNull(value);
+        ++modCount;
+        if (++size > threshold)
+            resize();
+        return null;
+    }
+
+    /**
+     * Initializes or doubles the arrays, reinserting every mapping at
+     * its home position in the new arrays.
+     */
+    final void resize() {
+        int[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY) {
+                if (size >= oldCap - 1)
+                    throw new IllegalStateException("Map is full");
+                threshold = oldCap - 1;
+                return;
+            }
+            newCap = oldCap << 1;
+        }
+        else if (threshold > 0)
+            newCap = threshold;
+        else
+            newCap = DEFAULT_INITIAL_CAPACITY;
+        threshold = Math.min((int)(newCap * loadFactor), newCap - 1);
+        int[] ks = new int[newCap];
+        Object[] vs = new Object[newCap];
+        keys = ks;
+        vals = vs;
+        if (oldVals != null) {
+            int m = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                Object v;
+                if ((v = oldVals[j]) != null) {
+                    int k = oldKeys[j], i = hash(k) & m;
+                    while (vs[i] != null)
+                        i = (i + 1) & m;
+                    ks[i] = k;
+                    vs[i] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null, or if it
+     *         contains a null key
+     */
+    public void putAll(Map<? extends Integer, ? extends V> m) {
+        for (Map.Entry<? extends Integer, ? extends V> e : m.entrySet())
+            putVal(e.getKey().intValue(), e.getValue(), false);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     *         (A <tt>null</tt> return can also indicate that the map
+     *         previously associated <tt>null</tt> with <tt>key</tt>.)
+     */
+    public V remove(int key) {
+        int i = indexOf(key);
+        if (i < 0)
+            return null;
+        V old = IntObjectMap.<V>unmaskNull(vals[i]);
+        removeAt(i);
+        return old;
+    }
+
+    public V remove(Object key) {
+        return (key instanceof Integer) ? remove(((Integer)key).intValue()) : null;
+    }
+
+    /**
+     * Removes the mapping in slot i, shifting back any later members of
+     * its probe run so that lookups never need tombstones.
+     */
+    final void removeAt(int i) {
+        int[] ks = keys; Object[] vs = vals;
+        int m = ks.length - 1;
+        for (int j = i;;) {
+            j = (j + 1) & m;
+            Object v;
+            if ((v = vs[j]) == null)
+                break;
+            int h = hash(ks[j]) & m;
+            // move j into the hole unless its home lies cyclically in (i, j]
+            if ((i <= j) ? (h <= i || h > j) : (h <= i && h > j)) {
+                ks[i] = ks[j];
+                vs[i] = v;
+                i = j;
+            }
+        }
+        vs[i] = null;
+        ++modCount;
+        --size;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        Object[] vs;
+        modCount++;
+        if ((vs = vals) != null && size > 0) {
+            size = 0;
+            Arrays.fill(vs, null);
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        Object[] vs;
+        if ((vs = vals) != null && size > 0) {
+            Object mv = maskNull(value);
+            for (Object v : vs) {
+                if (v == mv || (v != null && mv.equals(v)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // Overrides of JDK8 Map extension methods, with primitive-keyed forms
+
+    public V putIfAbsentInt(int key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @Override
+    public V putIfAbsent(Integer key, V value) {
+        return putVal(key.intValue(), value, true);
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the
+     * given mapping function and enters it into this map unless
+     * {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public V computeIfAbsent(int key,
+                             IntFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int i = indexOf(key);
+        V oldValue;
+        if (i >= 0 && (oldValue = IntObjectMap.<V>unmaskNull(vals[i])) != null)
+            return oldValue;
+        int mc = modCount;
+        V v = mappingFunction.apply(key);
+        if (mc != modCount) { throw new ConcurrentModificationException(); }
+        if (v == null)
+            return null;
+        if (i >= 0)
+            vals[i] = v;
+        else
+            putVal(key, v, false);
+        return v;
+    }
+
+    /**
+     * If the value for the specified key is present and non-null,
+     * attempts to compute a new mapping given the key and its current
+     * mapped value.  If the function returns {@code null}, the mapping
+     * is removed.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null if none
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public V computeIfPresent(int key,
+                              BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int i = indexOf(key);
+        V oldValue;
+        if (i >= 0 && (oldValue = IntObjectMap.<V>unmaskNull(vals[i])) != null) {
+            int mc = modCount;
+            V v = remappingFunction.apply(key, oldValue);
+            if (mc != modCount) { throw new ConcurrentModificationException(); }
+            if (v == null)
+                removeAt(i);
+            else
+                vals[i] = v;
+            return v;
+        }
+        return null;
+    }
+
+    /**
+     * Attempts to compute a mapping for the specified key and its current
+     * mapped value (or {@code null} if there is no current mapping).
+     * If the function returns {@code null}, the mapping is removed (or
+     * remains absent if initially absent).
+     *
+     * @param key key with which the specified value is to be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null if none
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public V compute(int key,
+                     BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int i = indexOf(key);
+        V oldValue = (i < 0) ? null : IntObjectMap.<V>unmaskNull(vals[i]);
+        int mc = modCount;
+        V v = remappingFunction.apply(key, oldValue);
+        if (mc != modCount) { throw new ConcurrentModificationException(); }
+        if (i >= 0) {
+            if (v == null)
+                removeAt(i);
+            else
+                vals[i] = v;
+        }
+        else if (v != null)
+            putVal(key, v, false);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value or is
+     * associated with null, associates it with the given non-null value.
+     * Otherwise, replaces the associated value with the results of the
+     * given remapping function, or removes if the result is {@code null}.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the non-null value to be merged with the existing value
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key, or null if no
+     *         value is associated with the key
+     * @throws NullPointerException if the value or remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public V mergeInt(int key, V value,
+                      BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null || remappingFunction == null)
+            throw new NullPointerException();
+        int i = indexOf(key);
+        V oldValue = (i < 0) ? null : IntObjectMap.<V>unmaskNull(vals[i]);
+        V v;
+        if (oldValue == null)
+            v = value;
+        else {
+            int mc = modCount;
+            v = remappingFunction.apply(oldValue, value);
+            if (mc != modCount) { throw new ConcurrentModificationException(); }
+        }
+        if (i >= 0) {
+            if (v == null)
+                removeAt(i);
+            else
+                vals[i] = v;
+        }
+        else
+            putVal(key, v, false);
+        return v;
+    }
+
+    @Override
+    public V computeIfAbsent(Integer key,
+                             Function<? super Integer, ? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        return computeIfAbsent(key.intValue(), k -> mappingFunction.apply(k));
+    }
+
+    @Override
+    public V computeIfPresent(Integer key,
+                              BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        return computeIfPresent(key.intValue(), remappingFunction);
+    }
+
+    @Override
+    public V compute(Integer key,
+                     BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        return compute(key.intValue(), remappingFunction);
+    }
+
+    @Override
+    public V merge(Integer key, V value,
+                   BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return mergeInt(key.intValue(), value, remappingFunction);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super V> action) {
+        Object[] vs;
+        if (action == null)
+            throw new NullPointerException();
+        if (size > 0 && (vs = vals) != null) {
+            int[] ks = keys;
+            int mc = modCount;
+            for (int i = 0; i < vs.length && modCount == mc; ++i) {
+                Object v;
+                if ((v = vs[i]) != null)
+                    action.accept(ks[i], IntObjectMap.<V>unmaskNull(v));
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super Integer, ? super V, ? extends V> function) {
+        Object[] vs;
+        if (function == null)
+            throw new NullPointerException();
+        if (size > 0 && (vs = vals) != null) {
+            int[] ks = keys;
+            int mc = modCount;
+            for (int i = 0; i < vs.length; ++i) {
+                Object v;
+                if ((v = vs[i]) != null)
+                    vs[i] = maskNull(function.apply(ks[i], IntObjectMap.<V>unmaskNull(v)));
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the hash code value for this map, computed exactly as
+     * {@link AbstractMap#hashCode} would but without boxing keys.
+     */
+    public int hashCode() {
+        int h = 0;
+        Object[] vs;
+        if (size > 0 && (vs = vals) != null) {
+            int[] ks = keys;
+            for (int i = 0; i < vs.length; ++i) {
+                Object v;
+                if ((v = vs[i]) != null)
+                    h += Integer.hashCode(ks[i]) ^ Objects.hashCode(unmaskNull(v));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a shallow copy of this <tt>IntObjectMap</tt> instance: the
+     * values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object clone() {
+        IntObjectMap<V> result;
+        try {
+            result = (IntObjectMap<V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.entrySet = null;
+        result.keySet = null;
+        result.values = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the <tt>IntObjectMap</tt> instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> (an int, the number of key-value
+     *             mappings) is emitted, followed by the key (int) and
+     *             value (Object) for each key-value mapping.  The
+     *             key-value mappings are emitted in no particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        Object[] vs;
+        if (size > 0 && (vs = vals) != null) {
+            int[] ks = keys;
+            for (int i = 0; i < vs.length; ++i) {
+                Object v;
+                if ((v = vs[i]) != null) {
+                    s.writeInt(ks[i]);
+                    s.writeObject(unmaskNull(v));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code IntObjectMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        keys = null;
+        vals = null;
+        size = 0;
+        threshold = tableSizeFor((int)Math.min(MAXIMUM_CAPACITY,
+            Math.max(DEFAULT_INITIAL_CAPACITY,
+                     (long)Math.ceil(mappings / (double)loadFactor) + 1)));
+        for (int i = 0; i < mappings; i++) {
+            int key = s.readInt();
+            @SuppressWarnings("unchecked")
+                V value = (V) s.readObject();
+            putVal(key, value, false);
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // Views
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, but not the <tt>add</tt> or <tt>addAll</tt> operations.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    public Set<Integer> keySet() {
+        Set<Integer> ks;
+        return (ks = keySet) == null ? (keySet = new KeySet()) : ks;
+    }
+
+    final class KeySet extends AbstractSet<Integer> {
+        public final int size()                 { return size; }
+        public final void clear()               { IntObjectMap.this.clear(); }
+        public final Iterator<Integer> iterator()     { return new KeyIterator(); }
+        public final boolean contains(Object o) { return containsKey(o); }
+        public final boolean remove(Object key) {
+            int i;
+            if (key instanceof Integer &&
+                (i = indexOf(((Integer)key).intValue())) >= 0) {
+                removeAt(i);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * The collection is backed by the map, so changes to the map are
+     * reflected in the collection, and vice-versa.  The collection
+     * supports element removal, but not the <tt>add</tt> or
+     * <tt>addAll</tt> operations.
+     *
+     * @return a view of the values contained in this map
+     */
+    public Collection<V> values() {
+        Collection<V> vs;
+        return (vs = values) == null ? (values = new Values()) : vs;
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public final int size()                 { return size; }
+        public final void clear()               { IntObjectMap.this.clear(); }
+        public final Iterator<V> iterator()     { return new ValueIterator(); }
+        public final boolean contains(Object o) { return containsValue(o); }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, but not the <tt>add</tt> or <tt>addAll</tt> operations.
+     * The entries returned by its iterator write through to the map
+     * when {@link Map.Entry#setValue setValue} is invoked.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<Integer,V>> entrySet() {
+        Set<Map.Entry<Integer,V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Integer,V>> {
+        public final int size()                 { return size; }
+        public final void clear()               { IntObjectMap.this.clear(); }
+        public final Iterator<Map.Entry<Integer,V>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object key = e.getKey();
+            int i;
+            return key instanceof Integer &&
+                (i = indexOf(((Integer)key).intValue())) >= 0 &&
+                Objects.equals(unmaskNull(vals[i]), e.getValue());
+        }
+        public final boolean remove(Object o) {
+            if (o instanceof Map.Entry) {
+                Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+                Object key = e.getKey();
+                int i;
+                if (key instanceof Integer &&
+                    (i = indexOf(((Integer)key).intValue())) >= 0 &&
+                    Objects.equals(unmaskNull(vals[i]), e.getValue())) {
+                    removeAt(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A mapping returned by the entry set iterator.  Since mappings move
+     * between slots on resize and removal, setValue writes through by key.
+     */
+    final class Entry implements Map.Entry<Integer,V> {
+        final int key;
+        V value;
+
+        Entry(int key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public final Integer getKey()        { return key; }
+        public final V getValue()            { return value; }
+        public final String toString()       { return key + "=" + value; }
+
+        public final int hashCode() {
+            return Integer.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        public final V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            int i = indexOf(key);
+            if (i >= 0)
+                vals[i] = maskNull(newValue);
+            return oldValue;
+        }
+
+        public final boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (o instanceof Map.Entry) {
+                Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+                return Objects.equals(getKey(), e.getKey()) &&
+                    Objects.equals(value, e.getValue());
+            }
+            return false;
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Iterates slots from the end of the arrays towards the start.  With
+     * backward-shift deletion a removal only ever moves mappings into the
+     * freed slot from slots following it in probe order; scanning downward
+     * means such mappings have already been returned, except for mappings
+     * whose probe run wrapped around the end of the arrays.  Those are
+     * remembered in {@code wrapped} and returned after the scan.
+     */
+    abstract class HashIterator {
+        int index;             // next slot to examine, scanning downward
+        int lastIndex = -1;    // slot of last returned mapping, or -1
+        int lastKey;           // key of last returned mapping
+        boolean lastWrapped;   // last returned mapping came from wrapped
+        ArrayList<Object> wrapped; // alternating keys and values
+        int wrappedIndex;      // next position in wrapped
+        int expectedModCount;  // for fast-fail
+        int remaining;         // mappings not yet returned
+
+        HashIterator() {
+            expectedModCount = modCount;
+            index = (vals == null) ? 0 : vals.length;
+            remaining = size;
+        }
+
+        public final boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Advances to the next mapping, leaving its key in lastKey and
+         * returning its masked value.
+         */
+        final Object nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            Object[] vs = vals;
+            while (index > 0) {
+                Object v;
+                if ((v = vs[--index]) != null) {
+                    lastIndex = index;
+                    lastKey = keys[index];
+                    lastWrapped = false;
+                    --remaining;
+                    return v;
+                }
+            }
+            if (wrapped != null && wrappedIndex < wrapped.size()) {
+                lastIndex = -1;
+                lastKey = (Integer)wrapped.get(wrappedIndex++);
+                lastWrapped = true;
+                --remaining;
+                return wrapped.get(wrappedIndex++);
+            }
+            throw new ConcurrentModificationException();
+        }
+
+        public final void remove() {
+            if (lastIndex < 0 && !lastWrapped)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastWrapped)
+                IntObjectMap.this.remove(lastKey);
+            else
+                shiftRemove(lastIndex);
+            lastIndex = -1;
+            lastWrapped = false;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Same as removeAt, but records any not yet returned mapping that
+         * is shifted into the already scanned part of the arrays.
+         */
+        private void shiftRemove(int i) {
+            int[] ks = keys; Object[] vs = vals;
+            int m = ks.length - 1, pos = i;
+            for (int j = i;;) {
+                j = (j + 1) & m;
+                Object v;
+                if ((v = vs[j]) == null)
+                    break;
+                int h = hash(ks[j]) & m;
+                if ((i <= j) ? (h <= i || h > j) : (h <= i && h > j)) {
+                    if (j < pos && i >= pos) {
+                        if (wrapped == null)
+                            wrapped = new ArrayList<>();
+                        wrapped.add(ks[j]);
+                        wrapped.add(v);
+                    }
+                    ks[i] = ks[j];
+                    vs[i] = v;
+                    i = j;
+                }
+            }
+            vs[i] = null;
+            ++modCount;
+            --size;
+        }
+    }
+
+    final class KeyIterator extends HashIterator implements Iterator<Integer> {
+        public final Integer next() { nextSlot(); return lastKey; }
+    }
+
+    final class ValueIterator extends HashIterator implements Iterator<V> {
+        public final V next() { return IntObjectMap.<V>unmaskNull(nextSlot()); }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<Integer,V>> {
+        public final Map.Entry<Integer,V> next() {
+            V v = IntObjectMap.<V>unmaskNull(nextSlot());
+            return new Entry(lastKey, v);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts object arrays by a primitive key, for the {@code sortBy} and
+ * {@code parallelSortBy} methods of {@link Arrays}.
+ *
+ * <p>Each key is extracted once, and the keys are sorted together with
+ * the original index of their element.  Since ties are broken by the
+ * index, the sort is stable, and the elements are then moved to their
+ * place in one pass over a copy of the array.  An {@code int} key and
+ * its index are packed into one {@code long}, high and low half, and
+ * sorted as such by {@link DualPivotQuicksort} or
+ * {@link Arrays#parallelSort(long[])}.  A {@code long} or {@code double}
+ * key leaves no room for the index, so the keys and indices are sorted
+ * as pairs by a least significant digit radix sort, which is stable by
+ * construction.  Its passes are split across the
+ * {@link ForkJoinPool#commonPool() common pool} when sorting in
+ * parallel.
+ *
+ * <p>The array is only written once every key has been extracted, so an
+ * exception thrown by the key extractor leaves it unchanged.
+ */
+final class KeySort {
+
+    private KeySort() {}
+
+    /**
+     * The array length below which sorting is not parallelized, as in
+     * {@link Arrays}.
+     */
+    private static final int MIN_PARALLEL = 1 << 13;
+
+    /**
+     * The number of key bits sorted by each radix sort pass.
+     */
+    private static final int RADIX_BITS = 8;
+
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static boolean useParallel(int n) {
+        return n > MIN_PARALLEL && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    static <T> void sortByInt(T[] a, ToIntFunction<? super T> key,
+                              boolean parallel) {
+        Objects.requireNonNull(key);
+        int n = a.length;
+        if (n < 2)
+            return;
+        long[] packed = new long[n];
+        if (parallel && useParallel(n)) {
+            IntStream.range(0, n).parallel().forEach(i -> {
+                packed[i] = ((long)key.applyAsInt(a[i]) << 32) | i; });
+            Arrays.parallelSort(packed);
+            T[] src = a.clone();
+            IntStream.range(0, n).parallel().forEach(i -> {
+                a[i] = src[(int)packed[i]]; });
+        } else {
+            for (int i = 0; i < n; i++)
+                packed[i] = ((long)key.applyAsInt(a[i]) << 32) | i;
+            DualPivotQuicksort.sort(packed, 0, n - 1, null, 0, 0);
+            T[] src = a.clone();
+            for (int i = 0; i < n; i++)
+                a[i] = src[(int)packed[i]];
+        }
+    }
+
+    /*
+     * Radix sort keys are unsigned, so a signed key has its sign bit
+     * flipped when it is extracted.  A double key is first mapped to a
+     * long that compares like Double.compare: NaN is canonicalized, and
+     * negative values have their other bits flipped so that they order
+     * by decreasing magnitude.
+     */
+
+    static <T> void sortByLong(T[] a, ToLongFunction<? super T> key,
+                               boolean parallel) {
+        Objects.requireNonNull(key);
+        int n = a.length;
+        if (n < 2)
+            return;
+        long[] keys = new long[n];
+        parallel = parallel && useParallel(n);
+        if (parallel)
+            IntStream.range(0, n).parallel().forEach(i -> {
+                keys[i] = key.applyAsLong(a[i]) ^ Long.MIN_VALUE; });
+        else
+            for (int i = 0; i < n; i++)
+                keys[i] = key.applyAsLong(a[i]) ^ Long.MIN_VALUE;
+        sortPairs(a, keys, parallel);
+    }
+
+    static <T> void sortByDouble(T[] a, ToDoubleFunction<? super T> key,
+                                 boolean parallel) {
+        Objects.requireNonNull(key);
+        int n = a.length;
+        if (n < 2)
+            return;
+        long[] keys = new long[n];
+        parallel = parallel && useParallel(n);
+        if (parallel)
+            IntStream.range(0, n).parallel().forEach(i -> {
+                keys[i] = sortable(key.applyAsDouble(a[i])); });
+        else
+            for (int i = 0; i < n; i++)
+                keys[i] = sortable(key.applyAsDouble(a[i]));
+        sortPairs(a, keys, parallel);
+    }
+
+    private static long sortable(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Sorts the elements of a by the corresponding unsigned keys.
+     */
+    private static <T> void sortPairs(T[] a, long[] keys, boolean parallel) {
+        int n = a.length;
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++)
+            idx[i] = i;
+        long[] keysBuf = new long[n];
+        int[] idxBuf = new int[n];
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            boolean moved = parallel
+                ? parallelPass(keys, idx, keysBuf, idxBuf, shift)
+                : pass(keys, idx, keysBuf, idxBuf, shift);
+            if (moved) {
+                long[] k = keys; keys = keysBuf; keysBuf = k;
+                int[] x = idx; idx = idxBuf; idxBuf = x;
+            }
+        }
+        T[] src = a.clone();
+        int[] order = idx;
+        if (parallel)
+            IntStream.range(0, n).parallel().forEach(i -> {
+                a[i] = src[order[i]]; });
+        else
+            for (int i = 0; i < n; i++)
+                a[i] = src[order[i]];
+    }
+
+    /**
+     * Moves the pairs into the buffers in order of the digit at shift,
+     * keeping the order of pairs with equal digits.  Returns false,
+     * without moving anything, if all the pairs have the same digit.
+     */
+    private static boolean pass(long[] keys, int[] idx,
+                                long[] keysBuf, int[] idxBuf, int shift) {
+        int n = keys.length;
+        int[] count = new int[RADIX];
+        for (int i = 0; i < n; i++)
+            count[(int)(keys[i] >>> shift) & (RADIX - 1)]++;
+        if (count[(int)(keys[0] >>> shift) & (RADIX - 1)] == n)
+            return false;
+        for (int d = 0, sum = 0; d < RADIX; d++) {
+            int c = count[d];
+            count[d] = sum;
+            sum += c;
+        }
+        for (int i = 0; i < n; i++) {
+            long k = keys[i];
+            int p = count[(int)(k >>> shift) & (RADIX - 1)]++;
+            keysBuf[p] = k;
+            idxBuf[p] = idx[i];
+        }
+        return true;
+    }
+
+    /**
+     * As pass, with the array cut into chunks that are counted and then
+     * scattered in parallel.  Each chunk's pairs with a given digit go
+     * after those of the chunks before it, which keeps the pass stable.
+     */
+    private static boolean parallelPass(long[] keys, int[] idx,
+                                        long[] keysBuf, int[] idxBuf,
+                                        int shift) {
+        int n = keys.length;
+        int chunks = Math.min(n / MIN_PARALLEL,
+                              ForkJoinPool.getCommonPoolParallelism() << 2);
+        int[][] counts = new int[chunks][RADIX];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = counts[c];
+            for (int i = start(c, chunks, n), end = start(c + 1, chunks, n);
+                 i < end; i++)
+                count[(int)(keys[i] >>> shift) & (RADIX - 1)]++;
+        });
+        int first = (int)(keys[0] >>> shift) & (RADIX - 1);
+        int sum = 0;
+        for (int c = 0; c < chunks; c++)
+            sum += counts[c][first];
+        if (sum == n)
+            return false;
+        sum = 0;
+        for (int d = 0; d < RADIX; d++) {
+            for (int c = 0; c < chunks; c++) {
+                int k = counts[c][d];
+                counts[c][d] = sum;
+                sum += k;
+            }
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = counts[c];
+            for (int i = start(c, chunks, n), end = start(c + 1, chunks, n);
+                 i < end; i++) {
+                long k = keys[i];
+                int p = offset[(int)(k >>> shift) & (RADIX - 1)]++;
+                keysBuf[p] = k;
+                idxBuf[p] = idx[i];
+            }
+        });
+        return true;
+    }
+
+    private static int start(int chunk, int chunks, int n) {
+        return (int)((long)n * chunk / chunks);
+    }
+}
@@ -0,0 +1,1036 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Hash table based implementation of the <tt>Map</tt> interface whose keys
+ * and values are primitive {@code long} values.  Keys and values are held
+ * in two parallel arrays and collisions are resolved by linear probing, so
+ * no per-mapping node object is allocated, and neither keys nor values are
+ * boxed by the primitive operations ({@link #getOrDefault(long, long)},
+ * {@link #put(long, long)}, {@link #merge(long, long, LongBinaryOperator)}
+ * and so on).  Like {@link HashMap}, this class makes no guarantees as to
+ * the order of the map.
+ *
+ * <p>The methods inherited from {@link Map} accept and return boxed
+ * {@link Long} keys and values and behave as they do for a
+ * <tt>HashMap&lt;Long,Long&gt;</tt> holding the same mappings, except that
+ * <tt>null</tt> keys and values are not permitted.
+ *
+ * <p>Since a primitive value cannot signal absence, the primitive
+ * {@link #put(long, long) put} and {@link #remove(long) remove} operations
+ * return {@code 0} when there was no previous mapping; {@link
+ * #containsKey(long)} distinguishes the two cases when that matters.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * the threads modifies the map structurally, it <i>must</i> be
+ * synchronized externally.
+ *
+ * <p>The iterators returned by all of this class's "collection view methods"
+ * are <i>fail-fast</i>, in the same sense as those of {@link HashMap}.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @see     HashMap
+ * @see     IntObjectMap
+ * @see     LongObjectMap
+ * @since   1.8
+ */
+public class LongLongMap extends AbstractMap<Long,Long>
+    implements Map<Long,Long>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 7183472531649412170L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     * MUST be a power of two <= 1<<30.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The keys, initialized on first use, and resized as necessary.
+     * When allocated, length is always a power of two.  A zero element
+     * marks a free slot; the mapping for key zero, if any, is held in
+     * {@link #zeroValue} instead.
+     */
+    transient long[] keys;
+
+    /**
+     * The values, parallel to {@link #keys}.
+     */
+    transient long[] vals;
+
+    /**
+     * True if the map contains a mapping for key zero.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The value mapped to key zero, if {@link #hasZeroKey}.
+     */
+    transient long zeroValue;
+
+    /**
+     * Holds cached entrySet(). Note that AbstractMap fields are used
+     * for keySet() and values().
+     */
+    transient Set<Map.Entry<Long,Long>> entrySet;
+
+    /**
+     * The number of key-value mappings contained in this map, including
+     * any mapping for key zero.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * If the arrays have not been allocated, this field holds the initial
+     * capacity, or zero signifying DEFAULT_INITIAL_CAPACITY.
+     *
+     * @serial
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /* ---------------- Static utilities -------------- */
+
+    /**
+     * Spreads the key over the table with a multiplicative (Fibonacci)
+     * hash.  Sequential keys, which are common for long ids, would
+     * otherwise fill contiguous runs of slots and degrade linear probing.
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty <tt>LongLongMap</tt> with the specified initial
+     * capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is nonpositive or not less than one
+     */
+    public LongLongMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (initialCapacity > MAXIMUM_CAPACITY)
+            initialCapacity = MAXIMUM_CAPACITY;
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold = IntObjectMap.tableSizeFor((int)Math.min(MAXIMUM_CAPACITY,
+            (long)Math.ceil(initialCapacity / (double)loadFactor)));
+    }
+
+    /**
+     * Constructs an empty <tt>LongLongMap</tt> with the specified initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public LongLongMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty <tt>LongLongMap</tt> with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public LongLongMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+    }
+
+    /**
+     * Constructs a new <tt>LongLongMap</tt> with the same mappings as the
+     * specified <tt>Map</tt>.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null, or if it
+     *          contains a null key or value
+     */
+    public LongLongMap(Map<? extends Long, ? extends Long> m) {
+        this(Math.max(m.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot holding the given nonzero key, or -1 if absent.
+     */
+    final int indexOf(long key) {
+        long[] ks;
+        if ((ks = keys) != null) {
+            int m = ks.length - 1;
+            long k;
+            for (int i = hash(key) & m; (k = ks[i]) != 0L; i = (i + 1) & m) {
+                if (k == key)
+                    return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0L)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = indexOf(key);
+        return (i < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Long get(Object key) {
+        if (key instanceof Long) {
+            long k = ((Long)key).longValue();
+            if (k == 0L)
+                return hasZeroKey ? zeroValue : null;
+            int i = indexOf(k);
+            if (i >= 0)
+                return vals[i];
+        }
+        return null;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(long key) {
+        return (key == 0L) ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Long) && containsKey(((Long)key).longValue());
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     *         (A <tt>0</tt> return can also indicate that the map
+     *         previously associated <tt>0</tt> with <tt>key</tt>.)
+     */
+    public long put(long key, long value) {
+        if (key == 0L) {
+            long old = zeroValue;
+            zeroValue = value;
+            if (hasZeroKey)
+                return old;
+            hasZeroKey = true;
+            ++modCount;
+            ++size;
+            return 0L;
+        }
+        int i = slotFor(key);
+        if (i >= 0) {
+            long old = vals[i];
+            vals[i] = value;
+            return old;
+        }
+        insertAt(~i, key, value);
+        return 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public Long put(Long key, Long value) {
+        long k = key.longValue(), v = value.longValue();
+        boolean present = containsKey(k);
+        long old = put(k, v);
+        return present ? old : null;
+    }
+
+    /**
+     * Returns the slot holding the given nonzero key, or the one's
+     * complement of the free slot where it would be inserted.
+     */
+    final int slotFor(long key) {
+        if (keys == null)
+            resize();
+        long[] ks = keys;
+        int m = ks.length - 1, i = hash(key) & m;
+        long k;
+        for (; (k = ks[i]) != 0L; i = (i + 1) & m) {
+            if (k == key)
+                return i;
+        }
+        return ~i;
+    }
+
+    final void insertAt(int i, long key, long value) {
+        keys[i] = key;
+        vals[i] = value;
+        ++modCount;
+        // the zero key does not occupy a slot
+        if (++size - (hasZeroKey ? 1 : 0) > threshold)
+            resize();
+    }
+
+    /**
+     * Initializes or doubles the arrays, reinserting every mapping at
+     * its home position in the new arrays.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        long[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY) {
+                if (size >= oldCap - 1)
+                    throw new IllegalStateException("Map is full");
+                threshold = oldCap - 1;
+                return;
+            }
+            newCap = oldCap << 1;
+        }
+        else if (threshold > 0)
+            newCap = threshold;
+        else
+            newCap = DEFAULT_INITIAL_CAPACITY;
+        threshold = Math.min((int)(newCap * loadFactor), newCap - 1);
+        long[] ks = new long[newCap];
+        long[] vs = new long[newCap];
+        keys = ks;
+        vals = vs;
+        if (oldKeys != null) {
+            int m = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                long k;
+                if ((k = oldKeys[j]) != 0L) {
+                    int i = hash(k) & m;
+                    while (ks[i] != 0L)
+                        i = (i + 1) & m;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null, or if it
+     *         contains a null key or value
+     */
+    public void putAll(Map<? extends Long, ? extends Long> m) {
+        for (Map.Entry<? extends Long, ? extends Long> e : m.entrySet())
+            put(e.getKey().longValue(), e.getValue().longValue());
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public long remove(long key) {
+        if (key == 0L) {
+            if (!hasZeroKey)
+                return 0L;
+            long old = zeroValue;
+            removeZero();
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0)
+            return 0L;
+        long old = vals[i];
+        removeAt(i);
+        return old;
+    }
+
+    public Long remove(Object key) {
+        if (key instanceof Long) {
+            long k = ((Long)key).longValue();
+            if (containsKey(k))
+                return remove(k);
+        }
+        return null;
+    }
+
+    final void removeZero() {
+        hasZeroKey = false;
+        zeroValue = 0L;
+        ++modCount;
+        --size;
+    }
+
+    /**
+     * Removes the mapping in slot i, shifting back any later members of
+     * its probe run so that lookups never need tombstones.
+     */
+    final void removeAt(int i) {
+        long[] ks = keys, vs = vals;
+        int m = ks.length - 1;
+        for (int j = i;;) {
+            j = (j + 1) & m;
+            long k;
+            if ((k = ks[j]) == 0L)
+                break;
+            int h = hash(k) & m;
+            // move j into the hole unless its home lies cyclically in (i, j]
+            if ((i <= j) ? (h <= i || h > j) : (h <= i && h > j)) {
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        ks[i] = 0L;
+        ++modCount;
+        --size;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        long[] ks;
+        modCount++;
+        if (size > 0) {
+            size = 0;
+            hasZeroKey = false;
+            zeroValue = 0L;
+            if ((ks = keys) != null)
+                Arrays.fill(ks, 0L);
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(long value) {
+        if (hasZeroKey && zeroValue == value)
+            return true;
+        long[] ks;
+        if ((ks = keys) != null) {
+            long[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                if (ks[i] != 0L && vs[i] == value)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsValue(Object value) {
+        return (value instanceof Long) && containsValue(((Long)value).longValue());
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function and
+     * enters it into this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        if (key == 0L) {
+            if (hasZeroKey)
+                return zeroValue;
+        }
+        else {
+            int i = indexOf(key);
+            if (i >= 0)
+                return vals[i];
+        }
+        int mc = modCount;
+        long v = mappingFunction.applyAsLong(key);
+        if (mc != modCount) { throw new ConcurrentModificationException(); }
+        put(key, v);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * associated value with the result of applying the given function to
+     * the old and the given value.  For example, to count occurrences:
+     * <pre> {@code map.merge(key, 1L, Long::sum)}</pre>
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be merged with the existing value
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public long merge(long key, long value,
+                      LongBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                put(0L, value);
+                return value;
+            }
+            int mc = modCount;
+            long v = remappingFunction.applyAsLong(zeroValue, value);
+            if (mc != modCount) { throw new ConcurrentModificationException(); }
+            return zeroValue = v;
+        }
+        int i = slotFor(key);
+        if (i < 0) {
+            insertAt(~i, key, value);
+            return value;
+        }
+        int mc = modCount;
+        long v = remappingFunction.applyAsLong(vals[i], value);
+        if (mc != modCount) { throw new ConcurrentModificationException(); }
+        return vals[i] = v;
+    }
+
+    @Override
+    public Long merge(Long key, Long value,
+                      BiFunction<? super Long, ? super Long, ? extends Long> remappingFunction) {
+        if (value == null || remappingFunction == null)
+            throw new NullPointerException();
+        long k = key.longValue();
+        if (!containsKey(k)) {
+            put(k, value.longValue());
+            return value;
+        }
+        int mc = modCount;
+        Long v = remappingFunction.apply(getOrDefault(k, 0L), value);
+        if (mc != modCount) { throw new ConcurrentModificationException(); }
+        if (v == null)
+            remove(k);
+        else
+            put(k, v.longValue());
+        return v;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Long, ? super Long> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (size > 0) {
+            int mc = modCount;
+            if (hasZeroKey)
+                action.accept(0L, zeroValue);
+            long[] ks;
+            if ((ks = keys) != null) {
+                long[] vs = vals;
+                for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                    long k;
+                    if ((k = ks[i]) != 0L)
+                        action.accept(k, vs[i]);
+                }
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super Long, ? super Long, ? extends Long> function) {
+        if (function == null)
+            throw new NullPointerException();
+        if (size > 0) {
+            int mc = modCount;
+            if (hasZeroKey)
+                zeroValue = function.apply(0L, zeroValue).longValue();
+            long[] ks;
+            if ((ks = keys) != null) {
+                long[] vs = vals;
+                for (int i = 0; i < ks.length; ++i) {
+                    long k;
+                    if ((k = ks[i]) != 0L)
+                        vs[i] = function.apply(k, vs[i]).longValue();
+                }
+            }
+            if (modCount != mc)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns the hash code value for this map, computed exactly as
+     * {@link AbstractMap#hashCode} would but without boxing.
+     */
+    public int hashCode() {
+        int h = hasZeroKey ? Long.hashCode(zeroValue) : 0;
+        long[] ks;
+        if (size > 0 && (ks = keys) != null) {
+            long[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                long k;
+                if ((k = ks[i]) != 0L)
+                    h += Long.hashCode(k) ^ Long.hashCode(vs[i]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a shallow copy of this <tt>LongLongMap</tt> instance.
+     *
+     * @return a copy of this map
+     */
+    @Override
+    public Object clone() {
+        LongLongMap result;
+        try {
+            result = (LongLongMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.entrySet = null;
+        result.keySet = null;
+        result.values = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the <tt>LongLongMap</tt> instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> (an int, the number of key-value
+     *             mappings) is emitted, followed by the key (long) and
+     *             value (long) for each key-value mapping.  The
+     *             key-value mappings are emitted in no particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (hasZeroKey) {
+            s.writeLong(0L);
+            s.writeLong(zeroValue);
+        }
+        long[] ks;
+        if (size > 0 && (ks = keys) != null) {
+            long[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                long k;
+                if ((k = ks[i]) != 0L) {
+                    s.writeLong(k);
+                    s.writeLong(vs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code LongLongMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        keys = null;
+        vals = null;
+        hasZeroKey = false;
+        zeroValue = 0L;
+        size = 0;
+        threshold = IntObjectMap.tableSizeFor((int)Math.min(MAXIMUM_CAPACITY,
+            Math.max(DEFAULT_INITIAL_CAPACITY,
+                     (long)Math.ceil(mappings / (double)loadFactor) + 1)));
+        for (int i = 0; i < mappings; i++) {
+            long key = s.readLong();
+            put(key, s.readLong());
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // Views
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, but not the <tt>add</tt> or <tt>addAll</tt> operations.
+     *
+     * @return a set view of the keys contained in this map
+     */
+    public Set<Long> keySet() {
+        Set<Long> ks;
+        return (ks = keySet) == null ? (keySet = new KeySet()) : ks;
+    }
+
+    final class KeySet extends AbstractSet<Long> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongLongMap.this.clear(); }
+        public final Iterator<Long> iterator()  { return new KeyIterator(); }
+        public final boolean contains(Object o) { return containsKey(o); }
+        public final boolean remove(Object key) {
+            return LongLongMap.this.remove(key) != null;
+        }
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * The collection is backed by the map, so changes to the map are
+     * reflected in the collection, and vice-versa.  The collection
+     * supports element removal, but not the <tt>add</tt> or
+     * <tt>addAll</tt> operations.
+     *
+     * @return a view of the values contained in this map
+     */
+    public Collection<Long> values() {
+        Collection<Long> vs;
+        return (vs = values) == null ? (values = new Values()) : vs;
+    }
+
+    final class Values extends AbstractCollection<Long> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongLongMap.this.clear(); }
+        public final Iterator<Long> iterator()  { return new ValueIterator(); }
+        public final boolean contains(Object o) { return containsValue(o); }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, but not the <tt>add</tt> or <tt>addAll</tt> operations.
+     * The entries returned by its iterator write through to the map
+     * when {@link Map.Entry#setValue setValue} is invoked.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<Long,Long>> entrySet() {
+        Set<Map.Entry<Long,Long>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Long,Long>> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongLongMap.this.clear(); }
+        public final Iterator<Map.Entry<Long,Long>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object key = e.getKey();
+            return key instanceof Long && e.getValue() != null &&
+                e.getValue().equals(get(key));
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                LongLongMap.this.remove(((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A mapping returned by the entry set iterator.  Since mappings move
+     * between slots on resize and removal, setValue writes through by key.
+     */
+    final class Entry implements Map.Entry<Long,Long> {
+        final long key;
+        long value;
+
+        Entry(long key, long value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public final Long getKey()           { return key; }
+        public final Long getValue()         { return value; }
+        public final String toString()       { return key + "=" + value; }
+
+        public final int hashCode() {
+            return Long.hashCode(key) ^ Long.hashCode(value);
+        }
+
+        public final Long setValue(Long newValue) {
+            long oldValue = value;
+            value = newValue.longValue();
+            if (key == 0L) {
+                if (hasZeroKey)
+                    zeroValue = value;
+            }
+            else {
+                int i = indexOf(key);
+                if (i >= 0)
+                    vals[i] = value;
+            }
+            return oldValue;
+        }
+
+        public final boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (o instanceof Map.Entry) {
+                Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+                return getKey().equals(e.getKey()) &&
+                    getValue().equals(e.getValue());
+            }
+            return false;
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Iterates the mapping for key zero, then slots from the end of the
+     * arrays towards the start, in the same way as the iterators of
+     * {@link IntObjectMap}: mappings whose probe run wrapped around the
+     * end of the arrays and that a removal shifts into the already
+     * scanned part are remembered in {@code wrapped} and returned last.
+     */
+    abstract class HashIterator {
+        int index;             // next slot to examine, scanning downward
+        int lastIndex = -1;    // slot of last returned mapping, or -1
+        long lastKey;          // key of last returned mapping
+        long lastValue;        // value of last returned mapping
+        boolean lastByKey;     // last returned mapping must be removed by key
+        boolean zeroPending;   // mapping for key zero not yet returned
+        long[] wrapped;        // alternating keys and values
+        int wrappedCount;      // number of longs in wrapped
+        int wrappedIndex;      // next position in wrapped
+        int expectedModCount;  // for fast-fail
+        int remaining;         // mappings not yet returned
+
+        HashIterator() {
+            expectedModCount = modCount;
+            index = (keys == null) ? 0 : keys.length;
+            zeroPending = hasZeroKey;
+            remaining = size;
+        }
+
+        public final boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Advances to the next mapping, leaving it in lastKey/lastValue.
+         */
+        final void nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            --remaining;
+            lastIndex = -1;
+            lastByKey = true;
+            if (zeroPending) {
+                zeroPending = false;
+                lastKey = 0L;
+                lastValue = zeroValue;
+                return;
+            }
+            long[] ks = keys;
+            while (index > 0) {
+                long k;
+                if ((k = ks[--index]) != 0L) {
+                    lastIndex = index;
+                    lastKey = k;
+                    lastValue = vals[index];
+                    lastByKey = false;
+                    return;
+                }
+            }
+            if (wrappedIndex < wrappedCount) {
+                lastKey = wrapped[wrappedIndex++];
+                lastValue = wrapped[wrappedIndex++];
+                return;
+            }
+            throw new ConcurrentModificationException();
+        }
+
+        public final void remove() {
+            if (lastIndex < 0 && !lastByKey)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastByKey)
+                LongLongMap.this.remove(lastKey);
+            else
+                shiftRemove(lastIndex);
+            lastIndex = -1;
+            lastByKey = false;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Same as removeAt, but records any not yet returned mapping that
+         * is shifted into the already scanned part of the arrays.
+         */
+        private void shiftRemove(int i) {
+            long[] ks = keys, vs = vals;
+            int m = ks.length - 1, pos = i;
+            for (int j = i;;) {
+                j = (j + 1) & m;
+                long k;
+                if ((k = ks[j]) == 0L)
+                    break;
+                int h = hash(k) & m;
+                if ((i <= j) ? (h <= i || h > j) : (h <= i && h > j)) {
+                    if (j < pos && i >= pos) {
+                        if (wrapped == null)
+                            wrapped = new long[8];
+                        else if (wrappedCount == wrapped.length)
+                            wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                        wrapped[wrappedCount++] = k;
+                        wrapped[wrappedCount++] = vs[j];
+                    }
+                    ks[i] = k;
+                    vs[i] = vs[j];
+                    i = j;
+                }
+            }
+            ks[i] = 0L;
+            ++modCount;
+            --size;
+        }
+    }
+
+    final class KeyIterator extends HashIterator implements Iterator<Long> {
+        public final Long next() { nextSlot(); return lastKey; }
+    }
+
+    final class ValueIterator extends HashIterator implements Iterator<Long> {
+        public final Long next() { nextSlot(); return lastValue; }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<Long,Long>> {
+        public final Map.Entry<Long,Long> next() {
+            nextSlot();
+            return new Entry(lastKey, lastValue);
+        }
+    }
+}
@@ -977,6 +977,145 @@ public final class Spliterators {
         }
     }
 
+    /**
+     * Sizes the batches split off by a spliterator over a sequential
+     * source, such as an iterator, that can only be split by copying a
+     * prefix of its elements into an array.  Batches are handed out as
+     * {@link BatchSpliterator}s, which report back how long the elements
+     * of each took to traverse, so that later batches can be sized to
+     * take roughly {@link #TARGET_NANOS} to process.  Until a batch has
+     * been traversed batch sizes increase arithmetically, as they
+     * otherwise would, and thereafter they may at most double from one
+     * batch to the next.  Cheap elements are thus split off in large
+     * batches that amortize the overhead of a split, and costly elements
+     * in small batches that can keep many threads busy.
+     */
+    static final class BatchSizer {
+        static final int BATCH_UNIT = 1 << 10;  // initial batch size increment
+        static final int MAX_BATCH = 1 << 25;   // max batch array size
+
+        /** The desired traversal time of a batch, about a millisecond */
+        static final long TARGET_NANOS = 1L << 20;
+
+        /**
+         * The average traversal time per element of the batches, in
+         * sixteenths of a nanosecond, or zero if unknown.  Updated
+         * racily by the threads traversing batches; as this is only an
+         * estimate, lost updates do no harm.
+         */
+        private volatile long cost;
+
+        private int batch;  // size of the last batch; accessed by splitter only
+
+        /**
+         * Returns the size of the next batch, no larger than the given
+         * estimated number of remaining elements.
+         */
+        int nextBatch(long est) {
+            long c = cost, n;
+            if (c == 0L)
+                n = (long) batch + BATCH_UNIT;
+            else
+                n = Math.min((TARGET_NANOS << 4) / c,
+                             Math.max((long) batch << 1, BATCH_UNIT));
+            if (n > est)
+                n = est;
+            if (n > MAX_BATCH)
+                n = MAX_BATCH;
+            return (n < 1L) ? 1 : (int) n;
+        }
+
+        /**
+         * Records the size of a batch just split off.
+         */
+        void split(int n) {
+            batch = n;
+        }
+
+        /**
+         * Records that {@code n} elements of a batch took {@code nanos}
+         * to traverse.
+         */
+        void traversed(int n, long nanos) {
+            if (n > 0 && nanos > 0L) {
+                long sample = Math.max((nanos << 4) / n, 1L), c = cost;
+                cost = (c == 0L) ? sample : c - (c >> 2) + (sample >> 2);
+            }
+        }
+    }
+
+    /**
+     * A Spliterator over a batch of elements split off by a spliterator
+     * over a sequential source, which reports the time taken by bulk
+     * traversals to the {@link BatchSizer} of that spliterator.
+     */
+    static final class BatchSpliterator<T> implements Spliterator<T> {
+        private final Object[] array;
+        private int index;        // current index, modified on advance/split
+        private final int fence;  // one past last index
+        private final int characteristics;
+        private final BatchSizer sizer;
+
+        BatchSpliterator(Object[] array, int origin, int fence,
+                         int additionalCharacteristics, BatchSizer sizer) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+            this.characteristics = additionalCharacteristics | Spliterator.SIZED | Spliterator.SUBSIZED;
+            this.sizer = sizer;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return (lo >= mid)
+                   ? null
+                   : new BatchSpliterator<>(array, lo, index = mid, characteristics, sizer);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Object[] a; int i, hi; // hoist accesses and checks from loop
+            if (action == null)
+                throw new NullPointerException();
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                int lo = i;
+                long start = System.nanoTime();
+                do { action.accept((T)a[i]); } while (++i < hi);
+                sizer.traversed(hi - lo, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (index >= 0 && index < fence) {
+                @SuppressWarnings("unchecked") T e = (T) array[index++];
+                action.accept(e);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long estimateSize() { return (long)(fence - index); }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            if (hasCharacteristics(Spliterator.SORTED))
+                return null;
+            throw new IllegalStateException();
+        }
+    }
+
     /**
      * A Spliterator.OfInt designed for use by sources that traverse and split
      * elements maintained in an unmodifiable {@code int[]} array.
@@ -1258,7 +1397,7 @@ public final class Spliterators {
         static final int MAX_BATCH = 1 << 25;  // max batch array size;
         private final int characteristics;
         private long est;             // size estimate
-        private int batch;            // batch size for splits
+        private BatchSizer sizer;     // sizes batches for splits
 
         /**
          * Creates a spliterator reporting the given estimated size and
@@ -1294,33 +1433,32 @@ public final class Spliterators {
         @Override
         public Spliterator<T> trySplit() {
             /*
-             * Split into arrays of arithmetically increasing batch
-             * sizes.  This will only improve parallel performance if
+             * Split into arrays of batch sizes chosen by a BatchSizer.
+             * This will only improve parallel performance if
              * per-element Consumer actions are more costly than
-             * transferring them into an array.  The use of an
-             * arithmetic progression in split sizes provides overhead
+             * transferring them into an array.  The first batches
+             * increase arithmetically in size, which provides overhead
              * vs parallelism bounds that do not particularly favor or
              * penalize cases of lightweight vs heavyweight element
-             * operations, across combinations of #elements vs #cores,
-             * whether or not either are known.  We generate
-             * O(sqrt(#elements)) splits, allowing O(sqrt(#cores))
-             * potential speedup.
+             * operations.  Once a batch has been traversed its measured
+             * per-element cost is used instead, so that each batch is
+             * worth about the same amount of work, which allows close
+             * to linear speedup when the elements are costly enough.
              */
             HoldingConsumer<T> holder = new HoldingConsumer<>();
             long s = est;
             if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
-                if (n > s)
-                    n = (int) s;
-                if (n > MAX_BATCH)
-                    n = MAX_BATCH;
+                BatchSizer bs;
+                if ((bs = sizer) == null)
+                    bs = sizer = new BatchSizer();
+                int n = bs.nextBatch(s);
                 Object[] a = new Object[n];
                 int j = 0;
                 do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
-                batch = j;
+                bs.split(j);
                 if (est != Long.MAX_VALUE)
                     est -= j;
-                return new ArraySpliterator<>(a, 0, j, characteristics());
+                return new BatchSpliterator<>(a, 0, j, characteristics(), bs);
             }
             return null;
         }
@@ -1695,7 +1833,7 @@ public final class Spliterators {
         private Iterator<? extends T> it;
         private final int characteristics;
         private long est;             // size estimate
-        private int batch;            // batch size for splits
+        private BatchSizer sizer;     // sizes batches for splits
 
         /**
          * Creates a spliterator using the given given
@@ -1753,17 +1891,17 @@ public final class Spliterators {
         @Override
         public Spliterator<T> trySplit() {
             /*
-             * Split into arrays of arithmetically increasing batch
-             * sizes.  This will only improve parallel performance if
+             * Split into arrays of batch sizes chosen by a BatchSizer.
+             * This will only improve parallel performance if
              * per-element Consumer actions are more costly than
-             * transferring them into an array.  The use of an
-             * arithmetic progression in split sizes provides overhead
+             * transferring them into an array.  The first batches
+             * increase arithmetically in size, which provides overhead
              * vs parallelism bounds that do not particularly favor or
              * penalize cases of lightweight vs heavyweight element
-             * operations, across combinations of #elements vs #cores,
-             * whether or not either are known.  We generate
-             * O(sqrt(#elements)) splits, allowing O(sqrt(#cores))
-             * potential speedup.
+             * operations.  Once a batch has been traversed its measured
+             * per-element cost is used instead, so that each batch is
+             * worth about the same amount of work, which allows close
+             * to linear speedup when the elements are costly enough.
              */
             Iterator<? extends T> i;
             long s;
@@ -1774,18 +1912,17 @@ public final class Spliterators {
             else
                 s = est;
             if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
-                if (n > s)
-                    n = (int) s;
-                if (n > MAX_BATCH)
-                    n = MAX_BATCH;
+                BatchSizer bs;
+                if ((bs = sizer) == null)
+                    bs = sizer = new BatchSizer();
+                int n = bs.nextBatch(s);
                 Object[] a = new Object[n];
                 int j = 0;
                 do { a[j] = i.next(); } while (++j < n && i.hasNext());
-                batch = j;
+                bs.split(j);
                 if (est != Long.MAX_VALUE)
                     est -= j;
-                return new ArraySpliterator<>(a, 0, j, characteristics);
+                return new BatchSpliterator<>(a, 0, j, characteristics, bs);
             }
             return null;
         }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class of the bounded, lock-free, array-backed single-consumer
+ * queues {@link SpscArrayQueue} and {@link MpscArrayQueue}.
+ *
+ * <p>Elements are held in a power-of-two sized array, and indexed by
+ * two ever-increasing counters: the producer index, at which the next
+ * element is inserted, and the consumer index, from which the next
+ * element is removed.  A slot holds null when free.  The consumer
+ * empties a slot (with an ordered write) before publishing the
+ * advanced consumer index, so a producer that sees a slot as free,
+ * either directly or by reading the consumer index, may reuse it.
+ * The two indices are padded to be on different cache lines from
+ * each other and from the array reference, so producer and consumer
+ * do not contend except when the queue is (nearly) empty or full.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+abstract class AbstractArrayRingQueue<E> extends AbstractQueue<E> {
+
+    /** The largest capacity */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** The elements; length is a power of two */
+    final Object[] buffer;
+
+    /** buffer.length - 1 */
+    final int mask;
+
+    /** Index of next insertion, written only by producers */
+    @sun.misc.Contended("producer")
+    volatile long producerIndex;
+
+    /** Index of next removal, written only by the consumer */
+    @sun.misc.Contended("consumer")
+    volatile long consumerIndex;
+
+    /**
+     * Creates a queue with a capacity of at least the given capacity,
+     * rounded up to the next power of two.
+     *
+     * @param capacity the minimum capacity
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    AbstractArrayRingQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        int n = (capacity >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY :
+            (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[n];
+        this.mask = n - 1;
+    }
+
+    /**
+     * Returns the address offset of the slot for the given index.
+     */
+    static final long slotOffset(long index, int mask) {
+        return ((long)((int)index & mask) << ASHIFT) + ABASE;
+    }
+
+    /**
+     * Returns the capacity of this queue, which is the requested
+     * capacity rounded up to the next power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * accept without rejection.  This is only an estimate if producers
+     * or the consumer are concurrently active.
+     *
+     * @return the remaining capacity
+     */
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+
+    /**
+     * Returns the number of elements in this queue.  This is only an
+     * estimate if producers or the consumer are concurrently active.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long c = consumerIndex, p, before;
+        // retry until a consistent pair of indices is read
+        do {
+            before = c;
+            p = producerIndex;
+            c = consumerIndex;
+        } while (c != before);
+        long n = p - c;
+        return (n <= 0L) ? 0 : (n > mask + 1L) ? mask + 1 : (int)n;
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex == producerIndex;
+    }
+
+    /**
+     * Retrieves, but does not remove, the head of this queue, or
+     * returns {@code null} if this queue is empty.  Only the consumer
+     * is guaranteed to see the current head; other threads may see an
+     * element that has already been removed.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    public E peek() {
+        final Object[] buffer = this.buffer;
+        final int mask = this.mask;
+        for (;;) {
+            long c = consumerIndex;
+            Object e = U.getObjectVolatile(buffer, slotOffset(c, mask));
+            // a null slot with c != producerIndex is being filled
+            if (e != null || c == producerIndex) {
+                @SuppressWarnings("unchecked") E x = (E)e;
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Removes all elements.  May be called only by the consumer.
+     */
+    public void clear() {
+        while (poll() != null)
+            ;
+    }
+
+    /**
+     * Returns a weakly consistent snapshot of the elements from the
+     * consumer index onwards.
+     */
+    private ArrayList<E> snapshot() {
+        ArrayList<E> list = new ArrayList<E>();
+        final Object[] buffer = this.buffer;
+        final int mask = this.mask;
+        long c = consumerIndex, p = producerIndex;
+        for (long i = c; i < p && i - c <= mask; ++i) {
+            @SuppressWarnings("unchecked") E e =
+                (E)U.getObjectVolatile(buffer, slotOffset(i, mask));
+            if (e != null)
+                list.add(e);
+        }
+        return list;
+    }
+
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        return snapshot().toArray(a);
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, from head
+     * to tail.  The iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>,
+     * and does not support removal, as interior elements of a ring
+     * queue cannot be removed.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    final class Itr implements Iterator<E> {
+        final Object[] items;
+        int cursor;
+
+        Itr() {
+            items = snapshot().toArray();
+        }
+
+        public boolean hasNext() {
+            return cursor < items.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= items.length)
+                throw new NoSuchElementException();
+            return (E)items[cursor++];
+        }
+    }
+
+    // Unsafe mechanics
+    static final sun.misc.Unsafe U;
+    static final long PINDEX;
+    static final long CINDEX;
+    static final int ABASE;
+    static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = AbstractArrayRingQueue.class;
+            PINDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            CINDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            Class<?> ak = Object[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
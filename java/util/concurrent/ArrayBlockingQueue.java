@@ -165,6 +165,42 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E>
         notEmpty.signal();
     }
 
+    /**
+     * Inserts elements a[from..to) at current put position, advances,
+     * and signals as many waiting takes as elements were inserted.
+     * Call only when holding lock, with room for all of the elements.
+     */
+    private void enqueueAll(Object[] a, int from, int to) {
+        // assert lock.getHoldCount() == 1;
+        // assert items.length - count >= to - from;
+        final Object[] items = this.items;
+        int n = to - from, put = putIndex;
+        int k = Math.min(n, items.length - put);
+        System.arraycopy(a, from, items, put, k);
+        if (k < n)
+            System.arraycopy(a, from + k, items, 0, n - k);
+        if ((put += n) >= items.length)
+            put -= items.length;
+        putIndex = put;
+        count += n;
+        for (; n > 0 && lock.hasWaiters(notEmpty); n--)
+            notEmpty.signal();
+    }
+
+    /**
+     * Returns the elements of the given collection, throwing
+     * NullPointerException if it or any element is null.
+     */
+    private Object[] checkedToArray(Collection<? extends E> c) {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        Object[] a = c.toArray();
+        for (Object x : a)
+            checkNotNull(x);
+        return a;
+    }
+
     /**
      * Extracts element at current take position, advances, and signals.
      * Call only when holding lock.
@@ -385,6 +421,69 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    /**
+     * Inserts as many elements of the specified collection as possible
+     * at the tail of this queue without exceeding its capacity, in the
+     * order that they are returned by the collection's iterator.  The
+     * elements are inserted while holding the lock once, so this is
+     * more efficient than repeated calls to {@link #offer(Object)}.
+     *
+     * @param c the collection of elements to insert
+     * @return the number of elements inserted, which are the first
+     *         elements of the collection
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this queue
+     */
+    public int offerAll(Collection<? extends E> c) {
+        Object[] a = checkedToArray(c);
+        if (a.length == 0)
+            return 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(a.length, items.length - count);
+            if (n > 0)
+                enqueueAll(a, 0, n);
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts all of the elements of the specified collection at the
+     * tail of this queue, in the order that they are returned by the
+     * collection's iterator, waiting if necessary for space to become
+     * available.  As many elements as fit are inserted at a time,
+     * while holding the lock once.
+     *
+     * <p>If this method is interrupted while waiting for space, the
+     * elements already inserted remain in the queue.
+     *
+     * @param c the collection of elements to insert
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this queue
+     */
+    public void putAll(Collection<? extends E> c) throws InterruptedException {
+        Object[] a = checkedToArray(c);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            for (int i = 0; i < a.length; ) {
+                while (count == items.length)
+                    notFull.await();
+                int n = Math.min(a.length - i, items.length - count);
+                enqueueAll(a, i, i + n);
+                i += n;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public E poll() {
         final ReentrantLock lock = this.lock;
         lock.lock();
@@ -753,6 +852,53 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    /**
+     * Removes at most the given number of available elements from this
+     * queue and adds them to the given collection, waiting if necessary
+     * up to the specified wait time for an element to become available.
+     * Once at least one element is available, the elements present are
+     * transferred while holding the lock once, without waiting for
+     * further elements to arrive.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @param timeout how long to wait before giving up, in units of
+     *        {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return the number of elements transferred, which is zero only
+     *         if the waiting time elapsed with the queue empty
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ClassCastException if the class of an element of this queue
+     *         prevents it from being added to the specified collection
+     * @throws NullPointerException if the specified collection is null
+     * @throws IllegalArgumentException if the specified collection is this
+     *         queue, or some property of an element of this queue prevents
+     *         it from being added to the specified collection
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0)
+                    return 0;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return drainTo(c, maxElements);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Returns an iterator over the elements in this queue in proper sequence.
      * The elements will be returned in order from first (head) to last (tail).
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} for a single
+ * consumer thread, backed by a lock-free {@link SpscArrayQueue} or
+ * {@link MpscArrayQueue}.  Insertion and removal never allocate or
+ * lock, and an inserting thread only touches shared state beyond the
+ * ring itself when the consumer is blocked waiting for an element.
+ *
+ * <p>A thread waiting in {@link #take} or {@link #poll(long, TimeUnit)}
+ * first spins, as the next element usually arrives quickly in a busy
+ * pipeline, and then parks until a producer unparks it.  A thread
+ * waiting for space in {@link #put} or {@link #offer(Object, long,
+ * TimeUnit)} also spins first, and then parks for increasing periods
+ * of up to a millisecond between attempts, so that the consumer never
+ * needs to signal producers.
+ *
+ * <p>At most one thread may be removing elements from this queue
+ * (including by {@code drainTo}) at a time.  If the queue was created
+ * for a single producer, at most one thread may be inserting elements
+ * at a time.
+ *
+ * <p>This queue does not permit {@code null} elements, and does not
+ * support removal of interior elements by {@link #remove(Object)} or
+ * the iterator.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+public class ArrayRingBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /*
+     * Wakeup protocol: a consumer about to park publishes itself in
+     * the volatile field "waiter", then rechecks the queue.  A
+     * producer, after inserting, reads "waiter" and unparks it if
+     * set.  For this to be free of lost wakeups, the producer's
+     * insertion must be ordered before its read of waiter, as the
+     * consumer's write of waiter is before its recheck.  Insertion
+     * into an MpscArrayQueue begins with a CAS of the producer index,
+     * which the consumer's recheck reads, so this holds already; an
+     * SpscArrayQueue uses only ordered writes, so a full fence is
+     * issued after each insertion.
+     */
+
+    /** Number of CPUS, to decide whether to spin */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of times to spin before parking */
+    static final int SPINS = (NCPU < 2) ? 0 : 1 << 10;
+
+    /**
+     * The maximum time in nanoseconds that a producer waiting for
+     * space parks between attempts.
+     */
+    static final long MAX_PRODUCER_PARK_NANOS = 1000L * 1000L;
+
+    /** The underlying ring queue */
+    private final AbstractArrayRingQueue<E> queue;
+
+    /** Whether the queue admits multiple producers */
+    private final boolean multiProducer;
+
+    /** The consumer, if parked or about to park */
+    private volatile Thread waiter;
+
+    /**
+     * Creates an {@code ArrayRingBlockingQueue} with a capacity of at
+     * least the given capacity, rounded up to the next power of two.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @param multiProducer {@code true} if more than one thread may
+     *        insert elements concurrently
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         greater than zero
+     */
+    public ArrayRingBlockingQueue(int capacity, boolean multiProducer) {
+        this.queue = multiProducer ?
+            new MpscArrayQueue<E>(capacity) :
+            new SpscArrayQueue<E>(capacity);
+        this.multiProducer = multiProducer;
+    }
+
+    /**
+     * Unparks the consumer if it is waiting.  Called after each
+     * successful insertion.
+     */
+    private void signalConsumer() {
+        if (!multiProducer)
+            AbstractArrayRingQueue.U.fullFence();
+        Thread w = waiter;
+        if (w != null)
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding its capacity,
+     * returning {@code true} upon success and {@code false} if this
+     * queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (!queue.offer(e))
+            return false;
+        signalConsumer();
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * if necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (!queue.offer(e))
+            awaitSpace(e, false, 0L);
+        signalConsumer();
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * if necessary up to the specified wait time for space to become
+     * available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (!queue.offer(e) && !awaitSpace(e, true, unit.toNanos(timeout)))
+            return false;
+        signalConsumer();
+        return true;
+    }
+
+    /**
+     * Spins and then parks with backoff until e is inserted.
+     *
+     * @return true if inserted, false if timed out
+     */
+    private boolean awaitSpace(E e, boolean timed, long nanos)
+        throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        long park = 1000L;
+        int spins = SPINS;
+        while (!queue.offer(e)) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                return false;
+            if (spins > 0)
+                --spins;
+            else {
+                LockSupport.parkNanos(this, timed ? Math.min(park, nanos) : park);
+                if (park < MAX_PRODUCER_PARK_NANOS)
+                    park <<= 1;
+            }
+        }
+        return true;
+    }
+
+    public E poll() {
+        return queue.poll();
+    }
+
+    public E take() throws InterruptedException {
+        E x = queue.poll();
+        return (x != null) ? x : awaitElement(false, 0L);
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E x = queue.poll();
+        return (x != null) ? x : awaitElement(true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Spins and then parks until an element is available.
+     *
+     * @return the element, or null if timed out
+     */
+    private E awaitElement(boolean timed, long nanos)
+        throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        final Thread w = Thread.currentThread();
+        int spins = SPINS;
+        E x;
+        while ((x = queue.poll()) == null) {
+            if (w.isInterrupted())
+                break;
+            if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                return null;
+            if (spins > 0)
+                --spins;
+            else {
+                waiter = w;
+                if ((x = queue.poll()) != null)
+                    break;
+                if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+        }
+        waiter = null;
+        if (x == null && Thread.interrupted())
+            throw new InterruptedException();
+        return x;
+    }
+
+    public E peek() {
+        return queue.peek();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * accept without blocking.  This is only an estimate if producers
+     * or the consumer are concurrently active.
+     *
+     * @return the remaining capacity
+     */
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Returns the capacity of this queue, which is the requested
+     * capacity rounded up to the next power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * Removes all elements.  May be called only by the consumer.
+     */
+    public void clear() {
+        queue.clear();
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        E x;
+        while (n < maxElements && (x = queue.poll()) != null) {
+            c.add(x);
+            ++n;
+        }
+        return n;
+    }
+
+    public Object[] toArray() {
+        return queue.toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        return queue.toArray(a);
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, from head
+     * to tail.  The iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>,
+     * and does not support removal.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return queue.iterator();
+    }
+}
@@ -0,0 +1,1271 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A {@link ConcurrentMap} backed by a {@link ConcurrentHashMap} that
+ * bounds its contents by total weight and optionally by age, evicting
+ * mappings as needed.  It is intended for use as a cache shared by many
+ * threads.
+ *
+ * <p><b>Eviction.</b> Each mapping has a weight, computed by a
+ * user-supplied weigher when the mapping is created or updated (or 1
+ * when no weigher is given, in which case the bound is simply a maximum
+ * number of mappings).  When the total weight exceeds the maximum,
+ * mappings are evicted according to a <em>segmented LRU</em> policy:
+ * new mappings enter a probationary segment, and are promoted to a
+ * protected segment, holding up to 80% of the maximum weight, when they
+ * are read again.  Victims are taken from the least recently used end
+ * of the probationary segment first, so a burst of mappings that are
+ * used only once cannot flush the frequently used ones.
+ *
+ * <p><b>Expiration.</b> A mapping may be made to expire a fixed
+ * duration after it was created or its value last replaced
+ * ({@code expireAfterWrite}), or after it was last read or written
+ * ({@code expireAfterAccess}).  Expired mappings are never returned,
+ * and are removed during routine maintenance.
+ *
+ * <p><b>Concurrency.</b> Retrievals and updates of the backing map
+ * proceed as they would for a plain {@code ConcurrentHashMap}.  The
+ * bookkeeping needed by the eviction policy is not performed inline:
+ * reads are recorded in a set of small, lossy ring buffers striped by
+ * thread, in the manner of the cells of {@link
+ * java.util.concurrent.atomic.LongAdder}, and writes in a queue of
+ * pending tasks.  Whichever thread first succeeds in acquiring the
+ * eviction lock replays the buffers against the policy and performs
+ * any evictions, so that recording a cache hit does not serialize
+ * readers on a shared lock.  As a consequence, the weight may briefly
+ * exceed the maximum, and a recorded read may occasionally be dropped
+ * under heavy contention, which only affects the recency order.
+ *
+ * <p><b>Statistics.</b> Hits, misses and evictions are counted with
+ * {@link LongAdder}s and reported by {@link #hitCount}, {@link
+ * #missCount} and {@link #evictionCount}.  Only {@link #get}, {@link
+ * #getOrDefault} and {@link #computeIfAbsent} count as lookups.
+ *
+ * <p>Like {@code ConcurrentHashMap}, this class does not allow
+ * {@code null} to be used as a key or value.  Iterators are <a
+ * href="package-summary.html#Weakly"><i>weakly consistent</i></a>, and
+ * {@link #size} may include mappings that have expired but not yet been
+ * removed.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class BoundedConcurrentCache<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /*
+     * Overview:
+     *
+     * The backing map holds Nodes.  A Node is "alive" while it is in the
+     * map, "retired" once removed from the map but possibly still
+     * linked into the policy's deques, and "dead" once unlinked.  All
+     * deque manipulation, and all reads and writes of the fields
+     * annotated "guarded by evictionLock", happen while holding the
+     * eviction lock, in maintenance().  Writers enqueue a task
+     * describing their change and then try to run maintenance
+     * themselves; readers append the node read to a read buffer, and
+     * only try to run maintenance when their buffer is filling up.
+     *
+     * A drain status field avoids losing a maintenance request that
+     * arrives while another thread holds the lock: requesters set it
+     * to REQUIRED before trying the lock, and the lock holder re-runs
+     * maintenance if it finds REQUIRED after finishing.
+     */
+
+    /** Fraction of the maximum weight that the protected segment may hold */
+    static final int PROTECTED_PERCENT = 80;
+
+    /** Number of slots in each read buffer.  Must be a power of two. */
+    static final int READ_BUFFER_SIZE = 16;
+
+    /** Read buffer occupancy at which a reader tries to drain */
+    static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    /** Number of CPUS, to place bound on read buffer table size */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Maximum number of pending write tasks replayed per maintenance run */
+    static final int WRITE_BUFFER_DRAIN_LIMIT = 1 << 10;
+
+    /** Drain status values */
+    static final int IDLE = 0, REQUIRED = 1, PROCESSING = 2;
+
+    /** Node states */
+    static final int ALIVE = 0, RETIRED = 1, DEAD = 2;
+
+    /** Queue identifiers for Node.queue */
+    static final int NONE = 0, PROBATION = 1, PROTECTED = 2;
+
+    /**
+     * A mapping.  Value, weight and the write time are updated under
+     * the node's monitor; the links and queue are guarded by the
+     * eviction lock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;        // current weight, as seen by writers
+        int policyWeight;           // weight accounted by the policy
+        volatile int state;
+        volatile long writeTime;
+        volatile long accessTime;
+        int queue;                  // guarded by evictionLock
+        Node<K,V> prev, next;       // access order, guarded by evictionLock
+        Node<K,V> writePrev, writeNext; // write order, guarded by evictionLock
+        boolean inWriteOrder;       // guarded by evictionLock
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes through their access-order links,
+     * guarded by the eviction lock.
+     */
+    static final class AccessOrderDeque<K,V> {
+        Node<K,V> first, last;
+
+        void addLast(Node<K,V> e) {
+            Node<K,V> l = last;
+            e.prev = l;
+            e.next = null;
+            last = e;
+            if (l == null)
+                first = e;
+            else
+                l.next = e;
+        }
+
+        void remove(Node<K,V> e) {
+            Node<K,V> p = e.prev, n = e.next;
+            if (p == null)
+                first = n;
+            else
+                p.next = n;
+            if (n == null)
+                last = p;
+            else
+                n.prev = p;
+            e.prev = e.next = null;
+        }
+
+        void moveToLast(Node<K,V> e) {
+            if (e != last) {
+                remove(e);
+                addLast(e);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes through their write-order links,
+     * guarded by the eviction lock.
+     */
+    static final class WriteOrderDeque<K,V> {
+        Node<K,V> first, last;
+
+        void addLast(Node<K,V> e) {
+            Node<K,V> l = last;
+            e.writePrev = l;
+            e.writeNext = null;
+            e.inWriteOrder = true;
+            last = e;
+            if (l == null)
+                first = e;
+            else
+                l.writeNext = e;
+        }
+
+        void remove(Node<K,V> e) {
+            if (!e.inWriteOrder)
+                return;
+            Node<K,V> p = e.writePrev, n = e.writeNext;
+            if (p == null)
+                first = n;
+            else
+                p.writeNext = n;
+            if (n == null)
+                last = p;
+            else
+                n.writePrev = p;
+            e.writePrev = e.writeNext = null;
+            e.inWriteOrder = false;
+        }
+
+        void moveToLast(Node<K,V> e) {
+            if (e != last) {
+                remove(e);
+                addLast(e);
+            }
+        }
+    }
+
+    /**
+     * A lossy, bounded, multiple-producer single-consumer ring of nodes
+     * that have been read.  Producers claim a slot by CAS on writeCounter
+     * and publish the node with an ordered write; the consumer, which
+     * holds the eviction lock, clears slots as it replays them.
+     * Padded to reduce cache contention, as Striped64.Cell is.
+     */
+    @sun.misc.Contended static final class ReadBuffer {
+        final Object[] slots = new Object[READ_BUFFER_SIZE];
+        volatile long writeCounter;
+        volatile long readCounter;
+
+        /**
+         * Records the node; returns -1 if the CAS failed because of
+         * contention, else the number of pending reads including this
+         * one (READ_BUFFER_SIZE if full, in which case it was dropped).
+         */
+        int offer(Object node) {
+            long w = writeCounter, r = readCounter;
+            long size = w - r;
+            if (size >= READ_BUFFER_SIZE)
+                return READ_BUFFER_SIZE;
+            if (!U.compareAndSwapLong(this, WRITE, w, w + 1))
+                return -1;
+            U.putOrderedObject(slots, SLOT_BASE +
+                               ((w & (READ_BUFFER_SIZE - 1)) << SLOT_SHIFT),
+                               node);
+            return (int)size + 1;
+        }
+
+        /**
+         * Passes each published node to the consumer.  Called with the
+         * eviction lock held.
+         */
+        <K,V> void drainTo(BoundedConcurrentCache<K,V> cache) {
+            long r = readCounter, w = writeCounter;
+            for (; r < w; ++r) {
+                long offset = SLOT_BASE +
+                    ((r & (READ_BUFFER_SIZE - 1)) << SLOT_SHIFT);
+                @SuppressWarnings("unchecked") Node<K,V> e =
+                    (Node<K,V>)U.getObjectVolatile(slots, offset);
+                if (e == null)
+                    break; // not yet published; retry next time
+                U.putOrderedObject(slots, offset, null);
+                cache.onAccess(e);
+            }
+            U.putOrderedLong(this, READ, r);
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe U;
+        private static final long WRITE;
+        private static final long READ;
+        private static final long SLOT_BASE;
+        private static final int SLOT_SHIFT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                Class<?> k = ReadBuffer.class;
+                WRITE = U.objectFieldOffset
+                    (k.getDeclaredField("writeCounter"));
+                READ = U.objectFieldOffset
+                    (k.getDeclaredField("readCounter"));
+                SLOT_BASE = U.arrayBaseOffset(Object[].class);
+                int scale = U.arrayIndexScale(Object[].class);
+                if ((scale & (scale - 1)) != 0)
+                    throw new Error("data type scale not a power of two");
+                SLOT_SHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    /** The backing map */
+    final ConcurrentHashMap<K,Node<K,V>> data;
+
+    /** Weigher, or null if every mapping weighs 1 */
+    final ToIntBiFunction<? super K, ? super V> weigher;
+
+    /** Maximum total weight */
+    final long maximumWeight;
+
+    /** Maximum total weight of the protected segment */
+    final long maximumProtectedWeight;
+
+    /** Expiration durations in nanoseconds, or 0 if none */
+    final long expireAfterWriteNanos;
+    final long expireAfterAccessNanos;
+
+    /** Guards the policy state; held while running maintenance */
+    final ReentrantLock evictionLock = new ReentrantLock();
+
+    /** Pending write tasks */
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+
+    /** Striped read buffers; table of size a power of two, or null */
+    volatile ReadBuffer[] readBuffers;
+
+    /** Spinlock (locked via CAS) used when resizing/creating read buffers */
+    volatile int buffersBusy;
+
+    /** IDLE, REQUIRED or PROCESSING */
+    volatile int drainStatus;
+
+    // Policy state, guarded by evictionLock
+    final AccessOrderDeque<K,V> probation = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> protectedQueue = new AccessOrderDeque<K,V>();
+    final WriteOrderDeque<K,V> writeOrder = new WriteOrderDeque<K,V>();
+    long weightedSize;
+    long protectedWeightedSize;
+
+    // Statistics
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    // views
+    private transient Set<Map.Entry<K,V>> entrySet;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty cache holding at most the given number of
+     * mappings, without expiration.
+     *
+     * @param maximumSize the maximum number of mappings
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public BoundedConcurrentCache(long maximumSize) {
+        this(maximumSize, null, 0L, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a new, empty cache with the given bounds.
+     *
+     * @param maximumWeight the maximum total weight of the mappings
+     * @param weigher the function computing the weight of a mapping, or
+     *        {@code null} if every mapping has weight 1
+     * @param expireAfterWrite the time after which a mapping expires
+     *        once created or its value last replaced, or 0 if mappings
+     *        do not expire after writes
+     * @param expireAfterAccess the time after which a mapping expires
+     *        once last read or written, or 0 if mappings do not expire
+     *        after accesses
+     * @param unit the time unit of the expiration arguments
+     * @throws IllegalArgumentException if any of the numeric arguments
+     *         is negative
+     * @throws NullPointerException if unit is null
+     */
+    public BoundedConcurrentCache(long maximumWeight,
+                                  ToIntBiFunction<? super K, ? super V> weigher,
+                                  long expireAfterWrite,
+                                  long expireAfterAccess,
+                                  TimeUnit unit) {
+        if (maximumWeight < 0 || expireAfterWrite < 0 || expireAfterAccess < 0)
+            throw new IllegalArgumentException();
+        if (unit == null)
+            throw new NullPointerException();
+        this.maximumWeight = maximumWeight;
+        this.maximumProtectedWeight = maximumWeight / 100 * PROTECTED_PERCENT +
+            maximumWeight % 100 * PROTECTED_PERCENT / 100;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+        this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(
+            (int)Math.min(maximumWeight, 1 << 16));
+    }
+
+    /* ---------------- Policy support -------------- */
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("negative weight");
+        return w;
+    }
+
+    final boolean isExpired(Node<K,V> e, long now) {
+        return ((expireAfterWriteNanos > 0L &&
+                 now - e.writeTime >= expireAfterWriteNanos) ||
+                (expireAfterAccessNanos > 0L &&
+                 now - e.accessTime >= expireAfterAccessNanos));
+    }
+
+    final boolean expires() {
+        return expireAfterWriteNanos > 0L || expireAfterAccessNanos > 0L;
+    }
+
+    final long now() {
+        return expires() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a read of the node, trying to run maintenance if its
+     * read buffer is filling up.
+     */
+    final void afterRead(Node<K,V> e, long now) {
+        if (expireAfterAccessNanos > 0L)
+            e.accessTime = now;
+        int h = ThreadLocalRandom.getProbe();
+        if (h == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        ReadBuffer[] bs; ReadBuffer b; int n;
+        if ((bs = readBuffers) == null || (n = bs.length) == 0 ||
+            (b = bs[h & (n - 1)]) == null) {
+            expandReadBuffers(bs, h);
+            return;
+        }
+        int pending = b.offer(e);
+        if (pending < 0) {
+            ThreadLocalRandom.advanceProbe(h);
+            expandReadBuffers(bs, h);
+        }
+        else if (pending >= READ_BUFFER_DRAIN_THRESHOLD)
+            scheduleDrain();
+    }
+
+    /**
+     * Creates the buffer table or a missing slot, or doubles the
+     * table after contention, up to the number of CPUs, in the manner
+     * of Striped64.longAccumulate.  Does nothing if the spinlock is
+     * busy: losing a read record is harmless.
+     */
+    final void expandReadBuffers(ReadBuffer[] bs, int h) {
+        if (buffersBusy != 0 || !U.compareAndSwapInt(this, BUFFERSBUSY, 0, 1))
+            return;
+        try {
+            if (bs != readBuffers)
+                return;
+            int n;
+            if (bs == null || (n = bs.length) == 0) {
+                ReadBuffer[] rs = new ReadBuffer[2];
+                rs[h & 1] = new ReadBuffer();
+                readBuffers = rs;
+            }
+            else if (bs[h & (n - 1)] == null) {
+                bs[h & (n - 1)] = new ReadBuffer();
+                readBuffers = bs; // volatile write to publish the slot
+            }
+            else if (n < NCPU) {
+                ReadBuffer[] rs = new ReadBuffer[n << 1];
+                System.arraycopy(bs, 0, rs, 0, n);
+                readBuffers = rs;
+            }
+        } finally {
+            buffersBusy = 0;
+        }
+    }
+
+    /**
+     * Enqueues the task and tries to run maintenance.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        scheduleDrain();
+    }
+
+    /**
+     * Runs maintenance if the eviction lock is free; otherwise leaves a
+     * request for the thread holding it.
+     */
+    final void scheduleDrain() {
+        drainStatus = REQUIRED;
+        while (evictionLock.tryLock()) {
+            try {
+                drainStatus = PROCESSING;
+                maintenance();
+            } finally {
+                U.compareAndSwapInt(this, DRAINSTATUS, PROCESSING, IDLE);
+                evictionLock.unlock();
+            }
+            if (drainStatus != REQUIRED)
+                break;
+        }
+    }
+
+    /**
+     * Replays buffered reads and writes, then expires and evicts.
+     * Called with the eviction lock held.
+     */
+    final void maintenance() {
+        ReadBuffer[] bs = readBuffers;
+        if (bs != null) {
+            for (ReadBuffer b : bs) {
+                if (b != null)
+                    b.drainTo(this);
+            }
+        }
+        Runnable task;
+        for (int i = 0; i < WRITE_BUFFER_DRAIN_LIMIT &&
+                 (task = writeBuffer.poll()) != null; ++i)
+            task.run();
+        if (!writeBuffer.isEmpty())
+            drainStatus = REQUIRED;
+        expire();
+        evict();
+    }
+
+    /**
+     * Applies a recorded read.  Called with the eviction lock held.
+     */
+    final void onAccess(Node<K,V> e) {
+        if (e.state != ALIVE)
+            return;
+        if (e.queue == PROBATION) {
+            probation.remove(e);
+            e.queue = PROTECTED;
+            protectedQueue.addLast(e);
+            protectedWeightedSize += e.policyWeight;
+            demoteProtected();
+        }
+        else if (e.queue == PROTECTED)
+            protectedQueue.moveToLast(e);
+    }
+
+    /**
+     * Moves least recently used protected nodes to the probation
+     * segment while the protected segment is over its bound.
+     */
+    final void demoteProtected() {
+        Node<K,V> e;
+        while (protectedWeightedSize > maximumProtectedWeight &&
+               (e = protectedQueue.first) != null) {
+            protectedQueue.remove(e);
+            protectedWeightedSize -= e.policyWeight;
+            e.queue = PROBATION;
+            probation.addLast(e);
+        }
+    }
+
+    /** Adds a newly inserted node to the policy. */
+    final class AddTask implements Runnable {
+        final Node<K,V> node;
+        AddTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            Node<K,V> e = node;
+            if (e.state != ALIVE || e.queue != NONE)
+                return;
+            int w = e.weight;
+            e.policyWeight = w;
+            weightedSize += w;
+            e.queue = PROBATION;
+            probation.addLast(e);
+            if (expireAfterWriteNanos > 0L)
+                writeOrder.addLast(e);
+        }
+    }
+
+    /** Accounts for a replaced value. */
+    final class UpdateTask implements Runnable {
+        final Node<K,V> node;
+        UpdateTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            Node<K,V> e = node;
+            if (e.state != ALIVE || e.queue == NONE)
+                return;
+            int delta = e.weight - e.policyWeight;
+            e.policyWeight += delta;
+            weightedSize += delta;
+            if (e.queue == PROTECTED) {
+                protectedWeightedSize += delta;
+                protectedQueue.moveToLast(e);
+                demoteProtected();
+            }
+            else
+                probation.moveToLast(e);
+            if (expireAfterWriteNanos > 0L)
+                writeOrder.moveToLast(e);
+        }
+    }
+
+    /** Unlinks a node that has been removed from the map. */
+    final class RemovalTask implements Runnable {
+        final Node<K,V> node;
+        RemovalTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Removes the node from the policy structures and marks it dead.
+     * Called with the eviction lock held, after the node has been
+     * retired.
+     */
+    final void unlink(Node<K,V> e) {
+        int q = e.queue;
+        if (q == PROBATION)
+            probation.remove(e);
+        else if (q == PROTECTED) {
+            protectedQueue.remove(e);
+            protectedWeightedSize -= e.policyWeight;
+        }
+        if (q != NONE)
+            weightedSize -= e.policyWeight;
+        writeOrder.remove(e);
+        e.queue = NONE;
+        e.state = DEAD;
+    }
+
+    /**
+     * Removes the node from the map if it is still mapped, counting an
+     * eviction, and unlinks it.  Called with the eviction lock held.
+     */
+    final void evictNode(Node<K,V> e) {
+        if (removeNode(e))
+            evictions.increment();
+        unlink(e);
+    }
+
+    /**
+     * Removes the mapping for the node's key if it is mapped to the
+     * node, retiring the node in the same atomic step, so that an
+     * alive node is always mapped.  Nodes are only ever locked while
+     * holding the lock of the backing map's bin, never the reverse.
+     *
+     * @return true if the node was removed by this call
+     */
+    final boolean removeNode(Node<K,V> e) {
+        boolean[] removed = new boolean[1];
+        data.computeIfPresent(e.key, (k, n) -> {
+            if (n != e)
+                return n;
+            retire(n);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    final void retire(Node<K,V> e) {
+        synchronized (e) {
+            e.state = RETIRED;
+        }
+    }
+
+    /**
+     * Evicts expired nodes from the fronts of the deques, which hold
+     * the oldest writes and (modulo dropped read records) the least
+     * recent accesses.  Called with the eviction lock held.
+     */
+    final void expire() {
+        if (!expires())
+            return;
+        long now = System.nanoTime();
+        Node<K,V> e;
+        if (expireAfterWriteNanos > 0L) {
+            while ((e = writeOrder.first) != null && isExpired(e, now))
+                evictNode(e);
+        }
+        if (expireAfterAccessNanos > 0L) {
+            while ((e = probation.first) != null && isExpired(e, now))
+                evictNode(e);
+            while ((e = protectedQueue.first) != null && isExpired(e, now))
+                evictNode(e);
+        }
+    }
+
+    /**
+     * Evicts from the probation segment, then the protected segment,
+     * while over the maximum weight.  Called with the eviction lock
+     * held.
+     */
+    final void evict() {
+        Node<K,V> e;
+        while (weightedSize > maximumWeight) {
+            if ((e = probation.first) == null &&
+                (e = protectedQueue.first) == null)
+                break;
+            evictNode(e);
+        }
+    }
+
+    /**
+     * Returns the node's value if it is alive and unexpired, else null,
+     * removing an expired node.
+     */
+    final V liveValue(Node<K,V> e, long now) {
+        if (e == null)
+            return null;
+        if (expires() && isExpired(e, now)) {
+            if (removeNode(e)) {
+                evictions.increment();
+                afterWrite(new RemovalTask(e));
+            }
+            return null;
+        }
+        return e.value;
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this cache contains no unexpired mapping for the
+     * key.  Counts a hit or a miss.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        Node<K,V> e = data.get(key);
+        long now = now();
+        V v = liveValue(e, now);
+        if (v == null)
+            misses.increment();
+        else {
+            hits.increment();
+            afterRead(e, now);
+        }
+        return v;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the
+     * given default value if this cache contains no unexpired mapping
+     * for the key.  Counts a hit or a miss.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * Tests if the specified object is a key with an unexpired mapping
+     * in this cache.  Does not count a hit or miss, nor affect the
+     * recency of the mapping.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        return liveValue(data.get(key), now()) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        long now = now();
+        for (Node<K,V> e : data.values()) {
+            V v = liveValue(e, now);
+            if (v != null && (v == value || value.equals(v)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this cache,
+     * possibly evicting other mappings.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no unexpired mapping
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no unexpired mapping
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int w = weigh(key, value);
+        long now = now();
+        Node<K,V> node = null;
+        for (;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                if (node == null)
+                    node = new Node<K,V>(key, value, w, now);
+                if ((prior = data.putIfAbsent(key, node)) == null) {
+                    afterWrite(new AddTask(node));
+                    return null;
+                }
+            }
+            V old;
+            boolean expired = expires() && isExpired(prior, now);
+            synchronized (prior) {
+                if (prior.state != ALIVE)
+                    continue;
+                old = prior.value;
+                if (onlyIfAbsent && !expired) {
+                    if (expireAfterAccessNanos > 0L)
+                        prior.accessTime = now;
+                    return old;
+                }
+                prior.value = value;
+                prior.weight = w;
+                prior.writeTime = now;
+                prior.accessTime = now;
+            }
+            afterWrite(new UpdateTask(prior));
+            return expired ? null : old;
+        }
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this one.
+     *
+     * @param m mappings to be stored in this cache
+     */
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            putVal(e.getKey(), e.getValue(), false);
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this cache.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no unexpired mapping
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        @SuppressWarnings("unchecked") Node<K,V>[] removed =
+            (Node<K,V>[])new Node<?,?>[1];
+        data.computeIfPresent((K)key, (k, n) -> {
+            retire(n);
+            removed[0] = n;
+            return null;
+        });
+        Node<K,V> e;
+        if ((e = removed[0]) == null)
+            return null;
+        afterWrite(new RemovalTask(e));
+        return (expires() && isExpired(e, now())) ? null : e.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        if (value == null)
+            return false;
+        long now = now();
+        @SuppressWarnings("unchecked") Node<K,V>[] removed =
+            (Node<K,V>[])new Node<?,?>[1];
+        @SuppressWarnings("unchecked") K k = (K)key;
+        data.computeIfPresent(k, (x, n) -> {
+            V v = n.value;
+            if ((expires() && isExpired(n, now)) ||
+                !(v == value || value.equals(v)))
+                return n;
+            retire(n);
+            removed[0] = n;
+            return null;
+        });
+        Node<K,V> e;
+        if ((e = removed[0]) == null)
+            return false;
+        afterWrite(new RemovalTask(e));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        Node<K,V> e;
+        if ((e = data.get(key)) == null)
+            return false;
+        int w = weigh(key, newValue);
+        long now = now();
+        synchronized (e) {
+            V v = e.value;
+            if (e.state != ALIVE || (expires() && isExpired(e, now)) ||
+                !(v == oldValue || oldValue.equals(v)))
+                return false;
+            e.value = newValue;
+            e.weight = w;
+            e.writeTime = now;
+            e.accessTime = now;
+        }
+        afterWrite(new UpdateTask(e));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no unexpired mapping
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        Node<K,V> e;
+        if ((e = data.get(key)) == null)
+            return null;
+        int w = weigh(key, value);
+        long now = now();
+        V old;
+        synchronized (e) {
+            if (e.state != ALIVE || (expires() && isExpired(e, now)))
+                return null;
+            old = e.value;
+            e.value = value;
+            e.weight = w;
+            e.writeTime = now;
+            e.accessTime = now;
+        }
+        afterWrite(new UpdateTask(e));
+        return old;
+    }
+
+    /**
+     * If the specified key does not have an unexpired mapping, attempts
+     * to compute its value using the given mapping function and enters
+     * it into this cache unless {@code null}.  The entire method
+     * invocation is performed atomically, in the same sense as {@link
+     * ConcurrentHashMap#computeIfAbsent}.  Counts a hit or a miss.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     */
+    public V computeIfAbsent(K key,
+                             Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        long now = now();
+        Node<K,V> e = data.get(key);
+        V v = liveValue(e, now);
+        if (v != null) {
+            hits.increment();
+            afterRead(e, now);
+            return v;
+        }
+        misses.increment();
+        // nodes[0] is the node added, nodes[1] the expired node it replaced
+        @SuppressWarnings("unchecked") Node<K,V>[] nodes =
+            (Node<K,V>[])new Node<?,?>[2];
+        Node<K,V> result = data.compute(key, (k, prior) -> {
+            if (prior != null && !(expires() && isExpired(prior, now)))
+                return prior;
+            V nv = mappingFunction.apply(k);
+            if (nv == null)
+                return prior;
+            if (prior != null) {
+                retire(prior);
+                nodes[1] = prior;
+            }
+            return nodes[0] = new Node<K,V>(k, nv, weigh(k, nv), now);
+        });
+        if (nodes[1] != null) {
+            evictions.increment();
+            afterWrite(new RemovalTask(nodes[1]));
+        }
+        if (nodes[0] != null) {
+            afterWrite(new AddTask(nodes[0]));
+            return nodes[0].value;
+        }
+        return (result == null) ? null : liveValue(result, now);
+    }
+
+    /**
+     * Removes all of the mappings from this cache.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (Node<K,V> e : data.values()) {
+                if (removeNode(e))
+                    unlink(e);
+            }
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of mappings.  The value may include mappings
+     * that have expired but have not yet been removed, and mappings
+     * that are about to be evicted.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /* ---------------- Cache operations -------------- */
+
+    /**
+     * Performs any pending maintenance: replays buffered reads and
+     * writes, removes expired mappings and evicts to bring the weight
+     * within its bound.  Maintenance normally happens as a side effect
+     * of other operations; this method is useful when a cache sees no
+     * activity but should release expired mappings.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum total weight of this cache.
+     *
+     * @return the maximum total weight
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the total weight of the mappings, as of the most recent
+     * maintenance.
+     *
+     * @return the total weight of the mappings
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found an unexpired mapping.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no unexpired mapping.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of mappings removed because the cache was over
+     * its maximum weight or because they expired.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /* ---------------- Views -------------- */
+
+    /**
+     * Returns a {@link Set} view of the unexpired mappings contained in
+     * this cache.  The set is backed by the cache, and supports
+     * element removal.  Iterating does not affect the recency of the
+     * mappings.
+     *
+     * <p>The view's iterators are <a
+     * href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object k, v; Node<K,V> n; V r;
+            return ((k = e.getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (n = data.get(k)) != null &&
+                    (r = liveValue(n, now())) != null &&
+                    (r == v || v.equals(r)));
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object k, v;
+            return ((k = e.getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    BoundedConcurrentCache.this.remove(k, v));
+        }
+        public int size() {
+            return BoundedConcurrentCache.this.size();
+        }
+        public boolean isEmpty() {
+            return BoundedConcurrentCache.this.isEmpty();
+        }
+        public void clear() {
+            BoundedConcurrentCache.this.clear();
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final Iterator<Node<K,V>> it = data.values().iterator();
+        Map.Entry<K,V> nextEntry;
+        K lastKey;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            long now = now();
+            while (it.hasNext()) {
+                Node<K,V> e = it.next();
+                V v = liveValue(e, now);
+                if (v != null) {
+                    nextEntry = new MapEntry(e.key, v);
+                    return;
+                }
+            }
+            nextEntry = null;
+        }
+
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        public Map.Entry<K,V> next() {
+            Map.Entry<K,V> e = nextEntry;
+            if (e == null)
+                throw new NoSuchElementException();
+            lastKey = e.getKey();
+            advance();
+            return e;
+        }
+
+        public void remove() {
+            K k = lastKey;
+            if (k == null)
+                throw new IllegalStateException();
+            lastKey = null;
+            BoundedConcurrentCache.this.remove(k);
+        }
+    }
+
+    /**
+     * Entry returned by the iterator; setValue writes through.
+     */
+    final class MapEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = -4106925633981284426L;
+
+        MapEntry(K key, V value) {
+            super(key, value);
+        }
+
+        public V setValue(V value) {
+            if (value == null)
+                throw new NullPointerException();
+            V v = super.setValue(value);
+            put(getKey(), value);
+            return v;
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long BUFFERSBUSY;
+    private static final long DRAINSTATUS;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = BoundedConcurrentCache.class;
+            BUFFERSBUSY = U.objectFieldOffset
+                (k.getDeclaredField("buffersBusy"));
+            DRAINSTATUS = U.objectFieldOffset
+                (k.getDeclaredField("drainStatus"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
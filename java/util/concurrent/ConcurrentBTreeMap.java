@@ -0,0 +1,2559 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A scalable concurrent {@link ConcurrentNavigableMap} implementation
+ * based on a B-link tree.  The map is sorted according to the
+ * {@linkplain Comparable natural ordering} of its keys, or by a {@link
+ * Comparator} provided at map creation time, depending on which
+ * constructor is used.
+ *
+ * <p>Where a {@link ConcurrentSkipListMap} allocates a node, and
+ * usually some index nodes, per mapping, this map holds its keys and
+ * values in the arrays of <i>leaves</i> of up to <i>order</i> mappings
+ * each, reached through an index of nodes of up to <i>order</i>
+ * children.  A lookup therefore follows about log<sub>order</sub>(n)
+ * references and then binary-searches a contiguous array, rather than
+ * following a chain of about log<sub>2</sub>(n) dependent references,
+ * and ascending iteration walks the leaf arrays in sequence.  This
+ * implementation provides guaranteed <i>log(n)</i> time cost for the
+ * {@code containsKey}, {@code get}, {@code put} and {@code remove}
+ * operations and their variants.  Insertion, removal, update, and
+ * access operations safely execute concurrently by multiple threads.
+ *
+ * <p>Retrievals never block.  Each update locks only the leaf holding
+ * its key, so that updates of keys in different leaves proceed in
+ * parallel.  The contents of a leaf are immutable snapshots that an
+ * update replaces as a whole, except that the value of an existing
+ * mapping is replaced in place.  Larger orders make retrievals and
+ * iteration faster and updates, which copy the contents of a leaf,
+ * slower; the default order of 64 suits most uses.
+ *
+ * <p>Iterators are
+ * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+ * Ascending key ordered views and their iterators are faster than
+ * descending ones.
+ *
+ * <p>All {@code Map.Entry} pairs returned by methods in this class
+ * and its views represent snapshots of mappings at the time they were
+ * produced. They do <em>not</em> support the {@code Entry.setValue}
+ * method. (Note however that it is possible to change mappings in the
+ * associated map using {@code put}, {@code putIfAbsent}, or
+ * {@code replace}, depending on exactly which effect you need.)
+ *
+ * <p>The bulk operations {@code putAll}, {@code equals}, {@code
+ * toArray}, {@code containsValue}, and {@code clear} are <em>not</em>
+ * guaranteed to be performed atomically. For example, an iterator
+ * operating concurrently with a {@code putAll} operation might view
+ * only some of the added elements.
+ *
+ * <p>This class and its views and iterators implement all of the
+ * <em>optional</em> methods of the {@link Map} and {@link Iterator}
+ * interfaces. Like most other concurrent collections, this class does
+ * <em>not</em> permit the use of {@code null} keys or values because some
+ * null return values cannot be reliably distinguished from the absence of
+ * elements.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @see ConcurrentSkipListMap
+ * @see java.util.BTreeMap
+ * @since 1.8
+ */
+public class ConcurrentBTreeMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+    private static final long serialVersionUID = 2394816724306541283L;
+
+    /*
+     * Overview:
+     *
+     * The mappings are held in a chain of Leaf nodes linked by their
+     * "next" (right) links in ascending key order, as in the B-link
+     * trees of Lehman and Yao.  Each leaf covers a range of keys:
+     * from its lowKey (null for the head leaf), inclusive, to its
+     * high key (null for the last leaf), exclusive.  The state of a
+     * leaf -- its sorted keys, their values, its high key and its
+     * right link -- is an immutable Contents object, which updates
+     * replace while holding the leaf's monitor (as in
+     * ConcurrentHashMap bins), and which readers take as a snapshot
+     * without locking.  The only in-place change is the replacement of
+     * the value of an existing key, by a volatile array write.
+     *
+     * A leaf that overflows is split, under its lock, by moving its
+     * upper half to a new right sibling whose lowKey is the first key
+     * moved, and installing in one write new Contents for the left
+     * half with that key as high key and the new leaf as right link.
+     * So, as in any B-link tree, a traversal that reaches a leaf
+     * whose high key is not greater than its key, because the leaf
+     * was split after the traversal left the index, continues to the
+     * right.  Consequently the lowKey of a live leaf is always the
+     * lower bound of its range, and the index need not be updated
+     * atomically with a split: the new leaf is entered into the index
+     * afterwards.
+     *
+     * The index maps the lowKey of every indexed leaf other than the
+     * head to the leaf.  It is a B+-tree of immutable Index nodes,
+     * each holding the least key of each of its subtrees, which is
+     * modified only while holding indexLock, by copying the path from
+     * the root to the changed node and publishing the new root.
+     * Traversals thus read a consistent index without locking, and
+     * route a key to the leaf with the greatest indexed lowKey not
+     * greater than it, or to the head leaf if there is none.
+     *
+     * A leaf that becomes empty, or underflows to a quarter of the
+     * order, is merged into its left neighbour if the two fit in one
+     * leaf.  Holding indexLock, the leaf is first removed from the
+     * index, so that traversals route to a leaf to its left; then,
+     * holding the monitors of the left neighbour and the leaf, in that
+     * order, the neighbour is given the combined mappings, the leaf's
+     * high key and right link, and the leaf is given the DEAD
+     * contents.  A traversal that reaches a DEAD leaf, through a
+     * stale index or right link, starts over.  If the merge is not
+     * possible after all, the leaf is entered into the index again.
+     * Only merges hold two leaf locks, and they are serialized by
+     * indexLock; updates never hold a leaf lock while acquiring
+     * indexLock, so there is no deadlock.
+     *
+     * The number of mappings is maintained in a LongAdder, so size()
+     * is constant-time, but only an estimate while updates are in
+     * progress.
+     */
+
+    /**
+     * The default order, used when none is specified in a constructor.
+     */
+    static final int DEFAULT_ORDER = 64;
+
+    /**
+     * The smallest permitted order.
+     */
+    static final int MIN_ORDER = 4;
+
+    /**
+     * The comparator used to maintain order in this map, or null if
+     * using natural ordering.  (Non-private to simplify access in
+     * nested classes.)
+     * @serial
+     */
+    final Comparator<? super K> comparator;
+
+    /**
+     * The maximum number of mappings per leaf and of children per
+     * index node.
+     * @serial
+     */
+    final int order;
+
+    /** The leftmost leaf; replaced only by clear */
+    private transient volatile Leaf<K,V> head;
+
+    /** The root of the index, or null if only the head is indexed */
+    private transient volatile Index root;
+
+    /** Lock held while modifying the index, and merging leaves */
+    private transient ReentrantLock indexLock;
+
+    /** The number of mappings */
+    private transient LongAdder count;
+
+    /** Lazily initialized key set */
+    private transient KeySet<K> keySet;
+    /** Lazily initialized entry set */
+    private transient EntrySet<K,V> entrySet;
+    /** Lazily initialized values collection */
+    private transient Values<V> values;
+    /** Lazily initialized descending key set */
+    private transient ConcurrentNavigableMap<K,V> descendingMap;
+
+    /**
+     * Initializes or resets state. Needed by constructors, clone,
+     * and readObject.
+     */
+    private void initialize() {
+        keySet = null;
+        entrySet = null;
+        values = null;
+        descendingMap = null;
+        indexLock = new ReentrantLock();
+        count = new LongAdder();
+        root = null;
+        head = new Leaf<K,V>(null, EMPTY);
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * The state of a leaf.  Keys and values are exactly sized.
+     */
+    static final class Contents {
+        final Object[] keys;
+        final Object[] vals;
+        final Object high;
+        final Leaf<?,?> next;
+        Contents(Object[] keys, Object[] vals, Object high, Leaf<?,?> next) {
+            this.keys = keys;
+            this.vals = vals;
+            this.high = high;
+            this.next = next;
+        }
+    }
+
+    static final Contents EMPTY = new Contents(new Object[0], new Object[0],
+                                               null, null);
+
+    /** The contents of a leaf that has been merged away */
+    static final Contents DEAD = new Contents(new Object[0], new Object[0],
+                                              null, null);
+
+    static final class Leaf<K,V> {
+        final Object lowKey;
+        volatile Contents contents;
+        Leaf(Object lowKey, Contents contents) {
+            this.lowKey = lowKey;
+            this.contents = contents;
+        }
+        @SuppressWarnings("unchecked")
+        static <K,V> Leaf<K,V> nextOf(Contents c) {
+            return (Leaf<K,V>)c.next;
+        }
+    }
+
+    /**
+     * An immutable node of the index.  keys[i] is the least key in the
+     * subtree refs[i], which is an Index, or a Leaf if bottom.
+     */
+    static final class Index {
+        final Object[] keys;
+        final Object[] refs;
+        final boolean bottom;
+        Index(Object[] keys, Object[] refs, boolean bottom) {
+            this.keys = keys;
+            this.refs = refs;
+            this.bottom = bottom;
+        }
+    }
+
+    /**
+     * A position in a snapshot of a leaf.
+     */
+    static final class Pos {
+        final Contents contents;
+        final int index;
+        Pos(Contents contents, int index) {
+            this.contents = contents;
+            this.index = index;
+        }
+        @SuppressWarnings("unchecked")
+        <K> K key() { return (K)contents.keys[index]; }
+        <V> V value() { return valAt(contents.vals, index); }
+    }
+
+    @SuppressWarnings("unchecked")
+    static final <V> V valAt(Object[] vals, int i) {
+        return (V)U.getObjectVolatile(vals, ((long)i << ASHIFT) + ABASE);
+    }
+
+    static final void setValAt(Object[] vals, int i, Object v) {
+        U.putObjectVolatile(vals, ((long)i << ASHIFT) + ABASE, v);
+    }
+
+    /* ---------------- Comparison utilities -------------- */
+
+    /**
+     * Compares using comparator or natural ordering if null.
+     * Called only by methods that have performed required type checks.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static final int cpr(Comparator c, Object x, Object y) {
+        return (c != null) ? c.compare(x, y) : ((Comparable)x).compareTo(y);
+    }
+
+    /**
+     * Returns the index of key in keys if present, else
+     * (-(insertion point) - 1).
+     */
+    private int search(Object[] keys, Object key) {
+        Comparator<? super K> cmp = comparator;
+        int lo = 0, hi = keys.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = cpr(cmp, keys[mid], key);
+            if (c < 0)
+                lo = mid + 1;
+            else if (c > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Returns the greatest index i such that keys[i] is less than (or,
+     * unless strict, equal to) key, given that keys[0] is.
+     */
+    private int floorIndex(Object[] keys, Object key, boolean strict) {
+        Comparator<? super K> cmp = comparator;
+        int lo = 0, hi = keys.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            int c = cpr(cmp, keys[mid], key);
+            if (c < 0 || (c == 0 && !strict))
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns true if key is within the range of a leaf with contents
+     * c, given that it is not below it.
+     */
+    private boolean covers(Contents c, Object key) {
+        Object h;
+        return c != DEAD && ((h = c.high) == null ||
+                             cpr(comparator, key, h) < 0);
+    }
+
+    /* ---------------- Traversal -------------- */
+
+    /**
+     * Returns the leaf with the greatest indexed lowKey less than (or,
+     * unless strict, equal to) key, or the head leaf.
+     */
+    @SuppressWarnings("unchecked")
+    private Leaf<K,V> route(Object key, boolean strict) {
+        Index x = root;
+        if (x != null) {
+            int c = cpr(comparator, key, x.keys[0]);
+            if (c > 0 || (c == 0 && !strict)) {
+                for (;;) {
+                    Object r = x.refs[floorIndex(x.keys, key, strict)];
+                    if (x.bottom)
+                        return (Leaf<K,V>)r;
+                    x = (Index)r;
+                }
+            }
+        }
+        return head;
+    }
+
+    /**
+     * Returns the leaf whose range contains key.  The leaf may be split
+     * or merged at any time after it is returned.
+     */
+    final Leaf<K,V> findLeaf(Object key) {
+        outer: for (;;) {
+            Leaf<K,V> l = route(key, false);
+            for (;;) {
+                Contents c = l.contents;
+                if (c == DEAD)
+                    continue outer;
+                if (covers(c, key))
+                    return l;
+                l = Leaf.nextOf(c);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the contents of the leaf whose range
+     * contains key.
+     */
+    final Contents findContents(Object key) {
+        outer: for (;;) {
+            Leaf<K,V> l = route(key, false);
+            for (;;) {
+                Contents c = l.contents;
+                if (c == DEAD)
+                    continue outer;
+                if (covers(c, key))
+                    return c;
+                l = Leaf.nextOf(c);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the first key of the first nonempty leaf
+     * in the chain starting at l, or null if there is none, or if a
+     * DEAD leaf is encountered, in which case *dead is set.
+     */
+    private static Pos firstIn(Leaf<?,?> l, boolean[] dead) {
+        while (l != null) {
+            Contents c = l.contents;
+            if (c == DEAD) {
+                dead[0] = true;
+                return null;
+            }
+            if (c.keys.length > 0)
+                return new Pos(c, 0);
+            l = c.next;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position of the least key greater than (or, if
+     * inclusive, equal to) key, or null if there is none.
+     */
+    final Pos findAbove(Object key, boolean inclusive) {
+        for (;;) {
+            Contents c = findContents(key);
+            int i = search(c.keys, key);
+            if (i < 0)
+                i = -i - 1;
+            else if (!inclusive)
+                ++i;
+            if (i < c.keys.length)
+                return new Pos(c, i);
+            // all greater keys are in following leaves
+            boolean[] dead = new boolean[1];
+            Pos p = firstIn(c.next, dead);
+            if (!dead[0])
+                return p;
+        }
+    }
+
+    /**
+     * Returns the position of the greatest key less than (or, if
+     * inclusive, equal to) key, or null if there is none.
+     */
+    final Pos findBelow(Object key, boolean inclusive) {
+        outer: for (;;) {
+            Leaf<K,V> l = route(key, !inclusive);
+            for (;;) {
+                Contents c = l.contents;
+                if (c == DEAD)
+                    continue outer;
+                Object h = c.high;
+                int hc;
+                if (h != null && ((hc = cpr(comparator, key, h)) > 0 ||
+                                  (hc == 0 && inclusive))) {
+                    l = Leaf.nextOf(c);
+                    continue;
+                }
+                int i = search(c.keys, key);
+                if (i < 0)
+                    i = -i - 2;
+                else if (!inclusive)
+                    --i;
+                if (i >= 0)
+                    return new Pos(c, i);
+                // all lesser keys are below the range of l
+                if ((key = l.lowKey) == null)
+                    return null;
+                inclusive = false;
+                continue outer;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the least key, or null if empty.
+     */
+    final Pos firstPos() {
+        for (;;) {
+            boolean[] dead = new boolean[1];
+            Pos p = firstIn(head, dead);
+            if (!dead[0])
+                return p;
+        }
+    }
+
+    /**
+     * Returns the position of the greatest key, or null if empty.
+     */
+    final Pos lastPos() {
+        outer: for (;;) {
+            Index x = root;
+            Leaf<K,V> l, start;
+            if (x == null)
+                l = head;
+            else {
+                while (!x.bottom)
+                    x = (Index)x.refs[x.refs.length - 1];
+                @SuppressWarnings("unchecked") Leaf<K,V> r =
+                    (Leaf<K,V>)x.refs[x.refs.length - 1];
+                l = r;
+            }
+            start = l;
+            Contents last = null;
+            while (l != null) {
+                Contents c = l.contents;
+                if (c == DEAD)
+                    continue outer;
+                if (c.keys.length > 0)
+                    last = c;
+                l = Leaf.nextOf(c);
+            }
+            if (last != null)
+                return new Pos(last, last.keys.length - 1);
+            return (start.lowKey == null) ? null :
+                findBelow(start.lowKey, false);
+        }
+    }
+
+    /* ---------------- Index maintenance -------------- */
+
+    /**
+     * Enters a leaf split off by an update into the index, unless it
+     * was cleared in the meantime.
+     */
+    private void addIndex(Leaf<K,V> l) {
+        final ReentrantLock lock = this.indexLock;
+        lock.lock();
+        try {
+            if (l.contents != DEAD)
+                indexInsert(l.lowKey, l);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merges a leaf that has underflowed into its left neighbour,
+     * if the two fit in one leaf.
+     */
+    private void tryMerge(Leaf<K,V> l) {
+        final ReentrantLock lock = this.indexLock;
+        lock.lock();
+        try {
+            Contents c = l.contents;
+            if (c == DEAD || c.keys.length > (order >>> 2) ||
+                !indexRemove(l.lowKey, l))
+                return;
+            boolean merged = false;
+            // the index now routes the range of l to its left
+            Leaf<K,V> p = route(l.lowKey, true);
+            Contents pc;
+            while ((pc = p.contents).next != l && pc.next != null)
+                p = Leaf.nextOf(pc);
+            synchronized (p) {
+                synchronized (l) {
+                    pc = p.contents;
+                    c = l.contents;
+                    int pn = pc.keys.length, n = c.keys.length;
+                    if (pc.next == l && c != DEAD && pn + n <= order) {
+                        Object[] ks = Arrays.copyOf(pc.keys, pn + n);
+                        Object[] vs = Arrays.copyOf(pc.vals, pn + n);
+                        System.arraycopy(c.keys, 0, ks, pn, n);
+                        System.arraycopy(c.vals, 0, vs, pn, n);
+                        p.contents = new Contents(ks, vs, c.high, c.next);
+                        l.contents = DEAD;
+                        merged = true;
+                    }
+                }
+            }
+            if (!merged)
+                indexInsert(l.lowKey, l);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a mapping from key to leaf into the index.  Call only
+     * while holding indexLock.
+     */
+    private void indexInsert(Object key, Leaf<K,V> leaf) {
+        Index x = root;
+        if (x == null)
+            root = new Index(new Object[] { key }, new Object[] { leaf }, true);
+        else {
+            Index[] r = insert(x, key, leaf);
+            if (r.length == 1)
+                root = r[0];
+            else
+                root = new Index(new Object[] { r[0].keys[0], r[1].keys[0] },
+                                 new Object[] { r[0], r[1] }, false);
+        }
+    }
+
+    /**
+     * Returns a copy of x with key mapped to leaf, split in two if it
+     * overflows.
+     */
+    private Index[] insert(Index x, Object key, Leaf<K,V> leaf) {
+        Object[] ks = x.keys, rs = x.refs;
+        int n = ks.length;
+        Object[] nks, nrs;
+        if (x.bottom) {
+            int i = search(ks, key);
+            if (i >= 0) {    // replace; cannot normally happen
+                nks = ks;
+                (nrs = rs.clone())[i] = leaf;
+            } else {
+                i = -i - 1;
+                nks = insertAt(ks, i, key);
+                nrs = insertAt(rs, i, leaf);
+            }
+        } else {
+            int i = (cpr(comparator, key, ks[0]) < 0) ? 0 :
+                floorIndex(ks, key, false);
+            Index[] r = insert((Index)rs[i], key, leaf);
+            nks = ks.clone();
+            nrs = rs.clone();
+            nks[i] = r[0].keys[0];
+            nrs[i] = r[0];
+            if (r.length > 1) {
+                nks = insertAt(nks, i + 1, r[1].keys[0]);
+                nrs = insertAt(nrs, i + 1, r[1]);
+            }
+        }
+        n = nks.length;
+        if (n <= order)
+            return new Index[] { new Index(nks, nrs, x.bottom) };
+        int h = n >>> 1;
+        return new Index[] {
+            new Index(Arrays.copyOfRange(nks, 0, h),
+                      Arrays.copyOfRange(nrs, 0, h), x.bottom),
+            new Index(Arrays.copyOfRange(nks, h, n),
+                      Arrays.copyOfRange(nrs, h, n), x.bottom) };
+    }
+
+    /**
+     * Removes the mapping from key to leaf from the index, returning
+     * false if it was not present.  Call only while holding indexLock.
+     */
+    private boolean indexRemove(Object key, Leaf<K,V> leaf) {
+        Index x = root;
+        if (x == null || cpr(comparator, key, x.keys[0]) < 0)
+            return false;
+        Index r = delete(x, key, leaf);
+        if (r == x)
+            return false;
+        while (r != null && !r.bottom && r.refs.length == 1)
+            r = (Index)r.refs[0];
+        root = r;
+        return true;
+    }
+
+    /**
+     * Returns a copy of x without the mapping from key to leaf, which
+     * may be null if x becomes empty, or x itself if there is no such
+     * mapping.
+     */
+    private Index delete(Index x, Object key, Leaf<K,V> leaf) {
+        Object[] ks = x.keys, rs = x.refs;
+        if (x.bottom) {
+            int i = search(ks, key);
+            if (i < 0 || rs[i] != leaf)
+                return x;
+            return (ks.length == 1) ? null :
+                new Index(removeAt(ks, i), removeAt(rs, i), true);
+        }
+        int i = floorIndex(ks, key, false);
+        Index c = (Index)rs[i];
+        Index r = delete(c, key, leaf);
+        if (r == c)
+            return x;
+        if (r == null)
+            return (ks.length == 1) ? null :
+                new Index(removeAt(ks, i), removeAt(rs, i), false);
+        Object[] nks = ks.clone(), nrs = rs.clone();
+        nks[i] = r.keys[0];
+        nrs[i] = r;
+        int n = nks.length;
+        if (r.keys.length < ((order + 1) >>> 1) && n > 1) {
+            // rebalance with a sibling
+            int j = (i > 0) ? i - 1 : i;
+            Index a = (Index)nrs[j], b = (Index)nrs[j + 1];
+            int an = a.keys.length, bn = b.keys.length, m = an + bn;
+            Object[] cks = Arrays.copyOf(a.keys, m);
+            Object[] crs = Arrays.copyOf(a.refs, m);
+            System.arraycopy(b.keys, 0, cks, an, bn);
+            System.arraycopy(b.refs, 0, crs, an, bn);
+            if (m <= order) {
+                nks = removeAt(nks, j + 1);
+                nrs = removeAt(nrs, j + 1);
+                nrs[j] = new Index(cks, crs, a.bottom);
+            } else {
+                int h = m >>> 1;
+                nrs[j] = new Index(Arrays.copyOfRange(cks, 0, h),
+                                   Arrays.copyOfRange(crs, 0, h), a.bottom);
+                nrs[j + 1] = new Index(Arrays.copyOfRange(cks, h, m),
+                                       Arrays.copyOfRange(crs, h, m), a.bottom);
+                nks[j + 1] = cks[h];
+            }
+        }
+        return new Index(nks, nrs, false);
+    }
+
+    static Object[] insertAt(Object[] a, int i, Object x) {
+        int n = a.length;
+        Object[] b = new Object[n + 1];
+        System.arraycopy(a, 0, b, 0, i);
+        b[i] = x;
+        System.arraycopy(a, i, b, i + 1, n - i);
+        return b;
+    }
+
+    static Object[] removeAt(Object[] a, int i) {
+        int n = a.length - 1;
+        Object[] b = new Object[n];
+        System.arraycopy(a, 0, b, 0, i);
+        System.arraycopy(a, i + 1, b, i, n - i);
+        return b;
+    }
+
+    /* ---------------- Leaf updates -------------- */
+
+    /**
+     * Replaces the contents c of leaf l by contents with key and value
+     * inserted at index i, splitting l if it overflows.  Call only
+     * while holding the lock of l.
+     *
+     * @return the new right sibling of l, to be indexed, or null
+     */
+    private Leaf<K,V> insertAt(Leaf<K,V> l, Contents c, int i,
+                               Object key, Object value) {
+        Object[] ks = insertAt(c.keys, i, key);
+        Object[] vs = insertAt(c.vals, i, value);
+        int n = ks.length;
+        if (n <= order) {
+            l.contents = new Contents(ks, vs, c.high, c.next);
+            return null;
+        }
+        int h = n >>> 1;
+        Object sep = ks[h];
+        Leaf<K,V> r = new Leaf<K,V>
+            (sep, new Contents(Arrays.copyOfRange(ks, h, n),
+                               Arrays.copyOfRange(vs, h, n),
+                               c.high, c.next));
+        l.contents = new Contents(Arrays.copyOf(ks, h), Arrays.copyOf(vs, h),
+                                  sep, r);
+        return r;
+    }
+
+    /**
+     * Replaces the contents c of leaf l by contents without the
+     * mapping at index i.  Call only while holding the lock of l.
+     *
+     * @return the number of remaining mappings in l
+     */
+    private static int removeAt(Leaf<?,?> l, Contents c, int i) {
+        Object[] ks = removeAt(c.keys, i);
+        l.contents = new Contents(ks, removeAt(c.vals, i), c.high, c.next);
+        return ks.length;
+    }
+
+    /**
+     * Performs the index maintenance following an insertion.
+     */
+    private void afterInsert(Leaf<K,V> split) {
+        count.increment();
+        if (split != null)
+            addIndex(split);
+    }
+
+    /**
+     * Performs the index maintenance following a removal that left n
+     * mappings in l.
+     */
+    private void afterRemove(Leaf<K,V> l, int n) {
+        count.decrement();
+        if (l.lowKey != null && (n == 0 || n == (order >>> 2)))
+            tryMerge(l);
+    }
+
+    /* ---------------- Main operations -------------- */
+
+    /**
+     * Gets value for key.
+     */
+    private V doGet(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Contents c = findContents(key);
+        int i = search(c.keys, key);
+        return (i >= 0) ? ConcurrentBTreeMap.<V>valAt(c.vals, i) : null;
+    }
+
+    /**
+     * Main insertion method.  Adds element if not present, or
+     * replaces value if present and onlyIfAbsent is false.
+     *
+     * @return the old value, or null if newly inserted
+     */
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        for (;;) {
+            Leaf<K,V> l = findLeaf(key), split;
+            synchronized (l) {
+                Contents c = l.contents;
+                if (!covers(c, key))
+                    continue;
+                int i = search(c.keys, key);
+                if (i >= 0) {
+                    V old = valAt(c.vals, i);
+                    if (!onlyIfAbsent)
+                        setValAt(c.vals, i, value);
+                    return old;
+                }
+                split = insertAt(l, c, -i - 1, key, value);
+            }
+            afterInsert(split);
+            return null;
+        }
+    }
+
+    /**
+     * Main deletion method.  Removes the mapping for key if present,
+     * and, if value is non-null, mapped to a value equal to value.
+     *
+     * @return the removed value, or null if there was none
+     */
+    final V doRemove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        for (;;) {
+            Leaf<K,V> l = findLeaf(key);
+            V old;
+            int n;
+            synchronized (l) {
+                Contents c = l.contents;
+                if (!covers(c, key))
+                    continue;
+                int i = search(c.keys, key);
+                if (i < 0)
+                    return null;
+                old = valAt(c.vals, i);
+                if (value != null && !value.equals(old))
+                    return null;
+                n = removeAt(l, c, i);
+            }
+            afterRemove(l, n);
+            return old;
+        }
+    }
+
+    /**
+     * Replaces the value for key, if present and, if expect is
+     * non-null, equal to expect.
+     *
+     * @return the replaced value, or null if none
+     */
+    private V doReplace(K key, V expect, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        for (;;) {
+            Leaf<K,V> l = findLeaf(key);
+            synchronized (l) {
+                Contents c = l.contents;
+                if (!covers(c, key))
+                    continue;
+                int i = search(c.keys, key);
+                if (i < 0)
+                    return null;
+                V old = valAt(c.vals, i);
+                if (expect != null && !expect.equals(old))
+                    return null;
+                setValAt(c.vals, i, value);
+                return old;
+            }
+        }
+    }
+
+    /**
+     * Computes a new mapping for key, given its current value or null,
+     * while holding the lock of its leaf.  A null result removes the
+     * mapping.
+     *
+     * @return the new value, or null if none
+     */
+    private V doCompute(K key,
+                        BiFunction<? super K, ? super V, ? extends V> f) {
+        for (;;) {
+            Leaf<K,V> l = findLeaf(key), split = null;
+            V old, v;
+            int n = -1;
+            synchronized (l) {
+                Contents c = l.contents;
+                if (!covers(c, key))
+                    continue;
+                int i = search(c.keys, key);
+                old = (i >= 0) ? ConcurrentBTreeMap.<V>valAt(c.vals, i) : null;
+                if ((v = f.apply(key, old)) == old)
+                    return v;
+                if (old == null)
+                    split = insertAt(l, c, -i - 1, key, v);
+                else if (v != null)
+                    setValAt(c.vals, i, v);
+                else
+                    n = removeAt(l, c, i);
+            }
+            if (old == null)
+                afterInsert(split);
+            else if (v == null)
+                afterRemove(l, n);
+            return v;
+        }
+    }
+
+    /* ---------------- Constructors -------------- */
+
+    /**
+     * Constructs a new, empty map of the default order, sorted
+     * according to the {@linkplain Comparable natural ordering} of the
+     * keys.
+     */
+    public ConcurrentBTreeMap() {
+        this(DEFAULT_ORDER, null);
+    }
+
+    /**
+     * Constructs a new, empty map of the default order, sorted
+     * according to the specified comparator.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public ConcurrentBTreeMap(Comparator<? super K> comparator) {
+        this(DEFAULT_ORDER, comparator);
+    }
+
+    /**
+     * Constructs a new, empty map of the given order, sorted according
+     * to the {@linkplain Comparable natural ordering} of the keys.
+     *
+     * @param order the maximum number of mappings per leaf, and of
+     *        children per index node
+     * @throws IllegalArgumentException if order is less than 4
+     */
+    public ConcurrentBTreeMap(int order) {
+        this(order, null);
+    }
+
+    /**
+     * Constructs a new, empty map of the given order, sorted according
+     * to the specified comparator.
+     *
+     * @param order the maximum number of mappings per leaf, and of
+     *        children per index node
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     * @throws IllegalArgumentException if order is less than 4
+     */
+    public ConcurrentBTreeMap(int order, Comparator<? super K> comparator) {
+        if (order < MIN_ORDER)
+            throw new IllegalArgumentException("Illegal order: " + order);
+        this.order = order;
+        this.comparator = comparator;
+        initialize();
+    }
+
+    /**
+     * Constructs a new map containing the same mappings as the given map,
+     * sorted according to the {@linkplain Comparable natural ordering} of
+     * the keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in {@code m} are not
+     *         {@link Comparable}, or are not mutually comparable
+     * @throws NullPointerException if the specified map or any of its keys
+     *         or values are null
+     */
+    public ConcurrentBTreeMap(Map<? extends K, ? extends V> m) {
+        this(DEFAULT_ORDER, null);
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new map containing the same mappings and using the
+     * same ordering as the specified sorted map.
+     *
+     * @param m the sorted map whose mappings are to be placed in this
+     *        map, and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified sorted map or any of
+     *         its keys or values are null
+     */
+    public ConcurrentBTreeMap(SortedMap<K, ? extends V> m) {
+        this(DEFAULT_ORDER, m.comparator());
+        putAll(m);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code ConcurrentBTreeMap}
+     * instance. (The keys and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public ConcurrentBTreeMap<K,V> clone() {
+        try {
+            @SuppressWarnings("unchecked")
+            ConcurrentBTreeMap<K,V> clone =
+                (ConcurrentBTreeMap<K,V>) super.clone();
+            clone.initialize();
+            clone.putAll(this);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError();
+        }
+    }
+
+    /* ---------------- Serialization -------------- */
+
+    /**
+     * Saves this map to a stream (that is, serializes it).
+     *
+     * @param s the stream
+     * @throws java.io.IOException if an I/O error occurs
+     * @serialData The key (Object) and value (Object) for each
+     * key-value mapping represented by the map, followed by
+     * {@code null}. The key-value mappings are emitted in key-order
+     * (as determined by the Comparator, or by the keys' natural
+     * ordering if no Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator, order and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out keys and values (alternating)
+        for (Map.Entry<K,V> e : entrySet()) {
+            s.writeObject(e.getKey());
+            s.writeObject(e.getValue());
+        }
+        s.writeObject(null);
+    }
+
+    /**
+     * Reconstitutes this map from a stream (that is, deserializes it).
+     * @param s the stream
+     * @throws ClassNotFoundException if the class of a serialized object
+     *         could not be found
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator, order and any hidden stuff
+        s.defaultReadObject();
+        if (order < MIN_ORDER)
+            throw new java.io.InvalidObjectException("Illegal order: " +
+                                                     order);
+        // Reset transients
+        initialize();
+        for (;;) {
+            Object k = s.readObject();
+            if (k == null)
+                break;
+            Object v = s.readObject();
+            if (v == null)
+                throw new NullPointerException();
+            doPut((K)k, (V)v, false);
+        }
+    }
+
+    /* ------ Map API methods ------ */
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        return doGet(key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        return doGet(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the given defaultValue if this map contains no mapping for the key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if this map contains
+     * no mapping for the given key
+     * @return the mapping for the key, if present; else the defaultValue
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = doGet(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return doRemove(key, null);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (Iterator<V> it = valueIterator(); it.hasNext(); ) {
+            if (value.equals(it.next()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  If this map
+     * contains more than {@code Integer.MAX_VALUE} elements, it
+     * returns {@code Integer.MAX_VALUE}.  The value returned is an
+     * estimate if there are concurrent updates.
+     *
+     * @return the number of elements in this map
+     */
+    public int size() {
+        long n = count.sum();
+        return ((n < 0L) ? 0 :
+                (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                (int)n);
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return firstPos() == null;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        final ReentrantLock lock = this.indexLock;
+        lock.lock();
+        try {
+            Leaf<K,V> l = head;
+            head = new Leaf<K,V>(null, EMPTY);
+            root = null;
+            // kill the old leaves, so that updates in progress retry
+            while (l != null) {
+                synchronized (l) {
+                    Contents c = l.contents;
+                    l.contents = DEAD;
+                    count.add(-c.keys.length);
+                    l = Leaf.nextOf(c);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map unless {@code null}.  The function
+     * is applied at most once, while holding the lock of the leaf
+     * that holds the key, so it should be short and simple, and must
+     * not attempt to update any other mappings of this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key is null
+     *         or the mappingFunction is null
+     * @since 1.8
+     */
+    public V computeIfAbsent(K key,
+                             Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        V v;
+        if ((v = doGet(key)) != null)
+            return v;
+        return doCompute(key, (k, old) ->
+                         (old != null) ? old : mappingFunction.apply(k));
+    }
+
+    /**
+     * If the value for the specified key is present, attempts to
+     * compute a new mapping given the key and its current mapped
+     * value.  The function is applied at most once, while holding the
+     * lock of the leaf that holds the key.
+     *
+     * @param key key with which a value may be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null if none
+     * @throws NullPointerException if the specified key is null
+     *         or the remappingFunction is null
+     * @since 1.8
+     */
+    public V computeIfPresent(K key,
+                              BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, (k, old) ->
+                         (old == null) ? null : remappingFunction.apply(k, old));
+    }
+
+    /**
+     * Attempts to compute a mapping for the specified key and its
+     * current mapped value (or {@code null} if there is no current
+     * mapping).  The function is applied once, while holding the lock
+     * of the leaf that holds the key.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param remappingFunction the function to compute a value
+     * @return the new value associated with the specified key, or null if none
+     * @throws NullPointerException if the specified key is null
+     *         or the remappingFunction is null
+     * @since 1.8
+     */
+    public V compute(K key,
+                     BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, remappingFunction);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * value with the results of the given remapping function, or
+     * removes if {@code null}.  The function is applied at most once,
+     * while holding the lock of the leaf that holds the key.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value the value to use if absent
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key, or null if none
+     * @throws NullPointerException if the specified key or value is null
+     *         or the remappingFunction is null
+     * @since 1.8
+     */
+    public V merge(K key, V value,
+                   BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (key == null || value == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, (k, old) ->
+                         (old == null) ? value : remappingFunction.apply(old, value));
+    }
+
+    /* ---------------- View methods -------------- */
+
+    /**
+     * Returns a {@link NavigableSet} view of the keys contained in this map.
+     *
+     * <p>The set's iterator returns the keys in ascending order.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, which removes the corresponding mapping from the map,
+     * via the {@code Iterator.remove}, {@code Set.remove},
+     * {@code removeAll}, {@code retainAll}, and {@code clear}
+     * operations.  It does not support the {@code add} or {@code addAll}
+     * operations.
+     *
+     * <p>The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return a navigable set view of the keys in this map
+     */
+    public NavigableSet<K> keySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * The collection's iterator returns the values in ascending order
+     * of the corresponding keys.  The collection is backed by the map,
+     * and supports element removal, but not addition.
+     *
+     * <p>The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     */
+    public Collection<V> values() {
+        Values<V> vs = values;
+        return (vs != null) ? vs : (values = new Values<V>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set's iterator returns the entries in ascending key order.
+     * The set is backed by the map, and supports element removal, but
+     * not addition.  The {@code Map.Entry} elements traversed by the
+     * iterator do <em>not</em> support the {@code setValue} operation.
+     *
+     * <p>The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return a set view of the mappings contained in this map,
+     *         sorted in ascending key order
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet<K,V>(this));
+    }
+
+    public ConcurrentNavigableMap<K,V> descendingMap() {
+        ConcurrentNavigableMap<K,V> dm = descendingMap;
+        return (dm != null) ? dm : (descendingMap = new SubMap<K,V>
+                                    (this, null, false, null, false, true));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /* ---------------- AbstractMap Overrides -------------- */
+
+    /**
+     * Compares the specified object with this map for equality.
+     * Returns {@code true} if the given object is also a map and the
+     * two maps represent the same mappings.  More formally, two maps
+     * {@code m1} and {@code m2} represent the same mappings if
+     * {@code m1.entrySet().equals(m2.entrySet())}.  This
+     * operation may return misleading results if either map is
+     * concurrently modified during execution of this method.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof Map))
+            return false;
+        Map<?,?> m = (Map<?,?>) o;
+        try {
+            for (Map.Entry<K,V> e : this.entrySet())
+                if (! e.getValue().equals(m.get(e.getKey())))
+                    return false;
+            for (Map.Entry<?,?> e : m.entrySet()) {
+                Object k = e.getKey();
+                Object v = e.getValue();
+                if (k == null || v == null || !v.equals(get(k)))
+                    return false;
+            }
+            return true;
+        } catch (ClassCastException unused) {
+            return false;
+        } catch (NullPointerException unused) {
+            return false;
+        }
+    }
+
+    /* ------ ConcurrentMap API methods ------ */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && doRemove(key, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (oldValue == null)
+            throw new NullPointerException();
+        return doReplace(key, oldValue, newValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        return doReplace(key, null, value);
+    }
+
+    /* ------ SortedMap API methods ------ */
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        Pos p = firstPos();
+        if (p == null)
+            throw new NoSuchElementException();
+        return p.key();
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        Pos p = lastPos();
+        if (p == null)
+            throw new NoSuchElementException();
+        return p.key();
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey,
+                                              boolean fromInclusive,
+                                              K toKey,
+                                              boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey,
+                                               boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey,
+                                               boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, inclusive, null, false, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /* ---------------- Relational operations -------------- */
+
+    // Control values OR'ed as arguments to findNear
+
+    static final int EQ = 1;
+    static final int LT = 2;
+    static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Utility for ceiling, floor, lower, higher methods.
+     * @param key the key
+     * @param rel the relation -- OR'ed combination of EQ, LT, GT
+     * @return nearest position fitting relation, or null if no such
+     */
+    final Pos findNear(Object key, int rel) {
+        if (key == null)
+            throw new NullPointerException();
+        return ((rel & LT) != 0) ? findBelow(key, (rel & EQ) != 0) :
+            findAbove(key, (rel & EQ) != 0);
+    }
+
+    static <K,V> AbstractMap.SimpleImmutableEntry<K,V> snapshot(Pos p) {
+        return (p == null) ? null :
+            new AbstractMap.SimpleImmutableEntry<K,V>(p.<K>key(), p.<V>value());
+    }
+
+    static <K> K keyOrNull(Pos p) {
+        return (p == null) ? null : p.<K>key();
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * strictly less than the given key, or {@code null} if there is
+     * no such key. The returned entry does <em>not</em> support the
+     * {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return snapshot(findNear(key, LT));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K lowerKey(K key) {
+        return keyOrNull(findNear(key, LT));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * less than or equal to the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return snapshot(findNear(key, LT|EQ));
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K floorKey(K key) {
+        return keyOrNull(findNear(key, LT|EQ));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * greater than or equal to the given key, or {@code null} if
+     * there is no such entry. The returned entry does <em>not</em>
+     * support the {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return snapshot(findNear(key, GT|EQ));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K ceilingKey(K key) {
+        return keyOrNull(findNear(key, GT|EQ));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * strictly greater than the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return snapshot(findNear(key, GT));
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K higherKey(K key) {
+        return keyOrNull(findNear(key, GT));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> firstEntry() {
+        return snapshot(firstPos());
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> lastEntry() {
+        return snapshot(lastPos());
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the least key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollFirstEntry() {
+        for (;;) {
+            Pos p = firstPos();
+            if (p == null)
+                return null;
+            K k = p.key();
+            V v = doRemove(k, null);
+            if (v != null)
+                return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the greatest key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollLastEntry() {
+        for (;;) {
+            Pos p = lastPos();
+            if (p == null)
+                return null;
+            K k = p.key();
+            V v = doRemove(k, null);
+            if (v != null)
+                return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    /* ---------------- Iterators -------------- */
+
+    /**
+     * Base of iterator classes, traversing the mappings between
+     * optional bounds, in either direction.  A null bound is
+     * unbounded.  Ascending traversal steps through a snapshot of a
+     * leaf and then follows its right link; descending traversal
+     * steps back through a snapshot and then searches for the
+     * greatest key below it.
+     */
+    abstract class Iter<T> implements Iterator<T> {
+        final K lo, hi;
+        final boolean loInclusive, hiInclusive, descending;
+        /** the snapshot and index holding the next mapping */
+        Contents contents;
+        int index;
+        /** the next mapping to return, nextKey null if none */
+        K nextKey;
+        V nextValue;
+        /** the last mapping returned by next() */
+        K lastKey;
+        V lastValue;
+
+        Iter(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+             boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            if (descending)
+                setNext((hi == null) ? lastPos() : findBelow(hi, hiInclusive));
+            else
+                setNext((lo == null) ? firstPos() : findAbove(lo, loInclusive));
+        }
+
+        private void setNext(Pos p) {
+            if (p == null) {
+                nextKey = null;
+                nextValue = null;
+                contents = null;
+            } else {
+                contents = p.contents;
+                index = p.index;
+                take();
+            }
+        }
+
+        /** Takes the next mapping from contents and index, if in range */
+        @SuppressWarnings("unchecked")
+        private void take() {
+            K k = (K)contents.keys[index];
+            int c;
+            if ((descending) ?
+                (lo != null && ((c = cpr(comparator, k, lo)) < 0 ||
+                                (c == 0 && !loInclusive))) :
+                (hi != null && ((c = cpr(comparator, k, hi)) > 0 ||
+                                (c == 0 && !hiInclusive)))) {
+                nextKey = null;
+                nextValue = null;
+                contents = null;
+            } else {
+                nextKey = k;
+                nextValue = valAt(contents.vals, index);
+            }
+        }
+
+        public final boolean hasNext() {
+            return nextKey != null;
+        }
+
+        final void advance() {
+            K k = nextKey;
+            if (k == null)
+                throw new NoSuchElementException();
+            lastKey = k;
+            lastValue = nextValue;
+            Contents c = contents;
+            int i = index;
+            if (descending) {
+                if (i > 0) {
+                    index = i - 1;
+                    take();
+                } else
+                    setNext(findBelow(k, false));
+            } else if (i + 1 < c.keys.length) {
+                index = i + 1;
+                take();
+            } else {
+                boolean[] dead = new boolean[1];
+                Pos p = firstIn(c.next, dead);
+                setNext(dead[0] ? findAbove(k, false) : p);
+            }
+        }
+
+        public void remove() {
+            K k = lastKey;
+            if (k == null)
+                throw new IllegalStateException();
+            // It would not be worth all of the overhead to directly
+            // unlink from here. Using remove is fast enough.
+            ConcurrentBTreeMap.this.remove(k);
+            lastKey = null;
+        }
+    }
+
+    final class ValueIterator extends Iter<V> {
+        ValueIterator(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                      boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public V next() {
+            advance();
+            return lastValue;
+        }
+    }
+
+    final class KeyIterator extends Iter<K> {
+        KeyIterator(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                    boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public K next() {
+            advance();
+            return lastKey;
+        }
+    }
+
+    final class EntryIterator extends Iter<Map.Entry<K,V>> {
+        EntryIterator(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                      boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        public Map.Entry<K,V> next() {
+            advance();
+            return new AbstractMap.SimpleImmutableEntry<K,V>(lastKey, lastValue);
+        }
+    }
+
+    // Factory methods for iterators needed by KeySet etc
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(null, false, null, false, false);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator(null, false, null, false, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator(null, false, null, false, false);
+    }
+
+    /* ---------------- View Classes -------------- */
+
+    /*
+     * View classes are static, delegating to a ConcurrentNavigableMap
+     * to allow use by SubMaps, which outweighs the ugliness of
+     * needing type-tests for Iterator methods.
+     */
+
+    static final <E> List<E> toList(Collection<E> c) {
+        // Using size() here would be a pessimization.
+        ArrayList<E> list = new ArrayList<E>();
+        for (E e : c)
+            list.add(e);
+        return list;
+    }
+
+    static final class KeySet<E>
+            extends AbstractSet<E> implements NavigableSet<E> {
+        final ConcurrentNavigableMap<E,?> m;
+        KeySet(ConcurrentNavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public boolean remove(Object o) { return m.remove(o) != null; }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<E,Object>)m).keyIterator();
+            else
+                return ((ConcurrentBTreeMap.SubMap<E,Object>)m).keyIterator();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<E>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<E>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<E>(m.tailMap(fromElement, inclusive));
+        }
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<E>(m.descendingMap());
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        final ConcurrentNavigableMap<?, E> m;
+        Values(ConcurrentNavigableMap<?, E> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<?,E>)m).valueIterator();
+            else
+                return ((SubMap<?,E>)m).valueIterator();
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public boolean contains(Object o) {
+            return m.containsValue(o);
+        }
+        public void clear() {
+            m.clear();
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+    }
+
+    static final class EntrySet<K1,V1> extends AbstractSet<Map.Entry<K1,V1>> {
+        final ConcurrentNavigableMap<K1, V1> m;
+        EntrySet(ConcurrentNavigableMap<K1, V1> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<Map.Entry<K1,V1>> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<K1,V1>)m).entryIterator();
+            else
+                return ((SubMap<K1,V1>)m).entryIterator();
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            V1 v = m.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return m.remove(e.getKey(),
+                            e.getValue());
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public void clear() {
+            m.clear();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+    }
+
+    /**
+     * Submaps returned by {@link ConcurrentBTreeMap} submap operations
+     * represent a subrange of mappings of their underlying
+     * maps. Instances of this class support all methods of their
+     * underlying maps, differing in that mappings outside their range are
+     * ignored, and attempts to add mappings outside their ranges result
+     * in {@link IllegalArgumentException}.  Instances of this class are
+     * constructed only using the {@code subMap}, {@code headMap}, and
+     * {@code tailMap} methods of their underlying maps.
+     *
+     * @serial include
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+        private static final long serialVersionUID = -5127098391540347762L;
+
+        /** Underlying map */
+        private final ConcurrentBTreeMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        /**
+         * Creates a new submap, initializing all fields.
+         */
+        SubMap(ConcurrentBTreeMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            Comparator<? super K> cmp = map.comparator;
+            if (fromKey != null && toKey != null &&
+                cpr(cmp, fromKey, toKey) > 0)
+                throw new IllegalArgumentException("inconsistent range");
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (lo != null && ((c = cpr(cmp, key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (hi != null && ((c = cpr(cmp, key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key, Comparator<? super K> cmp) {
+            return !tooLow(key, cmp) && !tooHigh(key, cmp);
+        }
+
+        void checkKeyBounds(K key, Comparator<? super K> cmp) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key, cmp))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /**
+         * Returns the lowest position in range, or null.
+         */
+        Pos loPos(Comparator<? super K> cmp) {
+            Pos p = (lo == null) ? m.firstPos() :
+                m.findNear(lo, loInclusive ? GT|EQ : GT);
+            return (p == null || tooHigh(p.key(), cmp)) ? null : p;
+        }
+
+        /**
+         * Returns the highest position in range, or null.
+         */
+        Pos hiPos(Comparator<? super K> cmp) {
+            Pos p = (hi == null) ? m.lastPos() :
+                m.findNear(hi, hiInclusive ? LT|EQ : LT);
+            return (p == null || tooLow(p.key(), cmp)) ? null : p;
+        }
+
+        /**
+         * Returns lowest absolute key (ignoring directonality).
+         */
+        K lowestKey() {
+            Pos p = loPos(m.comparator);
+            if (p == null)
+                throw new NoSuchElementException();
+            return p.key();
+        }
+
+        /**
+         * Returns highest absolute key (ignoring directonality).
+         */
+        K highestKey() {
+            Pos p = hiPos(m.comparator);
+            if (p == null)
+                throw new NoSuchElementException();
+            return p.key();
+        }
+
+        Map.Entry<K,V> lowestEntry() {
+            return snapshot(loPos(m.comparator));
+        }
+
+        Map.Entry<K,V> highestEntry() {
+            return snapshot(hiPos(m.comparator));
+        }
+
+        Map.Entry<K,V> removeLowest() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                Pos p = loPos(cmp);
+                if (p == null)
+                    return null;
+                K k = p.key();
+                V v = m.doRemove(k, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+        }
+
+        Map.Entry<K,V> removeHighest() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                Pos p = hiPos(cmp);
+                if (p == null)
+                    return null;
+                K k = p.key();
+                V v = m.doRemove(k, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+        }
+
+        /**
+         * Submap version of ConcurrentBTreeMap.findNear
+         */
+        Pos getNear(K key, int rel) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // adjust relation for direction
+                if ((rel & LT) == 0)
+                    rel |= LT;
+                else
+                    rel &= ~LT;
+            }
+            if (tooLow(key, cmp))
+                return ((rel & LT) != 0) ? null : loPos(cmp);
+            if (tooHigh(key, cmp))
+                return ((rel & LT) != 0) ? hiPos(cmp) : null;
+            Pos p = m.findNear(key, rel);
+            return (p == null || !inBounds(p.key(), cmp)) ? null : p;
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key, m.comparator) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key, m.comparator)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            return (!inBounds(key, m.comparator)) ? null : m.remove(key);
+        }
+
+        public int size() {
+            long count = 0;
+            for (Iterator<K> it = keyIterator(); it.hasNext(); it.next())
+                ++count;
+            return count >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)count;
+        }
+
+        public boolean isEmpty() {
+            return loPos(m.comparator) == null;
+        }
+
+        public boolean containsValue(Object value) {
+            if (value == null)
+                throw new NullPointerException();
+            for (Iterator<V> it = valueIterator(); it.hasNext(); ) {
+                if (value.equals(it.next()))
+                    return true;
+            }
+            return false;
+        }
+
+        public void clear() {
+            for (Iterator<K> it = keyIterator(); it.hasNext(); )
+                m.remove(it.next());
+        }
+
+        /* ----------------  ConcurrentMap API methods -------------- */
+
+        public V putIfAbsent(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.putIfAbsent(key, value);
+        }
+
+        public boolean remove(Object key, Object value) {
+            return inBounds(key, m.comparator) && m.remove(key, value);
+        }
+
+        public boolean replace(K key, V oldValue, V newValue) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, oldValue, newValue);
+        }
+
+        public V replace(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, value);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = cpr(cmp, fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = cpr(cmp, toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<K,V>(m, fromKey, fromInclusive,
+                                   toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<K,V>(m, lo, loInclusive,
+                                   hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return snapshot(getNear(key, GT|EQ));
+        }
+
+        public K ceilingKey(K key) {
+            return keyOrNull(getNear(key, GT|EQ));
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return snapshot(getNear(key, LT));
+        }
+
+        public K lowerKey(K key) {
+            return keyOrNull(getNear(key, LT));
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return snapshot(getNear(key, LT|EQ));
+        }
+
+        public K floorKey(K key) {
+            return keyOrNull(getNear(key, LT|EQ));
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return snapshot(getNear(key, GT));
+        }
+
+        public K higherKey(K key) {
+            return keyOrNull(getNear(key, GT));
+        }
+
+        public K firstKey() {
+            return isDescending ? highestKey() : lowestKey();
+        }
+
+        public K lastKey() {
+            return isDescending ? lowestKey() : highestKey();
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return isDescending ? highestEntry() : lowestEntry();
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return isDescending ? lowestEntry() : highestEntry();
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return isDescending ? removeHighest() : removeLowest();
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return isDescending ? removeLowest() : removeHighest();
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<V>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<K,V>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return m.new KeyIterator(lo, loInclusive, hi, hiInclusive,
+                                     isDescending);
+        }
+
+        Iterator<V> valueIterator() {
+            return m.new ValueIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return m.new EntryIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+    }
+
+    // default Map method overrides
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullPointerException();
+        for (Iterator<Map.Entry<K,V>> it = entryIterator(); it.hasNext(); ) {
+            Map.Entry<K,V> e = it.next();
+            action.accept(e.getKey(), e.getValue());
+        }
+    }
+
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        if (function == null) throw new NullPointerException();
+        for (Iterator<K> it = keyIterator(); it.hasNext(); ) {
+            K k = it.next();
+            doCompute(k, (key, v) -> {
+                    if (v == null)
+                        return null;
+                    V r = function.apply(key, v);
+                    if (r == null) throw new NullPointerException();
+                    return r;
+                });
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> ak = Object[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
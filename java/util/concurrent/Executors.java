@@ -128,6 +128,48 @@ public class Executors {
              null, true);
     }
 
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off a {@link WorkStealingBlockingQueue}, in which each
+     * thread mostly takes tasks from its own sub-queue and steals from
+     * the others when that is empty.  Such a pool behaves like one
+     * created by {@link #newFixedThreadPool(int)}, but scales better
+     * when many threads submit and execute short tasks, at the price
+     * of making no guarantees about the order in which submitted
+     * tasks are executed.
+     *
+     * @param nThreads the number of threads in the pool
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @since 1.8
+     */
+    public static ExecutorService newFixedWorkStealingThreadPool(int nThreads) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new WorkStealingBlockingQueue<Runnable>(nThreads));
+    }
+
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off a {@link WorkStealingBlockingQueue}, using the
+     * provided ThreadFactory to create new threads when needed.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param threadFactory the factory to use when creating new threads
+     * @return the newly created thread pool
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see #newFixedWorkStealingThreadPool(int)
+     * @since 1.8
+     */
+    public static ExecutorService newFixedWorkStealingThreadPool(int nThreads,
+                                                                 ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new WorkStealingBlockingQueue<Runnable>(nThreads),
+                                      threadFactory);
+    }
+
     /**
      * Creates a thread pool that reuses a fixed number of threads
      * operating off a shared unbounded queue, using the provided
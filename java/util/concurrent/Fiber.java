@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+/**
+ * A lightweight task, scheduled on a {@link ForkJoinPool} acting as
+ * its carrier, that may block.
+ *
+ * <p>A fiber runs its body on one of the worker threads of its
+ * scheduler.  Unlike other {@link ForkJoinTask}s, a fiber is expected
+ * to block, in {@link java.util.concurrent.locks.LockSupport#park
+ * LockSupport.park} and hence in every synchronizer built on it,
+ * including {@link java.util.concurrent.locks.ReentrantLock
+ * ReentrantLock}, {@link java.util.concurrent.locks.Condition
+ * Condition}, the {@link BlockingQueue} implementations and the other
+ * synchronizers of this package.  When a fiber parks, its carrier
+ * thread is handed over to the scheduler using {@link
+ * ForkJoinPool#managedBlock}, so that a spare carrier may be activated
+ * to keep the scheduler's target parallelism, and other fibers keep
+ * running while this one waits.  Spare carriers retire when the
+ * scheduler becomes quiescent again.  Parking in a fiber therefore
+ * never reduces the number of fibers making progress, and the
+ * scheduler itself needs only as many threads as there are fibers
+ * blocked at any one time plus its parallelism, rather than one
+ * thread per fiber as with a conventional thread pool.
+ *
+ * <p>This implementation does not capture the stack of a parked fiber,
+ * so a parked fiber still occupies its carrier thread, although not a
+ * unit of the scheduler's parallelism.  Blocking that does not go
+ * through {@code LockSupport}, such as {@link Object#wait}, {@link
+ * Thread#sleep} or a blocking read of a {@link java.nio.channels
+ * channel}, is not visible to the scheduler; fibers that perform such
+ * operations should themselves use {@link ForkJoinPool#managedBlock}.
+ *
+ * <p>A fiber is a {@link Future} of the result of its body, and may
+ * be awaited or cancelled as any other {@code ForkJoinTask}.  While its
+ * body runs, {@link #current} returns the fiber.  Parking and
+ * unparking of a fiber are expressed in terms of its carrier thread,
+ * so that code that records {@code Thread.currentThread()} for later
+ * {@link java.util.concurrent.locks.LockSupport#unpark unpark}, as
+ * {@link java.util.concurrent.locks.AbstractQueuedSynchronizer} does,
+ * works unchanged.
+ *
+ * <p>Sample usage: each connection is served by its own fiber, which
+ * may block waiting for work on a queue without tying up the
+ * scheduler.
+ *
+ *  <pre> {@code
+ * BlockingQueue<Request> requests = ...;
+ * for (int i = 0; i < 10000; ++i)
+ *   Fiber.schedule(() -> {
+ *     for (;;)
+ *       handle(requests.take());
+ *   });}</pre>
+ *
+ * @since 1.8
+ * @param <V> the type of the result of the fiber
+ */
+public class Fiber<V> extends ForkJoinTask<V> implements RunnableFuture<V> {
+
+    /**
+     * Holder for the default scheduler, created on first use.  It is
+     * in asynchronous mode, as fibers are never joined by the threads
+     * that scheduled them.
+     */
+    static final class DefaultScheduler {
+        static final ForkJoinPool POOL = new ForkJoinPool
+            (Runtime.getRuntime().availableProcessors(),
+             ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+             null, true);
+    }
+
+    final Callable<? extends V> callable;
+    V result;
+
+    /**
+     * Creates a fiber that will run the given callable.
+     *
+     * @param callable the body of the fiber
+     * @throws NullPointerException if callable is null
+     */
+    Fiber(Callable<? extends V> callable) {
+        if (callable == null) throw new NullPointerException();
+        this.callable = callable;
+    }
+
+    /**
+     * Schedules a fiber to run the given callable on the default
+     * scheduler.
+     *
+     * @param callable the body of the fiber
+     * @param <V> the type of the fiber's result
+     * @return the fiber
+     * @throws NullPointerException if callable is null
+     */
+    public static <V> Fiber<V> schedule(Callable<? extends V> callable) {
+        return schedule(DefaultScheduler.POOL, callable);
+    }
+
+    /**
+     * Schedules a fiber to run the given action on the default
+     * scheduler.
+     *
+     * @param action the body of the fiber
+     * @return the fiber, whose result is {@code null}
+     * @throws NullPointerException if action is null
+     */
+    public static Fiber<?> schedule(Runnable action) {
+        return schedule(DefaultScheduler.POOL, Executors.callable(action));
+    }
+
+    /**
+     * Schedules a fiber to run the given callable on the given
+     * scheduler.
+     *
+     * @param scheduler the pool whose threads will carry the fiber
+     * @param callable the body of the fiber
+     * @param <V> the type of the fiber's result
+     * @return the fiber
+     * @throws NullPointerException if scheduler or callable is null
+     * @throws RejectedExecutionException if the fiber cannot be
+     *         scheduled for execution
+     */
+    public static <V> Fiber<V> schedule(ForkJoinPool scheduler,
+                                        Callable<? extends V> callable) {
+        if (scheduler == null) throw new NullPointerException();
+        Fiber<V> f = new Fiber<V>(callable);
+        scheduler.execute((ForkJoinTask<V>)f);
+        return f;
+    }
+
+    /**
+     * Returns the fiber being run by the current thread, or {@code
+     * null} if the current thread is not running a fiber.
+     *
+     * @return the current fiber, or {@code null}
+     */
+    public static Fiber<?> current() {
+        Thread t = Thread.currentThread();
+        return (t instanceof ForkJoinWorkerThread) ?
+            ((ForkJoinWorkerThread)t).fiber : null;
+    }
+
+    public final V getRawResult() { return result; }
+    public final void setRawResult(V v) { result = v; }
+
+    /**
+     * Runs the body of this fiber, marking the current thread as its
+     * carrier for the duration.  The previous fiber, if any, is
+     * restored afterwards, as a carrier may run another fiber while
+     * helping to join.
+     */
+    protected final boolean exec() {
+        Thread t = Thread.currentThread();
+        ForkJoinWorkerThread w = (t instanceof ForkJoinWorkerThread) ?
+            (ForkJoinWorkerThread)t : null;
+        Fiber<?> prev = null;
+        if (w != null) {
+            prev = w.fiber;
+            w.fiber = this;
+        }
+        try {
+            result = callable.call();
+            return true;
+        } catch (Error err) {
+            throw err;
+        } catch (RuntimeException rex) {
+            throw rex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            if (w != null)
+                w.fiber = prev;
+        }
+    }
+
+    /**
+     * Runs this fiber in the current thread, if it has not already
+     * been run.
+     */
+    public final void run() { invoke(); }
+
+    private static final long serialVersionUID = -6553436424651578214L;
+}
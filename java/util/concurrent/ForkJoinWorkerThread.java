@@ -58,12 +58,13 @@ public class ForkJoinWorkerThread extends Thread {
      * ForkJoinTasks. For explanation, see the internal documentation
      * of class ForkJoinPool.
      *
-     * This class just maintains links to its pool and WorkQueue.  The
+     * This class just maintains links to its pool and WorkQueue, and
+     * to the Fiber (if any) that it is currently running.  The
      * pool field is set immediately upon construction, but the
      * workQueue field is not set until a call to registerWorker
      * completes. This leads to a visibility race, that is tolerated
      * by requiring that the workQueue field is only accessed by the
-     * owning thread.
+     * owning thread, as is the fiber field.
      *
      * Support for (non-public) subclass InnocuousForkJoinWorkerThread
      * requires that we break quite a lot of encapulation (via Unsafe)
@@ -72,6 +73,7 @@ public class ForkJoinWorkerThread extends Thread {
 
     final ForkJoinPool pool;                // the pool this thread works in
     final ForkJoinPool.WorkQueue workQueue; // work-stealing mechanics
+    Fiber<?> fiber;                         // fiber being run, if any
 
     /**
      * Creates a ForkJoinWorkerThread operating in the given pool.
@@ -249,6 +249,47 @@ public class LinkedBlockingDeque<E>
         return true;
     }
 
+    /**
+     * Links nodes holding elements a[from..to) as last elements, and
+     * signals as many waiting takes as elements were linked.  Call
+     * only when there is room for all of the elements.
+     */
+    @SuppressWarnings("unchecked")
+    private void linkLastAll(Object[] a, int from, int to) {
+        // assert lock.isHeldByCurrentThread();
+        // assert capacity - count >= to - from;
+        for (int i = from; i < to; ++i) {
+            Node<E> node = new Node<E>((E)a[i]);
+            Node<E> l = last;
+            node.prev = l;
+            last = node;
+            if (first == null)
+                first = node;
+            else
+                l.next = node;
+        }
+        int n = to - from;
+        count += n;
+        for (; n > 0 && lock.hasWaiters(notEmpty); n--)
+            notEmpty.signal();
+    }
+
+    /**
+     * Returns the elements of the given collection, throwing
+     * NullPointerException if it or any element is null.
+     */
+    private Object[] checkedToArray(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        Object[] a = c.toArray();
+        for (Object x : a)
+            if (x == null)
+                throw new NullPointerException();
+        return a;
+    }
+
     /**
      * Removes and returns first element, or null if empty.
      */
@@ -658,6 +699,69 @@ public class LinkedBlockingDeque<E>
         return offerLast(e, timeout, unit);
     }
 
+    /**
+     * Inserts as many elements of the specified collection as possible
+     * at the end of this deque without exceeding its capacity, in the
+     * order that they are returned by the collection's iterator.  The
+     * elements are inserted while holding the lock once, so this is
+     * more efficient than repeated calls to {@link #offer(Object)}.
+     *
+     * @param c the collection of elements to insert
+     * @return the number of elements inserted, which are the first
+     *         elements of the collection
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this deque
+     */
+    public int offerAll(Collection<? extends E> c) {
+        Object[] a = checkedToArray(c);
+        if (a.length == 0)
+            return 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(a.length, capacity - count);
+            if (n > 0)
+                linkLastAll(a, 0, n);
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts all of the elements of the specified collection at the
+     * end of this deque, in the order that they are returned by the
+     * collection's iterator, waiting if necessary for space to become
+     * available.  As many elements as fit are inserted at a time,
+     * while holding the lock once.
+     *
+     * <p>If this method is interrupted while waiting for space, the
+     * elements already inserted remain in the deque.
+     *
+     * @param c the collection of elements to insert
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this deque
+     */
+    public void putAll(Collection<? extends E> c) throws InterruptedException {
+        Object[] a = checkedToArray(c);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            for (int i = 0; i < a.length; ) {
+                while (count >= capacity)
+                    notFull.await();
+                int n = Math.min(a.length - i, capacity - count);
+                linkLastAll(a, i, i + n);
+                i += n;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Retrieves and removes the head of the queue represented by this deque.
      * This method differs from {@link #poll poll} only in that it throws an
@@ -749,17 +853,90 @@ public class LinkedBlockingDeque<E>
         final ReentrantLock lock = this.lock;
         lock.lock();
         try {
-            int n = Math.min(maxElements, count);
-            for (int i = 0; i < n; i++) {
-                c.add(first.item);   // In this order, in case add() throws.
-                unlinkFirst();
+            return drainLocked(c, maxElements);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes at most the given number of available elements from this
+     * deque and adds them to the given collection, waiting if necessary
+     * up to the specified wait time for an element to become available.
+     * Once at least one element is available, the elements present are
+     * transferred while holding the lock once, without waiting for
+     * further elements to arrive.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @param timeout how long to wait before giving up, in units of
+     *        {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return the number of elements transferred, which is zero only
+     *         if the waiting time elapsed with the deque empty
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ClassCastException if the class of an element of this deque
+     *         prevents it from being added to the specified collection
+     * @throws NullPointerException if the specified collection is null
+     * @throws IllegalArgumentException if the specified collection is this
+     *         deque, or some property of an element of this deque prevents
+     *         it from being added to the specified collection
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0)
+                    return 0;
+                nanos = notEmpty.awaitNanos(nanos);
             }
-            return n;
+            return drainLocked(c, maxElements);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Transfers up to maxElements first elements to c, then signals as
+     * many waiting puts as elements were removed.  Call only when
+     * holding lock.
+     */
+    private int drainLocked(Collection<? super E> c, int maxElements) {
+        // assert lock.isHeldByCurrentThread();
+        int n = Math.min(maxElements, count);
+        int i = 0;
+        try {
+            for (; i < n; i++) {
+                Node<E> f = first;
+                c.add(f.item);   // In this order, in case add() throws.
+                Node<E> next = f.next;
+                f.item = null;
+                f.next = f; // help GC
+                first = next;
+                if (next == null)
+                    last = null;
+                else
+                    next.prev = null;
+                --count;
+            }
+            return n;
+        } finally {
+            for (; i > 0 && lock.hasWaiters(notFull); i--)
+                notFull.signal();
+        }
+    }
+
     // Stack methods
 
     /**
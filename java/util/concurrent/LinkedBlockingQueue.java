@@ -201,6 +201,23 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E>
         last = last.next = node;
     }
 
+    /**
+     * Links nodes holding elements a[from..to) at end of queue.
+     *
+     * @param a the elements, none of which is null
+     * @param from index of the first element to link
+     * @param to index after the last element to link
+     */
+    @SuppressWarnings("unchecked")
+    private void enqueueAll(Object[] a, int from, int to) {
+        // assert putLock.isHeldByCurrentThread();
+        // assert last.next == null;
+        Node<E> t = last;
+        for (int i = from; i < to; ++i)
+            t = t.next = new Node<E>((E)a[i]);
+        last = t;
+    }
+
     /**
      * Removes a node from head of queue.
      *
@@ -431,6 +448,101 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E>
         return c >= 0;
     }
 
+    /**
+     * Inserts as many elements of the specified collection as possible
+     * at the tail of this queue without exceeding its capacity, in the
+     * order that they are returned by the collection's iterator.  The
+     * elements are inserted while holding the put lock once, and at
+     * most one waiting take is signalled, so this is more efficient
+     * than repeated calls to {@link #offer(Object)}.
+     *
+     * @param c the collection of elements to insert
+     * @return the number of elements inserted, which are the first
+     *         elements of the collection
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this queue
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        Object[] a = c.toArray();
+        for (Object x : a)
+            if (x == null)
+                throw new NullPointerException();
+        final AtomicInteger count = this.count;
+        if (a.length == 0 || count.get() == capacity)
+            return 0;
+        int c0 = -1, n = 0;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            n = Math.min(a.length, capacity - count.get());
+            if (n > 0) {
+                enqueueAll(a, 0, n);
+                c0 = count.getAndAdd(n);
+                if (c0 + n < capacity)
+                    notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c0 == 0)
+            signalNotEmpty();
+        return n;
+    }
+
+    /**
+     * Inserts all of the elements of the specified collection at the
+     * tail of this queue, in the order that they are returned by the
+     * collection's iterator, waiting if necessary for space to become
+     * available.  As many elements as fit are inserted at a time,
+     * while holding the put lock once, and at most one waiting take is
+     * signalled per such batch.
+     *
+     * <p>If this method is interrupted while waiting for space, the
+     * elements already inserted remain in the queue.
+     *
+     * @param c the collection of elements to insert
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; in this case no element is inserted
+     * @throws IllegalArgumentException if the collection is this queue
+     */
+    public void putAll(Collection<? extends E> c) throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        Object[] a = c.toArray();
+        for (Object x : a)
+            if (x == null)
+                throw new NullPointerException();
+        final ReentrantLock putLock = this.putLock;
+        final AtomicInteger count = this.count;
+        for (int i = 0; i < a.length; ) {
+            int c0 = -1, n;
+            putLock.lockInterruptibly();
+            try {
+                while (count.get() == capacity) {
+                    notFull.await();
+                }
+                n = Math.min(a.length - i, capacity - count.get());
+                enqueueAll(a, i, i + n);
+                c0 = count.getAndAdd(n);
+                if (c0 + n < capacity)
+                    notFull.signal();
+            } finally {
+                putLock.unlock();
+            }
+            i += n;
+            if (c0 == 0)
+                signalNotEmpty();
+        }
+    }
+
     public E take() throws InterruptedException {
         E x;
         int c = -1;
@@ -762,6 +874,82 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    /**
+     * Removes at most the given number of available elements from this
+     * queue and adds them to the given collection, waiting if necessary
+     * up to the specified wait time for an element to become available.
+     * Once at least one element is available, the elements present are
+     * transferred while holding the take lock once, without waiting for
+     * further elements to arrive.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @param timeout how long to wait before giving up, in units of
+     *        {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return the number of elements transferred, which is zero only
+     *         if the waiting time elapsed with the queue empty
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ClassCastException if the class of an element of this queue
+     *         prevents it from being added to the specified collection
+     * @throws NullPointerException if the specified collection is null
+     * @throws IllegalArgumentException if the specified collection is this
+     *         queue, or some property of an element of this queue prevents
+     *         it from being added to the specified collection
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        boolean signalNotFull = false;
+        final AtomicInteger count = this.count;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                if (nanos <= 0)
+                    return 0;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int n = Math.min(maxElements, count.get());
+            // count.get provides visibility to first n Nodes
+            Node<E> h = head;
+            int i = 0;
+            try {
+                while (i < n) {
+                    Node<E> p = h.next;
+                    c.add(p.item);
+                    p.item = null;
+                    h.next = h;
+                    h = p;
+                    ++i;
+                }
+                return n;
+            } finally {
+                // Restore invariants even if c.add() threw
+                if (i > 0) {
+                    // assert h.item == null;
+                    head = h;
+                    int c0 = count.getAndAdd(-i);
+                    signalNotFull = (c0 == capacity);
+                    if (c0 > i)
+                        notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+            if (signalNotFull)
+                signalNotFull();
+        }
+    }
+
     /**
      * Returns an iterator over the elements in this queue in proper sequence.
      * The elements will be returned in order from first (head) to last (tail).
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package java.util.concurrent;
+
+/**
+ * A bounded, lock-free, array-backed queue for use by any number of
+ * producer threads and a single consumer thread.  Elements are handed
+ * over without allocation: producers claim a slot with a single
+ * compare-and-set of the producer index and fill it with an ordered
+ * write, and the consumer empties slots with ordered writes only.
+ * Producers keep a cached limit on the producer index, and read the
+ * consumer's index only when that limit is reached.
+ *
+ * <p>At most one thread may be removing from this queue at a time;
+ * any other use must be externally synchronized.  Query methods such
+ * as {@link #size}, {@link #isEmpty}, {@link #peek} and the iterator
+ * may be used by any thread, but return only estimates while the
+ * queue is in use.  As a producer may be preempted between claiming
+ * and filling a slot, the consumer may have to wait briefly for an
+ * element that it knows to be present.  For a queue that also supports
+ * threads waiting to insert or remove elements, see {@link
+ * ArrayRingBlockingQueue}.
+ *
+ * <p>The capacity is fixed at construction time, rounded up to the
+ * next power of two.  This queue does not permit {@code null}
+ * elements, and does not support removal of interior elements by
+ * {@link #remove(Object)} or the iterator.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ * @see SpscArrayQueue
+ */
+public class MpscArrayQueue<E> extends AbstractArrayRingQueue<E> {
+
+    /**
+     * Producer index beyond which the consumer index must be re-read;
+     * a cached value of consumerIndex + capacity.
+     */
+    @sun.misc.Contended("producer")
+    volatile long producerLimit;
+
+    /**
+     * Creates a {@code MpscArrayQueue} with a capacity of at least the
+     * given capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         greater than zero
+     */
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+        producerLimit = mask + 1L;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding its capacity,
+     * returning {@code true} upon success and {@code false} if this
+     * queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        final int mask = this.mask;
+        long limit = producerLimit, p;
+        do {
+            p = producerIndex;
+            if (p >= limit) {
+                limit = consumerIndex + mask + 1L;
+                if (p >= limit)
+                    return false;
+                U.putOrderedLong(this, PLIMIT, limit);
+            }
+        } while (!U.compareAndSwapLong(this, PINDEX, p, p + 1L));
+        U.putOrderedObject(buffer, slotOffset(p, mask), e);
+        return true;
+    }
+
+    /**
+     * Retrieves and removes the head of this queue, or returns {@code
+     * null} if this queue is empty.  May be called only by the
+     * consumer.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    public E poll() {
+        final Object[] buffer = this.buffer;
+        long c = U.getLong(this, CINDEX); // only written by this thread
+        long offset = slotOffset(c, mask);
+        Object e = U.getObjectVolatile(buffer, offset);
+        if (e == null) {
+            if (c == producerIndex)
+                return null;
+            // slot is claimed but not yet filled
+            while ((e = U.getObjectVolatile(buffer, offset)) == null)
+                ;
+        }
+        U.putOrderedObject(buffer, offset, null);
+        U.putOrderedLong(this, CINDEX, c + 1L);
+        @SuppressWarnings("unchecked") E x = (E)e;
+        return x;
+    }
+
+    // Unsafe mechanics
+    private static final long PLIMIT;
+    static {
+        try {
+            PLIMIT = U.objectFieldOffset
+                (MpscArrayQueue.class.getDeclaredField("producerLimit"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,995 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import sun.misc.Cleaner;
+import sun.misc.Unsafe;
+
+/**
+ * A {@link ConcurrentMap} whose keys and values are held outside the Java
+ * heap, in their serialized form.  Because the mappings themselves are
+ * not Java objects, the size of the map has no effect on garbage
+ * collection pause times or on the heap size needed to hold it; only
+ * the (small) segment headers live on the heap.
+ *
+ * <p>Keys and values must be {@link java.io.Serializable}.  Each
+ * operation serializes its arguments and deserializes any results, so a
+ * value returned by {@link #get} is a fresh copy, and changing it has no
+ * effect on the map.  Keys are matched by comparing their serialized
+ * forms, and {@link #remove(Object, Object)} and {@link #replace(Object,
+ * Object, Object)} compare values the same way; this class is therefore
+ * intended for key types whose serialized form is fully determined by
+ * their {@code equals} identity, such as {@code String} and the boxed
+ * primitive types.  Neither keys nor values may be {@code null}.
+ *
+ * <p>The table is divided into a fixed number of independently locked
+ * segments, selected by the high bits of the key hash, so that updates
+ * to different segments proceed in parallel.  Retrievals take the
+ * read lock of a single segment and so may overlap with each other.
+ * Unlike {@link ConcurrentHashMap}, whose readers traverse bins without
+ * locking while a resize moves bins behind {@code ForwardingNode}s,
+ * readers here must be excluded from a segment while its entries are
+ * being moved and the old memory freed; each segment therefore grows
+ * its own table under its write lock, by doubling, and a resize blocks
+ * only the operations on that segment.
+ *
+ * <p>Iterators and spliterators are <a
+ * href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+ * Bulk operations such as {@link #size} report estimates while the map
+ * is being concurrently updated.
+ *
+ * <p>Native memory is released by {@link #clear}, and otherwise by a
+ * {@link Cleaner} once the map becomes unreachable.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The default initial table capacity.  Must be a power of 2.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The largest possible table capacity of a single segment.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The default number of segments.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The largest possible number of segments.
+     */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * The smallest per-segment table capacity.
+     */
+    private static final int MIN_SEGMENT_TABLE_CAPACITY = 2;
+
+    /*
+     * Layout of an entry in native memory:
+     *
+     *   0: long  address of next entry in the bin, or 0
+     *   8: int   spread hash of the key
+     *  12: int   length of serialized key
+     *  16: int   length of serialized value
+     *  20: bytes serialized key, followed by serialized value
+     *
+     * Tables are native arrays of entry addresses.
+     */
+    private static final int NEXT_OFFSET   = 0;
+    private static final int HASH_OFFSET   = 8;
+    private static final int KLEN_OFFSET   = 12;
+    private static final int VLEN_OFFSET   = 16;
+    private static final int HEADER_SIZE   = 20;
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The segments, each of which is a separately locked hash table.
+     */
+    final Segment[] segments;
+
+    /**
+     * Shift of the hash used to select a segment.
+     */
+    final int segmentShift;
+
+    /**
+     * Frees all native memory when the map becomes unreachable.
+     */
+    private final Cleaner cleaner;
+
+    /**
+     * Read by {@link #lock} once a segment lock is held.  As the read
+     * cannot be elided, the map stays reachable, and its Cleaner cannot
+     * run, until then; the Deallocator frees each segment under its
+     * write lock, so it then waits for the operation to finish.
+     */
+    private volatile int reachabilityFence;
+
+    // views
+    private transient Set<Map.Entry<K,V>> entrySet;
+
+    /* ---------------- Segments -------------- */
+
+    /**
+     * A hash table of native entries, guarded by its read-write lock.
+     * Segments are referenced by the map's Deallocator, so they must
+     * not refer back to the map.
+     */
+    static final class Segment extends ReentrantReadWriteLock {
+        private static final long serialVersionUID = 2249069246763182397L;
+
+        /** Native array of entry addresses, of length capacity */
+        long table;
+        /** Power of two number of bins; never decreases */
+        int capacity;
+        /** Number of mappings */
+        volatile int count;
+        /** count at which to resize */
+        int threshold;
+        /** Bytes of native memory currently held by entries and table */
+        long footprint;
+
+        Segment(int capacity) {
+            allocateTable(capacity);
+        }
+
+        void allocateTable(int cap) {
+            long bytes = (long)cap << 3;
+            long t = U.allocateMemory(bytes);
+            U.setMemory(t, bytes, (byte)0);
+            table = t;
+            capacity = cap;
+            threshold = cap - (cap >>> 2);
+            footprint += bytes;
+        }
+
+        /**
+         * Doubles the table, relinking the existing entries.  Called
+         * with the write lock held.
+         */
+        void grow() {
+            int oldCap = capacity;
+            if (oldCap >= MAXIMUM_CAPACITY) {
+                threshold = Integer.MAX_VALUE;
+                return;
+            }
+            long oldTable = table;
+            allocateTable(oldCap << 1);
+            long t = table;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldCap; ++i) {
+                long e = U.getAddress(oldTable + ((long)i << 3));
+                while (e != 0L) {
+                    long next = U.getAddress(e + NEXT_OFFSET);
+                    long slot = t + ((long)(U.getInt(e + HASH_OFFSET) & mask) << 3);
+                    U.putAddress(e + NEXT_OFFSET, U.getAddress(slot));
+                    U.putAddress(slot, e);
+                    e = next;
+                }
+            }
+            U.freeMemory(oldTable);
+            footprint -= (long)oldCap << 3;
+        }
+
+        /**
+         * Frees all entries.  Called with the write lock held, or by the
+         * Deallocator once the map is unreachable.
+         */
+        void freeEntries() {
+            long t = table;
+            for (int i = 0; i < capacity; ++i) {
+                long slot = t + ((long)i << 3);
+                long e = U.getAddress(slot);
+                while (e != 0L) {
+                    long next = U.getAddress(e + NEXT_OFFSET);
+                    freeEntry(e);
+                    e = next;
+                }
+                U.putAddress(slot, 0L);
+            }
+            count = 0;
+        }
+
+        void freeEntry(long e) {
+            footprint -= entrySize(U.getInt(e + KLEN_OFFSET),
+                                   U.getInt(e + VLEN_OFFSET));
+            U.freeMemory(e);
+        }
+
+        long allocateEntry(int h, byte[] k, byte[] v) {
+            long size = entrySize(k.length, v.length);
+            long e = U.allocateMemory(size);
+            U.putAddress(e + NEXT_OFFSET, 0L);
+            U.putInt(e + HASH_OFFSET, h);
+            U.putInt(e + KLEN_OFFSET, k.length);
+            U.putInt(e + VLEN_OFFSET, v.length);
+            U.copyMemory(k, BYTE_ARRAY_BASE, null, e + HEADER_SIZE, k.length);
+            U.copyMemory(v, BYTE_ARRAY_BASE, null,
+                         e + HEADER_SIZE + k.length, v.length);
+            footprint += size;
+            return e;
+        }
+
+        /**
+         * Returns the address of the table slot or next field that
+         * refers to the entry for the given key, or 0 if absent.
+         * Called with a lock held.
+         */
+        long findLink(int h, byte[] k) {
+            long link = table + ((long)(h & (capacity - 1)) << 3);
+            long e;
+            while ((e = U.getAddress(link)) != 0L) {
+                if (U.getInt(e + HASH_OFFSET) == h && keyEquals(e, k))
+                    return link;
+                link = e + NEXT_OFFSET;
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the address of the entry for the given key, or 0.
+         * Called with a lock held.
+         */
+        long find(int h, byte[] k) {
+            long link = findLink(h, k);
+            return (link == 0L) ? 0L : U.getAddress(link);
+        }
+
+        /**
+         * Inserts a new entry at the head of its bin, growing the table
+         * if needed.  Called with the write lock held.
+         */
+        void insert(int h, byte[] k, byte[] v) {
+            long e = allocateEntry(h, k, v);
+            long slot = table + ((long)(h & (capacity - 1)) << 3);
+            U.putAddress(e + NEXT_OFFSET, U.getAddress(slot));
+            U.putAddress(slot, e);
+            if (++count > threshold)
+                grow();
+        }
+
+        /**
+         * Replaces the entry referred to by link with a new entry holding
+         * value v, returning the old serialized value.  Called with the
+         * write lock held.
+         */
+        byte[] replaceAt(long link, int h, byte[] k, byte[] v) {
+            long old = U.getAddress(link);
+            byte[] oldValue = valueBytes(old);
+            long e = allocateEntry(h, k, v);
+            U.putAddress(e + NEXT_OFFSET, U.getAddress(old + NEXT_OFFSET));
+            U.putAddress(link, e);
+            freeEntry(old);
+            return oldValue;
+        }
+
+        /**
+         * Unlinks and frees the entry referred to by link, returning its
+         * serialized value.  Called with the write lock held.
+         */
+        byte[] removeAt(long link) {
+            long e = U.getAddress(link);
+            byte[] oldValue = valueBytes(e);
+            U.putAddress(link, U.getAddress(e + NEXT_OFFSET));
+            freeEntry(e);
+            --count;
+            return oldValue;
+        }
+
+        /**
+         * Copies the serialized keys and values of all entries whose
+         * hash, masked by (span - 1), equals index, into the given list
+         * as alternating key and value byte arrays.  Called with a lock
+         * held.  Since tables only grow, span is never greater than
+         * capacity.
+         */
+        void collect(int index, int span, ArrayList<byte[]> list) {
+            for (int i = index; i < capacity; i += span) {
+                long e = U.getAddress(table + ((long)i << 3));
+                while (e != 0L) {
+                    list.add(keyBytes(e));
+                    list.add(valueBytes(e));
+                    e = U.getAddress(e + NEXT_OFFSET);
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees the native memory of all segments.  Holds no reference to
+     * the map, so that the map can become phantom reachable.
+     */
+    private static final class Deallocator implements Runnable {
+        private Segment[] segments;
+
+        Deallocator(Segment[] segments) {
+            this.segments = segments;
+        }
+
+        public void run() {
+            Segment[] segs = segments;
+            if (segs == null) {
+                // Paranoia
+                return;
+            }
+            segments = null;
+            for (Segment s : segs) {
+                if (s == null)
+                    continue;
+                // Wait for any operation still using the segment
+                ReentrantReadWriteLock.WriteLock w = s.writeLock();
+                w.lock();
+                try {
+                    if (s.table != 0L) {
+                        s.freeEntries();
+                        U.freeMemory(s.table);
+                        s.table = 0L;
+                    }
+                } finally {
+                    w.unlock();
+                }
+            }
+        }
+    }
+
+    /* ---------------- Static utilities -------------- */
+
+    static long entrySize(int klen, int vlen) {
+        return (long)HEADER_SIZE + klen + vlen;
+    }
+
+    static boolean keyEquals(long e, byte[] k) {
+        int n = k.length;
+        if (U.getInt(e + KLEN_OFFSET) != n)
+            return false;
+        return bytesEqual(e + HEADER_SIZE, k, n);
+    }
+
+    static boolean bytesEqual(long address, byte[] b, int n) {
+        for (int i = 0; i < n; ++i) {
+            if (U.getByte(address + i) != b[i])
+                return false;
+        }
+        return true;
+    }
+
+    static byte[] keyBytes(long e) {
+        byte[] k = new byte[U.getInt(e + KLEN_OFFSET)];
+        U.copyMemory(null, e + HEADER_SIZE, k, BYTE_ARRAY_BASE, k.length);
+        return k;
+    }
+
+    static byte[] valueBytes(long e) {
+        int klen = U.getInt(e + KLEN_OFFSET);
+        byte[] v = new byte[U.getInt(e + VLEN_OFFSET)];
+        U.copyMemory(null, e + HEADER_SIZE + klen, v, BYTE_ARRAY_BASE, v.length);
+        return v;
+    }
+
+    static boolean valueEquals(long e, byte[] v) {
+        int n = v.length;
+        if (U.getInt(e + VLEN_OFFSET) != n)
+            return false;
+        return bytesEqual(e + HEADER_SIZE + U.getInt(e + KLEN_OFFSET), v, n);
+    }
+
+    /**
+     * Hashes a serialized key, spreading higher bits downward as in
+     * ConcurrentHashMap.spread.  The high bits select the segment and
+     * the low bits the bin.
+     */
+    static int hash(byte[] k) {
+        int h = 1;
+        for (byte b : k)
+            h = 31 * h + b;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static byte[] serialize(Object o) {
+        if (o == null)
+            throw new NullPointerException();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(o);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize " +
+                                               o.getClass().getName(), e);
+        }
+        return bos.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T deserialize(byte[] b) {
+        if (b == null)
+            return null;
+        try (ObjectInputStream in =
+             new ObjectInputStream(new ByteArrayInputStream(b))) {
+            return (T)in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot deserialize mapping", e);
+        }
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size (16)
+     * and number of segments (16).
+     */
+    public OffHeapConcurrentHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size accommodating
+     * the specified number of elements without the need to dynamically
+     * resize, and the default number of segments (16).
+     *
+     * @param initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity of
+     * elements is negative
+     */
+    public OffHeapConcurrentHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size based on the
+     * given number of elements ({@code initialCapacity}) and number of
+     * concurrently updating threads ({@code concurrencyLevel}), which
+     * determines the number of independently locked segments.
+     *
+     * @param initialCapacity the initial capacity
+     * @param concurrencyLevel the estimated number of concurrently
+     * updating threads
+     * @throws IllegalArgumentException if the initial capacity is
+     * negative or the concurrency level is nonpositive
+     */
+    public OffHeapConcurrentHashMap(int initialCapacity,
+                                    int concurrencyLevel) {
+        if (initialCapacity < 0 || concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+        int ssize = 1, sshift = 0;
+        while (ssize < concurrencyLevel && ssize < MAX_SEGMENTS) {
+            ++sshift;
+            ssize <<= 1;
+        }
+        this.segmentShift = 32 - sshift;
+        long perSegment = ((long)initialCapacity + ssize - 1) / ssize;
+        perSegment += perSegment >>> 1; // load factor 0.75
+        int cap = MIN_SEGMENT_TABLE_CAPACITY;
+        while (cap < perSegment && cap < MAXIMUM_CAPACITY)
+            cap <<= 1;
+        Segment[] segs = new Segment[ssize];
+        Deallocator d = new Deallocator(segs);
+        try {
+            for (int i = 0; i < ssize; ++i)
+                segs[i] = new Segment(cap);
+        } catch (OutOfMemoryError e) {
+            d.run();
+            throw e;
+        }
+        this.segments = segs;
+        this.cleaner = Cleaner.create(this, d);
+    }
+
+    /**
+     * Creates a new map with the same mappings as the given map.
+     *
+     * @param m the map
+     * @throws NullPointerException if the specified map or any of its
+     *         keys or values are null
+     * @throws IllegalArgumentException if any of its keys or values
+     *         cannot be serialized
+     */
+    public OffHeapConcurrentHashMap(Map<? extends K, ? extends V> m) {
+        this(Math.max(m.size(), DEFAULT_CAPACITY), DEFAULT_CONCURRENCY_LEVEL);
+        putAll(m);
+    }
+
+    /**
+     * Acquires a lock of one of the segments of this map, keeping the map
+     * reachable until the lock is held.  Operations that read a segment's
+     * entries must lock it this way.
+     */
+    final void lock(Lock l) {
+        l.lock();
+        int ignore = reachabilityFence;
+    }
+
+    final Segment segmentFor(int h) {
+        return segments[(segmentShift == 32) ? 0 : h >>> segmentShift];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        long n = 0L;
+        for (Segment s : segments)
+            n += s.count;
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        for (Segment s : segments) {
+            if (s.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns an estimate of the number of bytes of native memory used
+     * by the mappings and tables of this map.
+     *
+     * @return the estimated native memory footprint in bytes
+     */
+    public long nativeMemoryUsed() {
+        long n = 0L;
+        for (Segment s : segments) {
+            ReentrantReadWriteLock.ReadLock r = s.readLock();
+            lock(r);
+            try {
+                n += s.footprint;
+            } finally {
+                r.unlock();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns a copy of the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws IllegalArgumentException if the key cannot be serialized
+     */
+    public V get(Object key) {
+        byte[] v = getBytes(serialize(key));
+        return deserialize(v);
+    }
+
+    private byte[] getBytes(byte[] k) {
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        ReentrantReadWriteLock.ReadLock r = s.readLock();
+        lock(r);
+        try {
+            long e = s.find(h, k);
+            return (e == 0L) ? null : valueBytes(e);
+        } finally {
+            r.unlock();
+        }
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws IllegalArgumentException if the key cannot be serialized
+     */
+    public boolean containsKey(Object key) {
+        byte[] k = serialize(key);
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        ReentrantReadWriteLock.ReadLock r = s.readLock();
+        lock(r);
+        try {
+            return s.find(h, k) != 0L;
+        } finally {
+            r.unlock();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to a value
+     * with the same serialized form as the specified value.  This
+     * method requires a full traversal of the map.
+     *
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        byte[] v = serialize(value);
+        for (Segment s : segments) {
+            ReentrantReadWriteLock.ReadLock r = s.readLock();
+            lock(r);
+            try {
+                for (int i = 0; i < s.capacity; ++i) {
+                    long e = U.getAddress(s.table + ((long)i << 3));
+                    for (; e != 0L; e = U.getAddress(e + NEXT_OFFSET)) {
+                        if (valueEquals(e, v))
+                            return true;
+                    }
+                }
+            } finally {
+                r.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the key or value cannot be
+     *         serialized
+     */
+    public V put(K key, V value) {
+        return deserialize(putBytes(serialize(key), serialize(value), false));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the key or value cannot be
+     *         serialized
+     */
+    public V putIfAbsent(K key, V value) {
+        return deserialize(putBytes(serialize(key), serialize(value), true));
+    }
+
+    private byte[] putBytes(byte[] k, byte[] v, boolean onlyIfAbsent) {
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        ReentrantReadWriteLock.WriteLock w = s.writeLock();
+        lock(w);
+        try {
+            long link = s.findLink(h, k);
+            if (link == 0L) {
+                s.insert(h, k, v);
+                return null;
+            }
+            if (onlyIfAbsent)
+                return valueBytes(U.getAddress(link));
+            return s.replaceAt(link, h, k, v);
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this one.
+     *
+     * @param m mappings to be stored in this map
+     */
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            putBytes(serialize(e.getKey()), serialize(e.getValue()), false);
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        byte[] k = serialize(key);
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        byte[] old;
+        ReentrantReadWriteLock.WriteLock w = s.writeLock();
+        lock(w);
+        try {
+            long link = s.findLink(h, k);
+            old = (link == 0L) ? null : s.removeAt(link);
+        } finally {
+            w.unlock();
+        }
+        return deserialize(old);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        if (value == null)
+            return false;
+        byte[] k = serialize(key), v = serialize(value);
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        ReentrantReadWriteLock.WriteLock w = s.writeLock();
+        lock(w);
+        try {
+            long link = s.findLink(h, k);
+            if (link == 0L || !valueEquals(U.getAddress(link), v))
+                return false;
+            s.removeAt(link);
+            return true;
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        byte[] k = serialize(key), ov = serialize(oldValue);
+        byte[] nv = serialize(newValue);
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        ReentrantReadWriteLock.WriteLock w = s.writeLock();
+        lock(w);
+        try {
+            long link = s.findLink(h, k);
+            if (link == 0L || !valueEquals(U.getAddress(link), ov))
+                return false;
+            s.replaceAt(link, h, k, nv);
+            return true;
+        } finally {
+            w.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] k = serialize(key), v = serialize(value);
+        int h = hash(k);
+        Segment s = segmentFor(h);
+        byte[] old;
+        ReentrantReadWriteLock.WriteLock w = s.writeLock();
+        lock(w);
+        try {
+            long link = s.findLink(h, k);
+            old = (link == 0L) ? null : s.replaceAt(link, h, k, v);
+        } finally {
+            w.unlock();
+        }
+        return deserialize(old);
+    }
+
+    /**
+     * Removes all of the mappings from this map, releasing the native
+     * memory they occupied.  Table memory is retained.
+     */
+    public void clear() {
+        for (Segment s : segments) {
+            ReentrantReadWriteLock.WriteLock w = s.writeLock();
+            lock(w);
+            try {
+                s.freeEntries();
+            } finally {
+                w.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so removals through it are reflected
+     * in the map.  The entries are copies: their {@code setValue} method
+     * writes through with {@link #put}.
+     *
+     * <p>The view's iterators are <a
+     * href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object k, v; byte[] r;
+            return ((k = e.getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (r = getBytes(serialize(k))) != null &&
+                    Arrays.equals(r, serialize(v)));
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object k, v;
+            return ((k = e.getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    OffHeapConcurrentHashMap.this.remove(k, v));
+        }
+        public int size() {
+            return OffHeapConcurrentHashMap.this.size();
+        }
+        public boolean isEmpty() {
+            return OffHeapConcurrentHashMap.this.isEmpty();
+        }
+        public void clear() {
+            OffHeapConcurrentHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Entry returned by the iterator, holding deserialized copies.
+     */
+    final class MapEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = -8536420837914625934L;
+
+        MapEntry(K key, V value) {
+            super(key, value);
+        }
+
+        public V setValue(V value) {
+            if (value == null)
+                throw new NullPointerException();
+            V v = super.setValue(value);
+            put(getKey(), value);
+            return v;
+        }
+    }
+
+    /**
+     * Iterates over the segments in order, and within each segment over
+     * the bins of the table as it was sized when the segment was first
+     * visited.  Because tables only grow, by doubling, the entries of
+     * such a bin are exactly those whose hash matches the bin index
+     * under the original mask, wherever they have moved since, so no
+     * entry is returned twice.  Each step copies out one bin's worth of
+     * serialized mappings under the segment's read lock.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final ArrayList<byte[]> batch = new ArrayList<>();
+        int batchIndex;
+        int segmentIndex = -1;
+        int bin;
+        int span;
+        MapEntry nextEntry;
+        MapEntry lastReturned;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (batchIndex >= batch.size()) {
+                batch.clear();
+                batchIndex = 0;
+                if (segmentIndex < 0 || bin >= span) {
+                    if (++segmentIndex >= segments.length) {
+                        nextEntry = null;
+                        return;
+                    }
+                    bin = 0;
+                    span = 0;
+                }
+                Segment s = segments[segmentIndex];
+                ReentrantReadWriteLock.ReadLock r = s.readLock();
+                lock(r);
+                try {
+                    if (span == 0) {
+                        if (s.count == 0) {
+                            bin = span = 1;
+                            continue;
+                        }
+                        span = s.capacity;
+                    }
+                    s.collect(bin++, span, batch);
+                } finally {
+                    r.unlock();
+                }
+            }
+            K k = deserialize(batch.get(batchIndex++));
+            V v = deserialize(batch.get(batchIndex++));
+            nextEntry = new MapEntry(k, v);
+        }
+
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        public Map.Entry<K,V> next() {
+            MapEntry e = nextEntry;
+            if (e == null)
+                throw new NoSuchElementException();
+            lastReturned = e;
+            advance();
+            return e;
+        }
+
+        public void remove() {
+            MapEntry e = lastReturned;
+            if (e == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            OffHeapConcurrentHashMap.this.remove(e.getKey());
+        }
+    }
+
+    // Unsafe mechanics
+    private static final Unsafe U;
+    private static final long BYTE_ARRAY_BASE;
+    static {
+        try {
+            U = Unsafe.getUnsafe();
+            BYTE_ARRAY_BASE = U.arrayBaseOffset(byte[].class);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
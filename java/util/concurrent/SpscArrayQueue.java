@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package java.util.concurrent;
+
+/**
+ * A bounded, lock-free, array-backed queue for use by a single
+ * producer thread and a single consumer thread.  Elements are handed
+ * over without allocation: {@link #offer} and {@link #poll} each
+ * perform one ordered write of an array slot and one of an index,
+ * and neither uses atomic read-modify-write instructions or locks.
+ * The producer detects that the queue is full by finding the next
+ * slot still occupied, so in the common case it never reads the
+ * index written by the consumer, and vice versa.
+ *
+ * <p>At most one thread may be inserting into and at most one thread
+ * may be removing from this queue at a time; any other use must be
+ * externally synchronized, for example by handing over the role of
+ * producer or consumer through a {@code volatile} write.  Query
+ * methods such as {@link #size}, {@link #isEmpty}, {@link #peek} and
+ * the iterator may be used by any thread, but return only estimates
+ * while the queue is in use.  For a queue that also supports threads
+ * waiting to insert or remove elements, see {@link
+ * ArrayRingBlockingQueue}.
+ *
+ * <p>The capacity is fixed at construction time, rounded up to the
+ * next power of two.  This queue does not permit {@code null}
+ * elements, and does not support removal of interior elements by
+ * {@link #remove(Object)} or the iterator.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ * @see MpscArrayQueue
+ */
+public class SpscArrayQueue<E> extends AbstractArrayRingQueue<E> {
+
+    /**
+     * Creates a {@code SpscArrayQueue} with a capacity of at least the
+     * given capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         greater than zero
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding its capacity,
+     * returning {@code true} upon success and {@code false} if this
+     * queue is full.  May be called only by the producer.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        final Object[] buffer = this.buffer;
+        long p = U.getLong(this, PINDEX); // only written by this thread
+        long offset = slotOffset(p, mask);
+        if (U.getObjectVolatile(buffer, offset) != null)
+            return false;
+        U.putOrderedObject(buffer, offset, e);
+        U.putOrderedLong(this, PINDEX, p + 1L);
+        return true;
+    }
+
+    /**
+     * Retrieves and removes the head of this queue, or returns {@code
+     * null} if this queue is empty.  May be called only by the
+     * consumer.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    public E poll() {
+        final Object[] buffer = this.buffer;
+        long c = U.getLong(this, CINDEX); // only written by this thread
+        long offset = slotOffset(c, mask);
+        Object e = U.getObjectVolatile(buffer, offset);
+        if (e == null)
+            return null;
+        U.putOrderedObject(buffer, offset, null);
+        U.putOrderedLong(this, CINDEX, c + 1L);
+        @SuppressWarnings("unchecked") E x = (E)e;
+        return x;
+    }
+}
@@ -0,0 +1,651 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link BlockingQueue} made of several independently locked
+ * sub-queues, in which each thread inserts into and takes from a "home"
+ * sub-queue and, when that is empty, steals from the others.  It is
+ * designed to be the work queue of a {@link ThreadPoolExecutor} with
+ * many worker threads, where a single shared queue such as {@link
+ * LinkedBlockingQueue} becomes a point of contention: each worker
+ * mostly operates on its own sub-queue, tasks submitted from a worker
+ * (for example continuations) stay local to it, and idle workers
+ * balance the load by stealing, as {@link ForkJoinPool} workers do.
+ * Because the pool itself is an ordinary {@code ThreadPoolExecutor},
+ * its core and maximum pool sizes, keep-alive policy, {@link
+ * RejectedExecutionHandler} and {@code beforeExecute}/{@code
+ * afterExecute} hooks all behave as usual; see {@link
+ * Executors#newFixedWorkStealingThreadPool}.
+ *
+ * <p>Each sub-queue is FIFO, but there is no ordering among elements
+ * inserted by different threads, and elements may be removed by a
+ * thread other than the one that would have removed them from a
+ * single queue.  A thread's home sub-queue is selected by its
+ * per-thread probe value, as for the cells of {@link
+ * java.util.concurrent.atomic.LongAdder}, so threads that collide on a
+ * sub-queue are simply sharing it.
+ *
+ * <p>The queue may be bounded.  The bound is divided evenly among the
+ * sub-queues and applied to each one; an insertion that finds its home
+ * sub-queue full falls back to the others, and fails only if all of
+ * them are full.  For a {@code ThreadPoolExecutor}, a failed insertion
+ * leads to the creation of a non-core thread or to rejection, exactly
+ * as with a bounded single queue.
+ *
+ * <p>Threads blocked in {@link #take} or {@link #poll(long, TimeUnit)}
+ * wait on a single condition.  Insertions only acquire its lock when
+ * some thread is waiting, so that a busy pool never touches it.
+ *
+ * <p>This class and its iterator implement all of the <em>optional</em>
+ * methods of the {@link Collection} and {@link Iterator} interfaces.
+ * The iterator is <i>weakly consistent</i>, and operates over a
+ * snapshot of the sub-queues taken one at a time.  Bulk operations and
+ * {@link #size} are not atomic.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this queue
+ */
+public class WorkStealingBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /*
+     * Blocking protocol: a waiting consumer increments "waiters" while
+     * holding waitLock, then rescans every sub-queue, and only awaits
+     * notEmpty if all were empty.  A producer inserts into its
+     * sub-queue (publishing the new volatile count), then reads
+     * waiters, and only if nonzero takes waitLock to signal.  Since
+     * both sides write one volatile before reading the other's, at
+     * least one of them sees the other, so a wakeup is never lost.
+     * The same protocol is used for producers waiting for space in a
+     * bounded queue, with putWaiters and notFull.
+     */
+
+    /** Number of CPUS, to place a bound on the default number of sub-queues */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A sub-queue.  Padded to reduce cache contention, as
+     * Striped64.Cell is.
+     */
+    @sun.misc.Contended static final class SubQueue<E> {
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayDeque<E> deque = new ArrayDeque<E>();
+        /** Number of elements, written under lock */
+        volatile int count;
+    }
+
+    /** The sub-queues; length is a power of two */
+    final SubQueue<E>[] queues;
+
+    /** Capacity of each sub-queue, or Integer.MAX_VALUE if unbounded */
+    final int subCapacity;
+
+    /** Lock held by waiting consumers and producers */
+    final ReentrantLock waitLock = new ReentrantLock();
+
+    /** Condition for waiting takes */
+    final Condition notEmpty = waitLock.newCondition();
+
+    /** Condition for waiting puts */
+    final Condition notFull = waitLock.newCondition();
+
+    /** Number of threads waiting in take/poll */
+    volatile int waiters;
+
+    /** Number of threads waiting in put/offer */
+    volatile int putWaiters;
+
+    /**
+     * Creates an unbounded {@code WorkStealingBlockingQueue} with one
+     * sub-queue per available processor.
+     */
+    public WorkStealingBlockingQueue() {
+        this(NCPU, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an unbounded {@code WorkStealingBlockingQueue} with at
+     * least the given number of sub-queues.
+     *
+     * @param parallelism the expected number of consuming threads
+     * @throws IllegalArgumentException if {@code parallelism} is not
+     *         greater than zero
+     */
+    public WorkStealingBlockingQueue(int parallelism) {
+        this(parallelism, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@code WorkStealingBlockingQueue} with at least the
+     * given number of sub-queues and the given (approximate) capacity.
+     *
+     * @param parallelism the expected number of consuming threads
+     * @param capacity the capacity of this queue, divided evenly
+     *        among the sub-queues
+     * @throws IllegalArgumentException if {@code parallelism} or
+     *         {@code capacity} is not greater than zero
+     */
+    public WorkStealingBlockingQueue(int parallelism, int capacity) {
+        if (parallelism <= 0 || capacity <= 0)
+            throw new IllegalArgumentException();
+        int n = 1;
+        while (n < parallelism && n < (1 << 16))
+            n <<= 1;
+        @SuppressWarnings("unchecked") SubQueue<E>[] qs =
+            (SubQueue<E>[])new SubQueue<?>[n];
+        for (int i = 0; i < n; ++i)
+            qs[i] = new SubQueue<E>();
+        this.queues = qs;
+        this.subCapacity = (capacity == Integer.MAX_VALUE) ? capacity :
+            Math.max(1, (int)(((long)capacity + n - 1) / n));
+    }
+
+    /**
+     * Returns the calling thread's probe, initializing it if needed.
+     */
+    static int probe() {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        return h;
+    }
+
+    /**
+     * Inserts into the home sub-queue of the calling thread, or if that
+     * is full, into the first sub-queue with room.
+     */
+    private boolean tryInsert(E e) {
+        SubQueue<E>[] qs = queues;
+        int n = qs.length, h = probe();
+        boolean added = false;
+        for (int k = 0; k < n && !added; ++k) {
+            SubQueue<E> q = qs[(h + k) & (n - 1)];
+            if (q.count >= subCapacity)
+                continue;
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                int c = q.count;
+                if (c < subCapacity) {
+                    q.deque.addLast(e);
+                    q.count = c + 1;
+                    added = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (added && waiters != 0)
+            signalNotEmpty();
+        return added;
+    }
+
+    /**
+     * Removes from the home sub-queue of the calling thread, or steals
+     * from the others, scanning from a random start as ForkJoinPool
+     * workers do.  Returns null if all were seen to be empty.
+     */
+    private E tryRemove() {
+        SubQueue<E>[] qs = queues;
+        int n = qs.length, h = probe();
+        E x = pollFrom(qs[h & (n - 1)]);
+        if (x == null && n > 1) {
+            int r = ThreadLocalRandom.nextSecondarySeed();
+            for (int k = 0; k < n && x == null; ++k)
+                x = pollFrom(qs[(r + k) & (n - 1)]);
+        }
+        if (x != null && putWaiters != 0)
+            signalNotFull();
+        return x;
+    }
+
+    private E pollFrom(SubQueue<E> q) {
+        if (q.count == 0)
+            return null;
+        final ReentrantLock lock = q.lock;
+        lock.lock();
+        try {
+            E x = q.deque.pollFirst();
+            if (x != null)
+                q.count = q.count - 1;
+            return x;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean allEmpty() {
+        for (SubQueue<E> q : queues) {
+            if (q.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private boolean allFull() {
+        if (subCapacity == Integer.MAX_VALUE)
+            return false;
+        for (SubQueue<E> q : queues) {
+            if (q.count < subCapacity)
+                return false;
+        }
+        return true;
+    }
+
+    private void signalNotEmpty() {
+        final ReentrantLock lock = this.waitLock;
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        final ReentrantLock lock = this.waitLock;
+        lock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the specified element into this queue if there is room in
+     * the calling thread's home sub-queue or another sub-queue,
+     * returning {@code true} upon success and {@code false} if all
+     * sub-queues are full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        return tryInsert(e);
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting if
+     * necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        while (!tryInsert(e)) {
+            final ReentrantLock lock = this.waitLock;
+            lock.lockInterruptibly();
+            try {
+                ++putWaiters;
+                try {
+                    if (allFull())
+                        notFull.await();
+                } finally {
+                    --putWaiters;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting up to the
+     * specified wait time if necessary for space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        long nanos = unit.toNanos(timeout);
+        while (!tryInsert(e)) {
+            if (nanos <= 0L)
+                return false;
+            final ReentrantLock lock = this.waitLock;
+            lock.lockInterruptibly();
+            try {
+                ++putWaiters;
+                try {
+                    if (allFull())
+                        nanos = notFull.awaitNanos(nanos);
+                } finally {
+                    --putWaiters;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    public E poll() {
+        return tryRemove();
+    }
+
+    public E take() throws InterruptedException {
+        E x;
+        while ((x = tryRemove()) == null) {
+            final ReentrantLock lock = this.waitLock;
+            lock.lockInterruptibly();
+            try {
+                ++waiters;
+                try {
+                    if (allEmpty())
+                        notEmpty.await();
+                } finally {
+                    --waiters;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return x;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        E x;
+        while ((x = tryRemove()) == null) {
+            if (nanos <= 0L)
+                return null;
+            final ReentrantLock lock = this.waitLock;
+            lock.lockInterruptibly();
+            try {
+                ++waiters;
+                try {
+                    if (allEmpty())
+                        nanos = notEmpty.awaitNanos(nanos);
+                } finally {
+                    --waiters;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Returns the head of the calling thread's home sub-queue, or if
+     * that is empty, of the first nonempty sub-queue, or {@code null}
+     * if all are empty.
+     */
+    public E peek() {
+        SubQueue<E>[] qs = queues;
+        int n = qs.length, h = probe();
+        for (int k = 0; k < n; ++k) {
+            SubQueue<E> q = qs[(h + k) & (n - 1)];
+            if (q.count == 0)
+                continue;
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                E x = q.deque.peekFirst();
+                if (x != null)
+                    return x;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of elements in this queue.  The result is
+     * not a snapshot if the queue is being concurrently modified.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long n = 0L;
+        for (SubQueue<E> q : queues)
+            n += q.count;
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    public boolean isEmpty() {
+        return allEmpty();
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally (in the absence of memory or resource constraints) accept
+     * without blocking, or {@code Integer.MAX_VALUE} if unbounded.
+     */
+    public int remainingCapacity() {
+        if (subCapacity == Integer.MAX_VALUE)
+            return Integer.MAX_VALUE;
+        long n = 0L;
+        for (SubQueue<E> q : queues)
+            n += Math.max(0, subCapacity - q.count);
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null) return false;
+        for (SubQueue<E> q : queues) {
+            if (q.count == 0)
+                continue;
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                if (q.deque.removeFirstOccurrence(o)) {
+                    q.count = q.count - 1;
+                    if (putWaiters != 0)
+                        signalNotFull();
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(Object o) {
+        if (o == null) return false;
+        for (SubQueue<E> q : queues) {
+            if (q.count == 0)
+                continue;
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                if (q.deque.contains(o))
+                    return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Atomically removes all of the elements from each sub-queue in
+     * turn.
+     */
+    public void clear() {
+        for (SubQueue<E> q : queues) {
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                q.deque.clear();
+                q.count = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (putWaiters != 0)
+            signalNotFull();
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        for (SubQueue<E> q : queues) {
+            if (n >= maxElements)
+                break;
+            if (q.count == 0)
+                continue;
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                E x;
+                while (n < maxElements && (x = q.deque.pollFirst()) != null) {
+                    q.count = q.count - 1;
+                    c.add(x);
+                    ++n;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (n > 0 && putWaiters != 0)
+            signalNotFull();
+        return n;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this queue,
+     * taken from each sub-queue in turn.
+     */
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        return snapshot().toArray(a);
+    }
+
+    private ArrayList<E> snapshot() {
+        ArrayList<E> list = new ArrayList<E>();
+        for (SubQueue<E> q : queues) {
+            final ReentrantLock lock = q.lock;
+            lock.lock();
+            try {
+                list.addAll(q.deque);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, visiting
+     * each sub-queue in turn.
+     *
+     * <p>The returned iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    final class Itr implements Iterator<E> {
+        int nextQueue;
+        Object[] batch = new Object[0];
+        int batchIndex;
+        E lastRet;
+
+        public boolean hasNext() {
+            while (batchIndex >= batch.length) {
+                if (nextQueue >= queues.length)
+                    return false;
+                SubQueue<E> q = queues[nextQueue++];
+                final ReentrantLock lock = q.lock;
+                lock.lock();
+                try {
+                    batch = q.deque.toArray();
+                } finally {
+                    lock.unlock();
+                }
+                batchIndex = 0;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return lastRet = (E)batch[batchIndex++];
+        }
+
+        public void remove() {
+            E x = lastRet;
+            if (x == null)
+                throw new IllegalStateException();
+            lastRet = null;
+            WorkStealingBlockingQueue.this.remove(x);
+        }
+    }
+}
@@ -34,6 +34,9 @@
  */
 
 package java.util.concurrent.locks;
+import java.util.concurrent.Fiber;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import sun.misc.Unsafe;
 
 /**
@@ -85,6 +88,13 @@ import sun.misc.Unsafe;
  * permit is associated with each thread, any intermediary uses of
  * {@code park} could interfere with its intended effects.
  *
+ * <p>When the current thread is carrying a {@link
+ * java.util.concurrent.Fiber Fiber}, the {@code park} methods release
+ * the carrier to its {@link java.util.concurrent.ForkJoinPool
+ * ForkJoinPool} for the duration of the wait, as if by {@link
+ * java.util.concurrent.ForkJoinPool#managedBlock managedBlock}, so that
+ * other fibers may continue to run.
+ *
  * <p><b>Sample Usage.</b> Here is a sketch of a first-in-first-out
  * non-reentrant lock class:
  *  <pre> {@code
@@ -141,6 +151,65 @@ public class LockSupport {
             UNSAFE.unpark(thread);
     }
 
+    /**
+     * Parks the current thread.  If it is carrying a fiber, this is done
+     * within ForkJoinPool.managedBlock, so that the pool may activate a
+     * spare carrier while this one is blocked, unless the pool is
+     * shutting down and will not activate one.
+     */
+    private static void park0(boolean absolute, long time) {
+        Thread t = Thread.currentThread();
+        if (!(t instanceof ForkJoinWorkerThread) ||
+            Fiber.current() == null ||
+            ((ForkJoinWorkerThread)t).getPool().isShutdown())
+            UNSAFE.park(absolute, time);
+        else {
+            CarrierParker p = new CarrierParker(absolute, time);
+            try {
+                ForkJoinPool.managedBlock(p);
+            } catch (InterruptedException ie) {
+                // not thrown by CarrierParker; park just returns
+            }
+        }
+    }
+
+    /**
+     * ManagedBlocker for a single park of a fiber's carrier thread.
+     * As for park itself, a single wait suffices, so the blocker is
+     * releasable once it has parked.  managedBlock checks isReleasable
+     * once before trying to compensate for the blocked carrier, and
+     * again after each attempt; if it is asked again before block has
+     * been called, either compensation failed, and the pool would
+     * otherwise spin retrying it, or it succeeded, and in both cases
+     * the carrier parks there without compensating further.
+     */
+    static final class CarrierParker implements ForkJoinPool.ManagedBlocker {
+        final boolean absolute;
+        final long time;
+        boolean checked;
+        boolean parked;
+        CarrierParker(boolean absolute, long time) {
+            this.absolute = absolute;
+            this.time = time;
+        }
+        public boolean block() {
+            if (!parked) {
+                parked = true;
+                UNSAFE.park(absolute, time);
+            }
+            return true;
+        }
+        public boolean isReleasable() {
+            if (parked)
+                return true;
+            if (!checked) {
+                checked = true;
+                return false;
+            }
+            return block();
+        }
+    }
+
     /**
      * Disables the current thread for thread scheduling purposes unless the
      * permit is available.
@@ -172,7 +241,7 @@ public class LockSupport {
     public static void park(Object blocker) {
         Thread t = Thread.currentThread();
         setBlocker(t, blocker);
-        UNSAFE.park(false, 0L);
+        park0(false, 0L);
         setBlocker(t, null);
     }
 
@@ -212,7 +281,7 @@ public class LockSupport {
         if (nanos > 0) {
             Thread t = Thread.currentThread();
             setBlocker(t, blocker);
-            UNSAFE.park(false, nanos);
+            park0(false, nanos);
             setBlocker(t, null);
         }
     }
@@ -253,7 +322,7 @@ public class LockSupport {
     public static void parkUntil(Object blocker, long deadline) {
         Thread t = Thread.currentThread();
         setBlocker(t, blocker);
-        UNSAFE.park(true, deadline);
+        park0(true, deadline);
         setBlocker(t, null);
     }
 
@@ -301,7 +370,7 @@ public class LockSupport {
      * for example, the interrupt status of the thread upon return.
      */
     public static void park() {
-        UNSAFE.park(false, 0L);
+        park0(false, 0L);
     }
 
     /**
@@ -335,7 +404,7 @@ public class LockSupport {
      */
     public static void parkNanos(long nanos) {
         if (nanos > 0)
-            UNSAFE.park(false, nanos);
+            park0(false, nanos);
     }
 
     /**
@@ -369,7 +438,7 @@ public class LockSupport {
      *        to wait until
      */
     public static void parkUntil(long deadline) {
-        UNSAFE.park(true, deadline);
+        park0(true, deadline);
     }
 
     /**
@@ -0,0 +1,853 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} whose read lock scales with the number of
+ * concurrently reading threads.  A {@link ReentrantReadWriteLock}
+ * counts its readers in the single synchronization state that writers
+ * also use, so every read acquisition and release updates the same
+ * memory location, and read-mostly workloads on many processors
+ * spend much of their time transferring that location between
+ * caches.  This lock instead records readers in a table of padded
+ * counters, in the manner of {@link java.util.concurrent.atomic.LongAdder
+ * LongAdder}: each thread increments and decrements the counter it is
+ * assigned to, and the table grows, up to the number of processors,
+ * when threads contend on a counter.  Only writers use the
+ * synchronization state of an {@link AbstractQueuedSynchronizer}.
+ *
+ * <p>In exchange, acquiring the write lock is more expensive: once a
+ * writer has excluded other writers and new readers, it must wait
+ * for each counter to drop to zero.  This lock is therefore suitable
+ * for data that is read much more often than it is written.
+ *
+ * <p>This class has the following properties:
+ *
+ * <ul>
+ * <li><b>Acquisition order</b>
+ *
+ * <p>A writer that has acquired the synchronization state blocks new
+ * readers, so writers are not starved by a continuous stream of
+ * readers.  Otherwise, no ordering is imposed; in particular, a reader
+ * may acquire the read lock while a writer is queued behind another
+ * writer.
+ *
+ * <li><b>Reentrancy</b>
+ *
+ * <p>Both read and write locks may be reacquired by the thread that
+ * holds them.  A writer may acquire the read lock, and so downgrade by
+ * acquiring the read lock and then releasing the write lock.
+ * Upgrading from a read lock to the write lock is not possible, and a
+ * thread that attempts it waits forever.
+ *
+ * <li><b>Interruption of lock acquisition</b>
+ *
+ * <p>The read lock and write lock both support interruption during
+ * lock acquisition.
+ *
+ * <li><b>{@link Condition} support</b>
+ *
+ * <p>Neither the read lock nor the write lock supports a {@link
+ * Condition}; both throw {@code UnsupportedOperationException} from
+ * {@code newCondition}.
+ * </ul>
+ *
+ * <p>Serialization of this class behaves in the same way as built-in
+ * locks: a deserialized lock is in the unlocked state, regardless of
+ * its state when serialized.
+ *
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock, java.io.Serializable {
+    private static final long serialVersionUID = 3349087528316441474L;
+
+    /** Inner class providing readlock */
+    private final StripedReadWriteLock.ReadLock readerLock;
+    /** Inner class providing writelock */
+    private final StripedReadWriteLock.WriteLock writerLock;
+    /** Performs all synchronization mechanics */
+    final Sync sync;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock}.
+     */
+    public StripedReadWriteLock() {
+        sync = new Sync();
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    /** Number of CPUS, to place a bound on table size and decide on spinning */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of times a writer spins waiting for readers before parking */
+    static final int SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /**
+     * A padded counter of the read holds recorded in it.
+     */
+    @sun.misc.Contended static final class Cell {
+        volatile int readers;
+        final boolean cas(int cmp, int val) {
+            return UNSAFE.compareAndSwapInt(this, READERS, cmp, val);
+        }
+    }
+
+    /**
+     * A per-thread count of read holds, and the cell in which they are
+     * recorded.  A thread's holds are all recorded in one cell, which
+     * may change only when the count is zero.
+     */
+    static final class HoldCounter {
+        int count;
+        Cell cell;
+    }
+
+    /**
+     * ThreadLocal subclass. Easiest to explicitly define for sake
+     * of deserialization mechanics.
+     */
+    static final class ThreadLocalHoldCounter
+        extends ThreadLocal<HoldCounter> {
+        public HoldCounter initialValue() {
+            return new HoldCounter();
+        }
+    }
+
+    /**
+     * Synchronization implementation.  The AQS state is the write hold
+     * count, and readers are counted in the cells.
+     *
+     * A reader increments its cell and then checks the state; a writer
+     * sets the state and then checks the cells.  As both are volatile,
+     * at least one of them sees the other: the reader backs out if it
+     * sees a writer, and the writer waits for the reader to leave
+     * otherwise.  A writer waiting for readers publishes itself in
+     * drainWaiter before rechecking the cells, and a reader that
+     * decrements its cell unparks any such waiter.  Blocked readers
+     * queue in the AQS in shared mode, and are released in turn when
+     * the writer releases the state.
+     */
+    static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = -8159625535654395038L;
+
+        /** Table of cells; length is a power of two */
+        transient volatile Cell[] cells;
+
+        /** Spinlock (locked via CAS) used when resizing cells */
+        transient volatile int cellsBusy;
+
+        /** The writer waiting for readers to leave, if any */
+        transient volatile Thread drainWaiter;
+
+        /** The read hold counts of the current thread */
+        private transient ThreadLocalHoldCounter readHolds;
+
+        Sync() {
+            readHolds = new ThreadLocalHoldCounter();
+            cells = new Cell[] { new Cell(), new Cell() };
+        }
+
+        /*
+         * Writer side
+         */
+
+        protected final boolean tryAcquire(int acquires) {
+            Thread current = Thread.currentThread();
+            int c = getState();
+            if (c == 0) {
+                if (compareAndSetState(0, acquires)) {
+                    setExclusiveOwnerThread(current);
+                    return true;
+                }
+            }
+            else if (current == getExclusiveOwnerThread()) {
+                int nextc = c + acquires;
+                if (nextc < 0) // overflow
+                    throw new Error("Maximum lock count exceeded");
+                setState(nextc);
+                return true;
+            }
+            return false;
+        }
+
+        protected final boolean tryRelease(int releases) {
+            if (Thread.currentThread() != getExclusiveOwnerThread())
+                throw new IllegalMonitorStateException();
+            int nextc = getState() - releases;
+            boolean free = (nextc == 0);
+            if (free)
+                setExclusiveOwnerThread(null);
+            setState(nextc);
+            return free;
+        }
+
+        protected final boolean isHeldExclusively() {
+            return getExclusiveOwnerThread() == Thread.currentThread();
+        }
+
+        /**
+         * Returns true if any cell records a read hold.
+         */
+        final boolean hasReaders() {
+            for (Cell c : cells) {
+                if (c.readers != 0)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Called by a writer upon first acquiring the state, to wait
+         * for readers to leave.
+         *
+         * @return true if no readers remain, false if timed out
+         * @throws InterruptedException if interruptible and interrupted,
+         *         in which case the caller must release the state
+         */
+        final boolean awaitReaders(boolean interruptible,
+                                   boolean timed, long nanos)
+            throws InterruptedException {
+            final long deadline = timed ? System.nanoTime() + nanos : 0L;
+            Thread current = Thread.currentThread();
+            boolean interrupted = false;
+            int spins = SPINS;
+            try {
+                while (hasReaders()) {
+                    if (spins > 0) {
+                        --spins;
+                        continue;
+                    }
+                    drainWaiter = current;
+                    if (!hasReaders())
+                        break;
+                    if (timed) {
+                        if ((nanos = deadline - System.nanoTime()) <= 0L)
+                            return false;
+                        LockSupport.parkNanos(this, nanos);
+                    }
+                    else
+                        LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        if (interruptible)
+                            throw new InterruptedException();
+                        interrupted = true;
+                    }
+                }
+                return true;
+            } finally {
+                drainWaiter = null;
+                if (interrupted)
+                    current.interrupt();
+            }
+        }
+
+        /**
+         * Performs tryLock for write, enabling barging in both modes.
+         */
+        final boolean tryWriteLock() {
+            if (!tryAcquire(1))
+                return false;
+            if (getState() == 1 && hasReaders()) {
+                release(1);
+                return false;
+            }
+            return true;
+        }
+
+        /*
+         * Reader side
+         */
+
+        protected final int tryAcquireShared(int unused) {
+            return tryReadLock() ? 1 : -1;
+        }
+
+        /**
+         * Tries to acquire a read hold, failing only if another thread
+         * holds or is acquiring the write lock.
+         */
+        final boolean tryReadLock() {
+            HoldCounter h = readHolds.get();
+            int count = h.count;
+            if (count > 0 ||
+                getExclusiveOwnerThread() == Thread.currentThread()) {
+                // reentrant or downgrading; must not wait for writers
+                if (count == 0)
+                    incrementReaders(h);
+                else
+                    addReaders(h.cell, 1);
+                h.count = count + 1;
+                return true;
+            }
+            if (getState() != 0)
+                return false;
+            Cell cell = incrementReaders(h);
+            if (getState() == 0) {
+                h.count = 1;
+                return true;
+            }
+            releaseReader(cell);
+            return false;
+        }
+
+        /**
+         * Releases a read hold of the current thread.
+         */
+        final void readUnlock() {
+            HoldCounter h = readHolds.get();
+            int count = h.count;
+            if (count <= 0)
+                throw new IllegalMonitorStateException
+                    ("attempt to unlock read lock, not locked by current thread");
+            h.count = count - 1;
+            releaseReader(h.cell);
+        }
+
+        /**
+         * Decrements the given cell, and wakes up any writer waiting
+         * for readers to leave.
+         */
+        private void releaseReader(Cell cell) {
+            addReaders(cell, -1);
+            Thread w;
+            if ((w = drainWaiter) != null)
+                LockSupport.unpark(w);
+        }
+
+        private static void addReaders(Cell cell, int delta) {
+            UNSAFE.getAndAddInt(cell, READERS, delta);
+        }
+
+        /**
+         * Increments the cell for a thread with no read holds, moving
+         * it to another cell, and growing the table if it is smaller
+         * than the number of CPUs, if there is contention.
+         *
+         * @return the cell incremented, now recorded in h
+         */
+        private Cell incrementReaders(HoldCounter h) {
+            Cell c = h.cell;
+            if (c == null) {
+                Cell[] cs = cells;
+                c = cs[getProbe() & (cs.length - 1)];
+            }
+            boolean collide = false;
+            for (int r;;) {
+                if (c.cas(r = c.readers, r + 1))
+                    break;
+                int probe = advanceProbe(getProbe());
+                Cell[] cs = cells;
+                int n = cs.length;
+                if (collide && n < NCPU && cellsBusy == 0 &&
+                    UNSAFE.compareAndSwapInt(this, CELLSBUSY, 0, 1)) {
+                    try {
+                        if (cells == cs) { // expand table unless stale
+                            Cell[] rs = new Cell[n << 1];
+                            System.arraycopy(cs, 0, rs, 0, n);
+                            for (int i = n; i < rs.length; ++i)
+                                rs[i] = new Cell();
+                            cells = rs;
+                        }
+                    } finally {
+                        cellsBusy = 0;
+                    }
+                    collide = false;
+                }
+                else
+                    collide = true;
+                cs = cells;
+                c = cs[probe & (cs.length - 1)];
+            }
+            h.cell = c;
+            return c;
+        }
+
+        /*
+         * Monitoring
+         */
+
+        final Thread getOwner() {
+            return (getState() == 0) ? null : getExclusiveOwnerThread();
+        }
+
+        final int getReadLockCount() {
+            long n = 0L;
+            for (Cell c : cells)
+                n += c.readers;
+            return (n <= 0L) ? 0 : (n >= Integer.MAX_VALUE) ?
+                Integer.MAX_VALUE : (int)n;
+        }
+
+        final boolean isWriteLocked() {
+            return getState() != 0;
+        }
+
+        final int getWriteHoldCount() {
+            return isHeldExclusively() ? getState() : 0;
+        }
+
+        final int getReadHoldCount() {
+            return readHolds.get().count;
+        }
+
+        /**
+         * Reconstitutes the instance from a stream (that is, deserializes it).
+         */
+        private void readObject(java.io.ObjectInputStream s)
+            throws java.io.IOException, ClassNotFoundException {
+            s.defaultReadObject();
+            readHolds = new ThreadLocalHoldCounter();
+            cells = new Cell[] { new Cell(), new Cell() };
+            setState(0); // reset to unlocked state
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -7625830163960357474L;
+        private final Sync sync;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            sync = lock.sync;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is not held by
+         * another thread and returns immediately.
+         *
+         * <p>If the write lock is held by another thread then
+         * the current thread becomes disabled for thread scheduling
+         * purposes and lies dormant until the read lock has been acquired.
+         */
+        public void lock() {
+            sync.acquireShared(1);
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            sync.acquireSharedInterruptibly(1);
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held by
+         * another thread at the time of invocation.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return sync.tryReadLock();
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held by
+         * another thread within the given waiting time and the
+         * current thread has not been {@linkplain Thread#interrupt
+         * interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return sync.tryAcquireSharedNanos(1, unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            sync.readUnlock();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            int r = sync.getReadLockCount();
+            return super.toString() +
+                "[Read locks = " + r + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = 4117620553414364718L;
+        private final Sync sync;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            sync = lock.sync;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock if neither the read nor write lock
+         * are held by another thread and returns immediately, setting
+         * the write lock hold count to one.
+         *
+         * <p>If the current thread already holds the write lock then the
+         * hold count is incremented by one and the method returns
+         * immediately.
+         *
+         * <p>If the lock is held by another thread then the current
+         * thread becomes disabled for thread scheduling purposes and
+         * lies dormant until the write lock has been acquired.
+         */
+        public void lock() {
+            sync.acquire(1);
+            if (sync.getState() == 1) {
+                try {
+                    sync.awaitReaders(false, false, 0L);
+                } catch (InterruptedException cannotHappen) {
+                    throw new Error(cannotHappen);
+                }
+            }
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            sync.acquireInterruptibly(1);
+            if (sync.getState() == 1) {
+                boolean acquired = false;
+                try {
+                    acquired = sync.awaitReaders(true, false, 0L);
+                } finally {
+                    if (!acquired)
+                        sync.release(1);
+                }
+            }
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another
+         * thread, and the read lock is not held by any thread, at the
+         * time of invocation.
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held
+         * by the current thread; and {@code false} otherwise.
+         */
+        public boolean tryLock() {
+            return sync.tryWriteLock();
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread,
+         * and the read lock is released by all threads, within the
+         * given waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held by the
+         * current thread; and {@code false} if the waiting time
+         * elapsed before the lock could be acquired.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            final long deadline = System.nanoTime() + nanos;
+            if (!sync.tryAcquireNanos(1, nanos))
+                return false;
+            if (sync.getState() == 1) {
+                boolean acquired = false;
+                try {
+                    acquired = sync.awaitReaders
+                        (true, true, deadline - System.nanoTime());
+                } finally {
+                    if (!acquired)
+                        sync.release(1);
+                }
+                return acquired;
+            }
+            return true;
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * <p>If the current thread is the holder of this lock then
+         * the hold count is decremented. If the hold count is now
+         * zero then the lock is released.  If the current thread is
+         * not the holder of this lock then {@link
+         * IllegalMonitorStateException} is thrown.
+         *
+         * @throws IllegalMonitorStateException if the current thread does not
+         * hold this lock
+         */
+        public void unlock() {
+            sync.release(1);
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because the
+         * write lock of a {@code StripedReadWriteLock} does not support
+         * conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked by"}
+         * followed by the {@linkplain Thread#getName name} of the owning thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = sync.getOwner();
+            return super.toString() + ((o == null) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         *         {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return sync.isHeldExclusively();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return sync.getWriteHoldCount();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Queries the number of read locks held for this lock, summed over
+     * all threads.  This method is designed for use in monitoring
+     * system state, not for synchronization control.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        return sync.getReadLockCount();
+    }
+
+    /**
+     * Queries if the write lock is held, or is being acquired, by any
+     * thread.  This method is designed for use in monitoring system
+     * state, not for synchronization control.
+     *
+     * @return {@code true} if any thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return sync.isWriteLocked();
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return sync.isHeldExclusively();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return sync.getWriteHoldCount();
+    }
+
+    /**
+     * Queries the number of reentrant read holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the read lock by the current thread,
+     *         or zero if the read lock is not held by the current thread
+     */
+    public int getReadHoldCount() {
+        return sync.getReadHoldCount();
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the read or
+     * write lock.
+     *
+     * @return {@code true} if there may be other threads waiting to
+     *         acquire the lock
+     */
+    public final boolean hasQueuedThreads() {
+        return sync.hasQueuedThreads();
+    }
+
+    /**
+     * Returns an estimate of the number of threads waiting to acquire
+     * either the read or write lock.
+     *
+     * @return the estimated number of threads waiting for this lock
+     */
+    public final int getQueueLength() {
+        return sync.getQueueLength();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of held
+     * read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        int w = sync.isWriteLocked() ? sync.getState() : 0;
+        int r = sync.getReadLockCount();
+        return super.toString() +
+            "[Write locks = " + w + ", Read locks = " + r + "]";
+    }
+
+    /**
+     * Returns the probe value for the current thread, initializing it
+     * if necessary.  Duplicated from Striped64 because of packaging
+     * restrictions.
+     */
+    static final int getProbe() {
+        Thread t = Thread.currentThread();
+        int p;
+        if ((p = UNSAFE.getInt(t, PROBE)) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            p = UNSAFE.getInt(t, PROBE);
+        }
+        return p;
+    }
+
+    /**
+     * Pseudo-randomly advances and records the given probe value for the
+     * given thread.  Duplicated from Striped64 because of packaging
+     * restrictions.
+     */
+    static final int advanceProbe(int probe) {
+        probe ^= probe << 13;   // xorshift
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        UNSAFE.putInt(Thread.currentThread(), PROBE, probe);
+        return probe;
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long READERS;
+    private static final long CELLSBUSY;
+    private static final long PROBE;
+    static {
+        try {
+            UNSAFE = sun.misc.Unsafe.getUnsafe();
+            READERS = UNSAFE.objectFieldOffset
+                (Cell.class.getDeclaredField("readers"));
+            CELLSBUSY = UNSAFE.objectFieldOffset
+                (Sync.class.getDeclaredField("cellsBusy"));
+            PROBE = UNSAFE.objectFieldOffset
+                (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
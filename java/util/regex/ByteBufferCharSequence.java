@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.regex;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import sun.nio.cs.ArrayDecoder;
+import sun.nio.cs.SingleByte;
+
+/**
+ * A character sequence view of the bytes remaining in a
+ * {@link ByteBuffer}, decoded with a single-byte charset or UTF-8.
+ *
+ * <p> A single-byte charset is decoded one byte at a time in
+ * {@link #charAt}, through a table built once from the charset's decoder,
+ * or directly for ISO-8859-1.  UTF-8 input that is all ASCII is read the
+ * same way.  Other UTF-8 input is decoded when the view is reset, into a
+ * char array that is kept and reused by later resets, and the decoder is
+ * only created the first time such input is seen.  Malformed and
+ * unmappable input is replaced, as {@link String#String(byte[], Charset)}
+ * does.
+ *
+ * <p> The view reads the buffer with absolute gets and never changes its
+ * position or limit.  The buffer must not be modified while it is being
+ * matched.
+ */
+final class ByteBufferCharSequence implements CharSequence {
+
+    private final Charset charset;
+    private final boolean utf8;
+    private final char[] table;     // byte to char, or null if identity
+    private CharsetDecoder decoder; // UTF-8 only, created lazily
+    private char[] decoded;         // reused decoding buffer
+
+    private ByteBuffer buf;
+    private int base;
+    private int length;
+    private char[] chars;           // decoded, or null to read buf
+
+    /**
+     * Creates a view for the given charset.
+     *
+     * @throws IllegalArgumentException if the charset is neither UTF-8
+     *         nor a single-byte charset
+     */
+    ByteBufferCharSequence(Charset charset) {
+        this.charset = charset;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        if (utf8 || StandardCharsets.ISO_8859_1.equals(charset)) {
+            table = null;
+        } else {
+            CharsetDecoder d = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            if (!(StandardCharsets.US_ASCII.equals(charset)
+                  || d instanceof SingleByte.Decoder))
+                throw new IllegalArgumentException(
+                    "Not a single-byte charset or UTF-8: " + charset.name());
+            byte[] bytes = new byte[256];
+            for (int b = 0; b < 256; b++)
+                bytes[b] = (byte)b;
+            table = new char[256];
+            if (d instanceof ArrayDecoder) {
+                ((ArrayDecoder)d).decode(bytes, 0, 256, table);
+            } else {
+                CharBuffer cb = CharBuffer.wrap(table);
+                d.decode(ByteBuffer.wrap(bytes), cb, true);
+                d.flush(cb);
+            }
+        }
+    }
+
+    /**
+     * Makes this view cover the bytes between the buffer's position and
+     * limit.
+     */
+    void reset(ByteBuffer input) {
+        buf = input;
+        base = input.position();
+        int n = input.remaining();
+        chars = null;
+        length = n;
+        if (utf8 && !isAscii(input, base, n)) {
+            if (decoded == null || decoded.length < n)
+                decoded = new char[n];
+            if (decoder == null)
+                decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            if (input.hasArray() && decoder instanceof ArrayDecoder) {
+                length = ((ArrayDecoder)decoder).decode(
+                    input.array(), input.arrayOffset() + base, n, decoded);
+            } else {
+                CharBuffer cb = CharBuffer.wrap(decoded);
+                decoder.reset();
+                decoder.decode(input.duplicate(), cb, true);
+                decoder.flush(cb);
+                length = cb.position();
+            }
+            chars = decoded;
+        }
+    }
+
+    private static boolean isAscii(ByteBuffer input, int off, int n) {
+        if (input.hasArray()) {
+            byte[] a = input.array();
+            int i = input.arrayOffset() + off;
+            for (int end = i + n; i < end; i++)
+                if (a[i] < 0)
+                    return false;
+        } else {
+            for (int i = off, end = off + n; i < end; i++)
+                if (input.get(i) < 0)
+                    return false;
+        }
+        return true;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index " + index);
+        if (chars != null)
+            return chars[index];
+        int b = buf.get(base + index) & 0xff;
+        return (table == null) ? (char)b : table[b];
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length)
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + length);
+        if (chars != null)
+            return new String(chars, start, end - start);
+        char[] cs = new char[end - start];
+        for (int i = start; i < end; i++) {
+            int b = buf.get(base + i) & 0xff;
+            cs[i - start] = (table == null) ? (char)b : table[b];
+        }
+        return new String(cs);
+    }
+
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A lazily built deterministic automaton that runs the regular subset of
+ * a {@link Pattern} in time linear in the length of the input.
+ *
+ * <p> The subset covers character classes, literals, alternation,
+ * greedy and reluctant quantifiers and non-capturing groups, with an
+ * optional leading {@code \A} or non-multiline {@code ^}.  A pattern with
+ * capturing groups, back references, lookaround, boundaries, other
+ * anchors, possessive and independent quantifiers, or a repetition of a
+ * subexpression that can match the empty string is left to the
+ * backtracking node tree.  {@link Pattern} translates the node tree of an
+ * eligible pattern into a {@link Term} and installs a {@code DfaNode} in
+ * front of the original tree.
+ *
+ * <p> The terms are compiled into three small Thompson programs: an
+ * anchored one, an unanchored one that is preceded by a reluctant
+ * any-character loop, and a reversed one.  Each program is run by an
+ * {@link Automaton} whose states are ordered lists of program counters.
+ * A state's threads are kept in the priority order the backtracking
+ * matcher would try them, and a leftmost-first automaton drops every
+ * thread behind an accepting one, so the match found is the same one the
+ * backtracking matcher reports.  {@code find} runs the unanchored program
+ * forward to find the end of the leftmost match, and the reversed program
+ * backward from that end, longest match first, to find where it starts.
+ *
+ * <p> States and their transitions are created on demand and shared by
+ * all matchers of the pattern.  A transition is published with a racy
+ * array store; since the fields of a state are final, a thread that sees
+ * the reference sees a fully built state.  The one cached transition on a
+ * character outside Latin-1 is a volatile immutable pair.  New states
+ * are created while holding the automaton's lock.  When an automaton has
+ * built {@code MAX_STATES} states, the cache is flushed and rebuilt from
+ * the states that are reached afterwards.
+ *
+ * <p> An unanchored automaton that returns to its start state skips
+ * ahead with the pattern's prefix {@link Prefilter}, and a search fails
+ * at once if the literal that every match contains does not occur.
+ *
+ * <p> The automaton works on UTF-16 code units.  A non-supplementary
+ * pattern matched against text without surrogates sees the same code
+ * points either way, so a scan that meets a surrogate reports
+ * {@link #FALLBACK} and the caller reruns the backtracking tree.
+ *
+ * <p> {@code hitEnd} is set whenever a thread was still alive when the
+ * end of the region was reached.  That is never false where the
+ * backtracking matcher would report true, but it may be true in a few
+ * cases, such as a reluctant quantifier at the end, where the
+ * backtracking matcher does not read the end.  {@code requireEnd} is
+ * always false since the subset has no end anchors or boundaries.
+ */
+final class Dfa {
+
+    /**
+     * A predicate on a single code point.
+     */
+    abstract static class CharPredicate {
+        abstract boolean matches(int ch);
+    }
+
+    /**
+     * A node of the regular expression tree run by this automaton.
+     */
+    abstract static class Term {
+        /**
+         * Returns an upper bound on the number of program instructions
+         * this term compiles to, saturating at {@code MAX_PROGRAM + 1}.
+         */
+        abstract int size();
+
+        /**
+         * Returns true if this term matches the empty string.
+         */
+        abstract boolean nullable();
+
+        /**
+         * Returns true if this term repeats a nullable term more than
+         * once.  The backtracking matcher leaves a loop as soon as an
+         * iteration matches the empty string, which a Thompson program
+         * does not model, so such terms are not run on a DFA.
+         */
+        abstract boolean repeatsNullable();
+    }
+
+    /**
+     * Matches a single character satisfying a predicate.
+     */
+    static final class CharTerm extends Term {
+        final CharPredicate predicate;
+        CharTerm(CharPredicate predicate) {
+            this.predicate = predicate;
+        }
+        int size() {
+            return 1;
+        }
+        boolean nullable() {
+            return false;
+        }
+        boolean repeatsNullable() {
+            return false;
+        }
+    }
+
+    /**
+     * Matches each of its terms in turn.  With no terms it matches the
+     * empty string.
+     */
+    static final class Concat extends Term {
+        final Term[] terms;
+        Concat(Term[] terms) {
+            this.terms = terms;
+        }
+        int size() {
+            int n = 0;
+            for (Term t : terms)
+                n = saturatedAdd(n, t.size());
+            return n;
+        }
+        boolean nullable() {
+            for (Term t : terms)
+                if (!t.nullable())
+                    return false;
+            return true;
+        }
+        boolean repeatsNullable() {
+            for (Term t : terms)
+                if (t.repeatsNullable())
+                    return true;
+            return false;
+        }
+    }
+
+    /**
+     * Matches one of its terms, preferring earlier ones.
+     */
+    static final class Alt extends Term {
+        final Term[] terms;
+        Alt(Term[] terms) {
+            this.terms = terms;
+        }
+        int size() {
+            int n = 0;
+            for (Term t : terms)
+                n = saturatedAdd(n, t.size() + 2);
+            return n;
+        }
+        boolean nullable() {
+            for (Term t : terms)
+                if (t.nullable())
+                    return true;
+            return false;
+        }
+        boolean repeatsNullable() {
+            for (Term t : terms)
+                if (t.repeatsNullable())
+                    return true;
+            return false;
+        }
+    }
+
+    /**
+     * Matches between min and max occurrences of a term, preferring more
+     * occurrences if greedy and fewer otherwise.
+     */
+    static final class Repeat extends Term {
+        final Term term;
+        final int min;
+        final int max;
+        final boolean greedy;
+        Repeat(Term term, int min, int max, boolean greedy) {
+            this.term = term;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+        int size() {
+            long copies = (max == Pattern.MAX_REPS) ? min + 1L : max;
+            long n = copies * (term.size() + 2L);
+            return (n > MAX_PROGRAM) ? MAX_PROGRAM + 1 : (int)n;
+        }
+        boolean nullable() {
+            return min == 0 || term.nullable();
+        }
+        boolean repeatsNullable() {
+            return (max > 1 && term.nullable()) || term.repeatsNullable();
+        }
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        int n = a + b;
+        return (n > MAX_PROGRAM || n < 0) ? MAX_PROGRAM + 1 : n;
+    }
+
+    /**
+     * The largest program, in instructions, that a pattern may compile
+     * to.  Counted repetitions are expanded, so this bounds the size of
+     * the states as well.
+     */
+    static final int MAX_PROGRAM = 4096;
+
+    /**
+     * The number of states an automaton may build before its cache is
+     * flushed.
+     */
+    static final int MAX_STATES = 1024;
+
+    /**
+     * Results of {@link #search} and {@link #match}.
+     */
+    static final int FAILED = 0;
+    static final int MATCHED = 1;
+    static final int FALLBACK = -1;
+
+    /**
+     * Returned by the scanning loops when the input holds a surrogate.
+     */
+    private static final int SURROGATE = -2;
+
+    private final Term term;
+    private final boolean anchored;
+    private final Prefilter prefix;
+    private final Prefilter required;
+    private Automaton forward;      // leftmost-first, anchored
+    private Automaton unanchored;   // leftmost-first, unanchored
+    private Automaton whole;        // all threads, anchored
+    private Automaton reverse;      // all threads, reversed
+    private volatile boolean built;
+
+    private Dfa(Term term, boolean anchored,
+                Prefilter prefix, Prefilter required) {
+        this.term = term;
+        this.anchored = anchored;
+        this.prefix = prefix;
+        this.required = required;
+    }
+
+    /**
+     * Returns an automaton for the given term, or null if the term
+     * compiles to more than {@code MAX_PROGRAM} instructions or repeats
+     * a term that matches the empty string.
+     *
+     * @param anchored true if the pattern starts with {@code \A} or a
+     *        non-multiline {@code ^}
+     * @param prefix the literals every match starts with, or null
+     * @param required a literal every match contains, or null
+     */
+    static Dfa create(Term term, boolean anchored,
+                      Prefilter prefix, Prefilter required) {
+        if (term.size() > MAX_PROGRAM || term.repeatsNullable())
+            return null;
+        return new Dfa(term, anchored, prefix, required);
+    }
+
+    /**
+     * Compiles the programs on first use, so that patterns that are never
+     * matched do not pay for them.
+     */
+    private void build() {
+        if (built)
+            return;
+        synchronized (this) {
+            if (built)
+                return;
+            Program fwd = new Program();
+            fwd.emit(term, false);
+            fwd.emit(MATCH, 0, 0, null);
+            Program any = new Program();
+            any.emit(SPLIT, 2, 1, null);
+            any.emit(ANY, 0, 0, null);
+            any.emit(term, false);
+            any.emit(MATCH, 0, 0, null);
+            Program rev = new Program();
+            rev.emit(term, true);
+            rev.emit(MATCH, 0, 0, null);
+            forward = new Automaton(fwd, true);
+            unanchored = new Automaton(any, true);
+            whole = new Automaton(fwd, false);
+            reverse = new Automaton(rev, false);
+            built = true;
+        }
+    }
+
+    /**
+     * Finds the leftmost match starting at or after from, as the
+     * {@code Start} node would.
+     */
+    int search(Matcher matcher, int from, CharSequence seq) {
+        build();
+        int to = matcher.to;
+        int start = from;
+        int end;
+        if (anchored) {
+            int fromIndex = matcher.anchoringBounds ? matcher.from : 0;
+            if (from != fromIndex)
+                return FAILED;
+            end = scan(forward, matcher, from, to, seq, null);
+        } else {
+            if (required != null && required.next(seq, from, to) < 0) {
+                matcher.hitEnd = true;
+                return FAILED;
+            }
+            end = scan(unanchored, matcher, from, to, seq, prefix);
+            if (end >= 0)
+                start = scanBack(reverse, from, end, seq);
+        }
+        return result(matcher, start, end);
+    }
+
+    /**
+     * Matches at from, as the root of the node tree would, to the end of
+     * the region if the matcher's accept mode is {@code ENDANCHOR}.
+     */
+    int match(Matcher matcher, int from, CharSequence seq) {
+        build();
+        if (anchored) {
+            int fromIndex = matcher.anchoringBounds ? matcher.from : 0;
+            if (from != fromIndex)
+                return FAILED;
+        }
+        int end = (matcher.acceptMode == Matcher.ENDANCHOR)
+            ? scanWhole(whole, matcher, from, matcher.to, seq)
+            : scan(forward, matcher, from, matcher.to, seq, null);
+        return result(matcher, from, end);
+    }
+
+    private static int result(Matcher matcher, int start, int end) {
+        if (end == SURROGATE)
+            return FALLBACK;
+        if (end < 0)
+            return FAILED;
+        matcher.first = start;
+        matcher.last = end;
+        matcher.groups[0] = start;
+        matcher.groups[1] = end;
+        return MATCHED;
+    }
+
+    /**
+     * Runs a leftmost-first automaton forward from i and returns the end
+     * of the match it prefers, -1 if there is none, or SURROGATE.  If a
+     * prefix filter is given, the unanchored automaton skips ahead to the
+     * next candidate start whenever it is back in its start state.
+     */
+    private static int scan(Automaton a, Matcher matcher, int i, int to,
+                            CharSequence seq, Prefilter prefix) {
+        State start = a.start();
+        State s = start;
+        int end = -1;
+        for (;;) {
+            if (s == start && prefix != null
+                && (i = prefix.next(seq, i, to)) < 0) {
+                matcher.hitEnd = true;
+                return end;
+            }
+            if (s.accepting)
+                end = i;
+            if (!s.live)
+                return end;
+            if (i >= to) {
+                matcher.hitEnd = true;
+                return end;
+            }
+            char c = seq.charAt(i);
+            if (Character.isSurrogate(c))
+                return SURROGATE;
+            State n = s.next(c);
+            s = (n != null) ? n : a.step(s, c);
+            i++;
+        }
+    }
+
+    /**
+     * Runs an automaton forward from i and returns to if it accepts the
+     * whole of [i, to), -1 if it does not, or SURROGATE.
+     */
+    private static int scanWhole(Automaton a, Matcher matcher, int i, int to,
+                                 CharSequence seq) {
+        State s = a.start();
+        for (;;) {
+            if (i >= to) {
+                if (s.live)
+                    matcher.hitEnd = true;
+                return s.accepting ? i : -1;
+            }
+            if (!s.live)
+                return -1;
+            char c = seq.charAt(i);
+            if (Character.isSurrogate(c))
+                return SURROGATE;
+            State n = s.next(c);
+            s = (n != null) ? n : a.step(s, c);
+            i++;
+        }
+    }
+
+    /**
+     * Runs the reversed automaton backward from end and returns the
+     * smallest start, not less than from, of a match ending at end.  The
+     * forward scan has already checked [from, end) for surrogates.
+     */
+    private static int scanBack(Automaton a, int from, int end,
+                                CharSequence seq) {
+        State s = a.start();
+        int i = end;
+        int start = end;
+        for (;;) {
+            if (s.accepting)
+                start = i;
+            if (!s.live || i <= from)
+                return start;
+            char c = seq.charAt(--i);
+            State n = s.next(c);
+            s = (n != null) ? n : a.step(s, c);
+        }
+    }
+
+    // Program opcodes
+    private static final int CHAR  = 0;   // predicate, then go to x
+    private static final int ANY   = 1;   // any character, then go to x
+    private static final int SPLIT = 2;   // go to x, then to y
+    private static final int JMP   = 3;   // go to x
+    private static final int MATCH = 4;
+
+    /**
+     * A Thompson program held in parallel arrays.  Execution starts at 0.
+     */
+    private static final class Program {
+        int[] op = new int[16];
+        int[] x = new int[16];
+        int[] y = new int[16];
+        CharPredicate[] pred = new CharPredicate[16];
+        int size;
+
+        int emit(int o, int a, int b, CharPredicate p) {
+            if (size == op.length) {
+                int n = size << 1;
+                op = Arrays.copyOf(op, n);
+                x = Arrays.copyOf(x, n);
+                y = Arrays.copyOf(y, n);
+                pred = Arrays.copyOf(pred, n);
+            }
+            op[size] = o;
+            x[size] = a;
+            y[size] = b;
+            pred[size] = p;
+            return size++;
+        }
+
+        /**
+         * Appends the instructions for t.  They fall through to the
+         * instruction appended next.  If reversed, concatenations are
+         * emitted back to front.
+         */
+        void emit(Term t, boolean reversed) {
+            if (t instanceof CharTerm) {
+                emit(CHAR, size + 1, 0, ((CharTerm)t).predicate);
+            } else if (t instanceof Concat) {
+                Term[] terms = ((Concat)t).terms;
+                if (reversed) {
+                    for (int i = terms.length - 1; i >= 0; i--)
+                        emit(terms[i], true);
+                } else {
+                    for (Term u : terms)
+                        emit(u, false);
+                }
+            } else if (t instanceof Alt) {
+                Term[] terms = ((Alt)t).terms;
+                int[] jumps = new int[terms.length - 1];
+                for (int i = 0; i < jumps.length; i++) {
+                    int split = emit(SPLIT, size + 1, 0, null);
+                    emit(terms[i], reversed);
+                    jumps[i] = emit(JMP, 0, 0, null);
+                    y[split] = size;
+                }
+                emit(terms[terms.length - 1], reversed);
+                for (int j : jumps)
+                    x[j] = size;
+            } else {
+                Repeat r = (Repeat)t;
+                for (int i = 0; i < r.min; i++)
+                    emit(r.term, reversed);
+                if (r.max == Pattern.MAX_REPS) {
+                    int split = emit(SPLIT, 0, 0, null);
+                    emit(r.term, reversed);
+                    emit(JMP, split, 0, null);
+                    branch(split, split + 1, size, r.greedy);
+                } else {
+                    int[] splits = new int[r.max - r.min];
+                    for (int i = 0; i < splits.length; i++) {
+                        splits[i] = emit(SPLIT, 0, 0, null);
+                        emit(r.term, reversed);
+                    }
+                    for (int split : splits)
+                        branch(split, split + 1, size, r.greedy);
+                }
+            }
+        }
+
+        private void branch(int split, int body, int exit, boolean greedy) {
+            x[split] = greedy ? body : exit;
+            y[split] = greedy ? exit : body;
+        }
+    }
+
+    /**
+     * A state of an automaton: the ordered program counters of its
+     * threads, which are CHAR, ANY and MATCH instructions only.
+     */
+    private static final class State {
+        final int[] pcs;
+        final int hash;
+        final boolean accepting;    // holds a MATCH thread
+        final boolean live;         // holds a CHAR or ANY thread
+        final State[] next = new State[LATIN1];
+        // The last transition on a character outside Latin-1.
+        volatile Transition last;
+
+        State(int[] pcs, boolean accepting, boolean live) {
+            this.pcs = pcs;
+            this.hash = Arrays.hashCode(pcs);
+            this.accepting = accepting;
+            this.live = live;
+        }
+
+        State next(char c) {
+            if (c < LATIN1)
+                return next[c];
+            Transition t = last;
+            return (t != null && t.c == c) ? t.state : null;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            return (o instanceof State) && Arrays.equals(pcs, ((State)o).pcs);
+        }
+    }
+
+    private static final int LATIN1 = 256;
+
+    private static final class Transition {
+        final char c;
+        final State state;
+        Transition(char c, State state) {
+            this.c = c;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Builds and caches the states of one program.  With leftmostFirst,
+     * the threads behind the first MATCH of a state are dropped.
+     */
+    private static final class Automaton {
+        private final Program prog;
+        private final boolean leftmostFirst;
+        private final HashMap<State, State> states = new HashMap<>();
+        private volatile State start;
+
+        // Scratch space for closure computation, guarded by this.
+        private final int[] marks;
+        private final int[] stack;
+        private final int[] threads;
+        private int generation;
+        private int count;
+        private boolean accepting;
+        private boolean live;
+
+        Automaton(Program prog, boolean leftmostFirst) {
+            this.prog = prog;
+            this.leftmostFirst = leftmostFirst;
+            this.marks = new int[prog.size];
+            this.stack = new int[prog.size * 2 + 1];
+            this.threads = new int[prog.size];
+        }
+
+        State start() {
+            State s = start;
+            if (s == null) {
+                synchronized (this) {
+                    if ((s = start) == null) {
+                        reset();
+                        add(0);
+                        start = s = intern();
+                    }
+                }
+            }
+            return s;
+        }
+
+        /**
+         * Returns the state reached from s on c, building it and caching
+         * the transition if needed.
+         */
+        synchronized State step(State s, char c) {
+            reset();
+            int[] pcs = s.pcs;
+            for (int i = 0; i < pcs.length && !(leftmostFirst && accepting); i++) {
+                int pc = pcs[i];
+                int op = prog.op[pc];
+                if (op == ANY || (op == CHAR && prog.pred[pc].matches(c)))
+                    add(prog.x[pc]);
+            }
+            State n = intern();
+            if (c < LATIN1)
+                s.next[c] = n;
+            else
+                s.last = new Transition(c, n);
+            return n;
+        }
+
+        private void reset() {
+            if (++generation == 0) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+            count = 0;
+            accepting = false;
+            live = false;
+        }
+
+        /**
+         * Adds the closure of pc to the thread list in priority order.
+         */
+        private void add(int pc) {
+            int sp = 0;
+            stack[sp++] = pc;
+            while (sp > 0) {
+                pc = stack[--sp];
+                if (marks[pc] == generation)
+                    continue;
+                marks[pc] = generation;
+                switch (prog.op[pc]) {
+                case JMP:
+                    stack[sp++] = prog.x[pc];
+                    break;
+                case SPLIT:
+                    stack[sp++] = prog.y[pc];
+                    stack[sp++] = prog.x[pc];
+                    break;
+                case MATCH:
+                    threads[count++] = pc;
+                    accepting = true;
+                    if (leftmostFirst)
+                        return;
+                    break;
+                default:
+                    threads[count++] = pc;
+                    live = true;
+                }
+            }
+        }
+
+        private State intern() {
+            State s = new State(Arrays.copyOf(threads, count), accepting, live);
+            State t = states.get(s);
+            if (t != null)
+                return t;
+            if (states.size() >= MAX_STATES) {
+                states.clear();
+                start = null;
+            }
+            states.put(s, s);
+            return s;
+        }
+    }
+}
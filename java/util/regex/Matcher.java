@@ -25,6 +25,8 @@
 
 package java.util.regex;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Objects;
 
 /**
@@ -133,6 +135,13 @@ public final class Matcher implements MatchResult {
      */
     CharSequence text;
 
+    /**
+     * The view used to match byte buffers, or null if this matcher was
+     * not created for a byte buffer. It is kept across resets so that
+     * its decoding buffer is reused.
+     */
+    ByteBufferCharSequence bytes;
+
     /**
      * Matcher state used by the last node. NOANCHOR is used when a
      * match does not have to consume all of the input. ENDANCHOR is
@@ -329,6 +338,39 @@ public final class Matcher implements MatchResult {
         return reset();
     }
 
+    /**
+     * Resets this matcher with a new input byte buffer, decoded with the
+     * charset given to {@link Pattern#matcher(ByteBuffer, Charset)}.
+     *
+     * <p> The matcher's input becomes the bytes between the buffer's
+     * position and its limit. The buffer's position and limit are not
+     * changed, and the buffer must not be modified while it is being
+     * matched. Unless the charset is UTF-8 and the input holds non-ASCII
+     * bytes, no characters are copied; otherwise they are decoded into a
+     * buffer that this matcher keeps and reuses. As with {@link
+     * #reset(CharSequence)}, the matcher's region is set to the entire
+     * input and the anchoring and transparency of its region boundaries
+     * are unaffected.
+     *
+     * @param  input
+     *         The new input byte buffer
+     *
+     * @return  This matcher
+     *
+     * @throws  IllegalStateException
+     *          If this matcher was not created by {@link
+     *          Pattern#matcher(ByteBuffer, Charset)}
+     *
+     * @since 1.8
+     */
+    public Matcher reset(ByteBuffer input) {
+        if (bytes == null)
+            throw new IllegalStateException("Matcher was not created for a byte buffer");
+        bytes.reset(input);
+        text = bytes;
+        return reset();
+    }
+
     /**
      * Returns the start index of the previous match.
      *
@@ -25,6 +25,8 @@
 
 package java.util.regex;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.Normalizer;
 import java.util.Locale;
 import java.util.Iterator;
@@ -1094,6 +1096,48 @@ public final class Pattern
         return m;
     }
 
+    /**
+     * Creates a matcher that will match the bytes remaining in the given
+     * buffer, decoded with the given charset, against this pattern.
+     *
+     * <p> The charset must be UTF-8 or a single-byte charset such as
+     * ISO-8859-1, US-ASCII or windows-1252. The input is the bytes
+     * between the buffer's position and its limit, read in place: the
+     * buffer's position and limit are not changed, and the buffer must
+     * not be modified while it is being matched. Malformed and unmappable
+     * bytes are replaced as {@link String#String(byte[], Charset)}
+     * replaces them. Indices reported by the matcher are indices into the
+     * decoded characters; for a single-byte charset, and for UTF-8 input
+     * that is all ASCII, they are also offsets from the buffer's position.
+     *
+     * <p> No characters are copied unless the charset is UTF-8 and the
+     * input holds non-ASCII bytes, in which case they are decoded into a
+     * buffer that the matcher keeps. {@link Matcher#reset(ByteBuffer)}
+     * reuses the matcher, and that buffer, for a new input. A {@link
+     * java.nio.CharBuffer} is a character sequence and may be passed to
+     * {@link #matcher(CharSequence)} directly.
+     *
+     * @param  input
+     *         The byte buffer to be matched
+     *
+     * @param  charset
+     *         The charset the bytes are encoded in
+     *
+     * @return  A new matcher for this pattern
+     *
+     * @throws  IllegalArgumentException
+     *          If the charset is neither UTF-8 nor a single-byte charset
+     *
+     * @since 1.8
+     */
+    public Matcher matcher(ByteBuffer input, Charset charset) {
+        ByteBufferCharSequence bytes = new ByteBufferCharSequence(charset);
+        bytes.reset(input);
+        Matcher m = matcher(bytes);
+        m.bytes = bytes;
+        return m;
+    }
+
     /**
      * Returns this pattern's match flags.
      *
@@ -1716,6 +1760,25 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             root = hasSupplementary ? new StartS(matchRoot) : new Start(matchRoot);
         }
 
+        // Skip ahead to the literals every match starts with or contains
+        Prefilter prefix = null;
+        Prefilter required = null;
+        if (root instanceof Start) {
+            Start start = (Start)root;
+            start.prefix = prefix = prefixFilter(matchRoot);
+            start.required = required = requiredFilter(matchRoot, prefix);
+        }
+
+        // Run the regular subset on a lazily built DFA
+        if (!hasSupplementary && capturingGroupCount == 1
+            && !(matchRoot instanceof Slice)) {
+            Dfa dfa = dfaFor(matchRoot, prefix, required);
+            if (dfa != null) {
+                root = new DfaNode(dfa, root, true);
+                matchRoot = new DfaNode(dfa, matchRoot, false);
+            }
+        }
+
         // Release temporary storage
         temp = null;
         buffer = null;
@@ -1724,6 +1787,294 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         compiled = true;
     }
 
+    /**
+     * Returns a DFA for the tree rooted at node, or null if the tree uses
+     * a construct outside the regular subset that Dfa supports.
+     */
+    private static Dfa dfaFor(Node node, Prefilter prefix, Prefilter required) {
+        boolean anchored = node instanceof Begin;
+        if (anchored)
+            node = node.next;
+        Dfa.Term term = dfaTerm(node, lastAccept);
+        return (term == null) ? null
+                              : Dfa.create(term, anchored, prefix, required);
+    }
+
+    /**
+     * Translates the chain of nodes from node up to, but not including,
+     * end into a Dfa.Term, or returns null if the chain cannot be
+     * translated.  Group heads and tails are skipped; the caller has
+     * checked that the pattern has no capturing groups.
+     */
+    private static Dfa.Term dfaTerm(Node node, Node end) {
+        ArrayList<Dfa.Term> terms = new ArrayList<>();
+        while (node != end) {
+            if (node instanceof CharProperty) {
+                terms.add(new Dfa.CharTerm(dfaPredicate((CharProperty)node)));
+            } else if (node instanceof SliceNode) {
+                int[] buf = ((SliceNode)node).buffer;
+                for (int j = 0; j < buf.length; j++) {
+                    CharProperty cp;
+                    if (node.getClass() == Slice.class)
+                        cp = new Single(buf[j]);
+                    else if (node.getClass() == SliceI.class)
+                        cp = sliceIPredicate(buf[j]);
+                    else if (node.getClass() == SliceU.class)
+                        cp = sliceUPredicate(buf[j]);
+                    else
+                        return null;
+                    terms.add(new Dfa.CharTerm(dfaPredicate(cp)));
+                }
+            } else if (node instanceof GroupHead || node instanceof GroupTail) {
+                // Non-capturing, nothing to translate
+            } else if (node instanceof Branch) {
+                Branch branch = (Branch)node;
+                Dfa.Term[] alts = new Dfa.Term[branch.size];
+                for (int n = 0; n < branch.size; n++) {
+                    if (branch.atoms[n] == null)
+                        alts[n] = new Dfa.Concat(new Dfa.Term[0]);
+                    else if ((alts[n] = dfaTerm(branch.atoms[n], branch.conn)) == null)
+                        return null;
+                }
+                terms.add(new Dfa.Alt(alts));
+                node = branch.conn;
+            } else if (node instanceof Ques) {
+                Ques ques = (Ques)node;
+                Dfa.Term atom = dfaTerm(ques.atom, accept);
+                if (atom == null || (ques.type != GREEDY && ques.type != LAZY))
+                    return null;
+                terms.add(new Dfa.Repeat(atom, 0, 1, ques.type == GREEDY));
+            } else if (node instanceof Curly) {
+                Curly curly = (Curly)node;
+                Dfa.Term atom = dfaTerm(curly.atom, accept);
+                if (atom == null || (curly.type != GREEDY && curly.type != LAZY))
+                    return null;
+                terms.add(new Dfa.Repeat(atom, curly.cmin, curly.cmax,
+                                         curly.type == GREEDY));
+            } else if (node instanceof GroupCurly) {
+                GroupCurly curly = (GroupCurly)node;
+                Dfa.Term atom = dfaTerm(curly.atom, accept);
+                if (atom == null || curly.capture
+                    || (curly.type != GREEDY && curly.type != LAZY))
+                    return null;
+                terms.add(new Dfa.Repeat(atom, curly.cmin, curly.cmax,
+                                         curly.type == GREEDY));
+            } else if (node instanceof Prolog) {
+                Loop loop = ((Prolog)node).loop;
+                Dfa.Term body = dfaTerm(loop.body, loop);
+                if (body == null)
+                    return null;
+                terms.add(new Dfa.Repeat(body, loop.cmin, loop.cmax,
+                                         !(loop instanceof LazyLoop)));
+                node = loop;
+            } else {
+                return null;
+            }
+            node = node.next;
+        }
+        if (terms.size() == 1)
+            return terms.get(0);
+        return new Dfa.Concat(terms.toArray(new Dfa.Term[terms.size()]));
+    }
+
+    private static Dfa.CharPredicate dfaPredicate(final CharProperty cp) {
+        return new Dfa.CharPredicate() {
+                boolean matches(int ch) {
+                    return cp.isSatisfiedBy(ch);}};
+    }
+
+    /**
+     * Returns a property for one character of a SliceI.
+     */
+    private static CharProperty sliceIPredicate(final int lower) {
+        return new CharProperty() {
+                boolean isSatisfiedBy(int ch) {
+                    return lower == ch || lower == ASCII.toLower(ch);}};
+    }
+
+    /**
+     * Returns a property for one character of a SliceU.
+     */
+    private static CharProperty sliceUPredicate(final int lower) {
+        return new CharProperty() {
+                boolean isSatisfiedBy(int ch) {
+                    return lower == ch ||
+                        lower == Character.toLowerCase(Character.toUpperCase(ch));}};
+    }
+
+    /**
+     * The most literals a prefix filter is built from.
+     */
+    private static final int MAX_PREFIXES = 64;
+
+    /**
+     * Returns a filter for the literals that every match of the tree
+     * rooted at node starts with, or null if the tree can match a string
+     * that does not start with a literal. The literals are cut to the
+     * length of the shortest one.
+     */
+    private static Prefilter prefixFilter(Node node) {
+        ArrayList<String> prefixes = new ArrayList<>();
+        prefixes.add("");
+        literalPrefixes(node, lastAccept, prefixes);
+        int length = Integer.MAX_VALUE;
+        for (String p : prefixes)
+            length = Math.min(length, p.length());
+        if (length == 0)
+            return null;
+        ArrayList<String> literals = new ArrayList<>();
+        for (String p : prefixes) {
+            p = p.substring(0, length);
+            if (!literals.contains(p))
+                literals.add(p);
+        }
+        return Prefilter.of(literals.toArray(new String[literals.size()]));
+    }
+
+    /**
+     * Extends the strings in prefixes with the literals that the chain of
+     * nodes from node up to end starts with. Returns true if the chain
+     * matches exactly the strings it added, so that the caller may go on
+     * extending them with what follows the chain, and false if it
+     * stopped at a node it could not follow.
+     */
+    private static boolean literalPrefixes(Node node, Node end,
+                                           ArrayList<String> prefixes) {
+        while (node != end) {
+            ArrayList<String> suffixes = new ArrayList<>();
+            boolean complete = true;
+            if (node instanceof Single) {
+                suffixes.add(String.valueOf((char)((Single)node).c));
+            } else if (node instanceof SingleS) {
+                suffixes.add(new String(Character.toChars(((SingleS)node).c)));
+            } else if (node instanceof SingleI) {
+                SingleI single = (SingleI)node;
+                suffixes.add(String.valueOf((char)single.lower));
+                if (single.upper != single.lower)
+                    suffixes.add(String.valueOf((char)single.upper));
+            } else if (node instanceof BitClass) {
+                boolean[] bits = ((BitClass)node).bits;
+                for (int c = 0; c < bits.length; c++)
+                    if (bits[c])
+                        suffixes.add(String.valueOf((char)c));
+            } else if (node.getClass() == Slice.class
+                       || node.getClass() == SliceS.class) {
+                int[] buf = ((SliceNode)node).buffer;
+                suffixes.add(new String(buf, 0, buf.length));
+            } else if (node instanceof GroupHead || node instanceof GroupTail) {
+                node = node.next;
+                continue;
+            } else if (node instanceof Branch) {
+                Branch branch = (Branch)node;
+                for (int n = 0; n < branch.size; n++) {
+                    ArrayList<String> alt = new ArrayList<>();
+                    alt.add("");
+                    if (branch.atoms[n] != null)
+                        complete &= literalPrefixes(branch.atoms[n],
+                                                    branch.conn, alt);
+                    suffixes.addAll(alt);
+                }
+                node = branch.conn;
+            } else if (node instanceof Curly || node instanceof GroupCurly
+                       || node instanceof Prolog) {
+                int cmin;
+                Node atom;
+                Node atomEnd = accept;
+                if (node instanceof Curly) {
+                    cmin = ((Curly)node).cmin;
+                    atom = ((Curly)node).atom;
+                } else if (node instanceof GroupCurly) {
+                    cmin = ((GroupCurly)node).cmin;
+                    atom = ((GroupCurly)node).atom;
+                } else {
+                    Loop loop = ((Prolog)node).loop;
+                    cmin = loop.cmin;
+                    atom = loop.body;
+                    atomEnd = loop;
+                }
+                if (cmin == 0)
+                    return false;
+                suffixes.add("");
+                literalPrefixes(atom, atomEnd, suffixes);
+                complete = false;
+            } else {
+                return false;
+            }
+            if (prefixes.size() * suffixes.size() > MAX_PREFIXES)
+                return false;
+            ArrayList<String> extended = new ArrayList<>();
+            for (String p : prefixes)
+                for (String q : suffixes)
+                    extended.add(p + q);
+            prefixes.clear();
+            prefixes.addAll(extended);
+            if (!complete)
+                return false;
+            node = node.next;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a filter for the longest case sensitive literal that the
+     * top level chain of the tree rooted at node consumes, or null if
+     * there is none longer than one character that the prefix filter does
+     * not already find.
+     */
+    private static Prefilter requiredFilter(Node node, Prefilter prefix) {
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        while (node != lastAccept) {
+            if (node instanceof Single) {
+                run.append((char)((Single)node).c);
+            } else if (node instanceof SingleS) {
+                run.appendCodePoint(((SingleS)node).c);
+            } else if (node.getClass() == Slice.class
+                       || node.getClass() == SliceS.class) {
+                for (int c : ((SliceNode)node).buffer)
+                    run.appendCodePoint(c);
+            } else if (node instanceof GroupHead || node instanceof GroupTail) {
+                // Consumes nothing
+            } else {
+                if (run.length() > best.length())
+                    best = run.toString();
+                run.setLength(0);
+                if (node instanceof Branch) {
+                    node = ((Branch)node).conn;
+                } else if (node instanceof Prolog) {
+                    node = ((Prolog)node).loop;
+                } else if (!(node instanceof CharProperty
+                             || node instanceof SliceNode
+                             || node instanceof Curly
+                             || node instanceof GroupCurly
+                             || node instanceof Ques
+                             || node instanceof Caret
+                             || node instanceof UnixCaret
+                             || node instanceof Dollar
+                             || node instanceof UnixDollar
+                             || node instanceof Bound
+                             || node instanceof Pos
+                             || node instanceof Neg
+                             || node instanceof Behind
+                             || node instanceof NotBehind
+                             || node instanceof BackRef
+                             || node instanceof CIBackRef
+                             || node instanceof LineEnding)) {
+                    break;
+                }
+            }
+            node = node.next;
+        }
+        if (run.length() > best.length())
+            best = run.toString();
+        if (best.length() < 2)
+            return null;
+        if (prefix instanceof Prefilter.Literal
+            && ((Prefilter.Literal)prefix).literal.contains(best))
+            return null;
+        return new Prefilter.Literal(best);
+    }
+
     Map<String, Integer> namedGroups() {
         if (namedGroups == null)
             namedGroups = new HashMap<>(2);
@@ -3445,6 +3796,8 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      */
     static class Start extends Node {
         int minLength;
+        Prefilter prefix;   // literals every match starts with, or null
+        Prefilter required; // a literal every match contains, or null
         Start(Node node) {
             this.next = node;
             TreeInfo info = new TreeInfo();
@@ -3456,8 +3809,15 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 matcher.hitEnd = true;
                 return false;
             }
+            if (required != null && required.next(seq, i, matcher.to) < 0) {
+                matcher.hitEnd = true;
+                return false;
+            }
             int guard = matcher.to - minLength;
             for (; i <= guard; i++) {
+                if (prefix != null
+                    && ((i = prefix.next(seq, i, matcher.to)) < 0 || i > guard))
+                    break;
                 if (next.match(matcher, i, seq)) {
                     matcher.first = i;
                     matcher.groups[0] = matcher.first;
@@ -3488,8 +3848,15 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
                 matcher.hitEnd = true;
                 return false;
             }
+            if (required != null && required.next(seq, i, matcher.to) < 0) {
+                matcher.hitEnd = true;
+                return false;
+            }
             int guard = matcher.to - minLength;
             while (i <= guard) {
+                if (prefix != null
+                    && ((i = prefix.next(seq, i, matcher.to)) < 0 || i > guard))
+                    break;
                 //if ((ret = next.match(matcher, i, seq)) || i == guard)
                 if (next.match(matcher, i, seq)) {
                     matcher.first = i;
@@ -3513,6 +3880,32 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
     }
 
+    /**
+     * Runs a pattern in the regular subset on its DFA, in place of either
+     * the root or the match root. If the DFA meets a surrogate in the
+     * input, the node tree it replaced is run instead.
+     */
+    static final class DfaNode extends Node {
+        final Dfa dfa;
+        final Node fallback;
+        final boolean search;
+        DfaNode(Dfa dfa, Node fallback, boolean search) {
+            this.dfa = dfa;
+            this.fallback = fallback;
+            this.search = search;
+        }
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            int result = search ? dfa.search(matcher, i, seq)
+                                : dfa.match(matcher, i, seq);
+            if (result == Dfa.FALLBACK)
+                return fallback.match(matcher, i, seq);
+            return result == Dfa.MATCHED;
+        }
+        boolean study(TreeInfo info) {
+            return fallback.study(info);
+        }
+    }
+
     /**
      * Node to anchor at the beginning of input. This object implements the
      * match for a \A sequence, and the caret anchor will use this if not in
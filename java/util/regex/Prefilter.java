@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+
+/**
+ * Finds the next occurrence of any of a set of literal strings of equal
+ * length.  {@link Pattern} extracts the literals that every match starts
+ * with, or a literal that every match contains, and the unanchored
+ * search nodes use a prefilter to skip the positions at which no match
+ * can start.
+ *
+ * <p> A single literal is found with {@link String#indexOf(String, int)}
+ * when the input is a {@code String}, a set of single characters with a
+ * lookup table, and any other set with an Aho-Corasick automaton.  Since
+ * all the literals of a set have the same length, the automaton reports
+ * occurrences in increasing order of their start.
+ */
+abstract class Prefilter {
+
+    /**
+     * The length of each literal.
+     */
+    final int length;
+
+    Prefilter(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Returns the smallest index i, with {@code from <= i} and
+     * {@code i + length <= to}, at which one of the literals occurs in
+     * seq, or -1 if there is none.
+     */
+    abstract int next(CharSequence seq, int from, int to);
+
+    /**
+     * Returns a prefilter for the given distinct, non-empty literals of
+     * equal length.
+     */
+    static Prefilter of(String[] literals) {
+        if (literals.length == 1)
+            return new Literal(literals[0]);
+        if (literals[0].length() == 1)
+            return new CharSet(literals);
+        return new AhoCorasick(literals);
+    }
+
+    /**
+     * Finds a single literal.
+     */
+    static final class Literal extends Prefilter {
+        final String literal;
+
+        Literal(String literal) {
+            super(literal.length());
+            this.literal = literal;
+        }
+
+        int next(CharSequence seq, int from, int to) {
+            int last = to - length;
+            if (from > last)
+                return -1;
+            if (seq instanceof String && to == seq.length()) {
+                int i = ((String)seq).indexOf(literal, from);
+                return (i <= last) ? i : -1;
+            }
+            String s = literal;
+            char first = s.charAt(0);
+            for (int i = from; i <= last; i++) {
+                if (seq.charAt(i) != first)
+                    continue;
+                int j = 1;
+                while (j < length && seq.charAt(i + j) == s.charAt(j))
+                    j++;
+                if (j == length)
+                    return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Finds any of a set of characters.
+     */
+    static final class CharSet extends Prefilter {
+        private final boolean[] latin1 = new boolean[256];
+        private final char[] others;
+
+        CharSet(String[] literals) {
+            super(1);
+            char[] cs = new char[literals.length];
+            int n = 0;
+            for (String s : literals) {
+                char c = s.charAt(0);
+                if (c < 256)
+                    latin1[c] = true;
+                else
+                    cs[n++] = c;
+            }
+            others = Arrays.copyOf(cs, n);
+            Arrays.sort(others);
+        }
+
+        int next(CharSequence seq, int from, int to) {
+            boolean[] table = latin1;
+            for (int i = from; i < to; i++) {
+                char c = seq.charAt(i);
+                if (c < 256 ? table[c] : Arrays.binarySearch(others, c) >= 0)
+                    return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Finds any of a set of literals of equal length with an Aho-Corasick
+     * automaton.  Characters that occur in the literals are mapped to
+     * classes 1 and up, all others to class 0, and the automaton's
+     * complete transition table is indexed by state and class.
+     */
+    static final class AhoCorasick extends Prefilter {
+        private final int[] latin1Class = new int[256];
+        private final char[] otherChars;
+        private final int[] otherClass;
+        private final int classes;
+        private final int[] delta;
+        private final boolean[] terminal;
+
+        AhoCorasick(String[] literals) {
+            super(literals[0].length());
+
+            // Character classes
+            char[] chars = new char[literals.length * length];
+            int n = 0;
+            for (String s : literals)
+                for (int i = 0; i < length; i++)
+                    chars[n++] = s.charAt(i);
+            Arrays.sort(chars, 0, n);
+            int k = 0;
+            for (int i = 0; i < n; i++)
+                if (i == 0 || chars[i] != chars[i - 1])
+                    chars[k++] = chars[i];
+            classes = k + 1;
+            int others = 0;
+            for (int i = 0; i < k; i++)
+                if (chars[i] >= 256)
+                    others++;
+            otherChars = new char[others];
+            otherClass = new int[others];
+            others = 0;
+            for (int i = 0; i < k; i++) {
+                if (chars[i] < 256) {
+                    latin1Class[chars[i]] = i + 1;
+                } else {
+                    otherChars[others] = chars[i];
+                    otherClass[others++] = i + 1;
+                }
+            }
+
+            // Trie, with -1 for a missing child
+            int max = literals.length * length + 1;
+            int[] trie = new int[max * classes];
+            Arrays.fill(trie, -1);
+            int states = 1;
+            for (String s : literals) {
+                int state = 0;
+                for (int i = 0; i < length; i++) {
+                    int t = state * classes + classOf(s.charAt(i));
+                    if (trie[t] < 0)
+                        trie[t] = states++;
+                    state = trie[t];
+                }
+            }
+            terminal = new boolean[states];
+            delta = new int[states * classes];
+
+            // Breadth-first completion of the transitions along failure
+            // links.  States are numbered in creation order, which is not
+            // breadth-first, so the queue records the order.
+            int[] fail = new int[states];
+            int[] depth = new int[states];
+            int[] queue = new int[states];
+            int head = 0, tail = 0;
+            for (int c = 0; c < classes; c++) {
+                int t = trie[c];
+                if (t < 0) {
+                    delta[c] = 0;
+                } else {
+                    delta[c] = t;
+                    fail[t] = 0;
+                    depth[t] = 1;
+                    queue[tail++] = t;
+                }
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                terminal[state] = depth[state] == length;
+                for (int c = 0; c < classes; c++) {
+                    int t = trie[state * classes + c];
+                    if (t < 0) {
+                        delta[state * classes + c] =
+                            delta[fail[state] * classes + c];
+                    } else {
+                        delta[state * classes + c] = t;
+                        fail[t] = delta[fail[state] * classes + c];
+                        depth[t] = depth[state] + 1;
+                        queue[tail++] = t;
+                    }
+                }
+            }
+        }
+
+        private int classOf(char c) {
+            if (c < 256)
+                return latin1Class[c];
+            int i = Arrays.binarySearch(otherChars, c);
+            return (i >= 0) ? otherClass[i] : 0;
+        }
+
+        int next(CharSequence seq, int from, int to) {
+            int[] d = delta;
+            int cs = classes;
+            int state = 0;
+            for (int i = from; i < to; i++) {
+                state = d[state * cs + classOf(seq.charAt(i))];
+                if (terminal[state])
+                    return i - length + 1;
+            }
+            return -1;
+        }
+    }
+}
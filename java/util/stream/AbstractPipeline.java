@@ -545,7 +545,14 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         Objects.requireNonNull(sink);
 
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
-            sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            if (p.opFusesPrevious()) {
+                // The sink of p also performs the previous operation
+                sink = p.opWrapSink(p.previousStage.previousStage.combinedFlags, sink);
+                p = p.previousStage;
+            }
+            else {
+                sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            }
         }
         return (Sink<P_IN>) sink;
     }
@@ -688,6 +695,23 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     abstract Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink);
 
+    /**
+     * Returns whether the {@code Sink} returned by {@link #opWrapSink}
+     * also performs the operation of the previous stage, which is then
+     * skipped when wrapping a sink for evaluation.  If so, that sink
+     * accepts elements of the input type of the previous stage, and
+     * the {@code flags} passed to {@code opWrapSink} are the combined
+     * flags up to, but not including, the previous operation.  Only a
+     * stateless operation may fuse with a previous stateless operation.
+     *
+     * @implSpec The default implementation returns {@code false}.
+     *
+     * @return {@code true} if this operation is fused with the previous one
+     */
+    boolean opFusesPrevious() {
+        return false;
+    }
+
     /**
      * Performs a parallel evaluation of the operation using the specified
      * {@code PipelineHelper} which describes the upstream intermediate
@@ -35,9 +35,12 @@ import java.util.DoubleSummaryStatistics;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IntObjectMap;
 import java.util.IntSummaryStatistics;
 import java.util.Iterator;
 import java.util.List;
+import java.util.LongLongMap;
+import java.util.LongObjectMap;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
@@ -928,6 +931,239 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to an
+     * {@code int}-valued classification function, and returning the
+     * results in an {@link IntObjectMap}.
+     *
+     * <p>The classification function maps elements to {@code int} keys,
+     * which are not boxed as elements are accumulated.  The collector
+     * produces an {@code IntObjectMap<List<T>>} whose keys are the values
+     * resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing
+     * the input elements which map to the associated key under the
+     * classification function.
+     *
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByInt(classifier, toList());
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingByInt(ToIntFunction, Collector)
+     * @see #groupingBy(Function)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, IntObjectMap<List<T>>>
+    groupingByInt(ToIntFunction<? super T> classifier) {
+        return groupingByInt(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to an {@code int}-valued classification function, and then
+     * performing a reduction operation on the values associated with a
+     * given key using the specified downstream {@code Collector}.
+     *
+     * <p>The classification function maps elements to {@code int} keys,
+     * which are not boxed as elements are accumulated.  The resulting
+     * collector produces an {@code IntObjectMap<D>}.
+     *
+     * <p>For example, to compute the number of people of each age:
+     * <pre>{@code
+     *     IntObjectMap<Long> countByAge
+     *         = people.stream().collect(groupingByInt(Person::getAge, counting()));
+     * }</pre>
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines, the {@code combiner} function operates by merging the keys
+     * from one map into another.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByInt(ToIntFunction)
+     * @see #groupingBy(Function, Collector)
+     * @since 1.8
+     */
+    public static <T, A, D>
+    Collector<T, ?, IntObjectMap<D>> groupingByInt(ToIntFunction<? super T> classifier,
+                                                   Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BiConsumer<IntObjectMap<A>, T> accumulator = (m, t) -> {
+            A container = m.computeIfAbsent(classifier.applyAsInt(t),
+                                            k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<IntObjectMap<A>> merger
+                = Collectors.<Integer, A, IntObjectMap<A>>mapMerger(downstream.combiner());
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new CollectorImpl<>(IntObjectMap<A>::new, accumulator, merger, CH_ID);
+        }
+        else {
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<IntObjectMap<A>, IntObjectMap<D>> finisher = intermediate -> {
+                intermediate.replaceAll((k, v) -> downstreamFinisher.apply(v));
+                @SuppressWarnings("unchecked")
+                IntObjectMap<D> castResult = (IntObjectMap<D>) intermediate;
+                return castResult;
+            };
+            return new CollectorImpl<>(IntObjectMap<A>::new, accumulator, merger,
+                                       finisher, CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * {@code long}-valued classification function, and returning the
+     * results in a {@link LongObjectMap}.
+     *
+     * <p>The classification function maps elements to {@code long} keys,
+     * which are not boxed as elements are accumulated.  The collector
+     * produces a {@code LongObjectMap<List<T>>} whose keys are the values
+     * resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing
+     * the input elements which map to the associated key under the
+     * classification function.
+     *
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByLong(classifier, toList());
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingByLong(ToLongFunction, Collector)
+     * @see #groupingBy(Function)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, LongObjectMap<List<T>>>
+    groupingByLong(ToLongFunction<? super T> classifier) {
+        return groupingByLong(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a {@code long}-valued classification function, and then
+     * performing a reduction operation on the values associated with a
+     * given key using the specified downstream {@code Collector}.
+     *
+     * <p>The classification function maps elements to {@code long} keys,
+     * which are not boxed as elements are accumulated.  The resulting
+     * collector produces a {@code LongObjectMap<D>}.
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines, the {@code combiner} function operates by merging the keys
+     * from one map into another.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByLong(ToLongFunction)
+     * @see #groupingBy(Function, Collector)
+     * @since 1.8
+     */
+    public static <T, A, D>
+    Collector<T, ?, LongObjectMap<D>> groupingByLong(ToLongFunction<? super T> classifier,
+                                                     Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BiConsumer<LongObjectMap<A>, T> accumulator = (m, t) -> {
+            A container = m.computeIfAbsent(classifier.applyAsLong(t),
+                                            k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<LongObjectMap<A>> merger
+                = Collectors.<Long, A, LongObjectMap<A>>mapMerger(downstream.combiner());
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new CollectorImpl<>(LongObjectMap<A>::new, accumulator, merger, CH_ID);
+        }
+        else {
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<LongObjectMap<A>, LongObjectMap<D>> finisher = intermediate -> {
+                intermediate.replaceAll((k, v) -> downstreamFinisher.apply(v));
+                @SuppressWarnings("unchecked")
+                LongObjectMap<D> castResult = (LongObjectMap<D>) intermediate;
+                return castResult;
+            };
+            return new CollectorImpl<>(LongObjectMap<A>::new, accumulator, merger,
+                                       finisher, CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code Collector} that groups input elements of type
+     * {@code T} according to a {@code long}-valued classification function,
+     * and sums a {@code long}-valued function of the elements of each group,
+     * returning the sums in a {@link LongLongMap}.  Neither keys nor sums
+     * are boxed as elements are accumulated.
+     *
+     * <p>For example, to compute the total quantity ordered of each product:
+     * <pre>{@code
+     *     LongLongMap quantityByProduct
+     *         = orders.stream().collect(summingByLong(Order::getProductId,
+     *                                                 Order::getQuantity));
+     * }</pre>
+     * and to count the orders of each customer:
+     * <pre>{@code
+     *     LongLongMap ordersByCustomer
+     *         = orders.stream().collect(summingByLong(Order::getCustomerId, o -> 1L));
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} that produces the sum of a derived property
+     *         for each key
+     *
+     * @see #summingLong(ToLongFunction)
+     * @see #groupingByLong(ToLongFunction, Collector)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, LongLongMap>
+    summingByLong(ToLongFunction<? super T> classifier,
+                  ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<>(
+                LongLongMap::new,
+                (m, t) -> m.merge(classifier.applyAsLong(t), mapper.applyAsLong(t), Long::sum),
+                (m1, m2) -> {
+                    for (Map.Entry<Long, Long> e : m2.entrySet())
+                        m1.merge(e.getKey().longValue(), e.getValue().longValue(), Long::sum);
+                    return m1;
+                },
+                CH_ID);
+    }
+
     /**
      * Returns a concurrent {@code Collector} implementing a "group by"
      * operation on input elements of type {@code T}, grouping elements
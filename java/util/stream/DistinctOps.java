@@ -152,6 +152,8 @@ final class DistinctOps {
                             }
                         }
                     };
+                } else if (ExternalSorter.ENABLED) {
+                    return ExternalSorter.makeDistinctSink(sink);
                 } else {
                     return new Sink.ChainedReference<T, T>(sink) {
                         Set<T> seen;
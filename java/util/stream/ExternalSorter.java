@@ -0,0 +1,640 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package java.util.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import sun.misc.Cleaner;
+
+/**
+ * A sorter of sequences of elements that may be too large to be held in
+ * memory, used by the {@code sorted()} and {@code distinct()} operations of
+ * sequential reference streams when spilling is enabled.
+ *
+ * <p>Spilling is turned on by setting the system property
+ * {@code java.util.stream.spillThreshold} to the largest number of elements
+ * an operation may hold in memory.  The elements are then accumulated in
+ * runs of up to that many elements, each of which is sorted and, if more
+ * elements follow, written to a temporary file, using serialization, in the
+ * directory named by the system property
+ * {@code java.util.stream.spillDirectory}, or the default temporary-file
+ * directory if that is not set.  Whenever {@code MAX_FAN_IN} runs of the
+ * same level have been written they are merged into a run of the next
+ * level, so that every element is rewritten once per level and at most
+ * {@code MAX_FAN_IN} files are open at once; run files are closed once
+ * written, and reopened to be merged.  The remaining runs are merged lazily
+ * as the sorted elements are consumed, so that the heap used is bounded by
+ * the threshold plus, for each of at most {@code MAX_FAN_IN} runs being
+ * merged, a read buffer and one element.  The elements of a stream whose
+ * operations may spill must be {@link Serializable}, and must compare, hash
+ * and test equal after being deserialized as they did before.  Temporary
+ * files are deleted when the elements have been consumed, or the downstream
+ * operation is cancelled; if the pipeline fails before that they are deleted
+ * once the operation becomes unreachable, or else when the virtual machine
+ * exits.
+ *
+ * @param <T> the type of elements
+ * @since 1.8
+ */
+final class ExternalSorter<T> {
+    private static final String THRESHOLD_PROPERTY = "java.util.stream.spillThreshold";
+    private static final String DIRECTORY_PROPERTY = "java.util.stream.spillDirectory";
+
+    /**
+     * The largest number of elements held in memory by an operation, or zero
+     * if spilling is disabled.
+     */
+    static final int THRESHOLD;
+
+    /** The directory for run files, or null for the default */
+    private static final String DIRECTORY;
+
+    static {
+        String[] props = AccessController.doPrivileged(
+                (PrivilegedAction<String[]>) () -> new String[] {
+                    System.getProperty(THRESHOLD_PROPERTY),
+                    System.getProperty(DIRECTORY_PROPERTY) });
+        long threshold = 0;
+        if (props[0] != null) {
+            try {
+                threshold = Long.parseLong(props[0].trim());
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        THRESHOLD = (threshold <= 0) ? 0
+                : (int) Math.min(threshold, Nodes.MAX_ARRAY_SIZE);
+        DIRECTORY = props[1];
+    }
+
+    /** Whether spilling is enabled */
+    static final boolean ENABLED = THRESHOLD > 0;
+
+    /** The largest number of runs merged at once */
+    private static final int MAX_FAN_IN = 64;
+
+    /** The size of the I/O buffer of a run file */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<? super T> comparator;
+    private final int runSize;
+
+    /** The elements of the current run */
+    private Object[] buffer = new Object[16];
+    private int count;
+
+    /** The runs spilled so far, in encounter order */
+    private final ArrayList<FileRun> runs = new ArrayList<>();
+
+    /** Deletes the runs, created when the first run is spilled */
+    private Cleaner cleaner;
+
+    /**
+     * Creates a sorter holding at most {@code runSize} elements in memory.
+     */
+    ExternalSorter(Comparator<? super T> comparator, int runSize) {
+        this.comparator = comparator;
+        this.runSize = runSize;
+    }
+
+    /**
+     * Adds an element, spilling the current run if it is full.
+     */
+    void add(T t) {
+        int n = count;
+        if (n == buffer.length) {
+            if (n >= runSize) {
+                spill();
+                n = 0;
+            }
+            else
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) n << 1, runSize));
+        }
+        buffer[n] = t;
+        count = n + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sortBuffer() {
+        Arrays.sort(buffer, 0, count, (Comparator<Object>) comparator);
+    }
+
+    /**
+     * Sorts the current run and writes it to a file.
+     */
+    private void spill() {
+        sortBuffer();
+        if (cleaner == null)
+            cleaner = Cleaner.create(this, new RunDeleter(runs));
+        runs.add(FileRun.write(new ArrayCursor(buffer, count), 0));
+        Arrays.fill(buffer, 0, count, null);
+        count = 0;
+        // The levels of the runs never increase along the list, so the last
+        // MAX_FAN_IN runs are of the same level if the first and last are
+        int n;
+        while ((n = runs.size()) >= MAX_FAN_IN &&
+               runs.get(n - MAX_FAN_IN).level == runs.get(n - 1).level)
+            merge(n - MAX_FAN_IN, n);
+    }
+
+    /**
+     * Replaces the consecutive runs from index {@code from}, inclusive, to
+     * {@code to}, exclusive, by a single run holding their elements.
+     */
+    private void merge(int from, int to) {
+        Cursor[] cs = new Cursor[to - from];
+        int level = 0;
+        for (int i = from; i < to; i++) {
+            FileRun r = runs.get(i);
+            cs[i - from] = r.open();
+            level = Math.max(level, r.level);
+        }
+        FileRun merged = FileRun.write(new MergeIterator<>(cs, comparator),
+                                       level + 1);
+        List<FileRun> merging = runs.subList(from, to);
+        for (FileRun r : merging)
+            r.close();
+        merging.clear();
+        runs.add(from, merged);
+    }
+
+    /**
+     * Returns an iterator over the elements added, in sorted order.  Elements
+     * comparing equal are returned in the order in which they were added.
+     * Once the iterator is obtained no more elements may be added, and
+     * {@link #close()} must be called when it is no longer needed.
+     */
+    Iterator<T> iterator() {
+        sortBuffer();
+        ArrayCursor last = new ArrayCursor(buffer, count);
+        buffer = null;
+        if (runs.isEmpty())
+            return new MergeIterator<>(new Cursor[] { last }, comparator);
+        // Reduce the number of runs to merge at once, in passes that each
+        // merge consecutive groups of runs
+        while (runs.size() >= MAX_FAN_IN) {
+            for (int i = 0; i < runs.size(); i++) {
+                int to = Math.min(i + MAX_FAN_IN, runs.size());
+                if (to - i > 1)
+                    merge(i, to);
+            }
+        }
+        Cursor[] cs = new Cursor[runs.size() + 1];
+        for (int i = 0; i < runs.size(); i++)
+            cs[i] = runs.get(i).open();
+        cs[runs.size()] = last;
+        return new MergeIterator<>(cs, comparator);
+    }
+
+    /**
+     * Deletes the files of all runs.
+     */
+    void close() {
+        if (cleaner != null)
+            cleaner.clean();
+    }
+
+    /**
+     * Deletes the files of the runs of a sorter when it is closed, or when it
+     * becomes unreachable without having been closed, as it does if an
+     * upstream operation throws before the elements are consumed.
+     */
+    private static final class RunDeleter implements Runnable {
+        private final List<FileRun> runs;
+
+        RunDeleter(List<FileRun> runs) {
+            this.runs = runs;
+        }
+
+        public void run() {
+            for (FileRun r : runs)
+                r.close();
+            runs.clear();
+        }
+    }
+
+    /**
+     * Creates a sink that sorts elements, spilling them to files as
+     * needed, and passes them to the downstream sink in sorted order.
+     */
+    static <T> Sink<T> makeSortingSink(Sink<? super T> sink,
+                                       Comparator<? super T> comparator) {
+        return new Sink.ChainedReference<T, T>(sink) {
+            ExternalSorter<T> sorter;
+
+            @Override
+            public void begin(long size) {
+                sorter = new ExternalSorter<>(comparator, THRESHOLD);
+            }
+
+            @Override
+            public void end() {
+                ExternalSorter<T> s = sorter;
+                sorter = null;
+                try {
+                    Iterator<T> it = s.iterator();
+                    downstream.begin(-1);
+                    while (it.hasNext() && !downstream.cancellationRequested())
+                        downstream.accept(it.next());
+                    downstream.end();
+                } finally {
+                    s.close();
+                }
+            }
+
+            @Override
+            public void accept(T t) {
+                sorter.add(t);
+            }
+        };
+    }
+
+    /**
+     * Creates a sink that passes the distinct elements to the downstream
+     * sink in encounter order.  The elements are passed on as they are
+     * encountered until {@link #THRESHOLD} distinct elements have been seen.
+     * The remaining elements are then collected with their positions,
+     * sorted by hash code and position so that the first occurrence of each
+     * new element can be found, and finally those occurrences are sorted by
+     * position and passed on.
+     *
+     * <p>Since the elements after the threshold are only passed on at the
+     * end, a pipeline that may be short-circuited, such as one ending with
+     * {@code limit(n)} or {@code findFirst()}, never spills, and holds all
+     * the distinct elements in memory as the non-spilling operation does;
+     * otherwise it would not stop before the end of an infinite stream.
+     * Such a pipeline is recognized by its checking
+     * {@link Sink#cancellationRequested()} before each element.
+     */
+    static <T> Sink<T> makeDistinctSink(Sink<? super T> sink) {
+        return new Sink.ChainedReference<T, T>(sink) {
+            Set<T> seen;
+            ExternalSorter<Occurrence> sorter;
+            long position;
+            boolean shortCircuit;
+
+            @Override
+            public void begin(long size) {
+                seen = new HashSet<>();
+                sorter = null;
+                position = 0;
+                shortCircuit = false;
+                downstream.begin(-1);
+            }
+
+            @Override
+            public boolean cancellationRequested() {
+                shortCircuit = true;
+                return downstream.cancellationRequested();
+            }
+
+            @Override
+            public void end() {
+                ExternalSorter<Occurrence> s = sorter;
+                seen = null;
+                sorter = null;
+                if (s != null && !downstream.cancellationRequested())
+                    passFirstOccurrences(s);
+                downstream.end();
+            }
+
+            @Override
+            public void accept(T t) {
+                if (sorter != null)
+                    sorter.add(new Occurrence(t, position++));
+                else if (seen.add(t)) {
+                    downstream.accept(t);
+                    if (seen.size() >= THRESHOLD && !shortCircuit) {
+                        // The elements seen so far have already been passed on
+                        sorter = new ExternalSorter<>(Occurrence.BY_HASH, THRESHOLD);
+                        for (T e : seen)
+                            sorter.add(new Occurrence(e, -1L));
+                        seen = null;
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            private void passFirstOccurrences(ExternalSorter<Occurrence> s) {
+                ExternalSorter<Occurrence> firsts
+                        = new ExternalSorter<>(Occurrence.BY_POSITION, THRESHOLD);
+                try {
+                    try {
+                        Iterator<Occurrence> it = s.iterator();
+                        // The distinct elements of the current hash code
+                        ArrayList<Object> group = new ArrayList<>();
+                        int hash = 0;
+                        while (it.hasNext()) {
+                            Occurrence o = it.next();
+                            if (group.isEmpty() || o.hash != hash) {
+                                group.clear();
+                                hash = o.hash;
+                            }
+                            else if (group.contains(o.element))
+                                continue;
+                            group.add(o.element);
+                            if (o.position >= 0)
+                                firsts.add(o);
+                        }
+                    } finally {
+                        s.close();
+                    }
+                    Iterator<Occurrence> it = firsts.iterator();
+                    while (it.hasNext() && !downstream.cancellationRequested())
+                        downstream.accept((T) it.next().element);
+                } finally {
+                    firsts.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * An element of a stream and its position, used for spilling
+     * {@code distinct()}.  Elements seen before spilling have position -1.
+     */
+    static final class Occurrence implements Serializable {
+        private static final long serialVersionUID = -3042686808239364613L;
+
+        static final Comparator<Occurrence> BY_HASH = (a, b) -> {
+            int c = Integer.compare(a.hash, b.hash);
+            return (c != 0) ? c : Long.compare(a.position, b.position);
+        };
+
+        static final Comparator<Occurrence> BY_POSITION
+                = (a, b) -> Long.compare(a.position, b.position);
+
+        final int hash;
+        final long position;
+        final Object element;
+
+        Occurrence(Object element, long position) {
+            this.hash = Objects.hashCode(element);
+            this.position = position;
+            this.element = element;
+        }
+    }
+
+    /**
+     * A source of elements in sorted order.
+     */
+    interface Cursor {
+        /** Returns true and sets {@code current} if there is another element */
+        boolean advance();
+        /** Returns the element at which the cursor is positioned */
+        Object current();
+    }
+
+    static final class ArrayCursor implements Cursor {
+        final Object[] array;
+        final int count;
+        int index = -1;
+
+        ArrayCursor(Object[] array, int count) {
+            this.array = array;
+            this.count = count;
+        }
+
+        public boolean advance() {
+            if (index + 1 >= count) {
+                index = count;
+                return false;
+            }
+            ++index;
+            return true;
+        }
+
+        public Object current() {
+            return array[index];
+        }
+    }
+
+    /**
+     * A k-way merge of sorted cursors.  Elements comparing equal are taken
+     * from the cursor with the lowest index first, so that the merge is
+     * stable when the cursors hold consecutive parts of the input.
+     */
+    static final class MergeIterator<T> implements Iterator<T> {
+        final PriorityQueue<Head> heads;
+
+        static final class Head {
+            final Cursor cursor;
+            final int index;
+            Head(Cursor cursor, int index) {
+                this.cursor = cursor;
+                this.index = index;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        MergeIterator(Cursor[] cursors, Comparator<? super T> comparator) {
+            Comparator<Object> cmp = (Comparator<Object>) comparator;
+            heads = new PriorityQueue<>(Math.max(1, cursors.length), (a, b) -> {
+                int c = cmp.compare(a.cursor.current(), b.cursor.current());
+                return (c != 0) ? c : Integer.compare(a.index, b.index);
+            });
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i].advance())
+                    heads.add(new Head(cursors[i], i));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            Head h = heads.poll();
+            if (h == null)
+                throw new NoSuchElementException();
+            T t = (T) h.cursor.current();
+            if (h.cursor.advance())
+                heads.add(h);
+            return t;
+        }
+    }
+
+    /**
+     * A sorted run of elements serialized to a temporary file, which is
+     * deleted when the run is closed.  The file is only open while the run
+     * is being read.
+     */
+    static final class FileRun {
+        final Path file;
+        final long count;
+        /** The number of merges that produced this run, 0 if spilled */
+        final int level;
+        /** The channel reading the run, or null */
+        private FileChannel reader;
+
+        private FileRun(Path file, long count, int level) {
+            this.file = file;
+            this.count = count;
+            this.level = level;
+        }
+
+        /**
+         * Writes the elements of the given cursor to a new run.
+         */
+        static FileRun write(Cursor source, int level) {
+            return write(new Iterator<Object>() {
+                boolean ready;
+                public boolean hasNext() {
+                    return ready || (ready = source.advance());
+                }
+                public Object next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    ready = false;
+                    return source.current();
+                }
+            }, level);
+        }
+
+        /**
+         * Writes the elements of the given iterator to a new run.
+         */
+        static FileRun write(Iterator<?> source, int level) {
+            Path file = null;
+            try {
+                Path dir = (DIRECTORY != null) ? Paths.get(DIRECTORY)
+                        : Paths.get(System.getProperty("java.io.tmpdir"));
+                file = Files.createTempFile(dir, "stream", ".run");
+                file.toFile().deleteOnExit();
+                long n = 0;
+                try (ObjectOutputStream out = new ObjectOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+                    // Reset after each element, as the streams at both ends
+                    // otherwise retain every element passed through them
+                    while (source.hasNext()) {
+                        out.writeObject(source.next());
+                        out.reset();
+                        n++;
+                    }
+                }
+                FileRun r = new FileRun(file, n, level);
+                file = null;
+                return r;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (file != null) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ignore) {
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns a cursor reading the elements of this run from its start.
+         * The file is closed when the last element has been read.
+         */
+        Cursor open() {
+            try {
+                closeReader();
+                FileChannel ch = reader = FileChannel.open(file, StandardOpenOption.READ);
+                ObjectInputStream in = new ObjectInputStream(
+                        new BufferedInputStream(Channels.newInputStream(ch), BUFFER_SIZE));
+                return new Cursor() {
+                    long remaining = count;
+                    Object current;
+
+                    public boolean advance() {
+                        if (remaining == 0) {
+                            current = null;
+                            closeReader();
+                            return false;
+                        }
+                        try {
+                            current = in.readObject();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch (ClassNotFoundException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        --remaining;
+                        return true;
+                    }
+
+                    public Object current() {
+                        return current;
+                    }
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void closeReader() {
+            FileChannel ch = reader;
+            if (ch != null) {
+                reader = null;
+                try {
+                    ch.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+
+        /**
+         * Closes and deletes the file of this run.
+         */
+        void close() {
+            closeReader();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
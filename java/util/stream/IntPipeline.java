@@ -223,18 +223,7 @@ abstract class IntPipeline<E_IN>
     @Override
     public final IntStream map(IntUnaryOperator mapper) {
         Objects.requireNonNull(mapper);
-        return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
-                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
-            @Override
-            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
-                return new Sink.ChainedInt<Integer>(sink) {
-                    @Override
-                    public void accept(int t) {
-                        downstream.accept(mapper.applyAsInt(t));
-                    }
-                };
-            }
-        };
+        return new MapOp(this, mapper);
     }
 
     @Override
@@ -328,42 +317,13 @@ abstract class IntPipeline<E_IN>
     @Override
     public final IntStream filter(IntPredicate predicate) {
         Objects.requireNonNull(predicate);
-        return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
-                                        StreamOpFlag.NOT_SIZED) {
-            @Override
-            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
-                return new Sink.ChainedInt<Integer>(sink) {
-                    @Override
-                    public void begin(long size) {
-                        downstream.begin(-1);
-                    }
-
-                    @Override
-                    public void accept(int t) {
-                        if (predicate.test(t))
-                            downstream.accept(t);
-                    }
-                };
-            }
-        };
+        return new FilterOp(this, predicate);
     }
 
     @Override
     public final IntStream peek(IntConsumer action) {
         Objects.requireNonNull(action);
-        return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
-                                        0) {
-            @Override
-            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
-                return new Sink.ChainedInt<Integer>(sink) {
-                    @Override
-                    public void accept(int t) {
-                        action.accept(t);
-                        downstream.accept(t);
-                    }
-                };
-            }
-        };
+        return new PeekOp(this, action);
     }
 
     // Stateful intermediate ops from IntStream
@@ -599,6 +559,285 @@ abstract class IntPipeline<E_IN>
         }
     }
 
+    /**
+     * Base class for the map, filter and peek stages of an IntStream.  A
+     * stage of one of these kinds appended to another one that is not
+     * itself fused with its upstream is fused with it: the two operations are
+     * performed by a single sink.
+     *
+     * @since 1.8
+     */
+    abstract static class FusibleOp extends StatelessOp<Integer> {
+        /** The upstream stage this stage is fused with, or null if none */
+        final FusibleOp fused;
+
+        FusibleOp(AbstractPipeline<?, Integer, ?> upstream, int opFlags) {
+            super(upstream, StreamShape.INT_VALUE, opFlags);
+            this.fused = (upstream instanceof FusibleOp &&
+                          ((FusibleOp) upstream).fused == null)
+                         ? (FusibleOp) upstream : null;
+        }
+
+        @Override
+        final boolean opFusesPrevious() {
+            return fused != null;
+        }
+
+        @Override
+        final Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+            return (fused == null) ? wrap(sink) : fused.fuseWith(this, sink);
+        }
+
+        /**
+         * Returns a sink performing this operation alone.
+         */
+        abstract Sink<Integer> wrap(Sink<Integer> sink);
+
+        /**
+         * Returns a sink performing the given map operation and then
+         * this operation.
+         */
+        abstract Sink<Integer> wrapAfterMap(IntUnaryOperator mapper,
+                                            Sink<Integer> sink);
+
+        /**
+         * Returns a sink performing the given filter operation and then
+         * this operation.
+         */
+        abstract Sink<Integer> wrapAfterFilter(IntPredicate predicate,
+                                               Sink<Integer> sink);
+
+        /**
+         * Returns a sink performing the given peek action and then
+         * this operation.
+         */
+        abstract Sink<Integer> wrapAfterPeek(IntConsumer action,
+                                             Sink<Integer> sink);
+
+        /**
+         * Returns a sink performing this operation and then the
+         * operation of the given downstream stage.
+         */
+        abstract Sink<Integer> fuseWith(FusibleOp down, Sink<Integer> sink);
+    }
+
+    /**
+     * The stage of {@link IntStream#map}.
+     */
+    static final class MapOp extends FusibleOp {
+        final IntUnaryOperator mapper;
+
+        MapOp(AbstractPipeline<?, Integer, ?> upstream, IntUnaryOperator mapper) {
+            super(upstream, StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.mapper = mapper;
+        }
+
+        @Override
+        Sink<Integer> wrap(Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    downstream.accept(mapper.applyAsInt(t));
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterMap(IntUnaryOperator before, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    downstream.accept(mapper.applyAsInt(before.applyAsInt(t)));
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterFilter(IntPredicate predicate, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    if (predicate.test(t))
+                        downstream.accept(mapper.applyAsInt(t));
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterPeek(IntConsumer action, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    action.accept(t);
+                    downstream.accept(mapper.applyAsInt(t));
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> fuseWith(FusibleOp down, Sink<Integer> sink) {
+            return down.wrapAfterMap(mapper, sink);
+        }
+    }
+
+    /**
+     * The stage of {@link IntStream#filter}.
+     */
+    static final class FilterOp extends FusibleOp {
+        final IntPredicate predicate;
+
+        FilterOp(AbstractPipeline<?, Integer, ?> upstream, IntPredicate predicate) {
+            super(upstream, StreamOpFlag.NOT_SIZED);
+            this.predicate = predicate;
+        }
+
+        @Override
+        Sink<Integer> wrap(Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    if (predicate.test(t))
+                        downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterMap(IntUnaryOperator mapper, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    int u = mapper.applyAsInt(t);
+                    if (predicate.test(u))
+                        downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterFilter(IntPredicate before, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    if (before.test(t) && predicate.test(t))
+                        downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterPeek(IntConsumer action, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    action.accept(t);
+                    if (predicate.test(t))
+                        downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> fuseWith(FusibleOp down, Sink<Integer> sink) {
+            return down.wrapAfterFilter(predicate, sink);
+        }
+    }
+
+    /**
+     * The stage of {@link IntStream#peek}.
+     */
+    static final class PeekOp extends FusibleOp {
+        final IntConsumer action;
+
+        PeekOp(AbstractPipeline<?, Integer, ?> upstream, IntConsumer action) {
+            super(upstream, 0);
+            this.action = action;
+        }
+
+        @Override
+        Sink<Integer> wrap(Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    action.accept(t);
+                    downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterMap(IntUnaryOperator mapper, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    int u = mapper.applyAsInt(t);
+                    action.accept(u);
+                    downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterFilter(IntPredicate predicate, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(int t) {
+                    if (predicate.test(t)) {
+                        action.accept(t);
+                        downstream.accept(t);
+                    }
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> wrapAfterPeek(IntConsumer before, Sink<Integer> sink) {
+            return new Sink.ChainedInt<Integer>(sink) {
+                @Override
+                public void accept(int t) {
+                    before.accept(t);
+                    action.accept(t);
+                    downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<Integer> fuseWith(FusibleOp down, Sink<Integer> sink) {
+            return down.wrapAfterPeek(action, sink);
+        }
+    }
+
     /**
      * Base class for a stateful intermediate stage of an IntStream.
      *
@@ -159,42 +159,14 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @Override
     public final Stream<P_OUT> filter(Predicate<? super P_OUT> predicate) {
         Objects.requireNonNull(predicate);
-        return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SIZED) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
-                return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
-                    @Override
-                    public void begin(long size) {
-                        downstream.begin(-1);
-                    }
-
-                    @Override
-                    public void accept(P_OUT u) {
-                        if (predicate.test(u))
-                            downstream.accept(u);
-                    }
-                };
-            }
-        };
+        return new FilterOp<P_OUT>(this, predicate);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public final <R> Stream<R> map(Function<? super P_OUT, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
-        return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
-                return new Sink.ChainedReference<P_OUT, R>(sink) {
-                    @Override
-                    public void accept(P_OUT u) {
-                        downstream.accept(mapper.apply(u));
-                    }
-                };
-            }
-        };
+        return new MapOp<P_OUT, R>(this, mapper);
     }
 
     @Override
@@ -362,19 +334,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @Override
     public final Stream<P_OUT> peek(Consumer<? super P_OUT> action) {
         Objects.requireNonNull(action);
-        return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
-                                     0) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
-                return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
-                    @Override
-                    public void accept(P_OUT u) {
-                        action.accept(u);
-                        downstream.accept(u);
-                    }
-                };
-            }
-        };
+        return new PeekOp<P_OUT>(this, action);
     }
 
     // Stateful intermediate operations from Stream
@@ -625,6 +585,315 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         }
     }
 
+    /**
+     * Base class for the map, filter and peek stages of a Stream.  A
+     * stage of one of these kinds appended to another one that is not
+     * itself fused with its upstream is fused with it: the two operations are
+     * performed by a single sink, so that in a chain of such stages
+     * each element passes through half as many sinks.
+     *
+     * @param <E_IN> type of elements in the upstream source
+     * @param <E_OUT> type of elements in produced by this stage
+     * @since 1.8
+     */
+    abstract static class FusibleOp<E_IN, E_OUT>
+            extends StatelessOp<E_IN, E_OUT> {
+        /** The upstream stage this stage is fused with, or null if none */
+        final FusibleOp<?, E_IN> fused;
+
+        FusibleOp(AbstractPipeline<?, E_IN, ?> upstream, int opFlags) {
+            super(upstream, StreamShape.REFERENCE, opFlags);
+            @SuppressWarnings("unchecked")
+            FusibleOp<?, E_IN> up = (upstream instanceof FusibleOp &&
+                                     ((FusibleOp<?, ?>) upstream).fused == null)
+                                    ? (FusibleOp<?, E_IN>) upstream : null;
+            this.fused = up;
+        }
+
+        @Override
+        final boolean opFusesPrevious() {
+            return fused != null;
+        }
+
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        final Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink) {
+            return (fused == null)
+                   ? wrap(sink)
+                   : (Sink<E_IN>) ((FusibleOp) fused).fuseWith(this, sink);
+        }
+
+        /**
+         * Returns a sink performing this operation alone.
+         */
+        abstract Sink<E_IN> wrap(Sink<E_OUT> sink);
+
+        /**
+         * Returns a sink performing the given map operation and then
+         * this operation.
+         */
+        abstract <P> Sink<P> wrapAfterMap(Function<? super P, ? extends E_IN> mapper,
+                                          Sink<E_OUT> sink);
+
+        /**
+         * Returns a sink performing the given filter operation and then
+         * this operation.
+         */
+        abstract Sink<E_IN> wrapAfterFilter(Predicate<? super E_IN> predicate,
+                                            Sink<E_OUT> sink);
+
+        /**
+         * Returns a sink performing the given peek action and then
+         * this operation.
+         */
+        abstract Sink<E_IN> wrapAfterPeek(Consumer<? super E_IN> action,
+                                          Sink<E_OUT> sink);
+
+        /**
+         * Returns a sink performing this operation and then the
+         * operation of the given downstream stage.
+         */
+        abstract <R> Sink<E_IN> fuseWith(FusibleOp<E_OUT, R> down, Sink<R> sink);
+    }
+
+    /**
+     * The stage of {@link Stream#map}.
+     *
+     * @param <E_IN> type of elements in the upstream source
+     * @param <E_OUT> type of elements in produced by this stage
+     */
+    static final class MapOp<E_IN, E_OUT> extends FusibleOp<E_IN, E_OUT> {
+        final Function<? super E_IN, ? extends E_OUT> mapper;
+
+        MapOp(AbstractPipeline<?, E_IN, ?> upstream,
+              Function<? super E_IN, ? extends E_OUT> mapper) {
+            super(upstream, StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.mapper = mapper;
+        }
+
+        @Override
+        Sink<E_IN> wrap(Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_IN, E_OUT>(sink) {
+                @Override
+                public void accept(E_IN u) {
+                    downstream.accept(mapper.apply(u));
+                }
+            };
+        }
+
+        @Override
+        <P> Sink<P> wrapAfterMap(Function<? super P, ? extends E_IN> before,
+                                 Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<P, E_OUT>(sink) {
+                @Override
+                public void accept(P u) {
+                    downstream.accept(mapper.apply(before.apply(u)));
+                }
+            };
+        }
+
+        @Override
+        Sink<E_IN> wrapAfterFilter(Predicate<? super E_IN> predicate,
+                                   Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_IN, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(E_IN u) {
+                    if (predicate.test(u))
+                        downstream.accept(mapper.apply(u));
+                }
+            };
+        }
+
+        @Override
+        Sink<E_IN> wrapAfterPeek(Consumer<? super E_IN> action,
+                                 Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_IN, E_OUT>(sink) {
+                @Override
+                public void accept(E_IN u) {
+                    action.accept(u);
+                    downstream.accept(mapper.apply(u));
+                }
+            };
+        }
+
+        @Override
+        <R> Sink<E_IN> fuseWith(FusibleOp<E_OUT, R> down, Sink<R> sink) {
+            return down.wrapAfterMap(mapper, sink);
+        }
+    }
+
+    /**
+     * The stage of {@link Stream#filter}.
+     *
+     * @param <E_OUT> type of elements in the upstream source and
+     *        produced by this stage
+     */
+    static final class FilterOp<E_OUT> extends FusibleOp<E_OUT, E_OUT> {
+        final Predicate<? super E_OUT> predicate;
+
+        FilterOp(AbstractPipeline<?, E_OUT, ?> upstream,
+                 Predicate<? super E_OUT> predicate) {
+            super(upstream, StreamOpFlag.NOT_SIZED);
+            this.predicate = predicate;
+        }
+
+        @Override
+        Sink<E_OUT> wrap(Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(E_OUT u) {
+                    if (predicate.test(u))
+                        downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        <P> Sink<P> wrapAfterMap(Function<? super P, ? extends E_OUT> mapper,
+                                 Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<P, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(P u) {
+                    E_OUT t = mapper.apply(u);
+                    if (predicate.test(t))
+                        downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<E_OUT> wrapAfterFilter(Predicate<? super E_OUT> before,
+                                    Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(E_OUT u) {
+                    if (before.test(u) && predicate.test(u))
+                        downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        Sink<E_OUT> wrapAfterPeek(Consumer<? super E_OUT> action,
+                                  Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(E_OUT u) {
+                    action.accept(u);
+                    if (predicate.test(u))
+                        downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        <R> Sink<E_OUT> fuseWith(FusibleOp<E_OUT, R> down, Sink<R> sink) {
+            return down.wrapAfterFilter(predicate, sink);
+        }
+    }
+
+    /**
+     * The stage of {@link Stream#peek}.
+     *
+     * @param <E_OUT> type of elements in the upstream source and
+     *        produced by this stage
+     */
+    static final class PeekOp<E_OUT> extends FusibleOp<E_OUT, E_OUT> {
+        final Consumer<? super E_OUT> action;
+
+        PeekOp(AbstractPipeline<?, E_OUT, ?> upstream,
+               Consumer<? super E_OUT> action) {
+            super(upstream, 0);
+            this.action = action;
+        }
+
+        @Override
+        Sink<E_OUT> wrap(Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void accept(E_OUT u) {
+                    action.accept(u);
+                    downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        <P> Sink<P> wrapAfterMap(Function<? super P, ? extends E_OUT> mapper,
+                                 Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<P, E_OUT>(sink) {
+                @Override
+                public void accept(P u) {
+                    E_OUT t = mapper.apply(u);
+                    action.accept(t);
+                    downstream.accept(t);
+                }
+            };
+        }
+
+        @Override
+        Sink<E_OUT> wrapAfterFilter(Predicate<? super E_OUT> predicate,
+                                    Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(E_OUT u) {
+                    if (predicate.test(u)) {
+                        action.accept(u);
+                        downstream.accept(u);
+                    }
+                }
+            };
+        }
+
+        @Override
+        Sink<E_OUT> wrapAfterPeek(Consumer<? super E_OUT> before,
+                                  Sink<E_OUT> sink) {
+            return new Sink.ChainedReference<E_OUT, E_OUT>(sink) {
+                @Override
+                public void accept(E_OUT u) {
+                    before.accept(u);
+                    action.accept(u);
+                    downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        <R> Sink<E_OUT> fuseWith(FusibleOp<E_OUT, R> down, Sink<R> sink) {
+            return down.wrapAfterPeek(action, sink);
+        }
+    }
+
     /**
      * Base class for a stateful intermediate stage of a Stream.
      *
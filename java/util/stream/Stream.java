@@ -354,6 +354,13 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      * switching to sequential execution with {@link #sequential()} may improve
      * performance.
      *
+     * @implNote
+     * In sequential pipelines this implementation holds at most the number of
+     * elements given by the system property
+     * {@code java.util.stream.spillThreshold}, if it is set, in memory, and
+     * spills the remaining elements to temporary files.  The elements must
+     * then be {@link java.io.Serializable}.
+     *
      * @return the new stream
      */
     Stream<T> distinct();
@@ -370,6 +377,13 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      * <p>This is a <a href="package-summary.html#StreamOps">stateful
      * intermediate operation</a>.
      *
+     * @implNote
+     * In sequential pipelines this implementation holds at most the number of
+     * elements given by the system property
+     * {@code java.util.stream.spillThreshold}, if it is set, in memory, and
+     * sorts larger streams by merging sorted runs spilled to temporary files.
+     * The elements must then be {@link java.io.Serializable}.
+     *
      * @return the new stream
      */
     Stream<T> sorted();
@@ -384,6 +398,13 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      * <p>This is a <a href="package-summary.html#StreamOps">stateful
      * intermediate operation</a>.
      *
+     * @implNote
+     * In sequential pipelines this implementation holds at most the number of
+     * elements given by the system property
+     * {@code java.util.stream.spillThreshold}, if it is set, in memory, and
+     * sorts larger streams by merging sorted runs spilled to temporary files.
+     * The elements must then be {@link java.io.Serializable}.
+     *
      * @param comparator a <a href="package-summary.html#NonInterference">non-interfering</a>,
      *                   <a href="package-summary.html#Statelessness">stateless</a>
      *                   {@code Comparator} to be used to compare stream elements
@@ -25,6 +25,12 @@
 
 package sun.misc;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.regex.*;
 
@@ -84,6 +90,8 @@ public class FloatingDecimal{
      * Appends a double precision floating point value to an <code>Appendable</code>.
      * @param d The double precision value.
      * @param buf The <code>Appendable</code> with the value appended.
+     * @throws UncheckedIOException If <code>buf</code> throws an
+     * <code>IOException</code>.
      */
     public static void appendTo(double d, Appendable buf) {
         getBinaryToASCIIConverter(d).appendTo(buf);
@@ -93,11 +101,63 @@ public class FloatingDecimal{
      * Appends a single precision floating point value to an <code>Appendable</code>.
      * @param f The single precision value.
      * @param buf The <code>Appendable</code> with the value appended.
+     * @throws UncheckedIOException If <code>buf</code> throws an
+     * <code>IOException</code>.
      */
     public static void appendTo(float f, Appendable buf) {
         getBinaryToASCIIConverter(f).appendTo(buf);
     }
 
+    /**
+     * Copies the characters of a double precision floating point value's
+     * <code>String</code> form into a char array.
+     * @param d The double precision value.
+     * @param dst The array to receive the characters.
+     * @param off The index of the first character in <code>dst</code>.
+     * @return The index following the last character copied.
+     * @throws IndexOutOfBoundsException If the characters do not fit.
+     */
+    public static int getChars(double d, char[] dst, int off) {
+        return getBinaryToASCIIConverter(d).getChars(dst, off);
+    }
+
+    /**
+     * Copies the characters of a single precision floating point value's
+     * <code>String</code> form into a char array.
+     * @param f The single precision value.
+     * @param dst The array to receive the characters.
+     * @param off The index of the first character in <code>dst</code>.
+     * @return The index following the last character copied.
+     * @throws IndexOutOfBoundsException If the characters do not fit.
+     */
+    public static int getChars(float f, char[] dst, int off) {
+        return getBinaryToASCIIConverter(f).getChars(dst, off);
+    }
+
+    /**
+     * Puts the ASCII bytes of a double precision floating point value's
+     * <code>String</code> form into a <code>ByteBuffer</code>.
+     * @param d The double precision value.
+     * @param buf The <code>ByteBuffer</code> to receive the bytes.
+     * @throws BufferOverflowException If fewer bytes remain in
+     * <code>buf</code> than are needed; nothing is put in that case.
+     */
+    public static void putTo(double d, ByteBuffer buf) {
+        getBinaryToASCIIConverter(d).putTo(buf);
+    }
+
+    /**
+     * Puts the ASCII bytes of a single precision floating point value's
+     * <code>String</code> form into a <code>ByteBuffer</code>.
+     * @param f The single precision value.
+     * @param buf The <code>ByteBuffer</code> to receive the bytes.
+     * @throws BufferOverflowException If fewer bytes remain in
+     * <code>buf</code> than are needed; nothing is put in that case.
+     */
+    public static void putTo(float f, ByteBuffer buf) {
+        getBinaryToASCIIConverter(f).putTo(buf);
+    }
+
     /**
      * Converts a <code>String</code> to a double precision floating point value.
      *
@@ -107,7 +167,26 @@ public class FloatingDecimal{
      * represent a properly formatted double precision value.
      */
     public static double parseDouble(String s) throws NumberFormatException {
-        return readJavaFormatString(s).doubleValue();
+        return readJavaFormatString(s, 0, s.length()).doubleValue();
+    }
+
+    /**
+     * Converts a range of a <code>CharSequence</code> to a double precision
+     * floating point value, as <code>parseDouble(String)</code> converts the
+     * corresponding substring.
+     *
+     * @param s The <code>CharSequence</code> to convert.
+     * @param start The index of the first character to convert.
+     * @param end The index following the last character to convert.
+     * @return The double precision value.
+     * @throws IndexOutOfBoundsException If the range is not within
+     * <code>s</code>.
+     * @throws NumberFormatException If the range does not
+     * represent a properly formatted double precision value.
+     */
+    public static double parseDouble(CharSequence s, int start, int end) throws NumberFormatException {
+        checkRange(s, start, end);
+        return readJavaFormatString(s, start, end).doubleValue();
     }
 
     /**
@@ -119,7 +198,33 @@ public class FloatingDecimal{
      * represent a properly formatted single precision value.
      */
     public static float parseFloat(String s) throws NumberFormatException {
-        return readJavaFormatString(s).floatValue();
+        return readJavaFormatString(s, 0, s.length()).floatValue();
+    }
+
+    /**
+     * Converts a range of a <code>CharSequence</code> to a single precision
+     * floating point value, as <code>parseFloat(String)</code> converts the
+     * corresponding substring.
+     *
+     * @param s The <code>CharSequence</code> to convert.
+     * @param start The index of the first character to convert.
+     * @param end The index following the last character to convert.
+     * @return The single precision value.
+     * @throws IndexOutOfBoundsException If the range is not within
+     * <code>s</code>.
+     * @throws NumberFormatException If the range does not
+     * represent a properly formatted single precision value.
+     */
+    public static float parseFloat(CharSequence s, int start, int end) throws NumberFormatException {
+        checkRange(s, start, end);
+        return readJavaFormatString(s, start, end).floatValue();
+    }
+
+    private static void checkRange(CharSequence s, int start, int end) {
+        if (start < 0 || start > end || end > s.length()) {
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + s.length());
+        }
     }
 
     /**
@@ -139,6 +244,22 @@ public class FloatingDecimal{
          */
         public void appendTo(Appendable buf);
 
+        /**
+         * Copies the characters of the value's <code>String</code> form into
+         * a char array.
+         * @param dst The array to receive the characters.
+         * @param off The index of the first character in <code>dst</code>.
+         * @return The index following the last character copied.
+         */
+        public int getChars(char[] dst, int off);
+
+        /**
+         * Puts the ASCII bytes of the value's <code>String</code> form into
+         * a <code>ByteBuffer</code>.
+         * @param buf The <code>ByteBuffer</code> to receive the bytes.
+         */
+        public void putTo(ByteBuffer buf);
+
         /**
          * Retrieves the decimal exponent most closely corresponding to this value.
          * @return The decimal exponent.
@@ -207,7 +328,29 @@ public class FloatingDecimal{
             } else if (buf instanceof StringBuffer) {
                 ((StringBuffer) buf).append(image);
             } else {
-                assert false;
+                try {
+                    buf.append(image);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public int getChars(char[] dst, int off) {
+            int len = image.length();
+            image.getChars(0, len, dst, off);
+            return off + len;
+        }
+
+        @Override
+        public void putTo(ByteBuffer buf) {
+            int len = image.length();
+            if (buf.remaining() < len) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < len; i++) {
+                buf.put((byte) image.charAt(i));
             }
         }
 
@@ -310,7 +453,37 @@ public class FloatingDecimal{
             } else if (buf instanceof StringBuffer) {
                 ((StringBuffer) buf).append(buffer, 0, len);
             } else {
-                assert false;
+                try {
+                    if (buf instanceof Writer) {
+                        ((Writer) buf).write(buffer, 0, len);
+                    } else if (buf instanceof CharBuffer) {
+                        ((CharBuffer) buf).put(buffer, 0, len);
+                    } else {
+                        for (int i = 0; i < len; i++) {
+                            buf.append(buffer[i]);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public int getChars(char[] dst, int off) {
+            int len = getChars(buffer);
+            System.arraycopy(buffer, 0, dst, off, len);
+            return off + len;
+        }
+
+        @Override
+        public void putTo(ByteBuffer buf) {
+            int len = getChars(buffer);
+            if (buf.remaining() < len) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < len; i++) {
+                buf.put((byte) buffer[i]);
             }
         }
 
@@ -1827,7 +2000,7 @@ public class FloatingDecimal{
     }
 
     @SuppressWarnings("fallthrough")
-    static ASCIIToBinaryConverter readJavaFormatString( String in ) throws NumberFormatException {
+    static ASCIIToBinaryConverter readJavaFormatString( CharSequence in, int start, int end ) throws NumberFormatException {
         boolean isNegative = false;
         boolean signSeen   = false;
         int     decExp;
@@ -1835,13 +2008,18 @@ public class FloatingDecimal{
 
     parseNumber:
         try{
-            in = in.trim(); // don't fool around with white space.
-                            // throws NullPointerException if null
-            int len = in.length();
-            if ( len == 0 ) {
+            // don't fool around with white space.
+            while (start < end && in.charAt(start) <= ' ') {
+                start++;
+            }
+            while (start < end && in.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            int len = end;
+            if ( start == len ) {
                 throw new NumberFormatException("empty String");
             }
-            int i = 0;
+            int i = start;
             switch (in.charAt(i)){
             case '-':
                 isNegative = true;
@@ -1850,15 +2028,18 @@ public class FloatingDecimal{
                 i++;
                 signSeen = true;
             }
+            if ( i == len ) {
+                break parseNumber; // lone sign
+            }
             c = in.charAt(i);
             if(c == 'N') { // Check for NaN
-                if((len-i)==NAN_LENGTH && in.indexOf(NAN_REP,i)==i) {
+                if((len-i)==NAN_LENGTH && regionMatches(in, i, NAN_REP)) {
                     return A2BC_NOT_A_NUMBER;
                 }
                 // something went wrong, throw exception
                 break parseNumber;
             } else if(c == 'I') { // Check for Infinity strings
-                if((len-i)==INFINITY_LENGTH && in.indexOf(INFINITY_REP,i)==i) {
+                if((len-i)==INFINITY_LENGTH && regionMatches(in, i, INFINITY_REP)) {
                     return isNegative? A2BC_NEGATIVE_INFINITY : A2BC_POSITIVE_INFINITY;
                 }
                 // something went wrong, throw exception
@@ -1867,12 +2048,12 @@ public class FloatingDecimal{
                 if (len > i+1 ) {
                     char ch = in.charAt(i+1);
                     if (ch == 'x' || ch == 'X' ) { // possible hex string
-                        return parseHexString(in);
+                        return parseHexString(in.subSequence(start, len).toString());
                     }
                 }
             }  // look for and process decimal floating-point string
 
-            char[] digits = new char[ len ];
+            char[] digits = new char[ len - i ];
             int    nDigits= 0;
             boolean decSeen = false;
             int decPt = 0;
@@ -1889,7 +2070,7 @@ public class FloatingDecimal{
                         // already saw one ., this is the 2nd.
                         throw new NumberFormatException("multiple points");
                     }
-                    decPt = i;
+                    decPt = i - start;
                     if (signSeen) {
                         decPt -= 1;
                     }
@@ -1913,7 +2094,7 @@ public class FloatingDecimal{
                         // already saw one ., this is the 2nd.
                         throw new NumberFormatException("multiple points");
                     }
-                    decPt = i;
+                    decPt = i - start;
                     if (signSeen) {
                         decPt -= 1;
                     }
@@ -1969,7 +2150,10 @@ public class FloatingDecimal{
                 int expVal  = 0;
                 int reallyBig = Integer.MAX_VALUE / 10;
                 boolean expOverflow = false;
-                switch( in.charAt(++i) ){
+                if ( ++i == len ) {
+                    break parseNumber; // no exponent at all
+                }
+                switch( in.charAt(i) ){
                 case '-':
                     expSign = -1;
                     //FALLTHROUGH
@@ -2040,7 +2224,16 @@ public class FloatingDecimal{
             }
             return new ASCIIToBinaryBuffer(isNegative, decExp, digits, nDigits);
         } catch ( StringIndexOutOfBoundsException e ){ }
-        throw new NumberFormatException("For input string: \"" + in + "\"");
+        throw new NumberFormatException("For input string: \"" + in.subSequence(start, end) + "\"");
+    }
+
+    private static boolean regionMatches(CharSequence in, int i, String s) {
+        for (int j = 0; j < s.length(); j++) {
+            if (in.charAt(i + j) != s.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static class HexFloatPattern {
@@ -30,6 +30,7 @@ import java.io.*;
 import java.nio.channels.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import javax.net.ssl.*;
@@ -349,63 +350,11 @@ class ServerImpl implements TimeSource {
                     }
                     connsToRegister.clear();
 
-                    selector.select(1000);
-
-                    /* process the selected list now  */
-                    Set<SelectionKey> selected = selector.selectedKeys();
-                    Iterator<SelectionKey> iter = selected.iterator();
-                    while (iter.hasNext()) {
-                        SelectionKey key = iter.next();
-                        iter.remove ();
-                        if (key.equals (listenerKey)) {
-                            if (terminating) {
-                                continue;
-                            }
-                            SocketChannel chan = schan.accept();
-
-                            // Set TCP_NODELAY, if appropriate
-                            if (ServerConfig.noDelay()) {
-                                chan.socket().setTcpNoDelay(true);
-                            }
-
-                            if (chan == null) {
-                                continue; /* cancel something ? */
-                            }
-                            chan.configureBlocking (false);
-                            SelectionKey newkey = chan.register (selector, SelectionKey.OP_READ);
-                            HttpConnection c = new HttpConnection ();
-                            c.selectionKey = newkey;
-                            c.setChannel (chan);
-                            newkey.attach (c);
-                            requestStarted (c);
-                            allConnections.add (c);
-                        } else {
-                            try {
-                                if (key.isReadable()) {
-                                    boolean closed;
-                                    SocketChannel chan = (SocketChannel)key.channel();
-                                    HttpConnection conn = (HttpConnection)key.attachment();
-
-                                    key.cancel();
-                                    chan.configureBlocking (true);
-                                    if (idleConnections.remove(conn)) {
-                                        // was an idle connection so add it
-                                        // to reqConnections set.
-                                        requestStarted (conn);
-                                    }
-                                    handle (chan, conn);
-                                } else {
-                                    assert false;
-                                }
-                            } catch (CancelledKeyException e) {
-                                handleException(key, null);
-                            } catch (IOException e) {
-                                handleException(key, e);
-                            }
-                        }
-                    }
+                    /* handle the ready keys as they are selected */
+                    selector.select(keyHandler, 1000);
+
                     // call the selector just to process the cancelled keys
-                    selector.selectNow();
+                    selector.selectNow(keyHandler);
                 } catch (IOException e) {
                     logger.log (Level.FINER, "Dispatcher (4)", e);
                 } catch (Exception e) {
@@ -415,6 +364,62 @@ class ServerImpl implements TimeSource {
             try {selector.close(); } catch (Exception e) {}
         }
 
+        private final Consumer<SelectionKey> keyHandler = this::handleKey;
+
+        /* handles a key selected by the selector */
+        private void handleKey (SelectionKey key) {
+            if (key.equals (listenerKey)) {
+                if (terminating) {
+                    return;
+                }
+                try {
+                    SocketChannel chan = schan.accept();
+
+                    // Set TCP_NODELAY, if appropriate
+                    if (ServerConfig.noDelay()) {
+                        chan.socket().setTcpNoDelay(true);
+                    }
+
+                    if (chan == null) {
+                        return; /* cancel something ? */
+                    }
+                    chan.configureBlocking (false);
+                    SelectionKey newkey = chan.register (selector, SelectionKey.OP_READ);
+                    HttpConnection c = new HttpConnection ();
+                    c.selectionKey = newkey;
+                    c.setChannel (chan);
+                    newkey.attach (c);
+                    requestStarted (c);
+                    allConnections.add (c);
+                } catch (IOException e) {
+                    logger.log (Level.FINER, "Dispatcher (4)", e);
+                }
+            } else {
+                try {
+                    if (key.isReadable()) {
+                        boolean closed;
+                        SocketChannel chan = (SocketChannel)key.channel();
+                        HttpConnection conn = (HttpConnection)key.attachment();
+
+                        key.cancel();
+                        chan.configureBlocking (true);
+                        if (idleConnections.remove(conn)) {
+                            // was an idle connection so add it
+                            // to reqConnections set.
+                            requestStarted (conn);
+                        }
+                        handle (chan, conn);
+                    } else {
+                        assert false;
+                    }
+                } catch (CancelledKeyException e) {
+                    handleException(key, null);
+                } catch (IOException e) {
+                    handleException(key, e);
+                }
+            }
+        }
+
         private void handleException (SelectionKey key, Exception e) {
             HttpConnection conn = (HttpConnection)key.attachment();
             if (e != null) {
@@ -111,7 +111,8 @@ abstract class AbstractPollSelectorImpl
     /**
      * Copy the information in the pollfd structs into the opss
      * of the corresponding Channels. Add the ready keys to the
-     * ready queue.
+     * ready queue, or pass them to the action of the selection
+     * operation.
      */
     protected int updateSelectedKeys() {
         int numKeysUpdated = 0;
@@ -121,17 +122,7 @@ abstract class AbstractPollSelectorImpl
             if (rOps != 0) {
                 SelectionKeyImpl sk = channelArray[i];
                 pollWrapper.putReventOps(i, 0);
-                if (selectedKeys.contains(sk)) {
-                    if (sk.channel.translateAndSetReadyOps(rOps, sk)) {
-                        numKeysUpdated++;
-                    }
-                } else {
-                    sk.channel.translateAndSetReadyOps(rOps, sk);
-                    if ((sk.nioReadyOps() & sk.nioInterestOps()) != 0) {
-                        selectedKeys.add(sk);
-                        numKeysUpdated++;
-                    }
-                }
+                numKeysUpdated += processReadyEvents(rOps, sk);
             }
         }
         return numKeysUpdated;
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.nio.channels.spi.*;
+import java.util.*;
+
+
+/**
+ * An implementation of Selector for Linux 2.6+ kernels that uses
+ * the epoll event notification facility.
+ *
+ * <p> A selection operation costs time in proportion to the number of
+ * channels that are ready, not to the number registered.  The keys are
+ * found from the file descriptors that epoll_wait(2) reports through an
+ * array indexed by file descriptor, and the selected keys are kept in a
+ * {@link SelectedKeySet}, so that neither allocates per key or per
+ * operation once the arrays have grown.
+ *
+ * <p> When edge-triggered, a channel is only reported once each time it
+ * becomes ready.  A key whose channel is not read or written until it
+ * would block is not selected again until more input arrives or more
+ * output space frees up, even if it is removed from the selected-key set.
+ */
+class EPollSelectorImpl
+    extends SelectorImpl
+{
+
+    // File descriptors used for interrupt
+    protected int fd0;
+    protected int fd1;
+
+    // The poll object
+    EPollArrayWrapper pollWrapper;
+
+    // Maps from file descriptors to keys, grown as needed
+    private SelectionKeyImpl[] fdToKey = new SelectionKeyImpl[64];
+
+    // True if this Selector has been closed
+    private volatile boolean closed = false;
+
+    // Lock for interrupt triggering and clearing
+    private final Object interruptLock = new Object();
+    private boolean interruptTriggered = false;
+
+    /**
+     * Package private constructor called by factory method in
+     * the abstract superclass Selector.
+     */
+    EPollSelectorImpl(SelectorProvider sp, boolean edgeTriggered)
+        throws IOException
+    {
+        super(sp, new SelectedKeySet());
+        long pipeFds = IOUtil.makePipe(false);
+        fd0 = (int) (pipeFds >>> 32);
+        fd1 = (int) pipeFds;
+        try {
+            pollWrapper = new EPollArrayWrapper(edgeTriggered);
+            pollWrapper.initInterrupt(fd0, fd1);
+        } catch (Throwable t) {
+            try {
+                FileDispatcherImpl.closeIntFD(fd0);
+            } catch (IOException ioe0) {
+                t.addSuppressed(ioe0);
+            }
+            try {
+                FileDispatcherImpl.closeIntFD(fd1);
+            } catch (IOException ioe1) {
+                t.addSuppressed(ioe1);
+            }
+            throw t;
+        }
+    }
+
+    protected int doSelect(long timeout) throws IOException {
+        if (closed)
+            throw new ClosedSelectorException();
+        processDeregisterQueue();
+        try {
+            begin();
+            pollWrapper.poll(timeout);
+        } finally {
+            end();
+        }
+        processDeregisterQueue();
+        // Clear the wakeup pipe before any action is performed on the keys,
+        // so that a wakeup from an action is not lost
+        if (pollWrapper.interrupted()) {
+            pollWrapper.putEventOps(pollWrapper.interruptedIndex(), 0);
+            synchronized (interruptLock) {
+                pollWrapper.clearInterrupted();
+                IOUtil.drain(fd0);
+                interruptTriggered = false;
+            }
+        }
+        return updateSelectedKeys();
+    }
+
+    /**
+     * Update the keys whose fd's have been selected by the epoll.
+     * Add the ready keys to the ready queue, or pass them to the
+     * action of the selection operation.
+     */
+    private int updateSelectedKeys() {
+        int entries = pollWrapper.updated;
+        int numKeysUpdated = 0;
+        for (int i=0; i<entries; i++) {
+            SelectionKeyImpl ski = keyFor(pollWrapper.getDescriptor(i));
+            // ski is null in the case of an interrupt
+            if (ski != null) {
+                int rOps = pollWrapper.getEventOps(i);
+                numKeysUpdated += processReadyEvents(rOps, ski);
+            }
+        }
+        return numKeysUpdated;
+    }
+
+    private SelectionKeyImpl keyFor(int fd) {
+        return (fd < fdToKey.length) ? fdToKey[fd] : null;
+    }
+
+    protected void implClose() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+
+        // prevent further wakeup
+        synchronized (interruptLock) {
+            interruptTriggered = true;
+        }
+
+        FileDispatcherImpl.closeIntFD(fd0);
+        FileDispatcherImpl.closeIntFD(fd1);
+
+        pollWrapper.closeEPollFD();
+        // it is possible
+        selectedKeys = null;
+
+        // Deregister channels
+        Iterator<SelectionKey> i = keys.iterator();
+        while (i.hasNext()) {
+            SelectionKeyImpl ski = (SelectionKeyImpl)i.next();
+            deregister(ski);
+            SelectableChannel selch = ski.channel();
+            if (!selch.isOpen() && !selch.isRegistered())
+                ((SelChImpl)selch).kill();
+            i.remove();
+        }
+        fdToKey = null;
+
+        fd0 = -1;
+        fd1 = -1;
+    }
+
+    protected void implRegister(SelectionKeyImpl ski) {
+        if (closed)
+            throw new ClosedSelectorException();
+        SelChImpl ch = ski.channel;
+        int fd = ch.getFDVal();
+        if (fd >= fdToKey.length)
+            fdToKey = Arrays.copyOf(fdToKey,
+                                    Math.max(fd + 1, fdToKey.length << 1));
+        fdToKey[fd] = ski;
+        pollWrapper.add(fd);
+        keys.add(ski);
+    }
+
+    protected void implDereg(SelectionKeyImpl ski) throws IOException {
+        assert (ski.getIndex() >= 0);
+        SelChImpl ch = ski.channel;
+        int fd = ch.getFDVal();
+        fdToKey[fd] = null;
+        pollWrapper.remove(fd);
+        ski.setIndex(-1);
+        keys.remove(ski);
+        selectedKeys.remove(ski);
+        deregister((AbstractSelectionKey)ski);
+        SelectableChannel selch = ski.channel();
+        if (!selch.isOpen() && !selch.isRegistered())
+            ((SelChImpl)selch).kill();
+    }
+
+    public void putEventOps(SelectionKeyImpl ski, int ops) {
+        if (closed)
+            throw new ClosedSelectorException();
+        SelChImpl ch = ski.channel;
+        pollWrapper.setInterest(ch.getFDVal(), ops);
+    }
+
+    public Selector wakeup() {
+        synchronized (interruptLock) {
+            if (!interruptTriggered) {
+                pollWrapper.interrupt();
+                interruptTriggered = true;
+            }
+        }
+        return this;
+    }
+}
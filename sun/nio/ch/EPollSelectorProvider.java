@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.nio.channels.spi.*;
+import java.security.AccessController;
+import sun.security.action.GetBooleanAction;
+
+/**
+ * A selector provider for Linux that opens epoll based selectors.  The
+ * selectors register channels edge-triggered if the provider is created
+ * so, or by default if the system property
+ * {@code sun.nio.ch.epoll.edgeTriggered} is {@code true}.
+ */
+public class EPollSelectorProvider
+    extends SelectorProviderImpl
+{
+    private final boolean edgeTriggered;
+
+    public EPollSelectorProvider() {
+        this(AccessController.doPrivileged(
+            new GetBooleanAction("sun.nio.ch.epoll.edgeTriggered")));
+    }
+
+    public EPollSelectorProvider(boolean edgeTriggered) {
+        this.edgeTriggered = edgeTriggered;
+    }
+
+    public AbstractSelector openSelector() throws IOException {
+        return new EPollSelectorImpl(this, edgeTriggered);
+    }
+
+    public Channel inheritedChannel() throws IOException {
+        return InheritedChannel.getChannel();
+    }
+}
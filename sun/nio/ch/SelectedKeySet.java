@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.nio.channels.SelectionKey;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A set of selected keys held in an array that is kept from one selection
+ * operation to the next.  Each key records its index in the array, so
+ * that testing for and removing a key take constant time, without hashing
+ * and without allocating an entry for each key added.  Removing a key
+ * moves the last key of the array into its place.
+ *
+ * <p> A key may only be in the selected-key set of its own selector.
+ */
+
+class SelectedKeySet
+    extends AbstractSet<SelectionKey>
+{
+
+    // Initial capacity of the key array
+    private static final int INIT_CAP = 32;
+
+    // The selected keys, in elements 0 to size - 1
+    private SelectionKeyImpl[] keys = new SelectionKeyImpl[INIT_CAP];
+
+    // The number of selected keys
+    private int size;
+
+    // Count of structural changes, for fail-fast iteration
+    private int modCount;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Object o) {
+        if (!(o instanceof SelectionKeyImpl))
+            return false;
+        int i = ((SelectionKeyImpl)o).getSelectedIndex();
+        return i >= 0 && i < size && keys[i] == o;
+    }
+
+    public boolean add(SelectionKey k) {
+        SelectionKeyImpl ski = (SelectionKeyImpl)k;
+        if (contains(ski))
+            return false;
+        if (size == keys.length)
+            keys = Arrays.copyOf(keys, size << 1);
+        ski.setSelectedIndex(size);
+        keys[size++] = ski;
+        modCount++;
+        return true;
+    }
+
+    public boolean remove(Object o) {
+        if (!contains(o))
+            return false;
+        removeAt(((SelectionKeyImpl)o).getSelectedIndex());
+        return true;
+    }
+
+    private void removeAt(int i) {
+        SelectionKeyImpl ski = keys[i];
+        int last = --size;
+        if (i != last) {
+            keys[i] = keys[last];
+            keys[i].setSelectedIndex(i);
+        }
+        keys[last] = null;
+        ski.setSelectedIndex(-1);
+        modCount++;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[i].setSelectedIndex(-1);
+            keys[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+            private int cursor;
+            private int lastRet = -1;
+            private int expectedModCount = modCount;
+
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            public SelectionKey next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (cursor >= size)
+                    throw new NoSuchElementException();
+                lastRet = cursor;
+                return keys[cursor++];
+            }
+
+            public void remove() {
+                if (lastRet < 0)
+                    throw new IllegalStateException();
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                removeAt(lastRet);
+                // The last key, not yet returned, has moved to lastRet
+                cursor = lastRet;
+                lastRet = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+}
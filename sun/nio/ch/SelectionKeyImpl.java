@@ -44,6 +44,9 @@ public class SelectionKeyImpl
     // Index for a pollfd array in Selector that this key is registered with
     private int index;
 
+    // Index in the selector's SelectedKeySet, or -1 if not in one
+    private int selectedIndex = -1;
+
     private volatile int interestOps;
     private int readyOps;
 
@@ -68,6 +71,14 @@ public class SelectionKeyImpl
         index = i;
     }
 
+    int getSelectedIndex() {                            // package-private
+        return selectedIndex;
+    }
+
+    void setSelectedIndex(int i) {                      // package-private
+        selectedIndex = i;
+    }
+
     private void ensureValid() {
         if (!isValid())
             throw new CancelledKeyException();
@@ -30,6 +30,7 @@ import java.nio.channels.*;
 import java.nio.channels.spi.*;
 import java.net.SocketException;
 import java.util.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -50,10 +51,27 @@ public abstract class SelectorImpl
     private Set<SelectionKey> publicKeys;             // Immutable
     private Set<SelectionKey> publicSelectedKeys;     // Removal allowed, but not addition
 
+    // The action of the selection operation in progress, or null if the
+    // operation adds the ready keys to the selected-key set
+    private Consumer<SelectionKey> action;
+
+    // True while a selection operation is in progress, protected by this
+    private boolean inSelect;
+
     protected SelectorImpl(SelectorProvider sp) {
+        this(sp, new HashSet<SelectionKey>());
+    }
+
+    /**
+     * Creates a selector that keeps its selected keys in the given set,
+     * which must be empty.
+     */
+    protected SelectorImpl(SelectorProvider sp,
+                           Set<SelectionKey> selectedKeys)
+    {
         super(sp);
         keys = new HashSet<SelectionKey>();
-        selectedKeys = new HashSet<SelectionKey>();
+        this.selectedKeys = selectedKeys;
         if (Util.atBugLevel("1.4")) {
             publicKeys = keys;
             publicSelectedKeys = selectedKeys;
@@ -77,14 +95,31 @@ public abstract class SelectorImpl
 
     protected abstract int doSelect(long timeout) throws IOException;
 
-    private int lockAndDoSelect(long timeout) throws IOException {
+    private int lockAndDoSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
         synchronized (this) {
             if (!isOpen())
                 throw new ClosedSelectorException();
-            synchronized (publicKeys) {
-                synchronized (publicSelectedKeys) {
-                    return doSelect(timeout);
+            // Only an action of this thread's selection operation can get
+            // here while one is in progress, and a nested operation would
+            // overwrite the poll results the outer one is still reading
+            if (inSelect)
+                throw new IllegalStateException("select in progress");
+            inSelect = true;
+            try {
+                synchronized (publicKeys) {
+                    synchronized (publicSelectedKeys) {
+                        this.action = action;
+                        try {
+                            return doSelect(timeout);
+                        } finally {
+                            this.action = null;
+                        }
+                    }
                 }
+            } finally {
+                inSelect = false;
             }
         }
     }
@@ -94,7 +129,7 @@ public abstract class SelectorImpl
     {
         if (timeout < 0)
             throw new IllegalArgumentException("Negative timeout");
-        return lockAndDoSelect((timeout == 0) ? -1 : timeout);
+        return lockAndDoSelect(null, (timeout == 0) ? -1 : timeout);
     }
 
     public int select() throws IOException {
@@ -102,7 +137,56 @@ public abstract class SelectorImpl
     }
 
     public int selectNow() throws IOException {
-        return lockAndDoSelect(0);
+        return lockAndDoSelect(null, 0);
+    }
+
+    public int select(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        Objects.requireNonNull(action);
+        if (timeout < 0)
+            throw new IllegalArgumentException("Negative timeout");
+        return lockAndDoSelect(action, (timeout == 0) ? -1 : timeout);
+    }
+
+    public int select(Consumer<SelectionKey> action) throws IOException {
+        return select(action, 0);
+    }
+
+    public int selectNow(Consumer<SelectionKey> action) throws IOException {
+        Objects.requireNonNull(action);
+        return lockAndDoSelect(action, 0);
+    }
+
+    /**
+     * Sets the ready-operation set of a key whose channel was found ready
+     * for the given operations, and passes the key to the action of the
+     * selection operation in progress, or, if there is none, adds it to
+     * the selected-key set.  Returns 1 if the key was passed to the action,
+     * added to the set or, being already in the set, had operations added
+     * to its ready-operation set, and 0 otherwise.
+     */
+    protected final int processReadyEvents(int rOps, SelectionKeyImpl ski) {
+        // Precondition: Synchronized on this, keys, and selectedKeys
+        if (action != null) {
+            ski.channel.translateAndSetReadyOps(rOps, ski);
+            if ((ski.nioReadyOps() & ski.nioInterestOps()) != 0) {
+                action.accept(ski);
+                if (!isOpen())
+                    throw new ClosedSelectorException();
+                return 1;
+            }
+        } else if (selectedKeys.contains(ski)) {
+            if (ski.channel.translateAndSetReadyOps(rOps, ski))
+                return 1;
+        } else {
+            ski.channel.translateAndSetReadyOps(rOps, ski);
+            if ((ski.nioReadyOps() & ski.nioInterestOps()) != 0) {
+                selectedKeys.add(ski);
+                return 1;
+            }
+        }
+        return 0;
     }
 
     public void implCloseSelector() throws IOException {
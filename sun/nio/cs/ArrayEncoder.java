@@ -32,4 +32,13 @@ package sun.nio.cs;
 
 public interface ArrayEncoder {
     int encode(char[] src, int off, int len, byte[] dst);
+
+    /*
+     * Returns the number of bytes encode writes for the given chars, or
+     * -1 if that is not known without encoding them.  Callers use it to
+     * size the destination exactly instead of by maxBytesPerChar.
+     */
+    default int encodedLength(char[] src, int off, int len) {
+        return -1;
+    }
 }
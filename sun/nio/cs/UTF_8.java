@@ -731,5 +731,36 @@ class UTF_8 extends Unicode
             }
             return dp;
         }
+
+        // counts the bytes encode(char[], int, int, byte[]) writes, with
+        // one replacement byte for each malformed surrogate
+        public int encodedLength(char[] sa, int sp, int len) {
+            int sl = sp + len;
+            int n = len;
+
+            // ASCII only optimized loop
+            while (sp < sl && sa[sp] < '\u0080')
+                sp++;
+
+            while (sp < sl) {
+                char c = sa[sp++];
+                if (c < 0x80) {
+                    // 1 byte
+                } else if (c < 0x800) {
+                    n += 1;
+                } else if (Character.isSurrogate(c)) {
+                    // a valid pair is 4 bytes for 2 chars, anything else
+                    // is replaced by a single byte
+                    if (Character.isHighSurrogate(c) && sp < sl
+                        && Character.isLowSurrogate(sa[sp])) {
+                        n += 2;
+                        sp++;
+                    }
+                } else {
+                    n += 2;
+                }
+            }
+            return n;
+        }
     }
 }
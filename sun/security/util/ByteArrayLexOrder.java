@@ -26,6 +26,7 @@
 
 package sun.security.util;
 
+import java.util.Arrays;
 import java.util.Comparator;
 
 /**
@@ -51,16 +52,7 @@ public class ByteArrayLexOrder implements Comparator<byte[]> {
      * if either argument is not a byte array.
      */
     public final int compare( byte[] bytes1, byte[] bytes2) {
-        int diff;
-        for (int i = 0; i < bytes1.length && i < bytes2.length; i++) {
-            diff = (bytes1[i] & 0xFF) - (bytes2[i] & 0xFF);
-            if (diff != 0) {
-                return diff;
-            }
-        }
-        // if array entries are equal till the first ends, then the
-        // longer is "bigger"
-        return bytes1.length - bytes2.length;
+        return Arrays.compareUnsigned(bytes1, bytes2);
     }
 
 